@@ -0,0 +1,426 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import element.Element;
+import element.ElementMatrixCache;
+
+import matrix.DMat;
+import matrix.Mat;
+import matrix.USB3Mat;
+
+/**
+ * Class for parallel assembly of element matrices into system matrices. If
+ * the storage of system matrix allows parallel scatter, the elements are
+ * processed color by color (see ElementColoring) and the elements of a color
+ * are computed and scattered on a fork-join pool without locking. Otherwise,
+ * the element matrices are computed on the pool in tasks of consecutive
+ * elements, while the calling thread scatters the completed tasks into the
+ * system matrix in element order. The number of tasks in flight is bounded,
+ * so that the memory demand doesn't depend on the number of elements. For
+ * system matrices stored in files (USB3Mat), the elements are scattered
+ * grouped by the column block of their largest dof, and the window of matrix
+ * is enlarged to the blocks spanned by a column during assembly, so that
+ * each block is loaded about once. The throughput of each phase (elements
+ * per second) is stored to the assembly info of structure.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class Assembler {
+
+	/** Static variable for the assembly phase. */
+	public static final int stiffness_ = 0, mass_ = 1, stability_ = 2;
+
+	/** Number of elements per task. */
+	private static final int chunk_ = 32;
+
+	/**
+	 * Assembles element matrices of the given phase into the system matrix.
+	 * Element dofs of -1 are ignored.
+	 * 
+	 * @param structure
+	 *            The structure. Dofs must be enumerated beforehand.
+	 * @param system
+	 *            System matrix.
+	 * @param phase
+	 *            Assembly phase (stiffness, mass or stability).
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 */
+	public static void assemble(Structure structure, final Mat system,
+			int phase, int threads) {
+		run(structure, system, phase, threads, new Scatter() {
+			public void scatter(int index, int[] dof, DMat matrix) {
+				system.add(dof, matrix);
+			}
+		});
+	}
+
+	/**
+	 * Assembles diagonals of element matrices of the given phase into the
+	 * system matrix. This is used for lumped mass matrices. Element dofs of -1
+	 * are ignored.
+	 * 
+	 * @param structure
+	 *            The structure. Dofs must be enumerated beforehand.
+	 * @param system
+	 *            System matrix.
+	 * @param phase
+	 *            Assembly phase (stiffness, mass or stability).
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 */
+	public static void assembleDiagonal(Structure structure, final Mat system,
+			int phase, int threads) {
+		run(structure, system, phase, threads, new Scatter() {
+			public void scatter(int index, int[] dof, DMat matrix) {
+				for (int j = 0; j < dof.length; j++)
+					if (dof[j] != -1)
+						system.add(dof[j], dof[j], matrix.get(j, j));
+			}
+		});
+	}
+
+	/**
+	 * Computes and returns element matrices of the given phase.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param phase
+	 *            Assembly phase (stiffness, mass or stability).
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 * @return Array storing the element matrices in element order.
+	 */
+	public static double[][][] getElementMatrices(Structure structure,
+			int phase, int threads) {
+		final double[][][] matrices = new double[structure
+				.getNumberOfElements()][][];
+		run(structure, phase, threads, false, null, new Scatter() {
+			public void scatter(int index, int[] dof, DMat matrix) {
+				matrices[index] = matrix.get2DArray();
+			}
+		});
+		return matrices;
+	}
+
+	/**
+	 * Computes element matrices in parallel and scatters them into the given
+	 * system matrix.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param system
+	 *            System matrix.
+	 * @param phase
+	 *            Assembly phase (stiffness, mass or stability).
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 * @param scatter
+	 *            Scatter of element matrices.
+	 */
+	private static void run(Structure structure, Mat system, int phase,
+			int threads, Scatter scatter) {
+
+		// matrix stored in memory
+		if (system instanceof USB3Mat == false) {
+			boolean colored = system.isParallelScatterSafe();
+			run(structure, phase, threads, colored, null, scatter);
+			return;
+		}
+
+		// matrix stored in file (window holds the blocks of an element and
+		// the next block)
+		USB3Mat a = (USB3Mat) system;
+		int window = a.getWindow();
+		try {
+			a.setWindow(Math.max(window, a.getColumnSpan() + 1));
+			run(structure, phase, threads, false, getBlockOrder(structure, a),
+					scatter);
+		} finally {
+			a.setWindow(window);
+		}
+	}
+
+	/**
+	 * Returns the elements grouped by the column block of their largest dof.
+	 * Within a block, the elements are kept in element order.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param a
+	 *            System matrix stored in file.
+	 * @return The element indices in scatter order.
+	 */
+	private static int[] getBlockOrder(Structure structure, USB3Mat a) {
+
+		// get block of each element (elements without dofs come first)
+		int ne = structure.getNumberOfElements();
+		int[] blocks = a.getBlocks();
+		int nb = a.getFirstColumns().length - 1;
+		int[] block = new int[ne];
+		int[] count = new int[nb + 2];
+		for (int i = 0; i < ne; i++) {
+			int max = -1;
+			int[] dof = structure.getElement(i).getDofNumbers();
+			for (int j = 0; j < dof.length; j++)
+				max = Math.max(max, dof[j]);
+			block[i] = max == -1 ? 0 : blocks[max] + 1;
+			count[block[i] + 1]++;
+		}
+
+		// sort elements by block
+		for (int b = 0; b < nb + 1; b++)
+			count[b + 1] += count[b];
+		int[] order = new int[ne];
+		for (int i = 0; i < ne; i++)
+			order[count[block[i]]++] = i;
+		return order;
+	}
+
+	/**
+	 * Computes element matrices in parallel and passes them to the given
+	 * scatter.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param phase
+	 *            Assembly phase (stiffness, mass or stability).
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 * @param colored
+	 *            True if the scatter can be called from several threads for
+	 *            elements of the same color. Otherwise, the scatter is called
+	 *            from the calling thread in element order.
+	 * @param order
+	 *            Element indices in scatter order, or null for element order.
+	 *            Ignored if colored.
+	 * @param scatter
+	 *            Scatter of element matrices.
+	 */
+	private static void run(final Structure structure, final int phase,
+			int threads, boolean colored, int[] order, final Scatter scatter) {
+
+		// check phase and get number of threads
+		if (phase < stiffness_ || phase > stability_)
+			exceptionHandler("Illegal assembly phase!");
+		if (threads <= 0)
+			threads = Runtime.getRuntime().availableProcessors();
+
+		// serialize properties modified since the last assembly
+		ElementMatrixCache.updateProperties();
+
+		// set scatter order
+		long start = System.nanoTime();
+		int ne = structure.getNumberOfElements();
+		if (order == null) {
+			order = new int[ne];
+			for (int i = 0; i < ne; i++)
+				order[i] = i;
+		}
+		final int[] elements = order;
+
+		// serial assembly
+		if (threads == 1 || ne <= chunk_) {
+			for (int i = 0; i < ne; i++) {
+				Element e = structure.getElement(elements[i]);
+				scatter.scatter(elements[i], e.getDofNumbers(), compute(e,
+						phase));
+			}
+		}
+
+		// parallel computation and scatter of colors
+		else if (colored) {
+			ElementColoring coloring = ElementColoring.getColoring(structure);
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+
+				// loop over colors
+				for (int c = 0; c < coloring.getNumberOfColors(); c++) {
+
+					// create tasks of the color
+					final int[] color = coloring.getColor(c);
+					Vector<Callable<Object>> tasks;
+					tasks = new Vector<Callable<Object>>();
+					for (int k = 0; k < color.length; k += chunk_) {
+						final int first = k;
+						final int last = Math.min(color.length, k + chunk_);
+						tasks.add(new Callable<Object>() {
+							public Object call() {
+								for (int j = first; j < last; j++) {
+									Element e = structure.getElement(color[j]);
+									scatter.scatter(color[j], e
+											.getDofNumbers(), compute(e,
+											phase));
+								}
+								return null;
+							}
+						});
+					}
+
+					// run tasks
+					List<Future<Object>> results = pool.invokeAll(tasks);
+					for (int j = 0; j < results.size(); j++)
+						results.get(j).get();
+				}
+			}
+
+			// assembly interrupted
+			catch (InterruptedException excep) {
+				Thread.currentThread().interrupt();
+				exceptionHandler("Assembly interrupted!");
+			}
+
+			// element computation failed
+			catch (ExecutionException excep) {
+				rethrow(excep);
+			}
+
+			// release threads
+			finally {
+				pool.shutdownNow();
+			}
+		}
+
+		// parallel computation of element matrices, ordered scatter
+		else {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+
+				// loop until all elements are scattered
+				ArrayDeque<Future<DMat[]>> tasks;
+				tasks = new ArrayDeque<Future<DMat[]>>();
+				int next = 0, done = 0;
+				while (done < ne) {
+
+					// keep tasks in flight
+					while (next < ne && tasks.size() < 2 * threads) {
+						final int first = next;
+						final int last = Math.min(ne, first + chunk_);
+						tasks.add(pool.submit(new Callable<DMat[]>() {
+							public DMat[] call() {
+								DMat[] m = new DMat[last - first];
+								for (int i = first; i < last; i++)
+									m[i - first] = compute(structure
+											.getElement(elements[i]), phase);
+								return m;
+							}
+						}));
+						next = last;
+					}
+
+					// scatter the oldest task
+					DMat[] m = tasks.poll().get();
+					for (int i = 0; i < m.length; i++, done++)
+						scatter.scatter(elements[done], structure.getElement(
+								elements[done]).getDofNumbers(), m[i]);
+				}
+			}
+
+			// assembly interrupted
+			catch (InterruptedException excep) {
+				Thread.currentThread().interrupt();
+				exceptionHandler("Assembly interrupted!");
+			}
+
+			// element computation failed
+			catch (ExecutionException excep) {
+				rethrow(excep);
+			}
+
+			// release threads
+			finally {
+				pool.shutdownNow();
+			}
+		}
+
+		// store throughput
+		double seconds = (System.nanoTime() - start) * 1.0e-9;
+		structure.setAssemblyInfo(phase, seconds > 0.0 ? ne / seconds : 0.0);
+	}
+
+	/**
+	 * Computes and returns element matrix of the given phase in nodal local
+	 * coordinate system.
+	 * 
+	 * @param e
+	 *            Element.
+	 * @param phase
+	 *            Assembly phase (stiffness, mass or stability).
+	 * @return Element matrix.
+	 */
+	private static DMat compute(Element e, int phase) {
+		if (phase == stiffness_)
+			return e.getStiffnessMatrix(Element.local_);
+		else if (phase == mass_)
+			return e.getMassMatrix(Element.local_);
+		return e.getStabilityMatrix(Element.local_);
+	}
+
+	/**
+	 * Rethrows the cause of the given task exception.
+	 * 
+	 * @param excep
+	 *            Exception of task.
+	 */
+	private static void rethrow(ExecutionException excep) {
+		if (excep.getCause() instanceof RuntimeException)
+			throw (RuntimeException) excep.getCause();
+		if (excep.getCause() instanceof Error)
+			throw (Error) excep.getCause();
+		exceptionHandler("Exception occured during assembly!");
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param message
+	 *            The message to be displayed.
+	 */
+	private static void exceptionHandler(String message) {
+		throw new IllegalArgumentException(message);
+	}
+
+	/**
+	 * Interface for scattering element matrices into system matrices.
+	 * 
+	 * @author Murat Artim
+	 * 
+	 */
+	private interface Scatter {
+
+		/**
+		 * Scatters the given element matrix.
+		 * 
+		 * @param index
+		 *            Index of element.
+		 * @param dof
+		 *            Dof numbers of element.
+		 * @param matrix
+		 *            Element matrix in nodal local coordinate system.
+		 */
+		void scatter(int index, int[] dof, DMat matrix);
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.WeakHashMap;
+
+import node.Node;
+import element.Element;
+
+/**
+ * Class for coloring of elements over the element-node incidence of
+ * structure. No two elements of the same color share a node; hence, no two
+ * elements of the same color share a dof, and the element matrices of a color
+ * can be scattered into a system matrix from several threads without locking.
+ * The coloring is computed greedily in element order, so that it is
+ * deterministic. Colorings are cached per structure and reused as long as the
+ * revision of structure, its elements and their node arrays are unchanged.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class ElementColoring {
+
+	/** Cached colorings of structures. */
+	private static final WeakHashMap<Structure, ElementColoring> cache_;
+	static {
+		cache_ = new WeakHashMap<Structure, ElementColoring>();
+	}
+
+	/** Revision of structure when the coloring was computed. */
+	private int revision_;
+
+	/** Elements of structure when the coloring was computed. */
+	private Element[] elements_;
+
+	/** Node arrays of elements when the coloring was computed. */
+	private Node[][] nodes_;
+
+	/** Element indices of colors in ascending order. */
+	private int[][] colors_;
+
+	/**
+	 * Computes coloring of the given structure.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 */
+	private ElementColoring(Structure structure) {
+
+		// store state of structure
+		revision_ = structure.getRevision();
+		int ne = structure.getNumberOfElements();
+		elements_ = new Element[ne];
+		nodes_ = new Node[ne][];
+		for (int i = 0; i < ne; i++) {
+			elements_[i] = structure.getElement(i);
+			nodes_[i] = elements_[i].getNodes();
+		}
+
+		// color elements
+		colors_ = color(structure);
+	}
+
+	/**
+	 * Returns the coloring of the given structure. The cached coloring is
+	 * returned if the structure hasn't changed since it was computed.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @return The coloring of structure.
+	 */
+	public static synchronized ElementColoring getColoring(
+			Structure structure) {
+
+		// look up cache
+		ElementColoring coloring = cache_.get(structure);
+		if (coloring != null && coloring.isValid(structure))
+			return coloring;
+
+		// compute and cache coloring
+		coloring = new ElementColoring(structure);
+		cache_.put(structure, coloring);
+		return coloring;
+	}
+
+	/**
+	 * Removes all cached colorings.
+	 */
+	public static synchronized void clear() {
+		cache_.clear();
+	}
+
+	/**
+	 * Returns the number of colors.
+	 * 
+	 * @return The number of colors.
+	 */
+	public int getNumberOfColors() {
+		return colors_.length;
+	}
+
+	/**
+	 * Returns the element indices of the given color.
+	 * 
+	 * @param color
+	 *            The color.
+	 * @return Element indices of color in ascending order.
+	 */
+	public int[] getColor(int color) {
+		return colors_[color];
+	}
+
+	/**
+	 * Returns true if the coloring is valid for the given structure.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @return True if the coloring is valid for the given structure.
+	 */
+	private boolean isValid(Structure structure) {
+
+		// check revision and number of elements
+		if (structure.getRevision() != revision_
+				|| structure.getNumberOfElements() != elements_.length)
+			return false;
+
+		// check elements and their node arrays
+		for (int i = 0; i < elements_.length; i++) {
+			Element e = structure.getElement(i);
+			if (e != elements_[i] || e.getNodes() != nodes_[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Colors elements of the given structure. Each element is given the
+	 * smallest color which is not used by any element sharing a node with it.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @return Element indices of colors in ascending order.
+	 */
+	private static int[][] color(Structure structure) {
+
+		// index nodes
+		int nn = structure.getNumberOfNodes();
+		HashMap<Node, Integer> indices = new HashMap<Node, Integer>(2 * nn);
+		for (int i = 0; i < nn; i++)
+			indices.put(structure.getNode(i), i);
+
+		// colors used by elements of each node
+		int[][] used = new int[nn][];
+		int[] count = new int[nn];
+
+		// loop over elements
+		int ne = structure.getNumberOfElements();
+		int[] colorOf = new int[ne];
+		int[] forbidden = new int[8];
+		Arrays.fill(forbidden, -1);
+		int nc = 0;
+		for (int i = 0; i < ne; i++) {
+
+			// mark colors of neighbors
+			Node[] nodes = structure.getElement(i).getNodes();
+			for (int j = 0; j < nodes.length; j++) {
+				int n = indices.get(nodes[j]);
+				for (int k = 0; k < count[n]; k++)
+					forbidden[used[n][k]] = i;
+			}
+
+			// pick the smallest free color
+			int c = 0;
+			while (c < nc && forbidden[c] == i)
+				c++;
+			if (c == nc) {
+				nc++;
+				if (nc > forbidden.length) {
+					int old = forbidden.length;
+					forbidden = Arrays.copyOf(forbidden, 2 * old);
+					Arrays.fill(forbidden, old, forbidden.length, -1);
+				}
+			}
+			colorOf[i] = c;
+
+			// register color to nodes
+			for (int j = 0; j < nodes.length; j++) {
+				int n = indices.get(nodes[j]);
+				if (used[n] == null)
+					used[n] = new int[4];
+				else if (count[n] == used[n].length)
+					used[n] = Arrays.copyOf(used[n], 2 * count[n]);
+				used[n][count[n]++] = c;
+			}
+		}
+
+		// collect elements of colors
+		int[] size = new int[nc];
+		for (int i = 0; i < ne; i++)
+			size[colorOf[i]]++;
+		int[][] colors = new int[nc][];
+		for (int c = 0; c < nc; c++)
+			colors[c] = new int[size[c]];
+		Arrays.fill(size, 0);
+		for (int i = 0; i < ne; i++)
+			colors[colorOf[i]][size[colorOf[i]]++] = i;
+		return colors;
+	}
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Vector;
+
+import node.LocalAxis;
+import node.Node;
+import element.Element;
+import element.Element1D;
+import element.ElementSpring;
+
+import matrix.DMat;
+import matrix.DVec;
+import solver.Factorization;
+import solver.LESolver;
+import solver.Solver;
+
+/**
+ * Class for caching factorizations of system stiffness matrices across
+ * analyses. The factorizations are keyed by a fingerprint of everything the
+ * system stiffness matrix depends on; that is the node positions and
+ * transformations, dof numbers (hence constraints and dof renumbering), nodal
+ * springs, dofs subjected to displacement loads, element types,
+ * connectivities, materials, sections, parameters, axial rotations of line
+ * elements and springs, and the type and storage of solver. An analysis whose
+ * fingerprint is found in the cache skips the assembly and factorization of
+ * the system stiffness matrix. The least recently used factorizations are
+ * evicted when the total memory of cached factorizations exceeds the memory
+ * budget. Only in-core direct solvers are cached; out-of-core factorizations
+ * are stored in files which are deleted when the solver is cleared. A cached
+ * factorization must not be used by two analyses at the same time.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class FactorizationCache {
+
+	/** Memory budget in bytes (a quarter of maximum heap by default). */
+	private static long budget_ = Runtime.getRuntime().maxMemory() / 4;
+
+	/** Total memory of cached factorizations in bytes. */
+	private static long size_ = 0;
+
+	/** Cached entries in access order (least recently used first). */
+	private static final LinkedHashMap<String, Entry> entries_;
+	static {
+		entries_ = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	}
+
+	/**
+	 * Sets memory budget of the cache. The least recently used factorizations
+	 * are evicted if the cached factorizations exceed the budget.
+	 * 
+	 * @param bytes
+	 *            Memory budget in bytes. Zero disables caching.
+	 */
+	public static synchronized void setBudget(long bytes) {
+
+		// check value
+		if (bytes < 0)
+			throw new IllegalArgumentException(
+					"Illegal memory budget for factorization cache!");
+
+		// set budget and evict entries
+		budget_ = bytes;
+		evict();
+	}
+
+	/**
+	 * Returns memory budget of the cache.
+	 * 
+	 * @return Memory budget in bytes.
+	 */
+	public static synchronized long getBudget() {
+		return budget_;
+	}
+
+	/**
+	 * Returns total memory of cached factorizations.
+	 * 
+	 * @return Total memory in bytes.
+	 */
+	public static synchronized long getSize() {
+		return size_;
+	}
+
+	/**
+	 * Returns number of cached factorizations.
+	 * 
+	 * @return Number of cached factorizations.
+	 */
+	public static synchronized int getNumberOfEntries() {
+		return entries_.size();
+	}
+
+	/**
+	 * Removes all cached factorizations.
+	 */
+	public static synchronized void clear() {
+		entries_.clear();
+		size_ = 0;
+	}
+
+	/**
+	 * Returns the cache entry for the current state of structure. Dofs of
+	 * structure must be enumerated and boundary cases must be set beforehand.
+	 * If a factorization with the same fingerprint is cached, the returned
+	 * entry contains the factorization. Otherwise, the factorization has to be
+	 * set by the analysis.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param solver
+	 *            The solver of analysis.
+	 * @param eqn
+	 *            Number of equations.
+	 * @param hbw
+	 *            Half-bandwidth of system stiffness matrix.
+	 * @return The cache entry, or null if the factorization cannot be cached.
+	 */
+	protected static Entry getEntry(Structure structure, LESolver solver,
+			int eqn, int hbw) {
+
+		// caching disabled, iterative or out-of-core solver
+		if (getBudget() == 0 || solver.getSolutionType() != LESolver.direct_
+				|| solver.getType() == Solver.solver7_)
+			return null;
+
+		// compute fingerprint
+		String key = fingerprint(structure, solver, eqn, hbw);
+		if (key == null)
+			return null;
+
+		// look up cache
+		synchronized (FactorizationCache.class) {
+			Entry entry = entries_.get(key);
+			return entry != null ? entry : new Entry(key);
+		}
+	}
+
+	/**
+	 * Stores the given factorization to the cache entry and adds the entry to
+	 * the cache.
+	 * 
+	 * @param entry
+	 *            The cache entry.
+	 * @param factor
+	 *            Factorization of system stiffness matrix.
+	 * @param diagonal
+	 *            Diagonal of system stiffness matrix.
+	 */
+	protected static synchronized void put(Entry entry, Factorization factor,
+			double[] diagonal) {
+
+		// set factorization
+		entry.factor_ = factor;
+		entry.diagonal_ = diagonal;
+		entry.size_ = factor.getMemoryUsage() + 8L * diagonal.length;
+
+		// add to cache and evict entries
+		Entry old = entries_.put(entry.key_, entry);
+		if (old != null)
+			size_ -= old.size_;
+		size_ += entry.size_;
+		evict();
+	}
+
+	/**
+	 * Evicts the least recently used entries until the budget is met.
+	 */
+	private static void evict() {
+		Iterator<Entry> iterator = entries_.values().iterator();
+		while (size_ > budget_ && iterator.hasNext()) {
+			size_ -= iterator.next().size_;
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Computes and returns the fingerprint of system stiffness matrix.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @param solver
+	 *            The solver of analysis.
+	 * @param eqn
+	 *            Number of equations.
+	 * @param hbw
+	 *            Half-bandwidth of system stiffness matrix.
+	 * @return The fingerprint, or null if it cannot be computed.
+	 */
+	private static String fingerprint(Structure structure, LESolver solver,
+			int eqn, int hbw) {
+
+		try {
+
+			// create digest stream
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			DigestOutputStream digest = new DigestOutputStream(
+					new OutputStream() {
+						public void write(int b) {
+						}
+					}, md);
+			DataOutputStream out = new DataOutputStream(digest);
+
+			// solver and system size
+			out.writeUTF(solver.getClass().getName());
+			out.writeInt(solver.getType());
+			out.writeInt(solver.getStorageType());
+			out.writeInt(eqn);
+			out.writeInt(hbw);
+
+			// loop over nodes
+			int nn = structure.getNumberOfNodes();
+			HashMap<Node, Integer> indices = new HashMap<Node, Integer>(2 * nn);
+			for (int i = 0; i < nn; i++) {
+
+				// position, transformation and dof numbers
+				Node node = structure.getNode(i);
+				indices.put(node, i);
+				write(out, node.getPosition().get1DArray());
+				write(out, node.getTransformation());
+				write(out, node.getDofNumbers());
+
+				// springs
+				out.writeBoolean(node.getSprings() != null);
+				if (node.getSprings() != null)
+					write(out, node.getStiffnessMatrix());
+
+				// dofs subjected to displacement loads
+				out.writeBoolean(node.getDispLoads().size() != 0);
+				if (node.getDispLoads().size() != 0) {
+					DVec vec = node.getDispLoadVector();
+					for (int j = 0; j < 6; j++)
+						out.writeBoolean(vec.get(j) != 0.0);
+				}
+			}
+
+			// loop over elements
+			IdentityHashMap<Object, Integer> properties;
+			properties = new IdentityHashMap<Object, Integer>();
+			Vector<Object> distinct = new Vector<Object>();
+			for (int i = 0; i < structure.getNumberOfElements(); i++) {
+
+				// type, connectivity and dof numbers
+				Element e = structure.getElement(i);
+				out.writeInt(e.getType());
+				Node[] nodes = e.getNodes();
+				out.writeInt(nodes.length);
+				for (int j = 0; j < nodes.length; j++)
+					out.writeInt(indices.get(nodes[j]));
+				write(out, e.getDofNumbers());
+
+				// material and section
+				out.writeInt(index(e.getMaterial(), properties, distinct));
+				out.writeInt(index(e.getSection(), properties, distinct));
+
+				// parameters
+				double[] param = e.getParameters();
+				out.writeBoolean(param != null);
+				if (param != null)
+					write(out, param);
+
+				// axial rotation of local axis
+				double rotation = 0.0;
+				if (e instanceof Element1D) {
+					LocalAxis axis = ((Element1D) e).getLocalAxis();
+					if (axis != null)
+						rotation = axis.getValues()[0];
+				}
+				out.writeDouble(rotation);
+
+				// springs
+				Vector<ElementSpring> springs = e.getSprings();
+				out.writeInt(springs == null ? 0 : springs.size());
+				if (springs != null) {
+					for (int j = 0; j < springs.size(); j++) {
+						ElementSpring s = springs.get(j);
+						out.writeDouble(s.getValue());
+						out.writeInt(s.getComponent());
+						out.writeInt(s.getCoordinateSystem());
+					}
+				}
+			}
+
+			// distinct materials and sections
+			out.flush();
+			ObjectOutputStream object = new ObjectOutputStream(digest);
+			for (int i = 0; i < distinct.size(); i++)
+				object.writeObject(distinct.get(i));
+			object.flush();
+
+			// return fingerprint
+			return new BigInteger(1, md.digest()).toString(16);
+		}
+
+		// fingerprint cannot be computed
+		catch (NoSuchAlgorithmException e) {
+			return null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the index of the given property among distinct properties.
+	 * 
+	 * @param property
+	 *            Material or section (can be null).
+	 * @param properties
+	 *            Map of properties to indices.
+	 * @param distinct
+	 *            Distinct properties.
+	 * @return The index of property, or -1 if property is null.
+	 */
+	private static int index(Object property,
+			IdentityHashMap<Object, Integer> properties,
+			Vector<Object> distinct) {
+
+		// no property
+		if (property == null)
+			return -1;
+
+		// add new property
+		Integer index = properties.get(property);
+		if (index == null) {
+			index = distinct.size();
+			properties.put(property, index);
+			distinct.add(property);
+		}
+		return index;
+	}
+
+	/**
+	 * Writes the given array to stream.
+	 * 
+	 * @param out
+	 *            Output stream.
+	 * @param a
+	 *            Array to be written.
+	 * @throws IOException
+	 *             If the array cannot be written.
+	 */
+	private static void write(DataOutputStream out, double[] a)
+			throws IOException {
+		out.writeInt(a.length);
+		for (int i = 0; i < a.length; i++)
+			out.writeDouble(a[i]);
+	}
+
+	/**
+	 * Writes the given array to stream.
+	 * 
+	 * @param out
+	 *            Output stream.
+	 * @param a
+	 *            Array to be written.
+	 * @throws IOException
+	 *             If the array cannot be written.
+	 */
+	private static void write(DataOutputStream out, int[] a)
+			throws IOException {
+		out.writeInt(a.length);
+		for (int i = 0; i < a.length; i++)
+			out.writeInt(a[i]);
+	}
+
+	/**
+	 * Writes the given matrix to stream.
+	 * 
+	 * @param out
+	 *            Output stream.
+	 * @param a
+	 *            Matrix to be written.
+	 * @throws IOException
+	 *             If the matrix cannot be written.
+	 */
+	private static void write(DataOutputStream out, DMat a)
+			throws IOException {
+		double[][] array = a.get2DArray();
+		for (int i = 0; i < array.length; i++)
+			write(out, array[i]);
+	}
+
+	/**
+	 * Class for cache entries.
+	 * 
+	 * @author Murat Artim
+	 * 
+	 */
+	protected static class Entry {
+
+		/** Fingerprint of system stiffness matrix. */
+		private String key_;
+
+		/** Factorization of system stiffness matrix (null if not set yet). */
+		private Factorization factor_;
+
+		/** Diagonal of system stiffness matrix. */
+		private double[] diagonal_;
+
+		/** Memory of entry in bytes. */
+		private long size_;
+
+		/**
+		 * Creates cache entry.
+		 * 
+		 * @param key
+		 *            Fingerprint of system stiffness matrix.
+		 */
+		private Entry(String key) {
+			key_ = key;
+		}
+
+		/**
+		 * Returns the factorization of system stiffness matrix.
+		 * 
+		 * @return The factorization, or null if not set yet.
+		 */
+		protected Factorization getFactorization() {
+			return factor_;
+		}
+
+		/**
+		 * Returns the diagonal of system stiffness matrix. This is needed for
+		 * imposing displacement loads by penalty.
+		 * 
+		 * @return The diagonal of system stiffness matrix.
+		 */
+		protected double[] getDiagonal() {
+			return diagonal_;
+		}
+	}
+}
@@ -21,7 +21,6 @@ import solver.GESolver;
 import solver.Solver;
 
 import node.Node;
-import element.Element;
 
 import boundary.BoundaryCase;
 import matrix.*;
@@ -104,7 +103,8 @@ public class LinearBuckling extends Analysis {
 	/**
 	 * Returns analysis properties. The sequence of information is; name
 	 * (String), analysis type (int), boundary cases (String[]), boundary scales
-	 * (double[]), solver (String), eigenvalues (double[]).
+	 * (double[]), solver (String), eigenvalues (double[]), half-bandwidths and
+	 * profiles before and after dof renumbering (long[]).
 	 * 
 	 * @return Vector storing the analysis properties.
 	 */
@@ -135,6 +135,12 @@ public class LinearBuckling extends Analysis {
 		// get eigenvalues -5
 		prop.add(getEigenvalues());
 
+		// get half-bandwidths and profiles -6
+		prop.add(structure_.getBandInfo());
+
+		// get assembly throughputs -7
+		prop.add(structure_.getAssemblyInfo());
+
 		// return vector
 		return prop;
 	}
@@ -210,6 +216,11 @@ public class LinearBuckling extends Analysis {
 					status_ = "Computing effective bandwidth...";
 					hbw_ = computeHalfBandWidth();
 
+					// compute skyline profile
+					int[] heights = null;
+					if (solver_.getType() == Solver.solver6_)
+						heights = structure_.getColumnHeights();
+
 					// assemble system stiffness matrix
 					status_ = "Assembling system stiffness matrix...";
 					SMat kSystem = null;
@@ -217,6 +228,8 @@ public class LinearBuckling extends Analysis {
 						kSystem = new USB1Mat(eqn_, hbw_);
 					else if (solver_.getType() == Solver.solver4_)
 						kSystem = new USPMat(eqn_);
+					else if (solver_.getType() == Solver.solver6_)
+						kSystem = new USB1Mat(eqn_, heights);
 					assembleStiffness(kSystem);
 
 					// assemble system stability matrix
@@ -226,6 +239,8 @@ public class LinearBuckling extends Analysis {
 						gSystem = new USB1Mat(eqn_, hbw_);
 					else if (solver_.getType() == Solver.solver4_)
 						gSystem = new USPMat(eqn_);
+					else if (solver_.getType() == Solver.solver6_)
+						gSystem = new USB1Mat(eqn_, heights);
 					assembleStability(gSystem);
 
 					// initialize structure
@@ -256,8 +271,8 @@ public class LinearBuckling extends Analysis {
 			solver_.initialize(kSystem, gSystem);
 
 			// create solution vector/matrix
-			int nroot = solver_.getNumberOfRequiredEigenvalues();
 			int nn = kSystem.rowCount();
+			int nroot = Math.min(solver_.getNumberOfRequiredEigenvalues(), nn);
 			DVec eigVal = new DVec(nroot);
 			GPSMat eigVec = new GPSMat(nn, nroot);
 
@@ -306,37 +321,8 @@ public class LinearBuckling extends Analysis {
 	 */
 	private void assembleStability(Mat gSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stability matrix of element in nodal local coordinate system
-			DMat ge = e.getStabilityMatrix(Node.local_);
-
-			// loop over rows of element stability matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stability matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stability matrix
-							gSystem.add(dof[j], dof[k], ge.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stability matrices
+		Assembler.assemble(structure_, gSystem, Assembler.stability_, 0);
 	}
 
 	/**
@@ -348,37 +334,8 @@ public class LinearBuckling extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Node.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_, 0);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
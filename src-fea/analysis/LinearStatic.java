@@ -15,6 +15,7 @@
  */
 package analysis;
 
+import java.util.Arrays;
 import java.util.Vector;
 
 import boundary.BoundaryCase;
@@ -38,6 +39,12 @@ public class LinearStatic extends Analysis {
 	/** The number of equations to be solved and effective bandwidth. */
 	private int eqn_ = 0, hbw_ = 0;
 
+	/**
+	 * Scaling factors of boundary cases for each load case (null for single
+	 * load case).
+	 */
+	private double[][] loadCases_;
+
 	/** The solver of analysis. */
 	private LESolver solver_;
 
@@ -67,10 +74,34 @@ public class LinearStatic extends Analysis {
 		solver_ = (LESolver) solver;
 	}
 
+	/**
+	 * Sets load cases for multi-case analysis. Each load case is given by the
+	 * scaling factors of the boundary cases of analysis, so that all load
+	 * cases share the same constraints. The system stiffness matrix is then
+	 * assembled and factorized once, and the load cases are solved together.
+	 * The unknowns of each load case are stored as a separate step.
+	 * 
+	 * @param scales
+	 *            Scaling factors of boundary cases for each load case
+	 *            ([load case][boundary case]). Null for single load case with
+	 *            the boundary scales of analysis.
+	 */
+	public void setLoadCases(double[][] scales) {
+
+		// check load cases
+		if (scales != null && scales.length == 0)
+			exceptionHandler("No load case given for linear static analysis!");
+
+		// set load cases
+		loadCases_ = scales;
+	}
+
 	/**
 	 * Returns analysis properties. The sequence of information is; name
 	 * (String), analysis type (int), boundary cases (String[]), boundary scales
-	 * (double[]), solver (String).
+	 * (double[]), solver (String), half-bandwidths and profiles before and
+	 * after dof renumbering (long[]), scaling factors of boundary cases for
+	 * each load case (double[][], null for single load case).
 	 * 
 	 * @return Vector storing the analysis information.
 	 */
@@ -98,6 +129,15 @@ public class LinearStatic extends Analysis {
 		// get solver -4
 		prop.add(getSolver().getName());
 
+		// get half-bandwidths and profiles -5
+		prop.add(structure_.getBandInfo());
+
+		// get load cases -6
+		prop.add(loadCases_);
+
+		// get assembly throughputs -7
+		prop.add(structure_.getAssemblyInfo());
+
 		// return vector
 		return prop;
 	}
@@ -111,6 +151,16 @@ public class LinearStatic extends Analysis {
 		return solver_;
 	}
 
+	/**
+	 * Returns scaling factors of boundary cases for each load case.
+	 * 
+	 * @return Scaling factors of boundary cases for each load case, or null
+	 *         for single load case.
+	 */
+	public double[][] getLoadCases() {
+		return loadCases_;
+	}
+
 	@Override
 	public int getType() {
 		return Analysis.linearStatic_;
@@ -168,6 +218,12 @@ public class LinearStatic extends Analysis {
 		status_ = "Checking model...";
 		String message = structure_.checkModel(0);
 
+		// check load cases
+		if (message == null && loadCases_ != null)
+			for (int i = 0; i < loadCases_.length; i++)
+				if (loadCases_[i].length != bCases_.size())
+					message = "Illegal scaling factors for load cases!";
+
 		// problem occured with the model
 		if (message != null) {
 			status_ = message;
@@ -183,35 +239,112 @@ public class LinearStatic extends Analysis {
 
 			// enumerate degrees of freedom of structure
 			status_ = "Enumerating dofs...";
-			eqn_ = structure_.enumerateDofs(bCases_, bScales_);
+			double[] scales = loadCases_ == null ? bScales_ : loadCases_[0];
+			eqn_ = structure_.enumerateDofs(bCases_, scales);
 
 			// compute effective bandwidth
 			status_ = "Computing effective bandwidth...";
 			hbw_ = computeHalfBandWidth();
 
-			// assemble system stiffness matrix
-			status_ = "Assembling system stiffness matrix...";
+			// look up factorization cache
+			status_ = "Looking up factorization cache...";
+			FactorizationCache.Entry entry = FactorizationCache.getEntry(
+					structure_, solver_, eqn_, hbw_);
+
+			// reuse diagonal of cached system stiffness matrix
 			SMat kSystem = null;
-			if (solver_.getType() == Solver.solver0_)
-				kSystem = new CDSMat(eqn_, hbw_);
-			else if (solver_.getType() == Solver.solver1_)
-				kSystem = new USB1Mat(eqn_, hbw_);
-			else if (solver_.getType() == Solver.solver2_)
-				kSystem = new USB2Mat(eqn_, hbw_);
-			assembleStiffness(kSystem);
-
-			// assemble system load vector
-			status_ = "Assembling system load vector...";
-			DVec rSystem = new DVec(eqn_);
-			assembleLoad(rSystem, kSystem);
-
-			// start of linear equation solution
-			status_ = "Solving linear system of equations...";
-			DVec uSystem = new DVec(eqn_);
-			solve(kSystem, rSystem, uSystem);
+			double[] diagonal = null;
+			if (entry != null && entry.getFactorization() != null)
+				diagonal = entry.getDiagonal();
+
+			// assemble system stiffness matrix
+			else {
+				status_ = "Assembling system stiffness matrix...";
+				kSystem = createStiffness();
+				assembleStiffness(kSystem);
+				diagonal = getDiagonal(kSystem);
+			}
+
+			// single load case
+			if (loadCases_ == null) {
+
+				// assemble system load vector
+				status_ = "Assembling system load vector...";
+				DVec rSystem = new DVec(eqn_);
+				assembleLoad(rSystem, diagonal);
+
+				// start of linear equation solution
+				status_ = "Solving linear system of equations...";
+				DVec uSystem = new DVec(eqn_);
+				solve(kSystem, entry, diagonal, rSystem, uSystem);
+			}
+
+			// multiple load cases
+			else {
+
+				// assemble system load vectors
+				status_ = "Assembling system load vectors...";
+				DVec[] rSystem = assembleLoads(diagonal);
+
+				// displacement loads differ between load cases
+				if (rSystem == null) {
+					status_ = "Displacement loads of load cases act on different dofs!";
+					killed_ = true;
+				}
+
+				// start of linear equation solution
+				else {
+					status_ = "Solving linear system of equations...";
+					DVec[] uSystem = new DVec[rSystem.length];
+					for (int i = 0; i < uSystem.length; i++)
+						uSystem[i] = new DVec(eqn_);
+					solve(kSystem, entry, diagonal, rSystem, uSystem);
+				}
+			}
 		}
 	}
 
+	/**
+	 * Creates system stiffness matrix in the storage of solver.
+	 * 
+	 * @return System stiffness matrix.
+	 */
+	private SMat createStiffness() {
+
+		// create matrix for storage type of solver
+		SMat kSystem = null;
+		int storage = solver_.getStorageType();
+		if (storage == Solver.CDS_)
+			kSystem = new CDSMat(eqn_, hbw_);
+		else if (storage == Solver.CRS_)
+			kSystem = new CRSMat(eqn_, structure_.getSparsityPattern(eqn_));
+		else if (storage == Solver.USB1S_)
+			kSystem = new USB1Mat(eqn_, hbw_);
+		else if (storage == Solver.USB2S_)
+			kSystem = new USB2Mat(eqn_, hbw_);
+		else if (storage == Solver.BCRS_) {
+			int[] blocks = structure_.getBlockPointers(eqn_);
+			kSystem = new BCRSMat(blocks, structure_
+					.getBlockSparsityPattern(blocks));
+		} else if (storage == Solver.USB3S_)
+			kSystem = new USB3Mat(eqn_, structure_.getColumnHeights());
+		return kSystem;
+	}
+
+	/**
+	 * Returns the diagonal of system stiffness matrix.
+	 * 
+	 * @param kSystem
+	 *            System stiffness matrix.
+	 * @return The diagonal of system stiffness matrix.
+	 */
+	private double[] getDiagonal(Mat kSystem) {
+		double[] diagonal = new double[eqn_];
+		for (int i = 0; i < eqn_; i++)
+			diagonal[i] = kSystem.get(i, i);
+		return diagonal;
+	}
+
 	/**
 	 * Assembles system stiffness matrix. Both homogeneous and inhomogeneous
 	 * Dirichlet boundaries are imposed during the assembly of system stiffness
@@ -222,37 +355,8 @@ public class LinearStatic extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Element.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_, 0);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -269,24 +373,8 @@ public class LinearStatic extends Analysis {
 				// get stiffness matrix
 				DMat kn = node.getStiffnessMatrix();
 
-				// loop over rows of nodal stiffness matrix
-				for (int j = 0; j < dof.length; j++) {
-
-					// check if dof is free
-					if (dof[j] != -1) {
-
-						// loop over columns of nodal stiffness matrix
-						for (int k = 0; k < dof.length; k++) {
-
-							// check if dof is free
-							if (dof[k] != -1) {
-
-								// store into system stiffness matrix
-								kSystem.add(dof[j], dof[k], kn.get(j, k));
-							}
-						}
-					}
-				}
+				// store into system stiffness matrix (free dofs only)
+				kSystem.add(dof, kn);
 			}
 
 			// check if the node has displacement loads
@@ -328,10 +416,10 @@ public class LinearStatic extends Analysis {
 	 * 
 	 * @param rSystem
 	 *            System load vector.
-	 * @param kSystem
-	 *            The system stiffness matrix.
+	 * @param diagonal
+	 *            The diagonal of system stiffness matrix.
 	 */
-	private void assembleLoad(DVec rSystem, Mat kSystem) {
+	private void assembleLoad(DVec rSystem, double[] diagonal) {
 
 		// loop over elements
 		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
@@ -431,7 +519,7 @@ public class LinearStatic extends Analysis {
 						if (value != 0.0) {
 
 							// modify load coefficient
-							value *= kSystem.get(dof[j], dof[j]);
+							value *= diagonal[dof[j]];
 							rSystem.set(dof[j], value);
 						}
 					}
@@ -440,25 +528,100 @@ public class LinearStatic extends Analysis {
 		}
 	}
 
+	/**
+	 * Assembles system load vectors of load cases. The system stiffness matrix
+	 * is modified for the displacement loads of the first load case, therefore
+	 * the displacement loads of all load cases must act on the same dofs.
+	 * 
+	 * @param diagonal
+	 *            The diagonal of system stiffness matrix.
+	 * @return System load vectors, or null if displacement loads of load cases
+	 *         act on different dofs.
+	 */
+	private DVec[] assembleLoads(double[] diagonal) {
+
+		// get prescribed dofs of the first load case
+		boolean[] prescribed = getPrescribedDofs();
+
+		// loop over load cases
+		DVec[] rSystem = new DVec[loadCases_.length];
+		for (int i = 0; i < rSystem.length; i++) {
+
+			// set scaling factors of load case
+			structure_.setBoundaryCases(bCases_, loadCases_[i]);
+
+			// check prescribed dofs
+			if (Arrays.equals(prescribed, getPrescribedDofs()) == false) {
+				rSystem = null;
+				break;
+			}
+
+			// assemble load vector
+			rSystem[i] = new DVec(eqn_);
+			assembleLoad(rSystem[i], diagonal);
+		}
+
+		// reset scaling factors of analysis
+		structure_.setBoundaryCases(bCases_, bScales_);
+		return rSystem;
+	}
+
+	/**
+	 * Returns the dofs subjected to non-zero displacement loads.
+	 * 
+	 * @return Array marking the dofs subjected to displacement loads.
+	 */
+	private boolean[] getPrescribedDofs() {
+
+		// loop over nodes
+		boolean[] prescribed = new boolean[eqn_];
+		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
+
+			// get node
+			Node node = structure_.getNode(i);
+
+			// check if the node has displacement loads
+			if (node.getDispLoads().size() != 0) {
+
+				// mark free dofs with non-zero displacement
+				int[] dof = node.getDofNumbers();
+				DVec vec = node.getDispLoadVector();
+				for (int j = 0; j < 6; j++)
+					if (dof[j] != -1 && vec.get(j) != 0.0)
+						prescribed[dof[j]] = true;
+			}
+		}
+		return prescribed;
+	}
+
 	/**
 	 * Performs solution of linear system of equations.
 	 * 
 	 * @param kSystem
-	 *            System stiffness matrix.
+	 *            System stiffness matrix (null if factorization is cached).
+	 * @param entry
+	 *            Factorization cache entry (null if not cached).
+	 * @param diagonal
+	 *            The diagonal of system stiffness matrix.
 	 * @param rSystem
 	 *            System load vector.
 	 * @param uSystem
 	 *            Solution vector.
 	 */
-	private void solve(Mat kSystem, DVec rSystem, DVec uSystem) {
+	private void solve(Mat kSystem, FactorizationCache.Entry entry,
+			double[] diagonal, DVec rSystem, DVec uSystem) {
 
 		try {
 
 			// initialize solver
-			solver_.initialize(kSystem, uSystem);
+			Factorization factor = initialize(kSystem, entry, diagonal,
+					uSystem);
 
 			// solve
-			solver_.solve(kSystem, rSystem, uSystem);
+			if (factor != null)
+				factor.solve(rSystem, uSystem);
+			else
+				solver_.solve(kSystem, rSystem, uSystem);
 
 			// set # of iterations and residual
 			setNumberOfIterations();
@@ -498,6 +661,113 @@ public class LinearStatic extends Analysis {
 		}
 	}
 
+	/**
+	 * Performs solution of linear system of equations for multiple load
+	 * cases. Direct solvers factorize the system stiffness matrix once and
+	 * solve for all load vectors together, whereas iterative solvers solve for
+	 * the load vectors in turn.
+	 * 
+	 * @param kSystem
+	 *            System stiffness matrix (null if factorization is cached).
+	 * @param entry
+	 *            Factorization cache entry (null if not cached).
+	 * @param diagonal
+	 *            The diagonal of system stiffness matrix.
+	 * @param rSystem
+	 *            System load vectors.
+	 * @param uSystem
+	 *            Solution vectors.
+	 */
+	private void solve(Mat kSystem, FactorizationCache.Entry entry,
+			double[] diagonal, DVec[] rSystem, DVec[] uSystem) {
+
+		try {
+
+			// initialize solver
+			Factorization factor = initialize(kSystem, entry, diagonal,
+					uSystem[0]);
+
+			// solve all load cases with factorization
+			if (factor != null)
+				factor.solve(rSystem, uSystem);
+
+			// solve load cases in turn
+			else {
+				for (int i = 0; i < rSystem.length; i++) {
+					solver_.solve(kSystem, rSystem[i], uSystem[i]);
+					setNumberOfIterations();
+					setResidual();
+				}
+			}
+
+			// clear solver
+			solver_.clear();
+
+			// set unknowns to structure
+			status_ = "Writing output data...";
+
+			// exception occurred during writing output data
+			if (setUnknowns(uSystem) == false) {
+				status_ = "Exception occurred during writing output data!";
+				killed_ = true;
+			}
+
+			// no problem with writing
+			else {
+
+				// set analysis info to structure
+				status_ = "Setting analysis info to model...";
+				structure_.setAnalysisInfo(getAnalysisInfo());
+
+				// analysis completed
+				status_ = "Analysis complete.";
+				completed_ = true;
+			}
+		}
+
+		// solve failed
+		catch (Exception excep) {
+
+			// write message
+			status_ = "Solve failed!";
+			killed_ = true;
+		}
+	}
+
+	/**
+	 * Initializes solver and returns the factorization of system stiffness
+	 * matrix. If the factorization is cached, it is returned without
+	 * initializing the solver. Otherwise, the new factorization is added to
+	 * the factorization cache.
+	 * 
+	 * @param kSystem
+	 *            System stiffness matrix (null if factorization is cached).
+	 * @param entry
+	 *            Factorization cache entry (null if not cached).
+	 * @param diagonal
+	 *            The diagonal of system stiffness matrix.
+	 * @param uSystem
+	 *            Solution vector.
+	 * @return The factorization, or null if an iterative solver is used.
+	 */
+	private Factorization initialize(Mat kSystem,
+			FactorizationCache.Entry entry, double[] diagonal, DVec uSystem) {
+
+		// cached factorization
+		if (entry != null && entry.getFactorization() != null)
+			return entry.getFactorization();
+
+		// initialize solver
+		setNearNullSpace();
+		solver_.initialize(kSystem, uSystem);
+		Factorization factor = solver_.getFactorization();
+
+		// add factorization to cache
+		if (entry != null && factor != null)
+			FactorizationCache.put(entry, factor, diagonal);
+		return factor;
+	}
+
 	/**
 	 * Sets nodal unknowns to structure.
 	 * 
@@ -517,6 +787,27 @@ public class LinearStatic extends Analysis {
 		return structure_.setUnknowns(path_, unknowns, 1);
 	}
 
+	/**
+	 * Sets nodal unknowns of load cases to structure. Each load case is
+	 * stored as a separate step.
+	 * 
+	 * @param uSystem
+	 *            System displacement vectors of load cases.
+	 */
+	private boolean setUnknowns(DVec[] uSystem) {
+
+		// create unknowns matrix
+		double[][] unknowns = new double[eqn_][uSystem.length];
+
+		// set unknowns to matrix
+		for (int j = 0; j < uSystem.length; j++)
+			for (int i = 0; i < eqn_; i++)
+				unknowns[i][j] = uSystem[j].get(i);
+
+		// set matrix to structure
+		return structure_.setUnknowns(path_, unknowns, uSystem.length);
+	}
+
 	/**
 	 * Computes and returns half-bandwidth of the system stiffness matrix.
 	 * 
@@ -558,6 +849,26 @@ public class LinearStatic extends Analysis {
 		return max;
 	}
 
+	/**
+	 * Sets near null space of the system matrix to solver, if an iterative
+	 * solver with algebraic multigrid preconditioner is used.
+	 * 
+	 */
+	private void setNearNullSpace() {
+
+		// iterative solver
+		if (solver_.getSolutionType() == LESolver.iterative_) {
+
+			// cast solver
+			Solver0 solver = (Solver0) solver_;
+
+			// algebraic multigrid preconditioner
+			if (solver.getPreconditionerType() == Solver0.AMG_)
+				solver.setNearNullSpace(structure_.getDofBlocks(), structure_
+						.getRigidBodyModes(eqn_));
+		}
+	}
+
 	/**
 	 * Sets number of iterations, if an iterative solver is used.
 	 * 
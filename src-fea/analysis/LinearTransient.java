@@ -15,18 +15,30 @@
  */
 package analysis;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import solver.Factorization;
 import solver.LESolver;
 import solver.Solver;
 import solver.Solver0;
+import solver.Solver6;
 
 import boundary.BoundaryCase;
 
 import node.Node;
 import element.Element;
 
+import dialogs.file.OutputDataHandler2;
+
 import math.Function;
+import math.MathUtil;
 import matrix.*;
 
 /**
@@ -39,8 +51,9 @@ public class LinearTransient extends Analysis {
 
 	private static final long serialVersionUID = 1L;
 
-	/** Static variable for the direct integration method. */
-	public static final int newmark_ = 0, wilson_ = 1;
+	/** Static variable for the integration method. */
+	public static final int newmark_ = 0, wilson_ = 1, modal_ = 2,
+			centralDifference_ = 3;
 
 	/**
 	 * The number of equations to be solved, effective bandwidth and current
@@ -57,6 +70,31 @@ public class LinearTransient extends Analysis {
 	/** Wilson parameter. Theta (Bathe-p778). */
 	private double wilsonPar_ = 1.4;
 
+	/** Number of modes for mode superposition. */
+	private int modes_ = 10;
+
+	/** Number of threads for explicit integration (0 for all processors). */
+	private int threads_ = 0;
+
+	/** Estimated critical time step of explicit integration. */
+	private double criticalStep_ = 0.0;
+
+	/**
+	 * Cold start flag for iterative solves of implicit integration. The flag
+	 * is stored negated, so that analyses saved before it was introduced
+	 * default to warm start.
+	 */
+	private boolean coldStart_ = false;
+
+	/** Number of Ritz vectors recycled across iterative solves. */
+	private int recycle_ = 0;
+
+	/** Number of iterations of each time step (null for direct solvers). */
+	private int[] stepIterations_;
+
+	/** Output plan determining the retained steps and unknowns. */
+	private OutputPlan plan_ = new OutputPlan();
+
 	/** Time step size for integration scheme. */
 	private double dt_ = 0.1;
 
@@ -152,6 +190,78 @@ public class LinearTransient extends Analysis {
 		wilsonPar_ = theta;
 	}
 
+	/**
+	 * Sets number of modes for mode superposition.
+	 * 
+	 * @param modes
+	 *            Number of lowest modes used for mode superposition.
+	 */
+	public void setNumberOfModes(int modes) {
+
+		// check parameter
+		if (modes <= 0)
+			exceptionHandler("Illegal number of modes!");
+
+		// set parameter
+		modes_ = modes;
+	}
+
+	/**
+	 * Sets number of threads used for assembly and explicit integration.
+	 * 
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 */
+	public void setThreads(int threads) {
+
+		// check value
+		if (threads < 0)
+			exceptionHandler("Illegal number of threads for linear dynamic analysis!");
+
+		// set value
+		threads_ = threads;
+	}
+
+	/**
+	 * Sets warm start flag. If set, each iterative solve of implicit
+	 * integration starts from the displacements extrapolated from the
+	 * previous step, instead of zero.
+	 * 
+	 * @param warmStart
+	 *            True for warm start.
+	 */
+	public void setWarmStart(boolean warmStart) {
+		coldStart_ = !warmStart;
+	}
+
+	/**
+	 * Sets number of Ritz vectors recycled across iterative solves of implicit
+	 * integration. If positive, CG is deflated by the Ritz vectors of the
+	 * smallest Ritz values collected from the previous steps.
+	 * 
+	 * @param k
+	 *            Number of recycled Ritz vectors. Zero disables deflation.
+	 */
+	public void setRecycledVectors(int k) {
+
+		// check value
+		if (k < 0)
+			exceptionHandler("Illegal number of recycled vectors for linear dynamic analysis!");
+
+		// set value
+		recycle_ = k;
+	}
+
+	/**
+	 * Sets output plan determining the retained steps and unknowns.
+	 * 
+	 * @param plan
+	 *            Output plan. Null retains all steps and unknowns.
+	 */
+	public void setOutputPlan(OutputPlan plan) {
+		plan_ = plan == null ? new OutputPlan() : plan;
+	}
+
 	/**
 	 * Sets mass and stiffness proportional coefficients. They are used to
 	 * construct system damping matrix (Bathe-p797).
@@ -181,7 +291,7 @@ public class LinearTransient extends Analysis {
 	public void setIntegrationMethod(int method) {
 
 		// check method
-		if (method < 0 || method > 2)
+		if (method < 0 || method > 3)
 			exceptionHandler("Illegal integration method for linear dynamic analysis!");
 
 		// set integration method
@@ -226,7 +336,10 @@ public class LinearTransient extends Analysis {
 	 * (String), analysis type (int), boundary cases (String[]), boundary scales
 	 * (double[]), solver (String), number of time steps (int), time step size
 	 * (double), integration method (int), integration parameters (double[]),
-	 * damping constants (double[]), load time function (Function).
+	 * damping constants (double[]), load time function (Function),
+	 * half-bandwidths and profiles before and after dof renumbering (long[]),
+	 * retained step numbers (int[]), number of iterations of each time step
+	 * (int[], null if not solved iteratively).
 	 * 
 	 * @return Vector storing the analysis properties.
 	 */
@@ -268,6 +381,12 @@ public class LinearTransient extends Analysis {
 		if (integrationMethod_ == LinearTransient.wilson_) {
 			param = new double[1];
 			param[0] = getWilsonParameter();
+		} else if (integrationMethod_ == LinearTransient.modal_) {
+			param = new double[1];
+			param[0] = getNumberOfModes();
+		} else if (integrationMethod_ == LinearTransient.centralDifference_) {
+			param = new double[1];
+			param[0] = getCriticalTimeStep();
 		}
 		prop.add(param);
 
@@ -277,6 +396,18 @@ public class LinearTransient extends Analysis {
 		// get load time function -10
 		prop.add(getLoadTimeFunction());
 
+		// get half-bandwidths and profiles -11
+		prop.add(structure_.getBandInfo());
+
+		// get retained step numbers -12
+		prop.add(plan_.getOutputSteps(n_));
+
+		// get number of iterations of time steps -13
+		prop.add(stepIterations_);
+
+		// get assembly throughputs -14
+		prop.add(structure_.getAssemblyInfo());
+
 		// return vector
 		return prop;
 	}
@@ -355,6 +486,70 @@ public class LinearTransient extends Analysis {
 		return wilsonPar_;
 	}
 
+	/**
+	 * Returns number of modes for mode superposition.
+	 * 
+	 * @return Number of modes.
+	 */
+	public int getNumberOfModes() {
+		return modes_;
+	}
+
+	/**
+	 * Returns number of threads used for assembly and explicit integration.
+	 * 
+	 * @return Number of threads. Zero means all available processors.
+	 */
+	public int getThreads() {
+		return threads_;
+	}
+
+	/**
+	 * Returns warm start flag for iterative solves.
+	 * 
+	 * @return True for warm start.
+	 */
+	public boolean isWarmStart() {
+		return !coldStart_;
+	}
+
+	/**
+	 * Returns number of Ritz vectors recycled across iterative solves.
+	 * 
+	 * @return Number of recycled Ritz vectors.
+	 */
+	public int getRecycledVectors() {
+		return recycle_;
+	}
+
+	/**
+	 * Returns number of iterations of each time step, if an iterative solver
+	 * is used for implicit integration.
+	 * 
+	 * @return Number of iterations of each time step, or null.
+	 */
+	public int[] getStepIterations() {
+		return stepIterations_;
+	}
+
+	/**
+	 * Returns output plan determining the retained steps and unknowns.
+	 * 
+	 * @return Output plan.
+	 */
+	public OutputPlan getOutputPlan() {
+		return plan_;
+	}
+
+	/**
+	 * Returns the critical time step estimated during explicit integration.
+	 * 
+	 * @return The critical time step.
+	 */
+	public double getCriticalTimeStep() {
+		return criticalStep_;
+	}
+
 	/**
 	 * Returns number of time steps used for time integration.
 	 * 
@@ -417,6 +612,7 @@ public class LinearTransient extends Analysis {
 		status_ = null;
 		iterations_ = null;
 		residual_ = null;
+		stepIterations_ = null;
 
 		// check model
 		status_ = "Checking model...";
@@ -439,97 +635,162 @@ public class LinearTransient extends Analysis {
 			status_ = "Enumerating dofs...";
 			eqn_ = structure_.enumerateDofs(bCases_, bScales_);
 
+			// displacement loads can't be imposed on modal coordinates
+			if (integrationMethod_ == LinearTransient.modal_
+					&& hasDispLoads()) {
+				status_ = "Mode superposition doesn't support displacement loads!";
+				killed_ = true;
+				return;
+			}
+
 			// compute effective bandwidth
 			status_ = "Computing effective bandwidth...";
 			hbw_ = computeHalfBandWidth();
 
-			// assemble system stiffness matrix
-			status_ = "Assembling system stiffness matrix...";
-			SMat kSystem = null;
-			if (solver_.getType() == Solver.solver0_)
-				kSystem = new CDSMat(eqn_, hbw_);
-			else if (solver_.getType() == Solver.solver1_)
-				kSystem = new USB1Mat(eqn_, hbw_);
-			else if (solver_.getType() == Solver.solver2_)
-				kSystem = new USB2Mat(eqn_, hbw_);
-			assembleStiffness(kSystem);
-
-			// assemble system mass matrix
-			status_ = "Assembling system mass matrix...";
-			SMat mSystem = null;
-			if (solver_.getType() == Solver.solver0_)
-				mSystem = new CDSMat(eqn_, 0);
-			else if (solver_.getType() == Solver.solver1_)
-				mSystem = new USB1Mat(eqn_, 0);
-			else if (solver_.getType() == Solver.solver2_)
-				mSystem = new USB2Mat(eqn_, 0);
-			assembleMass(mSystem);
-
-			// assemble system damping matrix
-			SMat cSystem = null;
-			if (proporCoeff_[0] != 0.0 || proporCoeff_[1] != 0.0) {
-				status_ = "Assembling system damping matrix...";
-				cSystem = mSystem.copy().scale(proporCoeff_[0]).add(
-						kSystem.copy().scale(proporCoeff_[1]));
+			// system matrices
+			SMat kSystem = null, mSystem = null;
+			try {
+
+				// assemble system stiffness matrix (implicit methods)
+				int storage = solver_.getStorageType();
+				boolean explicit = integrationMethod_ == centralDifference_;
+				if (!explicit) {
+					status_ = "Assembling system stiffness matrix...";
+					if (integrationMethod_ == LinearTransient.modal_)
+						kSystem = new USB1Mat(eqn_, structure_
+								.getColumnHeights());
+					else if (storage == Solver.CDS_)
+						kSystem = new CDSMat(eqn_, hbw_);
+					else if (storage == Solver.CRS_)
+						kSystem = new CRSMat(eqn_, structure_
+								.getSparsityPattern(eqn_));
+					else if (storage == Solver.USB1S_)
+						kSystem = new USB1Mat(eqn_, hbw_);
+					else if (storage == Solver.USB2S_)
+						kSystem = new USB2Mat(eqn_, hbw_);
+					else if (storage == Solver.BCRS_) {
+						int[] blocks = structure_.getBlockPointers(eqn_);
+						kSystem = new BCRSMat(blocks, structure_
+								.getBlockSparsityPattern(blocks));
+					} else if (storage == Solver.USB3S_)
+						kSystem = new USB3Mat(eqn_, structure_
+								.getColumnHeights());
+					assembleStiffness(kSystem);
+				}
+
+				// assemble system mass matrix
+				status_ = "Assembling system mass matrix...";
+				if (explicit || integrationMethod_ == LinearTransient.modal_)
+					mSystem = new USB1Mat(eqn_, 0);
+				else if (storage == Solver.CDS_)
+					mSystem = new CDSMat(eqn_, 0);
+				else if (storage == Solver.CRS_) {
+					int[][] diagonal = new int[eqn_][1];
+					for (int i = 0; i < eqn_; i++)
+						diagonal[i][0] = i;
+					mSystem = new CRSMat(eqn_, diagonal);
+				} else if (storage == Solver.USB1S_)
+					mSystem = new USB1Mat(eqn_, 0);
+				else if (storage == Solver.USB2S_)
+					mSystem = new USB2Mat(eqn_, 0);
+				else if (storage == Solver.BCRS_) {
+					int[] blocks = structure_.getBlockPointers(eqn_);
+					int[][] diagonal = new int[blocks.length - 1][1];
+					for (int i = 0; i < diagonal.length; i++)
+						diagonal[i][0] = i;
+					mSystem = new BCRSMat(blocks, diagonal);
+				} else if (storage == Solver.USB3S_)
+					mSystem = new USB3Mat(eqn_, new int[eqn_]);
+				assembleMass(mSystem);
+
+				// check lumped masses for explicit integration
+				if (explicit) {
+					for (int i = 0; i < eqn_; i++) {
+						if (mSystem.get(i, i) <= 0.0) {
+							status_ = "Massless dof for explicit integration!";
+							killed_ = true;
+							return;
+						}
+					}
+				}
+
+				// assemble system load vector
+				status_ = "Assembling system load vector...";
+				DVec rSystem = new DVec(eqn_);
+				assembleLoad(rSystem, kSystem);
+
+				// assemble system initial displacement-velocity vectors
+				status_ = "Assembling system initial vectors...";
+				DVec uSystem = new DVec(eqn_);
+				DVec uuSystem = new DVec(eqn_);
+				assembleInitialVec(uSystem, uuSystem);
+
+				// start of time integration
+				status_ = "Time integration of system equations...";
+				solve(kSystem, mSystem, rSystem, uSystem, uuSystem);
 			}
 
-			// assemble system load vector
-			status_ = "Assembling system load vector...";
-			DVec rSystem = new DVec(eqn_);
-			assembleLoad(rSystem, kSystem);
-
-			// assemble system initial displacement-velocity vectors
-			status_ = "Assembling system initial vectors...";
-			DVec uSystem = new DVec(eqn_);
-			DVec uuSystem = new DVec(eqn_);
-			assembleInitialVec(uSystem, uuSystem);
-
-			// start of time integration
-			status_ = "Time integration of system equations...";
-			double[][] sol = new double[eqn_][n_];
-			solve(kSystem, mSystem, cSystem, rSystem, uSystem, uuSystem, sol);
+			// delete storage files of out-of-core matrices
+			finally {
+				deleteFile(kSystem);
+				deleteFile(mSystem);
+			}
 		}
 	}
 
 	/**
-	 * Solves semi-discrete equation of motion by direct integration.
+	 * Solves semi-discrete equation of motion by direct integration. The
+	 * displacements of each step are streamed to the output data file, so
+	 * that the memory demand does not depend on the number of steps.
 	 * 
 	 * @param k
 	 *            System stiffness matrix.
 	 * @param m
 	 *            System mass matrix.
-	 * @param c
-	 *            System damping matrix.
 	 * @param r
 	 *            System load vector.
 	 * @param u
 	 *            System initial displacement vector.
 	 * @param uu
 	 *            System initial velocity vector.
-	 * @param sol
-	 *            Solution matrix.
 	 */
-	private void solve(SMat k, SMat m, SMat c, DVec r, DVec u, DVec uu,
-			double[][] sol) {
+	private void solve(SMat k, SMat m, DVec r, DVec u, DVec uu) {
+
+		// open output data stream
+		OutputDataHandler2 out = structure_.openUnknowns(path_, eqn_, plan_
+				.getDofs(eqn_));
+		if (out == null) {
+			status_ = "Exception occurred during writing output data!";
+			killed_ = true;
+			return;
+		}
 
 		try {
 
+			// set near null space for multigrid preconditioner
+			setNearNullSpace();
+
 			// newmark method selected
 			if (integrationMethod_ == LinearTransient.newmark_)
-				newmark(k, m, c, r, u, uu, sol);
+				newmark(k, m, r, u, uu, out);
 
 			// wilson method selected
 			else if (integrationMethod_ == LinearTransient.wilson_)
-				wilson(k, m, c, r, u, uu, sol);
+				wilson(k, m, r, u, uu, out);
 
-			// clear solver
-			solver_.clear();
+			// mode superposition selected
+			else if (integrationMethod_ == LinearTransient.modal_)
+				modal(k, m, r, u, uu, out);
+
+			// central difference method selected
+			else if (integrationMethod_ == LinearTransient.centralDifference_)
+				centralDifference(m, r, u, uu, out);
 
-			// set unknowns to structure
+			// close output data stream
 			status_ = "Writing output data...";
 
 			// exception occurred during writing output data
-			if (structure_.setUnknowns(path_, sol, n_) == false) {
+			if (structure_.closeUnknowns(out) == false) {
 				status_ = "Exception occurred during writing output data!";
 				killed_ = true;
 			}
@@ -547,13 +808,28 @@ public class LinearTransient extends Analysis {
 			}
 		}
 
+		// exception occurred during writing output data
+		catch (IOException excep) {
+
+			// write message
+			structure_.closeUnknowns(out);
+			status_ = "Exception occurred during writing output data!";
+			killed_ = true;
+		}
+
 		// solve failed
 		catch (Exception excep) {
 
 			// write message
+			structure_.closeUnknowns(out);
 			status_ = "Solve failed!";
 			killed_ = true;
 		}
+
+		// clear solver
+		finally {
+			solver_.clear();
+		}
 	}
 
 	/**
@@ -564,26 +840,31 @@ public class LinearTransient extends Analysis {
 	 *            System stiffness matrix.
 	 * @param m
 	 *            System mass matrix.
-	 * @param c
-	 *            System damping matrix.
 	 * @param r
 	 *            System load vector.
 	 * @param u
 	 *            System initial displacement vector.
 	 * @param uu
 	 *            System initial velocity vector.
-	 * @param sol
-	 *            Solution matrix.
+	 * @param out
+	 *            Output data stream.
+	 * @throws IOException
+	 *             If displacements cannot be written.
 	 */
-	private void newmark(SMat k, SMat m, SMat c, DVec r, DVec u, DVec uu,
-			double[][] sol) {
+	private void newmark(SMat k, SMat m, DVec r, DVec u, DVec uu,
+			OutputDataHandler2 out) throws IOException {
 
 		// initialize acceleration vector
+		double alpha = proporCoeff_[0], beta = proporCoeff_[1];
+		boolean damped = alpha != 0.0 || beta != 0.0;
+		DVec temp1 = new DVec(eqn_), temp2 = new DVec(eqn_);
 		DVec uuu = r.scale(loadTimeFunc_.getValue(0.0));
-		if (c == null)
-			uuu = uuu.add(k.multiply(u).scale(-1.0));
-		else
-			uuu = uuu.add(c.multiply(uu).add(k.multiply(u)).scale(-1.0));
+		k.multiplyInto(u, temp1);
+		uuu.axpy(-1.0, temp1);
+		if (damped) {
+			damping(k, m, uu, temp1, temp2);
+			uuu.axpy(-1.0, temp1);
+		}
 
 		// compute initial acceleration vector
 		for (int i = 0; i < uuu.rowCount(); i++)
@@ -599,51 +880,78 @@ public class LinearTransient extends Analysis {
 		double a6 = dt_ * (1.0 - newmarkPar_[1]);
 		double a7 = newmarkPar_[1] * dt_;
 
-		// form effective stiffness matrix
-		if (c == null)
-			k.add(m.copy().scale(a0));
-		else
-			k.add(m.copy().scale(a0)).add(c.copy().scale(a1));
-
-		// initialize solver
-		solver_.initialize(k, u);
-
-		// loop over time steps
-		for (int i = 0; i < n_; i++) {
-
-			// set current time step
-			currentStep_ = i;
+		// keep stiffness for damping and form effective stiffness in place
+		// (mass matrix is diagonal)
+		SMat kd = null;
+		try {
+			kd = beta != 0.0 ? k.copy() : null;
+			k.scale(1.0 + a1 * beta);
+			double cm = a0 + a1 * alpha;
+			for (int i = 0; i < eqn_; i++)
+				k.add(i, i, cm * m.get(i, i));
+
+			// initialize solver and get factorization of effective stiffness
+			setRecycledVectors();
+			solver_.initialize(k, u);
+			Factorization factor = solver_.getFactorization();
+			stepIterations_ = factor == null ? new int[n_] : null;
+
+			// create work vectors
+			DVec rt = new DVec(eqn_), ut = new DVec(eqn_);
+			DVec uuut = new DVec(eqn_);
+			DVec w = beta != 0.0 ? new DVec(eqn_) : null;
+
+			// loop over time steps
+			for (int i = 0; i < n_; i++) {
+
+				// set current time step
+				currentStep_ = i;
+
+				// calculate effective load vector at time t + dt
+				temp1.combine(a0, u, a2, uu, a3, uuu);
+				m.multiplyInto(temp1, rt);
+				rt.axpy(loadTimeFunc_.getValue(i * dt_ + dt_), r);
+				if (damped) {
+					temp2.combine(a1, u, a4, uu, a5, uuu);
+					damping(kd, m, temp2, temp1, w);
+					rt.axpy(1.0, temp1);
+				}
 
-			// calculate effective load vector at time t + dt
-			DVec temp1 = u.scale(a0).add(uu.scale(a2)).add(uuu.scale(a3));
-			DVec rt = r.scale(loadTimeFunc_.getValue(i * dt_ + dt_));
-			if (c == null)
-				rt = rt.add(m.multiply(temp1));
-			else {
-				DVec temp2 = u.scale(a1).add(uu.scale(a4)).add(uuu.scale(a5));
-				rt = rt.add(m.multiply(temp1)).add(c.multiply(temp2));
+				// solve for displacements at time t + dt
+				if (factor == null && !coldStart_)
+					ut.combine(1.0, u, dt_, uu, 0.5 * dt_ * dt_, uuu);
+				else
+					ut.scaleInPlace(0.0);
+				if (factor != null)
+					factor.solve(rt, ut);
+				else
+					solver_.solve(k, rt, ut);
+
+				// set # of iterations and residual
+				setNumberOfIterations();
+				setResidual();
+
+				// calculate accelerations and velocities at time t + dt
+				uuut.combine(a0, ut, -a0, u, -a2, uu).axpy(-a3, uuu);
+				uu.axpy(a6, uuu).axpy(a7, uuut);
+
+				// replace displacement and acceleration vectors
+				DVec temp = u;
+				u = ut;
+				ut = temp;
+				temp = uuu;
+				uuu = uuut;
+				uuut = temp;
+
+				// write displacements to output data
+				if (plan_.isOutputStep(i))
+					out.write(u);
 			}
+		}
 
-			// solve for displacements at time t + dt
-			DVec ut = new DVec(u.rowCount());
-			solver_.solve(k, rt, ut);
-
-			// set # of iterations and residual
-			setNumberOfIterations();
-			setResidual();
-
-			// calculate accelerations and velocities at time t + dt
-			DVec temp3 = ut.subtract(u).scale(a0);
-			DVec uuut = temp3.subtract(uu.scale(a2)).subtract(uuu.scale(a3));
-			uu = uu.add(uuu.scale(a6)).add(uuut.scale(a7));
-
-			// replace displacement and acceleration vectors
-			u = ut;
-			uuu = uuut;
-
-			// set displacement to solution matrix
-			for (int j = 0; j < eqn_; j++)
-				sol[j][i] = u.get(j);
+		// delete storage file of auxiliary matrix
+		finally {
+			deleteFile(kd);
 		}
 	}
 
@@ -655,26 +963,31 @@ public class LinearTransient extends Analysis {
 	 *            System stiffness matrix.
 	 * @param m
 	 *            System mass matrix.
-	 * @param c
-	 *            System damping matrix.
 	 * @param r
 	 *            System load vector.
 	 * @param u
 	 *            System initial displacement vector.
 	 * @param uu
 	 *            System initial velocity vector.
-	 * @param sol
-	 *            Solution matrix.
+	 * @param out
+	 *            Output data stream.
+	 * @throws IOException
+	 *             If displacements cannot be written.
 	 */
-	private void wilson(SMat k, SMat m, SMat c, DVec r, DVec u, DVec uu,
-			double[][] sol) {
+	private void wilson(SMat k, SMat m, DVec r, DVec u, DVec uu,
+			OutputDataHandler2 out) throws IOException {
 
 		// initialize acceleration vector
+		double alpha = proporCoeff_[0], beta = proporCoeff_[1];
+		boolean damped = alpha != 0.0 || beta != 0.0;
+		DVec temp1 = new DVec(eqn_), temp2 = new DVec(eqn_);
 		DVec uuu = r.scale(loadTimeFunc_.getValue(0.0));
-		if (c == null)
-			uuu = uuu.add(k.multiply(u).scale(-1.0));
-		else
-			uuu = uuu.add(c.multiply(uu).add(k.multiply(u)).scale(-1.0));
+		k.multiplyInto(u, temp1);
+		uuu.axpy(-1.0, temp1);
+		if (damped) {
+			damping(k, m, uu, temp1, temp2);
+			uuu.axpy(-1.0, temp1);
+		}
 
 		// compute initial acceleration vector
 		for (int i = 0; i < uuu.rowCount(); i++)
@@ -691,56 +1004,491 @@ public class LinearTransient extends Analysis {
 		double a7 = dt_ / 2.0;
 		double a8 = dt_ * dt_ / 6.0;
 
-		// form effective stiffness matrix
-		if (c == null)
-			k.add(m.copy().scale(a0));
-		else
-			k.add(m.copy().scale(a0)).add(c.copy().scale(a1));
+		// keep stiffness for damping and form effective stiffness in place
+		// (mass matrix is diagonal)
+		SMat kd = null;
+		try {
+			kd = beta != 0.0 ? k.copy() : null;
+			k.scale(1.0 + a1 * beta);
+			double cm = a0 + a1 * alpha;
+			for (int i = 0; i < eqn_; i++)
+				k.add(i, i, cm * m.get(i, i));
+
+			// initialize solver and get factorization of effective stiffness
+			setRecycledVectors();
+			solver_.initialize(k, u);
+			Factorization factor = solver_.getFactorization();
+			stepIterations_ = factor == null ? new int[n_] : null;
+
+			// create work vectors
+			DVec rt = new DVec(eqn_), ut = new DVec(eqn_);
+			DVec uuut = new DVec(eqn_);
+			DVec w = beta != 0.0 ? new DVec(eqn_) : null;
+
+			// loop over time steps
+			for (int i = 0; i < n_; i++) {
+
+				// set current time step
+				currentStep_ = i;
+
+				// calculate effective load vector at time t + theta * dt
+				temp1.combine(a0, u, a2, uu, 2.0, uuu);
+				m.multiplyInto(temp1, rt);
+				double f0 = loadTimeFunc_.getValue(i * dt_);
+				double f1 = loadTimeFunc_.getValue(i * dt_ + dt_);
+				rt.axpy((1.0 - wilsonPar_) * f0 + wilsonPar_ * f1, r);
+				if (damped) {
+					temp2.combine(a1, u, 2.0, uu, a3, uuu);
+					damping(kd, m, temp2, temp1, w);
+					rt.axpy(1.0, temp1);
+				}
+
+				// solve for displacements at time t + theta * dt
+				double tdt = wilsonPar_ * dt_;
+				if (factor == null && !coldStart_)
+					ut.combine(1.0, u, tdt, uu, 0.5 * tdt * tdt, uuu);
+				else
+					ut.scaleInPlace(0.0);
+				if (factor != null)
+					factor.solve(rt, ut);
+				else
+					solver_.solve(k, rt, ut);
+
+				// set # of iterations and residual
+				setNumberOfIterations();
+				setResidual();
+
+				// calculate accelerations, velocities and displacements at time
+				// t + dt
+				uuut.combine(a4, ut, -a4, u, a5, uu).axpy(a6, uuu);
+				u.axpy(dt_, uu).axpy(a8, uuut).axpy(2.0 * a8, uuu);
+				uu.axpy(a7, uuut).axpy(a7, uuu);
+
+				// replace accelerations
+				DVec temp = uuu;
+				uuu = uuut;
+				uuut = temp;
+
+				// write displacements to output data
+				if (plan_.isOutputStep(i))
+					out.write(u);
+			}
+		}
+
+		// delete storage file of auxiliary matrix
+		finally {
+			deleteFile(kd);
+		}
+	}
+
+	/**
+	 * Applies Rayleigh damping operator to the given vector without forming
+	 * the damping matrix (c = alpha * M * v + beta * K * v).
+	 * 
+	 * @param k
+	 *            System stiffness matrix. Can be null if beta is zero.
+	 * @param m
+	 *            System mass matrix.
+	 * @param v
+	 *            The vector to be multiplied.
+	 * @param c
+	 *            The product vector.
+	 * @param w
+	 *            Work vector. Can be null if beta is zero.
+	 */
+	private void damping(SMat k, SMat m, DVec v, DVec c, DVec w) {
+		m.multiplyInto(v, c);
+		c.scaleInPlace(proporCoeff_[0]);
+		if (proporCoeff_[1] != 0.0) {
+			k.multiplyInto(v, w);
+			c.axpy(proporCoeff_[1], w);
+		}
+	}
+
+	/**
+	 * Solves semi-discrete equation of motion by mode superposition. The
+	 * lowest mass normalized modes are extracted by the Lanczos eigensolver,
+	 * the system load and initial vectors are projected onto the modes and the
+	 * uncoupled modal equations are integrated in closed form, assuming that
+	 * the load varies linearly within each time step. The proportional damping
+	 * is diagonal in modal coordinates. Displacements are recovered from modal
+	 * coordinates at the output steps. Note that the response of the
+	 * truncated (higher) modes is neglected. Displacement loads are not
+	 * supported, since the prescribed displacements would be lost in the
+	 * projection onto the lowest modes.
+	 * 
+	 * @param k
+	 *            System stiffness matrix.
+	 * @param m
+	 *            System mass matrix.
+	 * @param r
+	 *            System load vector.
+	 * @param u
+	 *            System initial displacement vector.
+	 * @param uu
+	 *            System initial velocity vector.
+	 * @param out
+	 *            Output data stream.
+	 * @throws IOException
+	 *             If displacements cannot be written.
+	 */
+	private void modal(SMat k, SMat m, DVec r, DVec u, DVec uu,
+			OutputDataHandler2 out) throws IOException {
+
+		// compute lowest modes
+		int nModes = Math.min(modes_, eqn_);
+		Solver6 eigen = new Solver6("Mode superposition", nModes, 1.0e-8);
+		eigen.initialize(k, m);
+		DVec eigVal = new DVec(nModes);
+		GPSMat eigVec = new GPSMat(eqn_, nModes);
+		eigen.solve(k, m, eigVal, eigVec, nModes);
+		double[][] phi = eigVec.getData();
+
+		// project load and initial vectors onto modes
+		DVec mu = m.multiply(u);
+		DVec muu = m.multiply(uu);
+		double[] p = new double[nModes];
+		double[] q = new double[nModes];
+		double[] qq = new double[nModes];
+		for (int j = 0; j < eqn_; j++) {
+			for (int i = 0; i < nModes; i++) {
+				p[i] += phi[j][i] * r.get(j);
+				q[i] += phi[j][i] * mu.get(j);
+				qq[i] += phi[j][i] * muu.get(j);
+			}
+		}
 
-		// initialize solver
-		solver_.initialize(k, u);
+		// compute exact integration operators of modal equations
+		double[][][] op = new double[nModes][][];
+		for (int i = 0; i < nModes; i++) {
+			double w2 = eigVal.get(i);
+			double c = proporCoeff_[0] + proporCoeff_[1] * w2;
+			double[][] h = { { 0.0, dt_, 0.0, 0.0 },
+					{ -w2 * dt_, -c * dt_, dt_, 0.0 },
+					{ 0.0, 0.0, 0.0, dt_ }, { 0.0, 0.0, 0.0, 0.0 } };
+			op[i] = MathUtil.exponential(h);
+		}
 
 		// loop over time steps
-		for (int i = 0; i < n_; i++) {
+		double[][] z = new double[n_][];
+		double f0 = loadTimeFunc_.getValue(0.0);
+		for (int s = 0; s < n_; s++) {
 
 			// set current time step
-			currentStep_ = i;
-
-			// calculate effective load vector at time t + theta * dt
-			DVec temp1 = u.scale(a0).add(uu.scale(a2)).add(uuu.scale(2.0));
-			DVec temp2 = u.scale(a1).add(uu.scale(2.0)).add(uuu.scale(a3));
-			DVec rt = r.scale(loadTimeFunc_.getValue(i * dt_));
-			rt = rt.subtract(rt.scale(wilsonPar_));
-			rt = rt.add(r.scale(loadTimeFunc_.getValue(i * dt_ + dt_)).scale(
-					wilsonPar_));
-			if (c == null)
-				rt = rt.add(m.multiply(temp1));
-			else
-				rt = rt.add(m.multiply(temp1)).add(c.multiply(temp2));
-
-			// solve for displacements at time t + theta * dt
-			DVec ut = new DVec(u.rowCount());
-			solver_.solve(k, rt, ut);
-
-			// set # of iterations and residual
-			setNumberOfIterations();
-			setResidual();
-
-			// calculate accelerations, velocities and displacements at time t +
-			// theta * dt
-			temp1 = ut.subtract(u).scale(a4);
-			DVec uuut = temp1.add(uu.scale(a5)).add(uuu.scale(a6));
-			DVec uut = uu.add(uuut.add(uuu).scale(a7));
-			temp2 = uuut.add(uuu.scale(2.0)).scale(a8);
-			u = u.add(uu.scale(dt_)).add(temp2);
-
-			// replace velocities and accelerations
-			uu = uut;
-			uuu = uuut;
-
-			// set displacement to solution matrix
-			for (int j = 0; j < eqn_; j++)
-				sol[j][i] = u.get(j);
+			currentStep_ = s;
+
+			// get load factors at the start and end of step
+			double f1 = loadTimeFunc_.getValue(s * dt_ + dt_);
+
+			// advance modal coordinates (stored at output steps)
+			if (plan_.isOutputStep(s))
+				z[s] = new double[nModes];
+			for (int i = 0; i < nModes; i++) {
+				double[][] e = op[i];
+				double p0 = p[i] * f0;
+				double dp = p[i] * (f1 - f0) / dt_;
+				double qt = e[0][0] * q[i] + e[0][1] * qq[i] + e[0][2] * p0
+						+ e[0][3] * dp;
+				qq[i] = e[1][0] * q[i] + e[1][1] * qq[i] + e[1][2] * p0
+						+ e[1][3] * dp;
+				q[i] = qt;
+				if (z[s] != null)
+					z[s][i] = qt;
+			}
+			f0 = f1;
+		}
+
+		// recover retained displacements at output steps
+		int[] dofs = out.getDofs();
+		int size = dofs == null ? eqn_ : dofs.length;
+		double[] x = new double[eqn_];
+		for (int s = 0; s < n_; s++) {
+			if (!plan_.isOutputStep(s))
+				continue;
+			double[] zs = z[s];
+			for (int j = 0; j < size; j++) {
+				int dof = dofs == null ? j : dofs[j];
+				double[] row = phi[dof];
+				double sum = 0.0;
+				for (int i = 0; i < nModes; i++)
+					sum += row[i] * zs[i];
+				x[dof] = sum;
+			}
+			out.write(x);
+		}
+	}
+
+	/**
+	 * Solves semi-discrete equation of motion by explicit central difference
+	 * method. The system stiffness matrix is neither assembled nor factorized;
+	 * internal forces are computed element by element in parallel from the
+	 * element stiffness matrices. The system mass matrix is diagonal (lumped),
+	 * mass proportional damping is treated at the current step and stiffness
+	 * proportional damping at the previous half step. Displacement loads are
+	 * prescribed directly to the related dofs.
+	 * <p>
+	 * The critical time step is estimated from the Gershgorin bound of the
+	 * largest frequency, which is computed from the row sums of element
+	 * stiffness matrices. If the time step size exceeds the stable limit, each
+	 * step is subdivided into equal sub-steps and results are stored at the
+	 * end of each step.
+	 * 
+	 * @param m
+	 *            System mass matrix.
+	 * @param r
+	 *            System load vector.
+	 * @param u
+	 *            System initial displacement vector.
+	 * @param uu
+	 *            System initial velocity vector.
+	 * @param out
+	 *            Output data stream.
+	 * @throws Exception
+	 *             If internal force computation or writing fails.
+	 */
+	private void centralDifference(SMat m, DVec r, DVec u, DVec uu,
+			OutputDataHandler2 out) throws Exception {
+
+		// collect element and nodal stiffness matrices
+		Vector<int[]> dofs = new Vector<int[]>();
+		Vector<double[][]> matrices = new Vector<double[][]>();
+		double[][][] elements = Assembler.getElementMatrices(structure_,
+				Assembler.stiffness_, threads_);
+		for (int i = 0; i < elements.length; i++) {
+			dofs.add(structure_.getElement(i).getDofNumbers());
+			matrices.add(elements[i]);
+		}
+		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
+			Node node = structure_.getNode(i);
+			if (node.getSprings() != null) {
+				dofs.add(node.getDofNumbers());
+				matrices.add(node.getStiffnessMatrix().get2DArray());
+			}
+		}
+		final int[][] dof = dofs.toArray(new int[dofs.size()][]);
+		final double[][][] ke = matrices.toArray(new double[dof.length][][]);
+
+		// collect prescribed displacements
+		Vector<Integer> presDofs = new Vector<Integer>();
+		Vector<Double> presValues = new Vector<Double>();
+		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
+			Node node = structure_.getNode(i);
+			if (node.getDispLoads().size() != 0) {
+				int[] ndof = node.getDofNumbers();
+				DVec vec = node.getDispLoadVector();
+				for (int j = 0; j < 6; j++) {
+					if (ndof[j] != -1 && vec.get(j) != 0.0) {
+						presDofs.add(ndof[j]);
+						presValues.add(vec.get(j));
+					}
+				}
+			}
+		}
+		boolean[] prescribed = new boolean[eqn_];
+		for (int i = 0; i < presDofs.size(); i++)
+			prescribed[presDofs.get(i)] = true;
+
+		// get system vectors
+		double[] mass = new double[eqn_];
+		double[] load = new double[eqn_];
+		double[] x = u.get1DArray();
+		double[] v = uu.get1DArray();
+		for (int i = 0; i < eqn_; i++) {
+			mass[i] = m.get(i, i);
+			load[i] = r.get(i);
+		}
+
+		// estimate largest frequency from Gershgorin bound
+		double[] rowSum = new double[eqn_];
+		for (int e = 0; e < dof.length; e++) {
+			for (int j = 0; j < dof[e].length; j++) {
+				if (dof[e][j] != -1) {
+					for (int l = 0; l < dof[e].length; l++)
+						rowSum[dof[e][j]] += Math.abs(ke[e][j][l]);
+				}
+			}
+		}
+		double w2 = 0.0;
+		for (int i = 0; i < eqn_; i++)
+			if (!prescribed[i])
+				w2 = Math.max(w2, rowSum[i] / mass[i]);
+
+		// compute critical time step and number of sub-steps
+		double alpha = proporCoeff_[0], beta = proporCoeff_[1];
+		criticalStep_ = Double.POSITIVE_INFINITY;
+		if (w2 > 0.0) {
+			double w = Math.sqrt(w2);
+			double ksi = 0.5 * (beta * w + alpha / w);
+			criticalStep_ = 2.0 / w * (Math.sqrt(1.0 + ksi * ksi) - ksi);
+		}
+		int nSub = Math.max(1, (int) Math.ceil(dt_ / (0.9 * criticalStep_)));
+		double h = dt_ / nSub;
+
+		// create pool
+		int threads = threads_;
+		if (threads <= 0)
+			threads = Runtime.getRuntime().availableProcessors();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		try {
+
+			// create internal force tasks (one buffer per task)
+			final double[] y = new double[eqn_];
+			Vector<Callable<Object>> tasks = new Vector<Callable<Object>>();
+			Vector<double[]> buffers = new Vector<double[]>();
+			int size = (dof.length + threads - 1) / threads;
+			for (int c = 0; c * size < dof.length; c++) {
+				final int first = c * size;
+				final int last = Math.min(dof.length, first + size);
+				final double[] f = new double[eqn_];
+				buffers.add(f);
+				tasks.add(new Callable<Object>() {
+					public Object call() {
+						Arrays.fill(f, 0.0);
+						for (int e = first; e < last; e++)
+							multiply(dof[e], ke[e], y, f);
+						return null;
+					}
+				});
+			}
+
+			// create reduction tasks summing the buffers row-wise
+			final double[] fint = new double[eqn_];
+			final double[][] f = buffers.toArray(new double[buffers.size()][]);
+			Vector<Callable<Object>> sums = new Vector<Callable<Object>>();
+			int rows = Math.max(1, (eqn_ + threads - 1) / threads);
+			for (int i = 0; i < eqn_; i += rows) {
+				final int first = i;
+				final int last = Math.min(eqn_, first + rows);
+				sums.add(new Callable<Object>() {
+					public Object call() {
+						for (int j = first; j < last; j++) {
+							double sum = 0.0;
+							for (int t = 0; t < f.length; t++)
+								sum += f[t][j];
+							fint[j] = sum;
+						}
+						return null;
+					}
+				});
+			}
+
+			// prescribe initial displacements
+			double f0 = loadTimeFunc_.getValue(0.0);
+			for (int i = 0; i < presDofs.size(); i++)
+				x[presDofs.get(i)] = presValues.get(i) * f0;
+
+			// compute initial acceleration and velocity at half step
+			internalForce(pool, tasks, sums, x, v, beta, y);
+			for (int i = 0; i < eqn_; i++) {
+				double a = (load[i] * f0 - fint[i]) / mass[i] - alpha * v[i];
+				v[i] += 0.5 * h * a;
+			}
+
+			// loop over sub-steps
+			int total = n_ * nSub;
+			double c0 = 1.0 / h - 0.5 * alpha, c1 = 1.0 / h + 0.5 * alpha;
+			for (int s = 1; s <= total; s++) {
+
+				// compute velocities of prescribed dofs
+				double ft = loadTimeFunc_.getValue(s * h);
+				for (int i = 0; i < presDofs.size(); i++) {
+					int d = presDofs.get(i);
+					v[d] = (presValues.get(i) * ft - x[d]) / h;
+				}
+
+				// update displacements
+				for (int i = 0; i < eqn_; i++)
+					x[i] += h * v[i];
+
+				// write displacements to output data at end of step
+				if (s % nSub == 0) {
+					currentStep_ = s / nSub - 1;
+					if (plan_.isOutputStep(currentStep_))
+						out.write(x);
+				}
+
+				// update velocities at next half step
+				if (s < total) {
+					internalForce(pool, tasks, sums, x, v, beta, y);
+					for (int i = 0; i < eqn_; i++)
+						v[i] = (c0 * v[i] + (load[i] * ft - fint[i])
+								/ mass[i]) / c1;
+				}
+			}
+		}
+
+		// release threads
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Computes internal (elastic and stiffness proportional damping) forces
+	 * of the system by running the element tasks in parallel, and then the
+	 * reduction tasks summing their buffers into the internal force array.
+	 * 
+	 * @param pool
+	 *            Thread pool.
+	 * @param tasks
+	 *            Element tasks.
+	 * @param sums
+	 *            Reduction tasks.
+	 * @param x
+	 *            System displacements.
+	 * @param v
+	 *            System velocities.
+	 * @param beta
+	 *            Stiffness proportional damping coefficient.
+	 * @param y
+	 *            Shared input array of element tasks.
+	 * @throws Exception
+	 *             If a task fails.
+	 */
+	private void internalForce(ForkJoinPool pool,
+			Vector<Callable<Object>> tasks, Vector<Callable<Object>> sums,
+			double[] x, double[] v, double beta, double[] y) throws Exception {
+
+		// set input of tasks
+		for (int i = 0; i < y.length; i++)
+			y[i] = x[i] + beta * v[i];
+
+		// run element tasks
+		List<Future<Object>> results = pool.invokeAll(tasks);
+		for (int i = 0; i < results.size(); i++)
+			results.get(i).get();
+
+		// run reduction tasks
+		results = pool.invokeAll(sums);
+		for (int i = 0; i < results.size(); i++)
+			results.get(i).get();
+	}
+
+	/**
+	 * Multiplies element stiffness matrix with the element part of the given
+	 * system vector and adds the product to the given system array.
+	 * 
+	 * @param dof
+	 *            Dof numbers of element.
+	 * @param ke
+	 *            Element stiffness matrix.
+	 * @param y
+	 *            System vector.
+	 * @param f
+	 *            System array to add the product.
+	 */
+	private static void multiply(int[] dof, double[][] ke, double[] y,
+			double[] f) {
+		for (int j = 0; j < dof.length; j++) {
+			if (dof[j] == -1)
+				continue;
+			double sum = 0.0;
+			double[] row = ke[j];
+			for (int l = 0; l < dof.length; l++)
+				if (dof[l] != -1)
+					sum += row[l] * y[dof[l]];
+			f[dof[j]] += sum;
 		}
 	}
 
@@ -892,8 +1640,8 @@ public class LinearTransient extends Analysis {
 				}
 			}
 
-			// check if the node has displacement load
-			if (node.getDispLoads().size() != 0) {
+			// check if the node has displacement load (implicit methods)
+			if (kSystem != null && node.getDispLoads().size() != 0) {
 
 				// get node's dof numbers array
 				int[] dof = node.getDofNumbers();
@@ -932,29 +1680,9 @@ public class LinearTransient extends Analysis {
 	 */
 	private void assembleMass(Mat mSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get mass matrix of element in nodal local coordinate system
-			DMat me = e.getMassMatrix(Element.local_);
-
-			// loop over rows of element mass matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// store into system mass matrix
-					mSystem.add(dof[j], dof[j], me.get(j, j));
-				}
-			}
-		}
+		// assemble diagonals of element mass matrices
+		Assembler.assembleDiagonal(structure_, mSystem, Assembler.mass_,
+				threads_);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -995,37 +1723,9 @@ public class LinearTransient extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Element.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_,
+				threads_);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -1042,24 +1742,8 @@ public class LinearTransient extends Analysis {
 				// get stiffness matrix
 				DMat kn = node.getStiffnessMatrix();
 
-				// loop over rows of nodal stiffness matrix
-				for (int j = 0; j < dof.length; j++) {
-
-					// check if dof is free
-					if (dof[j] != -1) {
-
-						// loop over columns of nodal stiffness matrix
-						for (int k = 0; k < dof.length; k++) {
-
-							// check if dof is free
-							if (dof[k] != -1) {
-
-								// store into system stiffness matrix
-								kSystem.add(dof[j], dof[k], kn.get(j, k));
-							}
-						}
-					}
-				}
+				// store into system stiffness matrix (free dofs only)
+				kSystem.add(dof, kn);
 			}
 
 			// check if the node has displacement loads
@@ -1094,6 +1778,34 @@ public class LinearTransient extends Analysis {
 		}
 	}
 
+	/**
+	 * Deletes the storage file of the given matrix if it is stored out of
+	 * core. A file which cannot be deleted is left to be deleted on exit.
+	 * 
+	 * @param a
+	 *            The matrix (can be null).
+	 */
+	private static void deleteFile(SMat a) {
+		if (a instanceof USB3Mat) {
+			try {
+				((USB3Mat) a).delete();
+			} catch (IllegalArgumentException excep) {
+			}
+		}
+	}
+
+	/**
+	 * Returns true if any node has displacement loads.
+	 * 
+	 * @return True if any node has displacement loads.
+	 */
+	private boolean hasDispLoads() {
+		for (int i = 0; i < structure_.getNumberOfNodes(); i++)
+			if (structure_.getNode(i).getDispLoads().size() != 0)
+				return true;
+		return false;
+	}
+
 	/**
 	 * Computes and returns half-bandwidth of the system stiffness matrix.
 	 * 
@@ -1135,6 +1847,26 @@ public class LinearTransient extends Analysis {
 		return max;
 	}
 
+	/**
+	 * Sets near null space of the system matrix to solver, if an iterative
+	 * solver with algebraic multigrid preconditioner is used.
+	 * 
+	 */
+	private void setNearNullSpace() {
+
+		// iterative solver
+		if (solver_.getSolutionType() == LESolver.iterative_) {
+
+			// cast solver
+			Solver0 solver = (Solver0) solver_;
+
+			// algebraic multigrid preconditioner
+			if (solver.getPreconditionerType() == Solver0.AMG_)
+				solver.setNearNullSpace(structure_.getDofBlocks(), structure_
+						.getRigidBodyModes(eqn_));
+		}
+	}
+
 	/**
 	 * Sets number of iterations, if an iterative solver is used.
 	 * 
@@ -1149,6 +1881,26 @@ public class LinearTransient extends Analysis {
 
 			// return number of iterations
 			iterations_ = solver.getIterations();
+			if (stepIterations_ != null && currentStep_ >= 0)
+				stepIterations_[currentStep_] = iterations_;
+		}
+	}
+
+	/**
+	 * Sets number of recycled Ritz vectors to solver, if an iterative solver
+	 * is used.
+	 * 
+	 */
+	private void setRecycledVectors() {
+
+		// iterative solver
+		if (solver_.getSolutionType() == LESolver.iterative_) {
+
+			// cast solver
+			Solver0 solver = (Solver0) solver_;
+
+			// set number of recycled vectors
+			solver.setRecycledVectors(recycle_);
 		}
 	}
 
@@ -1168,4 +1920,23 @@ public class LinearTransient extends Analysis {
 			residual_ = solver.getResidual();
 		}
 	}
+
+	/**
+	 * Reads analysis from the given stream. Analyses saved before the output
+	 * plan was introduced don't contain it, the plan retaining all steps and
+	 * unknowns is set to them.
+	 * 
+	 * @param in
+	 *            The object input stream.
+	 * @throws IOException
+	 *             If an I/O error occurs.
+	 * @throws ClassNotFoundException
+	 *             If a class of a serialized object cannot be found.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		if (plan_ == null)
+			plan_ = new OutputPlan();
+	}
 }
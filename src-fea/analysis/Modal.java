@@ -19,11 +19,11 @@ import java.util.Vector;
 
 import solver.GESolver;
 import solver.Solver;
+import solver.Solver6;
 
 import boundary.BoundaryCase;
 
 import node.Node;
-import element.Element;
 
 import matrix.*;
 
@@ -46,6 +46,9 @@ public class Modal extends Analysis {
 	/** Array storing the eigenvalues of analysis. */
 	private double[] eigVal_;
 
+	/** Cyclic frequency range (in Hz) of the modes to be extracted. */
+	private double[] range_;
+
 	/**
 	 * Creates modal analysis.
 	 * 
@@ -66,6 +69,37 @@ public class Modal extends Analysis {
 		solver_ = (GESolver) solver;
 	}
 
+	/**
+	 * Sets cyclic frequency range (in Hz) of the modes to be extracted. All
+	 * modes within the range are computed by spectrum slicing, instead of the
+	 * required number of lowest modes of the solver. This is only available
+	 * for the Lanczos solver.
+	 * 
+	 * @param range
+	 *            Array storing the lower and upper cyclic frequencies. Null
+	 *            means the lowest modes are extracted.
+	 */
+	public void setFrequencyRange(double[] range) {
+
+		// check range
+		if (range != null)
+			if (range.length != 2 || range[0] < 0.0 || range[0] >= range[1])
+				exceptionHandler("Illegal frequency range for modal analysis!");
+
+		// set range
+		range_ = range;
+	}
+
+	/**
+	 * Returns cyclic frequency range (in Hz) of the modes to be extracted.
+	 * 
+	 * @return Array storing the lower and upper cyclic frequencies, or null
+	 *         if the lowest modes are extracted.
+	 */
+	public double[] getFrequencyRange() {
+		return range_;
+	}
+
 	/**
 	 * Returns the number of eqautions to be solved.
 	 * 
@@ -147,7 +181,8 @@ public class Modal extends Analysis {
 	 * Returns analysis properties. The sequence of information is; name
 	 * (String), analysis type (int), boundary cases (String[]), solver
 	 * (String), eigenvalues (double[]), natural frequencies (double[]), cyclic
-	 * frequencies (double[]), periods (double[]).
+	 * frequencies (double[]), periods (double[]), half-bandwidths and profiles
+	 * before and after dof renumbering (long[]).
 	 * 
 	 * @return Vector storing the analysis properties.
 	 */
@@ -184,6 +219,12 @@ public class Modal extends Analysis {
 		// get periods -7
 		prop.add(getPeriods());
 
+		// get half-bandwidths and profiles -8
+		prop.add(structure_.getBandInfo());
+
+		// get assembly throughputs -9
+		prop.add(structure_.getAssemblyInfo());
+
 		// return vector
 		return prop;
 	}
@@ -223,6 +264,12 @@ public class Modal extends Analysis {
 			killed_ = true;
 		}
 
+		// frequency range without Lanczos solver
+		else if (range_ != null && solver_.getType() != Solver.solver6_) {
+			status_ = "Frequency range requires Lanczos solver!";
+			killed_ = true;
+		}
+
 		// no problem with the model
 		else {
 
@@ -238,6 +285,11 @@ public class Modal extends Analysis {
 			status_ = "Computing effective bandwidth...";
 			hbw_ = computeHalfBandWidth();
 
+			// compute skyline profile
+			int[] heights = null;
+			if (solver_.getType() == Solver.solver6_)
+				heights = structure_.getColumnHeights();
+
 			// assemble system stiffness matrix
 			status_ = "Assembling system stiffness matrix...";
 			SMat kSystem = null;
@@ -245,6 +297,8 @@ public class Modal extends Analysis {
 				kSystem = new USB1Mat(eqn_, hbw_);
 			else if (solver_.getType() == Solver.solver4_)
 				kSystem = new USPMat(eqn_);
+			else if (solver_.getType() == Solver.solver6_)
+				kSystem = new USB1Mat(eqn_, heights);
 			assembleStiffness(kSystem);
 
 			// assemble system mass matrix
@@ -254,6 +308,8 @@ public class Modal extends Analysis {
 				mSystem = new USB1Mat(eqn_, hbw_);
 			else if (solver_.getType() == Solver.solver4_)
 				mSystem = new USPMat(eqn_);
+			else if (solver_.getType() == Solver.solver6_)
+				mSystem = new USB1Mat(eqn_, heights);
 			assembleMass(mSystem);
 
 			// start of eigenvalue problem solution
@@ -278,13 +334,49 @@ public class Modal extends Analysis {
 			solver_.initialize(kSystem, mSystem);
 
 			// create solution vector/matrix
-			int nroot = solver_.getNumberOfRequiredEigenvalues();
 			int nn = kSystem.rowCount();
-			DVec eigVal = new DVec(nroot);
-			GPSMat eigVec = new GPSMat(nn, nroot);
+			int nroot = Math.min(solver_.getNumberOfRequiredEigenvalues(), nn);
+			DVec eigVal = null;
+			GPSMat eigVec = null;
+
+			// solve for lowest modes
+			if (range_ == null) {
+				eigVal = new DVec(nroot);
+				eigVec = new GPSMat(nn, nroot);
+				solver_.solve(kSystem, mSystem, eigVal, eigVec, nroot);
+			}
 
-			// solve
-			solver_.solve(kSystem, mSystem, eigVal, eigVec, nroot);
+			// solve for modes within frequency range
+			else {
+
+				// convert cyclic frequencies to eigenvalues
+				double lower = Math.pow(2.0 * Math.PI * range_[0], 2.0);
+				double upper = Math.pow(2.0 * Math.PI * range_[1], 2.0);
+
+				// solve
+				Vector<Double> val = new Vector<Double>();
+				Vector<double[]> vec = new Vector<double[]>();
+				((Solver6) solver_).solve(kSystem, mSystem, lower, upper, val,
+						vec);
+
+				// no modes within range
+				if (val.isEmpty()) {
+					status_ = "No modes within frequency range!";
+					killed_ = true;
+					return;
+				}
+
+				// create solution vector/matrix
+				nroot = val.size();
+				eigVal = new DVec(nroot);
+				eigVec = new GPSMat(nn, nroot);
+				for (int i = 0; i < nroot; i++) {
+					eigVal.set(i, val.get(i));
+					double[] x = vec.get(i);
+					for (int j = 0; j < nn; j++)
+						eigVec.set(j, i, x[j]);
+				}
+			}
 
 			// set unknowns to structure
 			status_ = "Writing output data...";
@@ -329,29 +421,8 @@ public class Modal extends Analysis {
 	 */
 	private void assembleMass(Mat mSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get mass matrix of element in nodal local coordinate system
-			DMat me = e.getMassMatrix(Element.local_);
-
-			// loop over rows of element mass matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// store into system mass matrix
-					mSystem.add(dof[j], dof[j], me.get(j, j));
-				}
-			}
-		}
+		// assemble diagonals of element mass matrices
+		Assembler.assembleDiagonal(structure_, mSystem, Assembler.mass_, 0);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
@@ -391,37 +462,8 @@ public class Modal extends Analysis {
 	 */
 	private void assembleStiffness(Mat kSystem) {
 
-		// loop over elements
-		for (int i = 0; i < structure_.getNumberOfElements(); i++) {
-
-			// get element
-			Element e = structure_.getElement(i);
-
-			// get dof numbers of element
-			int[] dof = e.getDofNumbers();
-
-			// get stiffness matrix of element in nodal local coordinate system
-			DMat ke = e.getStiffnessMatrix(Element.local_);
-
-			// loop over rows of element stiffness matrix
-			for (int j = 0; j < dof.length; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// loop over columns of element stiffness matrix
-					for (int k = 0; k < dof.length; k++) {
-
-						// check if dof is free
-						if (dof[k] != -1) {
-
-							// store into system stiffness matrix
-							kSystem.add(dof[j], dof[k], ke.get(j, k));
-						}
-					}
-				}
-			}
-		}
+		// assemble element stiffness matrices
+		Assembler.assemble(structure_, kSystem, Assembler.stiffness_, 0);
 
 		// loop over nodes
 		for (int i = 0; i < structure_.getNumberOfNodes(); i++) {
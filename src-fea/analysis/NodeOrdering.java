@@ -0,0 +1,281 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import node.Node;
+import element.Element;
+
+/**
+ * This class provides bandwidth and profile reducing orderings for the nodes of
+ * structure. The orderings are computed over the node adjacency graph, where
+ * two nodes are adjacent if they are connected by at least one element.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class NodeOrdering {
+
+	/**
+	 * Builds and returns the node adjacency graph of the given structure.
+	 * 
+	 * @param structure
+	 *            The structure.
+	 * @return Array storing the indices of adjacent nodes for each node.
+	 */
+	public static int[][] getAdjacency(Structure structure) {
+
+		// map nodes to their indices
+		int nn = structure.getNumberOfNodes();
+		HashMap<Node, Integer> indices = new HashMap<Node, Integer>(2 * nn);
+		for (int i = 0; i < nn; i++)
+			indices.put(structure.getNode(i), i);
+
+		// collect element node indices and count node connections
+		int ne = structure.getNumberOfElements();
+		int[][] connectivity = new int[ne][];
+		int[] count = new int[nn];
+		for (int i = 0; i < ne; i++) {
+			Element e = structure.getElement(i);
+			Node[] nodes = e.getNodes();
+			int[] con = new int[nodes.length];
+			for (int j = 0; j < nodes.length; j++) {
+				con[j] = indices.get(nodes[j]);
+				count[con[j]] += nodes.length - 1;
+			}
+			connectivity[i] = con;
+		}
+
+		// fill adjacency lists (may contain duplicates)
+		int[][] adj = new int[nn][];
+		for (int i = 0; i < nn; i++)
+			adj[i] = new int[count[i]];
+		Arrays.fill(count, 0);
+		for (int i = 0; i < ne; i++) {
+			int[] con = connectivity[i];
+			for (int j = 0; j < con.length; j++)
+				for (int k = 0; k < con.length; k++)
+					if (j != k)
+						adj[con[j]][count[con[j]]++] = con[k];
+		}
+
+		// sort adjacency lists and remove duplicates
+		for (int i = 0; i < nn; i++) {
+			int[] list = adj[i];
+			Arrays.sort(list);
+			int m = 0;
+			for (int j = 0; j < list.length; j++)
+				if ((m == 0 || list[m - 1] != list[j]) && list[j] != i)
+					list[m++] = list[j];
+			adj[i] = Arrays.copyOf(list, m);
+		}
+
+		// return adjacency graph
+		return adj;
+	}
+
+	/**
+	 * Computes reverse Cuthill-McKee ordering of the given graph. Each
+	 * connected component is started from a pseudo-peripheral node (George and
+	 * Liu).
+	 * 
+	 * @param adj
+	 *            Adjacency graph.
+	 * @return The ordering. The k-th entry is the index of the k-th node in
+	 *         the new sequence.
+	 */
+	public static int[] reverseCuthillMcKee(int[][] adj) {
+
+		// initialize variables
+		int n = adj.length;
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		int[] level = new int[n];
+		Arrays.fill(level, -1);
+		int[] queue = new int[n];
+		int m = 0, unvisited = 0;
+
+		// loop over connected components
+		while (m < n) {
+
+			// find the next unvisited node
+			while (visited[unvisited])
+				unvisited++;
+
+			// select node with minimum degree of its component as seed
+			int size = levelStructure(adj, unvisited, visited, level, queue, 0);
+			int seed = unvisited;
+			for (int i = 1; i < size; i++)
+				if (adj[queue[i]].length < adj[seed].length)
+					seed = queue[i];
+
+			// find pseudo-peripheral node of component
+			int start = pseudoPeripheral(adj, seed, visited, level, queue,
+					size);
+
+			// Cuthill-McKee breadth first search
+			int first = m;
+			order[m++] = start;
+			visited[start] = true;
+			for (int k = first; k < m; k++) {
+				int[] list = adj[order[k]];
+				int begin = m;
+				for (int j = 0; j < list.length; j++) {
+					int next = list[j];
+					if (!visited[next]) {
+						visited[next] = true;
+						order[m++] = next;
+					}
+				}
+				sortByDegree(adj, order, begin, m);
+			}
+		}
+
+		// reverse ordering
+		for (int i = 0, j = n - 1; i < j; i++, j--) {
+			int temp = order[i];
+			order[i] = order[j];
+			order[j] = temp;
+		}
+		return order;
+	}
+
+	/**
+	 * Finds and returns a pseudo-peripheral node of the component containing
+	 * the given seed node.
+	 * 
+	 * @param adj
+	 *            Adjacency graph.
+	 * @param seed
+	 *            Seed node.
+	 * @param visited
+	 *            Array marking the nodes of already ordered components.
+	 * @param level
+	 *            Work array for level numbers.
+	 * @param queue
+	 *            Work array for breadth first search.
+	 * @param reached
+	 *            Number of nodes in the queue reached by the previous search
+	 *            in the component.
+	 * @return The pseudo-peripheral node.
+	 */
+	private static int pseudoPeripheral(int[][] adj, int seed,
+			boolean[] visited, int[] level, int[] queue, int reached) {
+
+		// initialize
+		int root = seed;
+		int eccentricity = -1;
+		int size = reached;
+
+		// loop until eccentricity stops growing
+		while (true) {
+
+			// build rooted level structure
+			size = levelStructure(adj, root, visited, level, queue, size);
+			int depth = level[queue[size - 1]];
+
+			// no growth
+			if (depth <= eccentricity)
+				return root;
+			eccentricity = depth;
+
+			// select node with minimum degree from the last level
+			int next = queue[size - 1];
+			for (int i = size - 1; i >= 0 && level[queue[i]] == depth; i--)
+				if (adj[queue[i]].length < adj[next].length)
+					next = queue[i];
+
+			// root reached a peripheral node
+			if (next == root)
+				return root;
+			root = next;
+		}
+	}
+
+	/**
+	 * Builds rooted level structure by breadth first search.
+	 * 
+	 * @param adj
+	 *            Adjacency graph.
+	 * @param root
+	 *            Root node.
+	 * @param visited
+	 *            Array marking the nodes to be excluded.
+	 * @param level
+	 *            Array to store the level numbers (-1 for unreached nodes).
+	 * @param queue
+	 *            Array to store the nodes in breadth first order. It contains
+	 *            the nodes reached by the previous search on entry.
+	 * @param reached
+	 *            Number of nodes in the queue reached by the previous search
+	 *            in the component (their levels are reset). The other nodes
+	 *            of component must have level -1.
+	 * @return The number of nodes reached.
+	 */
+	private static int levelStructure(int[][] adj, int root,
+			boolean[] visited, int[] level, int[] queue, int reached) {
+
+		// reset levels reached by the previous search
+		for (int k = 0; k < reached; k++)
+			level[queue[k]] = -1;
+
+		// breadth first search
+		int size = 0;
+		queue[size++] = root;
+		level[root] = 0;
+		for (int k = 0; k < size; k++) {
+			int node = queue[k];
+			int[] list = adj[node];
+			for (int j = 0; j < list.length; j++) {
+				int next = list[j];
+				if (!visited[next] && level[next] == -1) {
+					level[next] = level[node] + 1;
+					queue[size++] = next;
+				}
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Sorts the given part of the ordering by increasing node degree
+	 * (insertion sort, the parts are short).
+	 * 
+	 * @param adj
+	 *            Adjacency graph.
+	 * @param order
+	 *            Ordering array.
+	 * @param begin
+	 *            First index of the part (inclusive).
+	 * @param end
+	 *            Last index of the part (exclusive).
+	 */
+	private static void sortByDegree(int[][] adj, int[] order, int begin,
+			int end) {
+		for (int i = begin + 1; i < end; i++) {
+			int node = order[i];
+			int degree = adj[node].length;
+			int j = i - 1;
+			while (j >= begin && adj[order[j]].length > degree) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = node;
+		}
+	}
+}
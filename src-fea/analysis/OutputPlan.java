@@ -0,0 +1,252 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package analysis;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Vector;
+
+import node.Node;
+import element.Element;
+
+import data.Group;
+
+/**
+ * Class for output plan of step-wise analyses. The plan determines which steps
+ * and which nodes are retained in the output data. A step is retained if its
+ * number is a multiple of the stride or it is one of the explicitly given
+ * steps. If groups are given, only the unknowns of the group nodes and of the
+ * nodes of group elements are retained; otherwise all unknowns are retained.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class OutputPlan implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Step stride. */
+	private int stride_ = 1;
+
+	/** Explicitly given step numbers (sorted). */
+	private int[] steps_ = new int[0];
+
+	/** Groups of nodes and elements to be retained. */
+	private Vector<Group> groups_ = new Vector<Group>();
+
+	/**
+	 * Creates output plan retaining all steps and unknowns.
+	 */
+	public OutputPlan() {
+	}
+
+	/**
+	 * Creates output plan retaining every given number of steps.
+	 * 
+	 * @param stride
+	 *            Step stride.
+	 */
+	public OutputPlan(int stride) {
+		setStride(stride);
+	}
+
+	/**
+	 * Sets step stride. Every stride-th step (the stride-th, 2*stride-th, ...)
+	 * is retained. Stride of zero retains only the explicitly given steps.
+	 * 
+	 * @param stride
+	 *            Step stride.
+	 */
+	public void setStride(int stride) {
+
+		// check stride
+		if (stride < 0)
+			exceptionHandler("Illegal step stride for output plan!");
+
+		// set stride
+		stride_ = stride;
+	}
+
+	/**
+	 * Sets explicitly given steps to be retained.
+	 * 
+	 * @param steps
+	 *            Step numbers (starting from 0).
+	 */
+	public void setSteps(int[] steps) {
+
+		// check steps
+		for (int i = 0; i < steps.length; i++)
+			if (steps[i] < 0)
+				exceptionHandler("Illegal step number for output plan!");
+
+		// set sorted steps
+		steps_ = steps.clone();
+		Arrays.sort(steps_);
+	}
+
+	/**
+	 * Sets groups to be retained.
+	 * 
+	 * @param groups
+	 *            Groups to be retained. Empty vector retains all unknowns.
+	 */
+	public void setGroups(Vector<Group> groups) {
+		groups_ = groups;
+	}
+
+	/**
+	 * Adds group to be retained.
+	 * 
+	 * @param group
+	 *            Group to be added.
+	 */
+	public void addGroup(Group group) {
+		groups_.add(group);
+	}
+
+	/**
+	 * Returns step stride.
+	 * 
+	 * @return Step stride.
+	 */
+	public int getStride() {
+		return stride_;
+	}
+
+	/**
+	 * Returns explicitly given steps.
+	 * 
+	 * @return Step numbers.
+	 */
+	public int[] getSteps() {
+		return steps_;
+	}
+
+	/**
+	 * Returns groups to be retained.
+	 * 
+	 * @return Groups to be retained.
+	 */
+	public Vector<Group> getGroups() {
+		return groups_;
+	}
+
+	/**
+	 * Returns true if the given step is retained.
+	 * 
+	 * @param step
+	 *            Step number (starting from 0).
+	 * @return True if the given step is retained.
+	 */
+	public boolean isOutputStep(int step) {
+		if (stride_ > 0 && (step + 1) % stride_ == 0)
+			return true;
+		return Arrays.binarySearch(steps_, step) >= 0;
+	}
+
+	/**
+	 * Returns the retained steps for the given number of steps.
+	 * 
+	 * @param n
+	 *            Number of steps.
+	 * @return Retained step numbers in ascending order.
+	 */
+	public int[] getOutputSteps(int n) {
+
+		// count retained steps
+		int count = 0;
+		for (int i = 0; i < n; i++)
+			if (isOutputStep(i))
+				count++;
+
+		// collect retained steps
+		int[] steps = new int[count];
+		count = 0;
+		for (int i = 0; i < n; i++)
+			if (isOutputStep(i))
+				steps[count++] = i;
+		return steps;
+	}
+
+	/**
+	 * Returns the retained free dof numbers. Dof numbers of nodes must be
+	 * enumerated beforehand.
+	 * 
+	 * @param eqn
+	 *            Number of equations.
+	 * @return Retained dof numbers in ascending order, or null if all dofs are
+	 *         retained.
+	 */
+	public int[] getDofs(int eqn) {
+
+		// no groups given
+		if (groups_.isEmpty())
+			return null;
+
+		// mark dofs of group nodes and nodes of group elements
+		boolean[] marked = new boolean[eqn];
+		for (int i = 0; i < groups_.size(); i++) {
+			Group group = groups_.get(i);
+			Vector<Node> nodes = group.getNodes();
+			for (int j = 0; j < nodes.size(); j++)
+				mark(nodes.get(j), marked);
+			Vector<Element> elements = group.getElements();
+			for (int j = 0; j < elements.size(); j++) {
+				Node[] enodes = elements.get(j).getNodes();
+				for (int k = 0; k < enodes.length; k++)
+					mark(enodes[k], marked);
+			}
+		}
+
+		// collect marked dofs
+		int count = 0;
+		for (int i = 0; i < eqn; i++)
+			if (marked[i])
+				count++;
+		int[] dofs = new int[count];
+		count = 0;
+		for (int i = 0; i < eqn; i++)
+			if (marked[i])
+				dofs[count++] = i;
+		return dofs;
+	}
+
+	/**
+	 * Marks free dofs of the given node.
+	 * 
+	 * @param node
+	 *            Node.
+	 * @param marked
+	 *            Array of marked dofs.
+	 */
+	private void mark(Node node, boolean[] marked) {
+		int[] dof = node.getDofNumbers();
+		for (int i = 0; i < dof.length; i++)
+			if (dof[i] != -1)
+				marked[dof[i]] = true;
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param message
+	 *            The message to be displayed.
+	 */
+	private void exceptionHandler(String message) {
+		throw new IllegalArgumentException(message);
+	}
+}
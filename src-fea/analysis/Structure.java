@@ -15,17 +15,22 @@
  */
 package analysis;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Vector;
 
 import node.Node;
 import boundary.BoundaryCase;
 import element.Element;
 import element.ElementLibrary;
+import matrix.DMat;
 import matrix.DVec;
 
 import data.OutputData;
 import dialogs.file.OutputDataHandler1;
+import dialogs.file.OutputDataHandler2;
 
 /**
  * Class for structure.
@@ -37,6 +42,9 @@ public class Structure implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	/** Static variable for the dof renumbering method. */
+	public static final int none_ = 0, reverseCuthillMcKee_ = 1;
+
 	/** The tolerance for checking activities. */
 	private static final double tolerance_ = Math.pow(10, -8);
 
@@ -55,6 +63,21 @@ public class Structure implements Serializable {
 	/** Vector for storing the analysis information. */
 	private Vector<Object> analysisInfo_ = new Vector<Object>();
 
+	/** The dof renumbering method applied before enumerating equations. */
+	private int renumbering_ = Structure.none_;
+
+	/**
+	 * Half-bandwidths and profiles of the last enumeration before and after
+	 * renumbering.
+	 */
+	private long[] bandInfo_ = new long[4];
+
+	/** Assembly throughputs of the last analysis (elements per second). */
+	private double[] assemblyInfo_ = new double[3];
+
+	/** Revision of nodes and elements (not persisted). */
+	private transient int revision_ = 0;
+
 	/**
 	 * Appends node to structure.
 	 * 
@@ -63,6 +86,7 @@ public class Structure implements Serializable {
 	 */
 	public void addNode(Node node) {
 		nodes_.add(node);
+		revision_++;
 	}
 
 	/**
@@ -73,6 +97,7 @@ public class Structure implements Serializable {
 	 */
 	public void addElement(Element element) {
 		elements_.add(element);
+		revision_++;
 	}
 
 	/**
@@ -85,6 +110,7 @@ public class Structure implements Serializable {
 	 */
 	public void setNode(int index, Node node) {
 		nodes_.set(index, node);
+		revision_++;
 	}
 
 	/**
@@ -97,6 +123,7 @@ public class Structure implements Serializable {
 	 */
 	public void setElement(int index, Element element) {
 		elements_.set(index, element);
+		revision_++;
 	}
 
 	/**
@@ -116,6 +143,23 @@ public class Structure implements Serializable {
 		dofs_ = dofs;
 	}
 
+	/**
+	 * Sets dof renumbering method to the structure. The renumbering is applied
+	 * to the node sequence before the equations are enumerated.
+	 * 
+	 * @param method
+	 *            The dof renumbering method.
+	 */
+	public void setDofRenumbering(int method) {
+
+		// check method
+		if (method < 0 || method > 1)
+			exceptionHandler("Illegal dof renumbering method!");
+
+		// set method
+		renumbering_ = method;
+	}
+
 	/**
 	 * Writes output data object to given path.
 	 * 
@@ -132,6 +176,37 @@ public class Structure implements Serializable {
 		return OutputDataHandler1.write(path, unknowns, steps);
 	}
 
+	/**
+	 * Opens binary output data stream at the given path. The unknowns are
+	 * appended to the stream step by step and the stream is closed by
+	 * closeUnknowns.
+	 * 
+	 * @param path
+	 *            The path to write the output data.
+	 * @param eqn
+	 *            Number of equations.
+	 * @param dofs
+	 *            Retained dof numbers in ascending order (null if all dofs are
+	 *            retained).
+	 * @return Output data stream, or null if it cannot be opened.
+	 */
+	public OutputDataHandler2 openUnknowns(String path, int eqn, int[] dofs) {
+		steps_ = 0;
+		return OutputDataHandler2.open(path, eqn, dofs);
+	}
+
+	/**
+	 * Closes the given binary output data stream.
+	 * 
+	 * @param out
+	 *            Output data stream.
+	 * @return True if no problem occured during closing, False vice versa.
+	 */
+	public boolean closeUnknowns(OutputDataHandler2 out) {
+		steps_ = out.getNumberOfSteps();
+		return out.close();
+	}
+
 	/**
 	 * Sets nodal unknowns and reaction forces to nodes depending on the step
 	 * number given.
@@ -238,6 +313,7 @@ public class Structure implements Serializable {
 	 */
 	public void insertNode(int index, Node node) {
 		nodes_.insertElementAt(node, index);
+		revision_++;
 	}
 
 	/**
@@ -250,6 +326,7 @@ public class Structure implements Serializable {
 	 */
 	public void insertElement(int index, Element element) {
 		elements_.insertElementAt(element, index);
+		revision_++;
 	}
 
 	/**
@@ -260,6 +337,7 @@ public class Structure implements Serializable {
 	 */
 	public void removeNode(int index) {
 		nodes_.remove(index);
+		revision_++;
 	}
 
 	/**
@@ -270,6 +348,7 @@ public class Structure implements Serializable {
 	 */
 	public void removeElement(int index) {
 		elements_.remove(index);
+		revision_++;
 	}
 
 	/**
@@ -416,6 +495,61 @@ public class Structure implements Serializable {
 		return dofs_;
 	}
 
+	/**
+	 * Returns the dof renumbering method of the structure.
+	 * 
+	 * @return The dof renumbering method.
+	 */
+	public int getDofRenumbering() {
+		return renumbering_;
+	}
+
+	/**
+	 * Returns half-bandwidths and profiles of the last enumeration. The
+	 * sequence of information is; half-bandwidth before renumbering,
+	 * half-bandwidth after renumbering, profile before renumbering, profile
+	 * after renumbering. The profile is the number of entries below the
+	 * skyline of the upper triangle of system stiffness matrix.
+	 * 
+	 * @return Array storing the half-bandwidths and profiles.
+	 */
+	public long[] getBandInfo() {
+		return bandInfo_.clone();
+	}
+
+	/**
+	 * Returns the revision of structure. The revision is incremented whenever
+	 * a node or an element is added, replaced, inserted or removed.
+	 * 
+	 * @return The revision of structure.
+	 */
+	public int getRevision() {
+		return revision_;
+	}
+
+	/**
+	 * Returns assembly throughputs of the last analysis. The sequence of
+	 * information is; stiffness, mass and stability assembly throughputs in
+	 * elements per second. Phases which are not assembled are zero.
+	 * 
+	 * @return Array storing the assembly throughputs.
+	 */
+	public double[] getAssemblyInfo() {
+		return assemblyInfo_.clone();
+	}
+
+	/**
+	 * Sets assembly throughput of the given phase.
+	 * 
+	 * @param phase
+	 *            Assembly phase (stiffness, mass or stability).
+	 * @param throughput
+	 *            Assembly throughput in elements per second.
+	 */
+	protected void setAssemblyInfo(int phase, double throughput) {
+		assemblyInfo_[phase] = throughput;
+	}
+
 	/**
 	 * Returns the number of nodes of structure.
 	 * 
@@ -524,7 +658,10 @@ public class Structure implements Serializable {
 
 	/**
 	 * Enumerates nodal and element degrees of freedom and returns total number
-	 * of equations.
+	 * of equations. If a dof renumbering method is set, the nodes are
+	 * reordered before the equations are assigned. Half-bandwidths and
+	 * profiles before and after renumbering are stored to band info, and the
+	 * assembly info is reset.
 	 * 
 	 * @param bCases
 	 *            The boundary cases of analysis.
@@ -534,26 +671,407 @@ public class Structure implements Serializable {
 	 */
 	protected int enumerateDofs(Vector<BoundaryCase> bCases, double[] bScales) {
 
+		// set boundary cases and available dofs to nodes and elements
+		setBoundaryCases(bCases, bScales);
+		for (int i = 0; i < nodes_.size(); i++)
+			nodes_.get(i).setAvailableDofs(dofs_);
+
+		// enumerate degrees of freedom in the node sequence
+		int eqn = enumerateDofs(null);
+		computeBandInfo(0);
+		assemblyInfo_ = new double[3];
+
+		// renumber nodal degrees of freedom
+		if (renumbering_ == Structure.reverseCuthillMcKee_) {
+			int[] order = NodeOrdering.reverseCuthillMcKee(NodeOrdering
+					.getAdjacency(this));
+			eqn = enumerateDofs(order);
+		}
+		computeBandInfo(1);
+
+		// return number of equations
+		return eqn;
+	}
+
+	/**
+	 * Sets boundary cases and their scaling factors to nodes and elements.
+	 * The scaling factors can be changed without enumerating dofs again, as
+	 * long as the boundary cases are not changed.
+	 * 
+	 * @param bCases
+	 *            The boundary cases of analysis.
+	 * @param bScales
+	 *            The scaling factor of boundary cases.
+	 */
+	protected void setBoundaryCases(Vector<BoundaryCase> bCases,
+			double[] bScales) {
+
+		// set boundary cases to nodes
+		for (int i = 0; i < nodes_.size(); i++)
+			nodes_.get(i).setBoundaryCases(bCases, bScales);
+
+		// set boundary cases to elements
+		for (int i = 0; i < elements_.size(); i++)
+			elements_.get(i).setBoundaryCases(bCases, bScales);
+	}
+
+	/**
+	 * Enumerates nodal and element degrees of freedom in the given node order.
+	 * 
+	 * @param order
+	 *            The node order. The k-th entry is the index of the k-th node
+	 *            to be enumerated. Null for the node sequence of structure.
+	 * @return The number of equations.
+	 */
+	private int enumerateDofs(int[] order) {
+
 		// set equation number index
 		int eqn = 0;
 
 		// enumerate nodal degrees of freedom
 		for (int i = 0; i < nodes_.size(); i++) {
-			nodes_.get(i).setBoundaryCases(bCases, bScales);
-			nodes_.get(i).setAvailableDofs(dofs_);
-			eqn = nodes_.get(i).enumerateDofs(eqn);
+			int index = order == null ? i : order[i];
+			eqn = nodes_.get(index).enumerateDofs(eqn);
 		}
 
 		// enumerate element degrees of freedom
-		for (int i = 0; i < elements_.size(); i++) {
-			elements_.get(i).setBoundaryCases(bCases, bScales);
+		for (int i = 0; i < elements_.size(); i++)
 			elements_.get(i).enumerateDofs();
-		}
 
 		// return number of equations
 		return eqn;
 	}
 
+	/**
+	 * Returns the sparsity pattern of system matrices for the current
+	 * enumeration. The k-th row of the returned array contains the column
+	 * indices of the non-zero entries (including the diagonal) of the k-th
+	 * row. Should be called after enumerating dofs.
+	 *
+	 * @param eqn
+	 *            The number of equations.
+	 * @return The sparsity pattern of system matrices.
+	 */
+	protected int[][] getSparsityPattern(int eqn) {
+
+		// collect dof groups of elements and nodes
+		int[][] groups = new int[elements_.size() + nodes_.size()][];
+		for (int i = 0; i < elements_.size(); i++)
+			groups[i] = elements_.get(i).getDofNumbers();
+		for (int i = 0; i < nodes_.size(); i++)
+			groups[elements_.size() + i] = nodes_.get(i).getDofNumbers();
+
+		// create dof to group incidence
+		int[] ptr = new int[eqn + 1];
+		for (int i = 0; i < groups.length; i++)
+			for (int j = 0; j < groups[i].length; j++)
+				if (groups[i][j] != -1)
+					ptr[groups[i][j] + 1]++;
+		for (int i = 0; i < eqn; i++)
+			ptr[i + 1] += ptr[i];
+		int[] next = new int[eqn];
+		System.arraycopy(ptr, 0, next, 0, eqn);
+		int[] incidence = new int[ptr[eqn]];
+		for (int i = 0; i < groups.length; i++)
+			for (int j = 0; j < groups[i].length; j++)
+				if (groups[i][j] != -1)
+					incidence[next[groups[i][j]]++] = i;
+
+		// loop over rows
+		int[][] pattern = new int[eqn][];
+		int[] marker = new int[eqn];
+		int[] row = new int[eqn];
+		Arrays.fill(marker, -1);
+		for (int i = 0; i < eqn; i++) {
+
+			// add diagonal
+			int size = 0;
+			marker[i] = i;
+			row[size++] = i;
+
+			// add dofs of incident groups
+			for (int j = ptr[i]; j < ptr[i + 1]; j++) {
+				int[] dof = groups[incidence[j]];
+				for (int k = 0; k < dof.length; k++) {
+					if (dof[k] != -1 && marker[dof[k]] != i) {
+						marker[dof[k]] = i;
+						row[size++] = dof[k];
+					}
+				}
+			}
+
+			// store row
+			pattern[i] = new int[size];
+			System.arraycopy(row, 0, pattern[i], 0, size);
+			Arrays.sort(pattern[i]);
+		}
+		return pattern;
+	}
+
+	/**
+	 * Returns the first equations of node blocks for the current enumeration
+	 * (of length number of blocks + 1). Each node having free dofs forms a
+	 * block of consecutive equations. The last entry is the number of
+	 * equations. Should be called after enumerating dofs.
+	 * 
+	 * @param eqn
+	 *            The number of equations.
+	 * @return The first equations of node blocks.
+	 */
+	protected int[] getBlockPointers(int eqn) {
+
+		// collect first free dofs of nodes
+		int[] first = new int[nodes_.size() + 1];
+		int nb = 0;
+		for (int i = 0; i < nodes_.size(); i++) {
+			int block = getBlock(nodes_.get(i), null);
+			if (block != -1)
+				first[nb++] = block;
+		}
+
+		// sort and append number of equations
+		Arrays.sort(first, 0, nb);
+		first[nb] = eqn;
+		return Arrays.copyOf(first, nb + 1);
+	}
+
+	/**
+	 * Returns the block sparsity pattern of system matrices for the current
+	 * enumeration. The k-th row of the returned array contains the indices of
+	 * the node blocks coupled to the k-th node block. Should be called after
+	 * enumerating dofs.
+	 * 
+	 * @param blockPtr
+	 *            The first equations of node blocks.
+	 * @return The block sparsity pattern of system matrices.
+	 */
+	protected int[][] getBlockSparsityPattern(int[] blockPtr) {
+
+		// collect block groups of elements
+		int nb = blockPtr.length - 1;
+		int[][] groups = new int[elements_.size()][];
+		for (int i = 0; i < elements_.size(); i++) {
+			Node[] nodes = elements_.get(i).getNodes();
+			groups[i] = new int[nodes.length];
+			for (int j = 0; j < nodes.length; j++)
+				groups[i][j] = getBlock(nodes[j], blockPtr);
+		}
+
+		// create block to group incidence
+		int[] ptr = new int[nb + 1];
+		for (int i = 0; i < groups.length; i++)
+			for (int j = 0; j < groups[i].length; j++)
+				if (groups[i][j] != -1)
+					ptr[groups[i][j] + 1]++;
+		for (int i = 0; i < nb; i++)
+			ptr[i + 1] += ptr[i];
+		int[] next = Arrays.copyOf(ptr, nb);
+		int[] incidence = new int[ptr[nb]];
+		for (int i = 0; i < groups.length; i++)
+			for (int j = 0; j < groups[i].length; j++)
+				if (groups[i][j] != -1)
+					incidence[next[groups[i][j]]++] = i;
+
+		// loop over block rows
+		int[][] pattern = new int[nb][];
+		int[] marker = new int[nb];
+		int[] row = new int[nb];
+		Arrays.fill(marker, -1);
+		for (int i = 0; i < nb; i++) {
+
+			// add diagonal block
+			int size = 0;
+			marker[i] = i;
+			row[size++] = i;
+
+			// add blocks of incident elements
+			for (int j = ptr[i]; j < ptr[i + 1]; j++) {
+				int[] blocks = groups[incidence[j]];
+				for (int k = 0; k < blocks.length; k++) {
+					if (blocks[k] != -1 && marker[blocks[k]] != i) {
+						marker[blocks[k]] = i;
+						row[size++] = blocks[k];
+					}
+				}
+			}
+
+			// store row
+			pattern[i] = Arrays.copyOf(row, size);
+			Arrays.sort(pattern[i]);
+		}
+		return pattern;
+	}
+
+	/**
+	 * Returns the block index of the given node. If block pointers are not
+	 * given, the first free dof of node is returned.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @param blockPtr
+	 *            The first equations of node blocks (can be null).
+	 * @return The block index of node, or -1 if the node has no free dofs.
+	 */
+	private int getBlock(Node node, int[] blockPtr) {
+
+		// find first free dof of node
+		int[] dof = node.getDofNumbers();
+		for (int i = 0; i < dof.length; i++) {
+			if (dof[i] != -1) {
+				if (blockPtr == null)
+					return dof[i];
+				return Arrays.binarySearch(blockPtr, dof[i]);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the dof blocks of nodes for the current enumeration. The k-th
+	 * row of the returned array contains the equation numbers of the free dofs
+	 * of the k-th node. Should be called after enumerating dofs.
+	 * 
+	 * @return The dof blocks of nodes.
+	 */
+	protected int[][] getDofBlocks() {
+
+		// loop over nodes
+		int[][] blocks = new int[nodes_.size()][];
+		for (int i = 0; i < nodes_.size(); i++) {
+
+			// collect free dofs of node
+			int[] dof = nodes_.get(i).getDofNumbers();
+			int size = 0;
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1)
+					size++;
+			blocks[i] = new int[size];
+			size = 0;
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1)
+					blocks[i][size++] = dof[j];
+		}
+		return blocks;
+	}
+
+	/**
+	 * Returns the rigid body modes of structure for the current enumeration.
+	 * The k-th row of the returned array contains the values of the 3
+	 * translational and 3 rotational rigid body modes at the k-th equation.
+	 * The modes are computed from the nodal positions relative to the centroid
+	 * and are given in the nodal coordinate systems. Should be called after
+	 * enumerating dofs.
+	 * 
+	 * @param eqn
+	 *            The number of equations.
+	 * @return The rigid body modes ([equation][mode]).
+	 */
+	protected double[][] getRigidBodyModes(int eqn) {
+
+		// compute centroid of nodes
+		double[] c = new double[3];
+		for (int i = 0; i < nodes_.size(); i++) {
+			DVec pos = nodes_.get(i).getPosition();
+			for (int j = 0; j < 3; j++)
+				c[j] += pos.get(j) / nodes_.size();
+		}
+
+		// loop over nodes
+		double[][] modes = new double[eqn][6];
+		for (int i = 0; i < nodes_.size(); i++) {
+
+			// get node properties
+			Node node = nodes_.get(i);
+			int[] dof = node.getDofNumbers();
+			DMat tr = node.getTransformation();
+			DVec pos = node.getPosition();
+			double x = pos.get(0) - c[0];
+			double y = pos.get(1) - c[1];
+			double z = pos.get(2) - c[2];
+
+			// global values of modes at node ([mode][dof])
+			double[][] g = { { 1.0, 0.0, 0.0, 0.0, 0.0, 0.0 },
+					{ 0.0, 1.0, 0.0, 0.0, 0.0, 0.0 },
+					{ 0.0, 0.0, 1.0, 0.0, 0.0, 0.0 },
+					{ 0.0, -z, y, 1.0, 0.0, 0.0 },
+					{ z, 0.0, -x, 0.0, 1.0, 0.0 },
+					{ -y, x, 0.0, 0.0, 0.0, 1.0 } };
+
+			// transform modes to nodal coordinates and store
+			for (int k = 0; k < 6; k++) {
+				DVec local = new DVec(g[k]).transform(tr, DMat.toLocal_);
+				for (int j = 0; j < dof.length; j++)
+					if (dof[j] != -1)
+						modes[dof[j]][k] = local.get(j);
+			}
+		}
+		return modes;
+	}
+
+	/**
+	 * Returns the column heights of the upper triangle of system matrices
+	 * (skyline) for the current enumeration. The k-th entry is the distance
+	 * between the diagonal and the first non-zero entry of the k-th column.
+	 * Should be called after enumerating dofs.
+	 * 
+	 * @return The column heights.
+	 */
+	protected int[] getColumnHeights() {
+
+		// get number of equations
+		int neq = 0;
+		for (int i = 0; i < nodes_.size(); i++) {
+			int[] dof = nodes_.get(i).getDofNumbers();
+			for (int j = 0; j < dof.length; j++)
+				neq = Math.max(neq, dof[j] + 1);
+		}
+
+		// find the smallest row index of each column of elements and nodes
+		int[] minRow = new int[neq];
+		for (int i = 0; i < neq; i++)
+			minRow[i] = i;
+		for (int i = 0; i < elements_.size() + nodes_.size(); i++) {
+			int[] dof = i < elements_.size() ? elements_.get(i)
+					.getDofNumbers() : nodes_.get(i - elements_.size())
+					.getDofNumbers();
+			int min = Integer.MAX_VALUE;
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1 && dof[j] < min)
+					min = dof[j];
+			for (int j = 0; j < dof.length; j++)
+				if (dof[j] != -1 && min < minRow[dof[j]])
+					minRow[dof[j]] = min;
+		}
+
+		// compute column heights
+		int[] heights = new int[neq];
+		for (int i = 0; i < neq; i++)
+			heights[i] = i - minRow[i];
+		return heights;
+	}
+
+	/**
+	 * Computes half-bandwidth and profile of the current enumeration and
+	 * stores them to band info array.
+	 * 
+	 * @param index
+	 *            0 for before renumbering, 1 for after renumbering.
+	 */
+	private void computeBandInfo(int index) {
+
+		// get column heights of upper triangle
+		int[] heights = getColumnHeights();
+
+		// compute half-bandwidth and profile
+		long hbw = 0, profile = 0;
+		for (int i = 0; i < heights.length; i++) {
+			hbw = Math.max(hbw, heights[i]);
+			profile += heights[i] + 1;
+		}
+		bandInfo_[index] = hbw;
+		bandInfo_[index + 2] = profile;
+	}
+
 	/**
 	 * Checks whether any duplicate nodes exist.
 	 * 
@@ -723,6 +1241,27 @@ public class Structure implements Serializable {
 		return true;
 	}
 
+	/**
+	 * Reads structure from the given stream. Structures saved before the band
+	 * and assembly information were introduced don't contain them, they are
+	 * initialized here.
+	 * 
+	 * @param in
+	 *            The object input stream.
+	 * @throws IOException
+	 *             If an I/O error occurs.
+	 * @throws ClassNotFoundException
+	 *             If a class of a serialized object cannot be found.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		if (bandInfo_ == null)
+			bandInfo_ = new long[4];
+		if (assemblyInfo_ == null)
+			assemblyInfo_ = new double[3];
+	}
+
 	/**
 	 * Throws exception with the related message.
 	 * 
@@ -101,4 +101,16 @@ public class ElementTemp implements Serializable {
 	public double getValue() {
 		return value_ * scale_;
 	}
+
+	/**
+	 * Returns the loading value for the given scaling factor. The scaling
+	 * factor of temperature load is not modified.
+	 * 
+	 * @param scale
+	 *            The scaling factor for loading value.
+	 * @return The scaled loading value of temperature load.
+	 */
+	public double getValue(double scale) {
+		return value_ * scale;
+	}
 }
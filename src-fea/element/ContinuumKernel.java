@@ -0,0 +1,308 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package element;
+
+import math.InterpolationTable;
+import matrix.DMat;
+
+/**
+ * Class for integration of stiffness matrices of two and three dimensional
+ * continuum elements. At each Gauss point, the jacobian, the cartesian
+ * derivatives of interpolation functions and w * det(J) * B(T) * C * B are
+ * computed on primitive arrays, without forming B operator matrices. Only the
+ * upper triangle of stiffness matrix is accumulated into a packed buffer, the
+ * material matrix is assumed to be symmetric. The arrays are reused for all
+ * elements computed by a thread, hence each thread has its own kernel (see
+ * getKernel). The element dofs are ordered node by node, and the strains are
+ * in the order of B operators of elements (xx, yy, zz, yz, xz, xy in three
+ * dimensions and xx, yy, xy in two dimensions).
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class ContinuumKernel {
+
+	/** Rows and derivatives of nodal B operator for each displacement. */
+	private static final int[][] rows3_ = { { 0, 4, 5 }, { 1, 3, 5 },
+			{ 2, 3, 4 } }, ders3_ = { { 0, 2, 1 }, { 1, 2, 0 }, { 2, 1, 0 } },
+			rows2_ = { { 0, 2 }, { 1, 2 } }, ders2_ = { { 0, 1 }, { 1, 0 } };
+
+	/** Kernels of threads. */
+	private static final ThreadLocal<ContinuumKernel> kernels_;
+	static {
+		kernels_ = new ThreadLocal<ContinuumKernel>() {
+			protected ContinuumKernel initialValue() {
+				return new ContinuumKernel();
+			}
+		};
+	}
+
+	/** Dimension, number of nodes, dofs and strains. */
+	private int dimension_, nodes_, dofs_, strains_;
+
+	/** Rows and derivatives of nodal B operator for each displacement. */
+	private int[][] rows_, ders_;
+
+	/** Nodal coordinates (coordinate by coordinate). */
+	private double[] x_ = new double[0];
+
+	/** Material matrix (row by row). */
+	private double[] c_ = new double[36];
+
+	/** Derivatives with respect to natural and cartesian coordinates. */
+	private double[] dxi_ = new double[0], dx_ = new double[0];
+
+	/** Jacobian matrix and its inverse (row by row). */
+	private double[] jac_ = new double[9], inv_ = new double[9];
+
+	/** Product of material matrix and B operator (row by row). */
+	private double[] cb_ = new double[0];
+
+	/** Upper triangle of stiffness matrix (row by row). */
+	private double[] k_ = new double[0];
+
+	/**
+	 * Returns the kernel of the calling thread, prepared for a new stiffness
+	 * matrix. The nodal coordinates must be set before adding Gauss points.
+	 * 
+	 * @param dimension
+	 *            The dimension of element (2 or 3).
+	 * @param nodes
+	 *            Number of nodes of element.
+	 * @param c
+	 *            Material matrix (3x3 or 6x6).
+	 * @return The kernel of the calling thread.
+	 */
+	public static ContinuumKernel getKernel(int dimension, int nodes, DMat c) {
+		ContinuumKernel kernel = kernels_.get();
+		kernel.reset(dimension, nodes, c);
+		return kernel;
+	}
+
+	/**
+	 * Prepares kernel for a new stiffness matrix.
+	 * 
+	 * @param dimension
+	 *            The dimension of element (2 or 3).
+	 * @param nodes
+	 *            Number of nodes of element.
+	 * @param c
+	 *            Material matrix.
+	 */
+	private void reset(int dimension, int nodes, DMat c) {
+
+		// check parameters
+		if (dimension != 2 && dimension != 3)
+			exceptionHandler("Illegal dimension for continuum kernel!");
+		int strains = dimension == 3 ? 6 : 3;
+		if (c.rowCount() != strains || c.columnCount() != strains)
+			exceptionHandler("Illegal material matrix for continuum kernel!");
+
+		// set sizes
+		dimension_ = dimension;
+		nodes_ = nodes;
+		dofs_ = dimension * nodes;
+		strains_ = strains;
+		rows_ = dimension == 3 ? rows3_ : rows2_;
+		ders_ = dimension == 3 ? ders3_ : ders2_;
+
+		// enlarge arrays
+		if (x_.length < dofs_) {
+			x_ = new double[dofs_];
+			dxi_ = new double[dofs_];
+			dx_ = new double[dofs_];
+		}
+		if (cb_.length < strains * dofs_)
+			cb_ = new double[strains * dofs_];
+		int size = dofs_ * (dofs_ + 1) / 2;
+		if (k_.length < size)
+			k_ = new double[size];
+
+		// copy material matrix and clear stiffness matrix
+		for (int i = 0; i < strains; i++)
+			for (int j = 0; j < strains; j++)
+				c_[i * strains + j] = c.get(i, j);
+		for (int i = 0; i < size; i++)
+			k_[i] = 0.0;
+	}
+
+	/**
+	 * Sets coordinate of node.
+	 * 
+	 * @param node
+	 *            The node index.
+	 * @param coord
+	 *            The coordinate (0, 1 or 2).
+	 * @param value
+	 *            The value of coordinate.
+	 */
+	public void setCoordinate(int node, int coord, double value) {
+		x_[coord * nodes_ + node] = value;
+	}
+
+	/**
+	 * Sets derivative of interpolation function of node at the current Gauss
+	 * point.
+	 * 
+	 * @param der
+	 *            The natural coordinate of derivative (0, 1 or 2).
+	 * @param node
+	 *            The node index.
+	 * @param value
+	 *            The value of derivative.
+	 */
+	public void setDerivative(int der, int node, double value) {
+		dxi_[der * nodes_ + node] = value;
+	}
+
+	/**
+	 * Sets derivatives of interpolation functions at the current Gauss point
+	 * from the given table.
+	 * 
+	 * @param table
+	 *            Table of interpolation functions at the Gauss points of
+	 *            quadrature rule.
+	 * @param point
+	 *            The number of Gauss point in the table.
+	 */
+	public void setDerivatives(InterpolationTable table, int point) {
+		for (int r = 0; r < dimension_; r++)
+			System.arraycopy(table.getDerivatives(point, r), 0, dxi_, r
+					* nodes_, nodes_);
+	}
+
+	/**
+	 * Adds contribution of the current Gauss point to stiffness matrix.
+	 * 
+	 * @param weight
+	 *            The weight factor of Gauss point (without determinant of
+	 *            jacobian).
+	 */
+	public void add(double weight) {
+
+		// compute jacobian, its determinant and inverse
+		int dim = dimension_, nn = nodes_, nd = dofs_, ns = strains_;
+		for (int r = 0; r < dim; r++) {
+			for (int c = 0; c < dim; c++) {
+				double value = 0.0;
+				for (int a = 0; a < nn; a++)
+					value += dxi_[r * nn + a] * x_[c * nn + a];
+				jac_[r * dim + c] = value;
+			}
+		}
+		double det = invert();
+
+		// compute cartesian derivatives
+		for (int c = 0; c < dim; c++) {
+			for (int a = 0; a < nn; a++) {
+				double value = 0.0;
+				for (int r = 0; r < dim; r++)
+					value += inv_[c * dim + r] * dxi_[r * nn + a];
+				dx_[c * nn + a] = value;
+			}
+		}
+
+		// compute C * B
+		int nm = rows_[0].length;
+		for (int j = 0; j < nd; j++) {
+			int a = j / dim;
+			int[] rows = rows_[j % dim], ders = ders_[j % dim];
+			for (int k = 0; k < ns; k++) {
+				double value = 0.0;
+				for (int m = 0; m < nm; m++)
+					value += c_[k * ns + rows[m]] * dx_[ders[m] * nn + a];
+				cb_[k * nd + j] = value;
+			}
+		}
+
+		// add w * det(J) * B(T) * C * B to upper triangle
+		double factor = weight * det;
+		int index = 0;
+		for (int i = 0; i < nd; i++) {
+			int a = i / dim;
+			int[] rows = rows_[i % dim], ders = ders_[i % dim];
+			for (int j = i; j < nd; j++) {
+				double value = 0.0;
+				for (int m = 0; m < nm; m++)
+					value += dx_[ders[m] * nn + a] * cb_[rows[m] * nd + j];
+				k_[index++] += factor * value;
+			}
+		}
+	}
+
+	/**
+	 * Returns the integrated stiffness matrix.
+	 * 
+	 * @return The stiffness matrix.
+	 */
+	public DMat getMatrix() {
+		int nd = dofs_;
+		DMat k = new DMat(nd, nd);
+		int index = 0;
+		for (int i = 0; i < nd; i++) {
+			for (int j = i; j < nd; j++) {
+				k.set(i, j, k_[index]);
+				k.set(j, i, k_[index++]);
+			}
+		}
+		return k;
+	}
+
+	/**
+	 * Inverts jacobian matrix.
+	 * 
+	 * @return The determinant of jacobian matrix.
+	 */
+	private double invert() {
+
+		// two dimensional
+		double[] j = jac_;
+		if (dimension_ == 2) {
+			double det = j[0] * j[3] - j[1] * j[2];
+			inv_[0] = j[3] / det;
+			inv_[1] = -j[1] / det;
+			inv_[2] = -j[2] / det;
+			inv_[3] = j[0] / det;
+			return det;
+		}
+
+		// three dimensional
+		double c00 = j[4] * j[8] - j[5] * j[7];
+		double c01 = j[5] * j[6] - j[3] * j[8];
+		double c02 = j[3] * j[7] - j[4] * j[6];
+		double det = j[0] * c00 + j[1] * c01 + j[2] * c02;
+		inv_[0] = c00 / det;
+		inv_[1] = (j[2] * j[7] - j[1] * j[8]) / det;
+		inv_[2] = (j[1] * j[5] - j[2] * j[4]) / det;
+		inv_[3] = c01 / det;
+		inv_[4] = (j[0] * j[8] - j[2] * j[6]) / det;
+		inv_[5] = (j[2] * j[3] - j[0] * j[5]) / det;
+		inv_[6] = c02 / det;
+		inv_[7] = (j[1] * j[6] - j[0] * j[7]) / det;
+		inv_[8] = (j[0] * j[4] - j[1] * j[3]) / det;
+		return det;
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param message
+	 *            The message to be displayed.
+	 */
+	private void exceptionHandler(String message) {
+		throw new IllegalArgumentException(message);
+	}
+}
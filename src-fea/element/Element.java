@@ -16,6 +16,7 @@
 package element;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Vector;
 
 import section.Section;
@@ -392,6 +393,32 @@ public abstract class Element implements Serializable {
 		return tl;
 	}
 
+	/**
+	 * Returns the values of element temperature loads for the demanded
+	 * boundary cases, scaled by the factors of boundary cases. Unlike
+	 * getTempLoads, the loading scales of temperature loads are not modified,
+	 * so that this can be called from several threads.
+	 * 
+	 * @return The values of element temperature loads.
+	 */
+	protected double[] getTempLoadValues() {
+
+		// check if any temp loads available
+		if (tempLoads_ == null || bCases_ == null)
+			return new double[0];
+
+		// loop over element temperature loads
+		double[] values = new double[tempLoads_.size()];
+		int n = 0;
+		for (int i = 0; i < tempLoads_.size(); i++) {
+			ElementTemp load = tempLoads_.get(i);
+			int index = bCases_.indexOf(load.getBoundaryCase());
+			if (index != -1)
+				values[n++] = load.getValue(bScales_[index]);
+		}
+		return Arrays.copyOf(values, n);
+	}
+
 	/**
 	 * Returns the springs of element.
 	 * 
@@ -458,7 +485,8 @@ public abstract class Element implements Serializable {
 		DMat kg = new DMat(6 * nn, 6 * nn);
 
 		// compute element stiffness matrix
-		DMat ke = computeStiffnessMatrix();
+		DMat ke = ElementMatrixCache.getMatrix(this,
+				ElementMatrixCache.stiffness_);
 
 		// store components into general stiffness matrix
 		for (int i = 0; i < ke.rowCount(); i++) {
@@ -508,7 +536,7 @@ public abstract class Element implements Serializable {
 		DMat mg = new DMat(6 * nn, 6 * nn);
 
 		// compute element mass matrix
-		DMat me = computeMassMatrix();
+		DMat me = ElementMatrixCache.getMatrix(this, ElementMatrixCache.mass_);
 
 		// store components into general mass matrix
 		for (int i = 0; i < me.rowCount(); i++) {
@@ -562,7 +590,8 @@ public abstract class Element implements Serializable {
 		DMat gg = new DMat(6 * nn, 6 * nn);
 
 		// compute element stability matrix
-		DMat ge = computeStabilityMatrix();
+		DMat ge = ElementMatrixCache.getMatrix(this,
+				ElementMatrixCache.stability_);
 
 		// store components into general stability matrix
 		for (int i = 0; i < ge.rowCount(); i++) {
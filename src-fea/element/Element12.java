@@ -24,6 +24,7 @@ import node.Node;
 import material.Material;
 import math.GaussQuadrature;
 import math.Interpolation2D;
+import math.InterpolationTable;
 import matrix.DMat;
 import matrix.DVec;
 
@@ -346,8 +347,11 @@ public class Element12 extends Element2D {
 				GaussQuadrature.twoDimensional_);
 		q.setGeometry(GaussQuadrature.triangle_);
 
+		// get integration kernel and table of interpolation functions
+		ContinuumKernel kernel = getKernel(c);
+		InterpolationTable table = getInterpolation().getTable(nog);
+
 		// loop over Gauss points
-		DMat kLocal = new DMat(12, 12);
 		for (int i = 0; i < nog; i++) {
 
 			// get weight factor and supporting points
@@ -355,25 +359,13 @@ public class Element12 extends Element2D {
 			double supp1 = q.getSupport1(i);
 			double supp2 = q.getSupport2(i);
 
-			// get jacobian and compute determinant
-			DMat jac = getJacobian(supp1, supp2);
-			double jacDet = jac.determinant();
-
-			// get B operator and its transpose
-			DMat bop = computeBop(supp1, supp2, jac);
-			DMat bopTr = bop.transpose();
-
-			// compute function to be integrated
-			DMat func = bopTr.multiply(c.multiply(bop));
-			func = func.scale(0.5 * alpha * h * jacDet);
-
 			// add to stiffness matrix
-			kLocal = kLocal.add(func);
+			addToKernel(kernel, table, i, supp1, supp2, 0.5 * alpha * h);
 		}
 
 		// compute global stiffness matrix
 		DMat tr = computeTransformation();
-		return kLocal.transform(tr, DMat.toGlobal_);
+		return kernel.getMatrix().transform(tr, DMat.toGlobal_);
 	}
 
 	/**
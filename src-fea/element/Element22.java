@@ -21,6 +21,7 @@ import boundary.ElementTemp;
 import material.Material;
 import math.GaussQuadrature;
 import math.Interpolation3D;
+import math.InterpolationTable;
 import matrix.DMat;
 import matrix.DVec;
 import node.Node;
@@ -334,8 +335,11 @@ public class Element22 extends Element3D {
 				GaussQuadrature.threeDimensional_);
 		q.setGeometry(GaussQuadrature.cube_);
 
+		// get integration kernel and table of interpolation functions
+		ContinuumKernel kernel = getKernel(c);
+		InterpolationTable table = getInterpolation().getTable(nog);
+
 		// loop over Gauss points in first direction
-		DMat kLocal = new DMat(24, 24);
 		for (int i = 0; i < nog; i++) {
 
 			// get first weight factor and support
@@ -356,26 +360,15 @@ public class Element22 extends Element3D {
 					double alpha3 = q.getWeight(k);
 					double supp3 = q.getSupport3(k);
 
-					// get jacobian and compute determinant
-					DMat jac = getJacobian(supp1, supp2, supp3);
-					double jacDet = jac.determinant();
-
-					// get B operator and its transpose
-					DMat bop = computeBop(supp1, supp2, supp3, jac);
-					DMat bopTr = bop.transpose();
-
-					// compute function to be integrated
-					DMat func = bopTr.multiply(c.multiply(bop));
-					func = func.scale(alpha1 * alpha2 * alpha3 * jacDet);
-
 					// add to stiffness matrix
-					kLocal = kLocal.add(func);
+					addToKernel(kernel, table, (i * nog + j) * nog + k, supp1,
+							supp2, supp3, alpha1 * alpha2 * alpha3);
 				}
 			}
 		}
 
 		// return stiffness matrix
-		return kLocal;
+		return kernel.getMatrix();
 	}
 
 	/**
@@ -23,6 +23,7 @@ import node.Node;
 
 import math.GaussQuadrature;
 import math.Interpolation2D;
+import math.InterpolationTable;
 import matrix.DMat;
 import matrix.DVec;
 
@@ -675,6 +676,73 @@ public abstract class Element2D extends Element {
 		return eMass;
 	}
 
+	/**
+	 * Returns the integration kernel of the calling thread prepared for the
+	 * stiffness matrix of element. The nodal coordinates (in local
+	 * coordinates) are set to the kernel.
+	 * 
+	 * @param c
+	 *            Material matrix.
+	 * @return The integration kernel.
+	 */
+	protected ContinuumKernel getKernel(DMat c) {
+
+		// get kernel
+		Node[] nodes = getNodes();
+		ContinuumKernel kernel = ContinuumKernel.getKernel(2, nodes.length, c);
+
+		// set nodal coordinates in local coordinates
+		DMat tr = getTransformation();
+		for (int i = 0; i < nodes.length; i++) {
+			DVec pos = nodes[i].getPosition().transform(tr, DMat.toLocal_);
+			kernel.setCoordinate(i, 0, pos.get(0));
+			kernel.setCoordinate(i, 1, pos.get(1));
+		}
+		return kernel;
+	}
+
+	/**
+	 * Adds contribution of the given Gauss point to the stiffness matrix of
+	 * integration kernel.
+	 * 
+	 * @param kernel
+	 *            The integration kernel.
+	 * @param table
+	 *            Table of interpolation functions at the Gauss points of
+	 *            quadrature rule (null if the rule is not tabulated).
+	 * @param point
+	 *            The number of Gauss point in the table.
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param weight
+	 *            The weight factor of Gauss point.
+	 */
+	protected void addToKernel(ContinuumKernel kernel,
+			InterpolationTable table, int point, double eps1, double eps2,
+			double weight) {
+
+		// get interpolation
+		Interpolation2D intF = getInterpolation();
+		int n = getNodes().length;
+
+		// set tabulated derivatives
+		if (table != null && n <= table.getNumberOfFunctions())
+			kernel.setDerivatives(table, point);
+
+		// compute derivatives
+		else {
+			for (int i = 0; i < n; i++) {
+				kernel.setDerivative(0, i, intF.getDer1Function(eps1, eps2, i));
+				kernel.setDerivative(1, i, intF.getDer2Function(eps1, eps2, i));
+			}
+		}
+
+		// add to stiffness matrix
+		kernel.add(weight);
+	}
+
 	/**
 	 * Returns the approximation of geometry.
 	 * 
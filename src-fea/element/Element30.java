@@ -305,8 +305,10 @@ public class Element30 extends Element3D {
 				GaussQuadrature.threeDimensional_);
 		q.setGeometry(GaussQuadrature.tetrahedral_);
 
+		// get integration kernel
+		ContinuumKernel kernel = getKernel(c);
+
 		// loop over Gauss points in first direction
-		DMat kLocal = new DMat(12, 12);
 		for (int i = 0; i < nog; i++) {
 
 			// get first weight factor and support
@@ -335,26 +337,14 @@ public class Element30 extends Element3D {
 					double zm = (1.0 - supp1) * (1.0 - supp2) * (1 + supp3)
 							/ 8.0;
 
-					// get jacobian and compute determinant
-					DMat jac = getJacobian(xm, ym, zm);
-					double jacDet = jac.determinant();
-
-					// get B operator and its transpose
-					DMat bop = computeBop(xm, ym, zm, jac);
-					DMat bopTr = bop.transpose();
-
-					// compute function to be integrated
-					DMat func = bopTr.multiply(c.multiply(bop));
-					func = func.scale(cm * jacDet);
-
 					// add to stiffness matrix
-					kLocal = kLocal.add(func);
+					addToKernel(kernel, xm, ym, zm, cm);
 				}
 			}
 		}
 
 		// return stiffness matrix
-		return kLocal;
+		return kernel.getMatrix();
 	}
 
 	/**
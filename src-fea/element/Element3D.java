@@ -20,6 +20,7 @@ import java.util.Vector;
 import boundary.ElementMechLoad;
 import math.GaussQuadrature;
 import math.Interpolation3D;
+import math.InterpolationTable;
 import matrix.DMat;
 import matrix.DVec;
 import node.Node;
@@ -742,6 +743,99 @@ public abstract class Element3D extends Element {
 		return eMass;
 	}
 
+	/**
+	 * Returns the integration kernel of the calling thread prepared for the
+	 * stiffness matrix of element. The nodal coordinates are set to the
+	 * kernel.
+	 * 
+	 * @param c
+	 *            Material matrix.
+	 * @return The integration kernel.
+	 */
+	protected ContinuumKernel getKernel(DMat c) {
+
+		// get kernel
+		Node[] nodes = getNodes();
+		ContinuumKernel kernel = ContinuumKernel.getKernel(3, nodes.length, c);
+
+		// set nodal coordinates
+		for (int i = 0; i < nodes.length; i++) {
+			DVec pos = nodes[i].getPosition();
+			for (int j = 0; j < 3; j++)
+				kernel.setCoordinate(i, j, pos.get(j));
+		}
+		return kernel;
+	}
+
+	/**
+	 * Adds contribution of the given Gauss point to the stiffness matrix of
+	 * integration kernel.
+	 * 
+	 * @param kernel
+	 *            The integration kernel.
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param weight
+	 *            The weight factor of Gauss point.
+	 */
+	protected void addToKernel(ContinuumKernel kernel, double eps1,
+			double eps2, double eps3, double weight) {
+		addToKernel(kernel, null, 0, eps1, eps2, eps3, weight);
+	}
+
+	/**
+	 * Adds contribution of the given Gauss point to the stiffness matrix of
+	 * integration kernel, using the tabulated derivatives of interpolation
+	 * functions if available.
+	 * 
+	 * @param kernel
+	 *            The integration kernel.
+	 * @param table
+	 *            Table of interpolation functions at the Gauss points of
+	 *            quadrature rule (null if the rule is not tabulated).
+	 * @param point
+	 *            The number of Gauss point in the table.
+	 * @param eps1
+	 *            Natural coordinate-1.
+	 * @param eps2
+	 *            Natural coordinate-2.
+	 * @param eps3
+	 *            Natural coordinate-3.
+	 * @param weight
+	 *            The weight factor of Gauss point.
+	 */
+	protected void addToKernel(ContinuumKernel kernel,
+			InterpolationTable table, int point, double eps1, double eps2,
+			double eps3, double weight) {
+
+		// get interpolation
+		Interpolation3D intF = getInterpolation();
+		int n = getNodes().length;
+
+		// set tabulated derivatives
+		if (table != null && n <= table.getNumberOfFunctions())
+			kernel.setDerivatives(table, point);
+
+		// compute derivatives
+		else {
+			for (int i = 0; i < n; i++) {
+				kernel.setDerivative(0, i,
+						intF.getDer1Function(eps1, eps2, eps3, i));
+				kernel.setDerivative(1, i,
+						intF.getDer2Function(eps1, eps2, eps3, i));
+				kernel.setDerivative(2, i,
+						intF.getDer3Function(eps1, eps2, eps3, i));
+			}
+		}
+
+		// add to stiffness matrix
+		kernel.add(weight);
+	}
+
 	/**
 	 * Returns the approximation of geometry.
 	 * 
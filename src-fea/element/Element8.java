@@ -24,6 +24,7 @@ import node.Node;
 import material.Material;
 import math.GaussQuadrature;
 import math.Interpolation2D;
+import math.InterpolationTable;
 import matrix.DMat;
 import matrix.DVec;
 
@@ -329,8 +330,11 @@ public class Element8 extends Element2D {
 				GaussQuadrature.twoDimensional_);
 		q.setGeometry(GaussQuadrature.square_);
 
+		// get integration kernel and table of interpolation functions
+		ContinuumKernel kernel = getKernel(c);
+		InterpolationTable table = getInterpolation().getTable(nog);
+
 		// loop over Gauss points in first direction
-		DMat kLocal = new DMat(8, 8);
 		for (int i = 0; i < nog; i++) {
 
 			// get first weight factor and support
@@ -344,26 +348,15 @@ public class Element8 extends Element2D {
 				double alpha2 = q.getWeight(j);
 				double supp2 = q.getSupport2(j);
 
-				// get jacobian and compute determinant
-				DMat jac = getJacobian(supp1, supp2);
-				double jacDet = jac.determinant();
-
-				// get B operator and its transpose
-				DMat bop = computeBop(supp1, supp2, jac);
-				DMat bopTr = bop.transpose();
-
-				// compute function to be integrated
-				DMat func = bopTr.multiply(c.multiply(bop));
-				func = func.scale(alpha1 * alpha2 * h * jacDet);
-
 				// add to stiffness matrix
-				kLocal = kLocal.add(func);
+				addToKernel(kernel, table, i * nog + j, supp1, supp2, alpha1
+						* alpha2 * h);
 			}
 		}
 
 		// compute global stiffness matrix
 		DMat tr = computeTransformation();
-		return kLocal.transform(tr, DMat.toGlobal_);
+		return kernel.getMatrix().transform(tr, DMat.toGlobal_);
 	}
 
 	/**
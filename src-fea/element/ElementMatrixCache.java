@@ -0,0 +1,448 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package element;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import node.Node;
+
+import matrix.DMat;
+import matrix.DVec;
+
+/**
+ * Class for caching element matrices of congruent elements. Meshed elements
+ * are mostly congruent up to translation, hence their stiffness, mass and
+ * stability matrices (in global coordinates) are equal. The matrices are
+ * keyed by element class, material and section contents, parameters, axial
+ * rotation of local axis and the nodal positions relative to the first node.
+ * Relative positions are rounded to 2^-36 times the extent of element, so
+ * that round-off differences of mesh generation don't prevent hits. Stability
+ * matrices are additionally keyed by the nodal unknowns and temperature
+ * loads. Each material and section is serialized once after updateProperties
+ * (called at the beginning of each assembly), and equal serialized contents
+ * get the same content number, which is used in the keys. Hence, modified
+ * properties never hit matrices of their former values, and the keys don't
+ * hold references to the properties of models. The least recently used
+ * matrices are evicted when the total memory of cached matrices exceeds the
+ * memory budget. The cached matrices are shared, they must not be modified.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class ElementMatrixCache {
+
+	/** Static variable for the matrix type. */
+	public static final int stiffness_ = 0, mass_ = 1, stability_ = 2;
+
+	/** Exponent of rounding precision relative to extent of element. */
+	private static final int precision_ = 36;
+
+	/** Memory budget in bytes (1/16 of maximum heap by default). */
+	private static long budget_ = Runtime.getRuntime().maxMemory() / 16;
+
+	/** Total memory of cached matrices in bytes. */
+	private static long size_ = 0;
+
+	/** Number of cache hits and misses. */
+	private static long hits_ = 0, misses_ = 0;
+
+	/** Cached matrices in access order (least recently used first). */
+	private static final LinkedHashMap<Key, DMat> entries_;
+
+	/** Content numbers of serialized materials and sections. */
+	private static final HashMap<ByteBuffer, Integer> contents_;
+
+	/** Content numbers of materials and sections since the last update. */
+	private static final IdentityHashMap<Object, Integer> properties_;
+	static {
+		entries_ = new LinkedHashMap<Key, DMat>(256, 0.75f, true);
+		contents_ = new HashMap<ByteBuffer, Integer>();
+		properties_ = new IdentityHashMap<Object, Integer>();
+	}
+
+	/**
+	 * Sets memory budget of the cache. The least recently used matrices are
+	 * evicted if the cached matrices exceed the budget.
+	 * 
+	 * @param bytes
+	 *            Memory budget in bytes. Zero disables caching.
+	 */
+	public static synchronized void setBudget(long bytes) {
+
+		// check value
+		if (bytes < 0)
+			exceptionHandler("Illegal memory budget for element matrix cache!");
+
+		// set budget and evict entries
+		budget_ = bytes;
+		evict();
+	}
+
+	/**
+	 * Returns memory budget of the cache.
+	 * 
+	 * @return Memory budget in bytes.
+	 */
+	public static synchronized long getBudget() {
+		return budget_;
+	}
+
+	/**
+	 * Returns total memory of cached matrices.
+	 * 
+	 * @return Total memory in bytes.
+	 */
+	public static synchronized long getSize() {
+		return size_;
+	}
+
+	/**
+	 * Returns number of cached matrices.
+	 * 
+	 * @return Number of cached matrices.
+	 */
+	public static synchronized int getNumberOfEntries() {
+		return entries_.size();
+	}
+
+	/**
+	 * Returns number of cache hits since the last clear.
+	 * 
+	 * @return Number of cache hits.
+	 */
+	public static synchronized long getHits() {
+		return hits_;
+	}
+
+	/**
+	 * Returns number of cache misses since the last clear.
+	 * 
+	 * @return Number of cache misses.
+	 */
+	public static synchronized long getMisses() {
+		return misses_;
+	}
+
+	/**
+	 * Removes all cached matrices and resets hit and miss counters.
+	 */
+	public static synchronized void clear() {
+		entries_.clear();
+		contents_.clear();
+		properties_.clear();
+		size_ = 0;
+		hits_ = 0;
+		misses_ = 0;
+	}
+
+	/**
+	 * Forgets the content numbers of materials and sections, so that they are
+	 * serialized again when they are next used. This must be called after
+	 * properties are modified, and it is called at the beginning of each
+	 * assembly.
+	 */
+	public static synchronized void updateProperties() {
+		properties_.clear();
+	}
+
+	/**
+	 * Returns the content number of the given material or section. The
+	 * property is serialized if it hasn't been used since the last update.
+	 * 
+	 * @param property
+	 *            The material or section (can be null).
+	 * @return The content number, 0 for null and -1 if the property cannot be
+	 *         serialized.
+	 */
+	private static synchronized int getContent(Object property) {
+
+		// no property
+		if (property == null)
+			return 0;
+
+		// used since the last update
+		Integer content = properties_.get(property);
+		if (content != null)
+			return content;
+
+		// serialize property
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(property);
+			out.close();
+			ByteBuffer key = ByteBuffer.wrap(bytes.toByteArray());
+			content = contents_.get(key);
+			if (content == null) {
+				content = contents_.size() + 1;
+				contents_.put(key, content);
+			}
+		}
+
+		// property cannot be serialized
+		catch (IOException excep) {
+			content = -1;
+		}
+		properties_.put(property, content);
+		return content;
+	}
+
+	/**
+	 * Returns the demanded matrix of element in global coordinates. The
+	 * cached matrix is returned if a congruent element has been computed
+	 * before, otherwise the matrix is computed and cached.
+	 * 
+	 * @param element
+	 *            The element.
+	 * @param type
+	 *            Matrix type (stiffness, mass or stability).
+	 * @return The shared element matrix.
+	 */
+	protected static DMat getMatrix(Element element, int type) {
+
+		// caching disabled
+		if (getBudget() == 0)
+			return compute(element, type);
+
+		// look up cache
+		Key key = new Key(element, type);
+		if (key.values_ == null)
+			return compute(element, type);
+		synchronized (ElementMatrixCache.class) {
+			DMat matrix = entries_.get(key);
+			if (matrix != null) {
+				hits_++;
+				return matrix;
+			}
+			misses_++;
+		}
+
+		// compute matrix
+		DMat matrix = compute(element, type);
+
+		// add to cache and evict entries
+		synchronized (ElementMatrixCache.class) {
+			DMat old = entries_.put(key, matrix);
+			if (old != null)
+				size_ -= key.size_ + size(old);
+			size_ += key.size_ + size(matrix);
+			evict();
+		}
+		return matrix;
+	}
+
+	/**
+	 * Computes and returns the demanded matrix of element.
+	 * 
+	 * @param element
+	 *            The element.
+	 * @param type
+	 *            Matrix type (stiffness, mass or stability).
+	 * @return The element matrix.
+	 */
+	private static DMat compute(Element element, int type) {
+		if (type == stiffness_)
+			return element.computeStiffnessMatrix();
+		else if (type == mass_)
+			return element.computeMassMatrix();
+		return element.computeStabilityMatrix();
+	}
+
+	/**
+	 * Evicts the least recently used entries until the budget is met.
+	 */
+	private static void evict() {
+		Iterator<Map.Entry<Key, DMat>> iterator;
+		iterator = entries_.entrySet().iterator();
+		while (size_ > budget_ && iterator.hasNext()) {
+			Map.Entry<Key, DMat> entry = iterator.next();
+			size_ -= entry.getKey().size_ + size(entry.getValue());
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Returns approximate memory of the given matrix.
+	 * 
+	 * @param matrix
+	 *            The matrix.
+	 * @return Memory in bytes.
+	 */
+	private static long size(DMat matrix) {
+		return 64L + 8L * matrix.rowCount() * matrix.columnCount() + 16L
+				* matrix.rowCount();
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param message
+	 *            The message to be displayed.
+	 */
+	private static void exceptionHandler(String message) {
+		throw new IllegalArgumentException(message);
+	}
+
+	/**
+	 * Class for cache keys.
+	 * 
+	 * @author Murat Artim
+	 * 
+	 */
+	private static class Key {
+
+		/** Class of element. */
+		private Class<?> class_;
+
+		/**
+		 * Matrix type, property contents, rounded geometry and other values
+		 * of element (null if the properties cannot be serialized).
+		 */
+		private long[] values_;
+
+		/** Hash code of key. */
+		private int hash_;
+
+		/** Memory of key in bytes. */
+		private long size_;
+
+		/**
+		 * Creates key for the demanded matrix of element.
+		 * 
+		 * @param element
+		 *            The element.
+		 * @param type
+		 *            Matrix type (stiffness, mass or stability).
+		 */
+		private Key(Element element, int type) {
+
+			// set class and get property contents
+			class_ = element.getClass();
+			int material = getContent(element.getMaterial());
+			int section = getContent(element.getSection());
+
+			// properties cannot be serialized (element is not cached)
+			if (material == -1 || section == -1)
+				return;
+
+			// get nodes and parameters
+			Node[] nodes = element.getNodes();
+			double[] param = element.getParameters();
+			int np = param == null ? 0 : param.length;
+			double[] temp = null;
+			int nt = 0;
+			if (type == stability_) {
+				temp = element.getTempLoadValues();
+				nt = temp.length;
+			}
+
+			// create values
+			int nv = 5 + 3 * nodes.length + 1 + np + 1;
+			if (type == stability_)
+				nv += 6 * nodes.length + 1 + nt;
+			values_ = new long[nv];
+			int k = 0;
+			values_[k++] = type;
+			values_[k++] = material;
+			values_[k++] = section;
+			values_[k++] = nodes.length;
+
+			// compute relative positions and extent of element
+			double[] x0 = nodes[0].getPosition().get1DArray();
+			double[] dx = new double[3 * nodes.length];
+			double extent = 0.0;
+			for (int i = 0; i < nodes.length; i++) {
+				double[] x = nodes[i].getPosition().get1DArray();
+				for (int j = 0; j < 3; j++) {
+					dx[3 * i + j] = x[j] - x0[j];
+					extent = Math.max(extent, Math.abs(dx[3 * i + j]));
+				}
+			}
+
+			// round relative positions
+			int exponent = extent > 0.0 ? Math.getExponent(extent) : 0;
+			values_[k++] = exponent;
+			double scale = Math.scalb(1.0, precision_ - exponent);
+			for (int i = 0; i < dx.length; i++)
+				values_[k++] = Math.round(dx[i] * scale);
+
+			// parameters
+			values_[k++] = np;
+			for (int i = 0; i < np; i++)
+				values_[k++] = Double.doubleToLongBits(param[i]);
+
+			// axial rotation of local axis
+			double rotation = 0.0;
+			if (element instanceof Element1D) {
+				Element1D e = (Element1D) element;
+				if (e.getLocalAxis() != null)
+					rotation = e.getLocalAxis().getValues()[0];
+			}
+			values_[k++] = Double.doubleToLongBits(rotation);
+
+			// nodal unknowns and temperature loads for stability matrix
+			if (type == stability_) {
+				for (int i = 0; i < nodes.length; i++) {
+					DVec u = nodes[i].getUnknown(Node.global_);
+					for (int j = 0; j < 6; j++)
+						values_[k++] = Double.doubleToLongBits(u.get(j));
+				}
+				values_[k++] = nt;
+				for (int i = 0; i < nt; i++)
+					values_[k++] = Double.doubleToLongBits(temp[i]);
+			}
+
+			// compute hash code and memory
+			hash_ = 31 * class_.hashCode() + Arrays.hashCode(values_);
+			size_ = 80L + 8L * values_.length;
+		}
+
+		/**
+		 * Returns true if the given key denotes the same matrix.
+		 * 
+		 * @param object
+		 *            The key to be compared.
+		 * @return True if the given key denotes the same matrix.
+		 */
+		public boolean equals(Object object) {
+			if (object == this)
+				return true;
+			if (!(object instanceof Key))
+				return false;
+			Key key = (Key) object;
+			return hash_ == key.hash_ && class_ == key.class_
+					&& Arrays.equals(values_, key.values_);
+		}
+
+		/**
+		 * Returns hash code of key.
+		 * 
+		 * @return Hash code of key.
+		 */
+		public int hashCode() {
+			return hash_;
+		}
+	}
+}
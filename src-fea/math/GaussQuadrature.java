@@ -16,7 +16,10 @@
 package math;
 
 /**
- * Class for Gauss Quadrature that can be used in numerical integration.
+ * Class for Gauss Quadrature that can be used in numerical integration. The
+ * weighting factors and supporting points of all available rules are
+ * computed once and stored in static tables, which are shared by all
+ * quadrature objects.
  * 
  * @author Murat
  * 
@@ -33,6 +36,28 @@ public class GaussQuadrature {
 	public static int oneDimensional_ = 0, twoDimensional_ = 1,
 			threeDimensional_ = 2;
 
+	/** Maximum number of Gauss points (in one direction) of the tables. */
+	private static final int maxPoints_ = 8;
+
+	/**
+	 * Tables of weighting factors and supporting points (in directions 1, 2
+	 * and 3) by dimension, geometry and number of Gauss points. Null arrays
+	 * denote rules which are not available.
+	 */
+	private static final double[][][][][] rules_;
+	static {
+		rules_ = new double[3][2][maxPoints_ + 1][][];
+		for (int d = 0; d < 3; d++) {
+			for (int g = 0; g < 2; g++) {
+				for (int n = 1; n <= maxPoints_; n++) {
+					rules_[d][g][n] = new double[4][];
+					for (int t = 0; t < 4; t++)
+						rules_[d][g][n][t] = compute(t, n, d, g);
+				}
+			}
+		}
+	}
+
 	/** Number of Gauss points. */
 	private int nOGP_;
 
@@ -100,34 +125,191 @@ public class GaussQuadrature {
 		if (index >= nOGP_)
 			exceptionHandler("Illegal index for weighting factor!");
 
-		// set error message
-		String message = "Not enough Gauss points for integration!";
+		// return weighting factor
+		return getRule(0)[index];
+	}
+
+	/**
+	 * Returns the supporting point in the direction of natural coordinate-1.
+	 * 
+	 * @param index
+	 *            The index of supporting point.
+	 * @return The supporting point in the direction of natural coordinate-1.
+	 */
+	public double getSupport1(int index) {
+
+		// check index
+		if (index >= nOGP_)
+			exceptionHandler("Illegal index for supporting point!");
+
+		// return supporting point
+		return getRule(1)[index];
+	}
+
+	/**
+	 * Returns the supporting point in the direction of natural coordinate-2.
+	 * 
+	 * @param index
+	 *            The index of supporting point.
+	 * @return The supporting point in the direction of natural coordinate-2.
+	 */
+	public double getSupport2(int index) {
+
+		// check index
+		if (index >= nOGP_)
+			exceptionHandler("Illegal index for supporting point!");
+
+		// return supporting point
+		return getRule(2)[index];
+	}
+
+	/**
+	 * Returns the supporting point in the direction of natural coordinate-3.
+	 * 
+	 * @param index
+	 *            The index of supporting point.
+	 * @return The supporting point in the direction of natural coordinate-3.
+	 */
+	public double getSupport3(int index) {
+
+		// check index
+		if (index >= nOGP_)
+			exceptionHandler("Illegal index for supporting point!");
+
+		// return supporting point
+		return getRule(3)[index];
+	}
+
+	/**
+	 * Returns the natural coordinates of the Gauss points of the given rule.
+	 * The points of square and cube rules are the combinations of supporting
+	 * points, numbered as nested loops over the directions (the last direction
+	 * running fastest). The points of line and triangle rules are numbered as
+	 * their supporting points. Tetrahedral rules are not returned since their
+	 * supporting points are mapped to the natural coordinates by the elements.
+	 * 
+	 * @param nOGP
+	 *            Number of Gauss points (in one direction).
+	 * @param dimension
+	 *            The dimension of quadrature.
+	 * @param geometry
+	 *            The geometry of quadrature.
+	 * @return The natural coordinates of Gauss points (point by point), or
+	 *         null if the rule is not available.
+	 */
+	public static double[][] getPoints(int nOGP, int dimension, int geometry) {
+
+		// rule not available
+		if (nOGP < 1 || nOGP > maxPoints_)
+			return null;
+		if (dimension == threeDimensional_ && geometry == tetrahedral_)
+			return null;
+		double[][] rule = rules_[dimension][geometry][nOGP];
+		if (rule[0] == null)
+			return null;
+
+		// line and triangle rules
+		if (dimension == oneDimensional_ || geometry == triangle_) {
+			double[][] points = new double[nOGP][dimension + 1];
+			for (int i = 0; i < nOGP; i++)
+				for (int j = 0; j <= dimension; j++)
+					points[i][j] = rule[j + 1][i];
+			return points;
+		}
+
+		// square and cube rules
+		int size = dimension == twoDimensional_ ? nOGP * nOGP : nOGP * nOGP
+				* nOGP;
+		double[][] points = new double[size][dimension + 1];
+		for (int p = 0; p < size; p++) {
+			for (int j = dimension, q = p; j >= 0; j--, q /= nOGP)
+				points[p][j] = rule[j + 1][q % nOGP];
+		}
+		return points;
+	}
+
+	/**
+	 * Returns the demanded table of the rule of quadrature.
+	 * 
+	 * @param table
+	 *            0 for weighting factors, 1, 2 and 3 for supporting points in
+	 *            the directions of natural coordinates-1, 2 and 3.
+	 * @return The table.
+	 */
+	private double[] getRule(int table) {
+		double[] t;
+		if (nOGP_ <= maxPoints_)
+			t = rules_[dimension_][geometry_][nOGP_][table];
+		else
+			t = compute(table, nOGP_, dimension_, geometry_);
+		if (t == null)
+			exceptionHandler("Not enough Gauss points for integration!");
+		return t;
+	}
+
+	/**
+	 * Computes and returns the demanded table of the given rule.
+	 * 
+	 * @param table
+	 *            0 for weighting factors, 1, 2 and 3 for supporting points in
+	 *            the directions of natural coordinates-1, 2 and 3.
+	 * @param n
+	 *            Number of Gauss points (in one direction).
+	 * @param dimension
+	 *            The dimension of quadrature.
+	 * @param geometry
+	 *            The geometry of quadrature.
+	 * @return The table, or null if the rule is not available.
+	 */
+	private static double[] compute(int table, int n, int dimension,
+			int geometry) {
+		if (table == 0)
+			return weights(n, dimension, geometry);
+		else if (table == 1)
+			return supports1(n, dimension, geometry);
+		else if (table == 2)
+			return supports2(n, dimension, geometry);
+		return supports3(n, dimension, geometry);
+	}
+
+	/**
+	 * Computes and returns the weighting factors of the given rule.
+	 * 
+	 * @param n
+	 *            Number of Gauss points (in one direction).
+	 * @param dimension
+	 *            The dimension of quadrature.
+	 * @param geometry
+	 *            The geometry of quadrature.
+	 * @return The weighting factors, or null if the rule is not available.
+	 */
+	private static double[] weights(int n, int dimension, int geometry) {
 
 		// setup weighting array
-		double[] w = new double[nOGP_];
+		double[] w = new double[n];
 
 		// one dimensional
-		if (dimension_ == GaussQuadrature.oneDimensional_) {
+		if (dimension == GaussQuadrature.oneDimensional_) {
 
 			// one point
-			if (nOGP_ == 1)
+			if (n == 1)
 				w[0] = 2.0;
 
 			// two points
-			else if (nOGP_ == 2) {
+			else if (n == 2) {
 				w[0] = 1.0;
 				w[1] = 1.0;
 			}
 
 			// three points
-			else if (nOGP_ == 3) {
+			else if (n == 3) {
 				w[0] = 5.0 / 9.0;
 				w[1] = 8.0 / 9.0;
 				w[2] = 5.0 / 9.0;
 			}
 
 			// four points
-			else if (nOGP_ == 4) {
+			else if (n == 4) {
 				w[0] = 0.34785;
 				w[1] = 0.65214;
 				w[2] = 0.65214;
@@ -136,34 +318,34 @@ public class GaussQuadrature {
 
 			// not enough Gauss points
 			else
-				exceptionHandler(message);
+				return null;
 		}
 
 		// two dimensional
-		else if (dimension_ == GaussQuadrature.twoDimensional_) {
+		else if (dimension == GaussQuadrature.twoDimensional_) {
 
 			// square geometry
-			if (geometry_ == GaussQuadrature.square_) {
+			if (geometry == GaussQuadrature.square_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					w[0] = 2.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					w[0] = 1.0;
 					w[1] = 1.0;
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					w[0] = 5.0 / 9.0;
 					w[1] = 8.0 / 9.0;
 					w[2] = 5.0 / 9.0;
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					w[0] = 0.34785;
 					w[1] = 0.65214;
 					w[2] = 0.65214;
@@ -171,7 +353,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					w[0] = 0.23692;
 					w[1] = 0.47862;
 					w[2] = 0.56888;
@@ -180,7 +362,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					w[0] = 0.17132;
 					w[1] = 0.36076;
 					w[2] = 0.46791;
@@ -190,7 +372,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					w[0] = 0.12948;
 					w[1] = 0.27970;
 					w[2] = 0.38183;
@@ -201,7 +383,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					w[0] = 0.10122;
 					w[1] = 0.22238;
 					w[2] = 0.31370;
@@ -214,25 +396,25 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 
 			// triangle geometry
-			else if (geometry_ == GaussQuadrature.triangle_) {
+			else if (geometry == GaussQuadrature.triangle_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					w[0] = 1.0;
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					w[0] = 1.0 / 3.0;
 					w[1] = 1.0 / 3.0;
 					w[2] = 1.0 / 3.0;
 				}
 
 				// four point
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					w[0] = -27.0 / 48.0;
 					w[1] = 25.0 / 48.0;
 					w[2] = 25.0 / 48.0;
@@ -240,7 +422,7 @@ public class GaussQuadrature {
 				}
 
 				// seven point
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					w[0] = 0.22500;
 					w[1] = 0.12593;
 					w[2] = 0.12593;
@@ -252,35 +434,35 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 		}
 
 		// three dimensional
-		else if (dimension_ == GaussQuadrature.threeDimensional_) {
+		else if (dimension == GaussQuadrature.threeDimensional_) {
 
 			// cube geometry
-			if (geometry_ == GaussQuadrature.cube_) {
+			if (geometry == GaussQuadrature.cube_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					w[0] = 2.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					w[0] = 1.0;
 					w[1] = 1.0;
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					w[0] = 5.0 / 9.0;
 					w[1] = 8.0 / 9.0;
 					w[2] = 5.0 / 9.0;
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					w[0] = 0.34785;
 					w[1] = 0.65214;
 					w[2] = 0.65214;
@@ -288,7 +470,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					w[0] = 0.23692;
 					w[1] = 0.47862;
 					w[2] = 0.56888;
@@ -297,7 +479,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					w[0] = 0.17132;
 					w[1] = 0.36076;
 					w[2] = 0.46791;
@@ -307,7 +489,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					w[0] = 0.12948;
 					w[1] = 0.27970;
 					w[2] = 0.38183;
@@ -318,7 +500,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					w[0] = 0.10122;
 					w[1] = 0.22238;
 					w[2] = 0.31370;
@@ -331,31 +513,31 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 
 			// tetrahedral geometry
-			else if (geometry_ == GaussQuadrature.tetrahedral_) {
+			else if (geometry == GaussQuadrature.tetrahedral_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					w[0] = 2.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					w[0] = 1.0;
 					w[1] = 1.0;
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					w[0] = 5.0 / 9.0;
 					w[1] = 8.0 / 9.0;
 					w[2] = 5.0 / 9.0;
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					w[0] = 0.34785;
 					w[1] = 0.65214;
 					w[2] = 0.65214;
@@ -363,7 +545,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					w[0] = 0.23692;
 					w[1] = 0.47862;
 					w[2] = 0.56888;
@@ -372,7 +554,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					w[0] = 0.17132;
 					w[1] = 0.36076;
 					w[2] = 0.46791;
@@ -382,7 +564,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					w[0] = 0.12948;
 					w[1] = 0.27970;
 					w[2] = 0.38183;
@@ -393,7 +575,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					w[0] = 0.10122;
 					w[1] = 0.22238;
 					w[2] = 0.31370;
@@ -406,53 +588,51 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 		}
-		return w[index];
+		return w;
 	}
 
 	/**
-	 * Returns the supporting point in the direction of natural coordinate-1.
+	 * Computes and returns the supporting points of the given rule in the
+	 * direction of natural coordinate-1.
 	 * 
-	 * @param index
-	 *            The index of supporting point.
-	 * @return The supporting point in the direction of natural coordinate-1.
+	 * @param n
+	 *            Number of Gauss points (in one direction).
+	 * @param dimension
+	 *            The dimension of quadrature.
+	 * @param geometry
+	 *            The geometry of quadrature.
+	 * @return The supporting points, or null if the rule is not available.
 	 */
-	public double getSupport1(int index) {
-
-		// check index
-		if (index >= nOGP_)
-			exceptionHandler("Illegal index for supporting point!");
-
-		// set error message
-		String message = "Not enough Gauss points for integration!";
+	private static double[] supports1(int n, int dimension, int geometry) {
 
 		// setup supporting point array
-		double[] eps1 = new double[nOGP_];
+		double[] eps1 = new double[n];
 
 		// one dimensional
-		if (dimension_ == GaussQuadrature.oneDimensional_) {
+		if (dimension == GaussQuadrature.oneDimensional_) {
 
 			// one point
-			if (nOGP_ == 1)
+			if (n == 1)
 				eps1[0] = 0.0;
 
 			// two point
-			else if (nOGP_ == 2) {
+			else if (n == 2) {
 				eps1[0] = -1.0 / Math.sqrt(3.0);
 				eps1[1] = 1.0 / Math.sqrt(3.0);
 			}
 
 			// three point
-			else if (nOGP_ == 3) {
+			else if (n == 3) {
 				eps1[0] = -Math.sqrt(3.0 / 5.0);
 				eps1[1] = 0.0;
 				eps1[2] = Math.sqrt(3.0 / 5.0);
 			}
 
 			// four points
-			else if (nOGP_ == 4) {
+			else if (n == 4) {
 				eps1[0] = -0.86114;
 				eps1[1] = -0.33998;
 				eps1[2] = 0.33998;
@@ -461,34 +641,34 @@ public class GaussQuadrature {
 
 			// not enough Gauss points
 			else
-				exceptionHandler(message);
+				return null;
 		}
 
 		// two dimensional
-		else if (dimension_ == GaussQuadrature.twoDimensional_) {
+		else if (dimension == GaussQuadrature.twoDimensional_) {
 
 			// square geometry
-			if (geometry_ == GaussQuadrature.square_) {
+			if (geometry == GaussQuadrature.square_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps1[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps1[0] = -1.0 / Math.sqrt(3.0);
 					eps1[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps1[0] = -Math.sqrt(3.0 / 5.0);
 					eps1[1] = 0.0;
 					eps1[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps1[0] = -0.86114;
 					eps1[1] = -0.33998;
 					eps1[2] = 0.33998;
@@ -496,7 +676,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps1[0] = -0.90617;
 					eps1[1] = -0.53846;
 					eps1[2] = 0.00000;
@@ -505,7 +685,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps1[0] = -0.93246;
 					eps1[1] = -0.66120;
 					eps1[2] = -0.23861;
@@ -515,7 +695,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps1[0] = -0.94910;
 					eps1[1] = -0.74153;
 					eps1[2] = -0.40584;
@@ -526,7 +706,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps1[0] = -0.96028;
 					eps1[1] = -0.79666;
 					eps1[2] = -0.52553;
@@ -539,25 +719,25 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 
 			// triangle geometry
-			else if (geometry_ == GaussQuadrature.triangle_) {
+			else if (geometry == GaussQuadrature.triangle_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps1[0] = 1.0 / 3.0;
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps1[0] = 1.0 / 6.0;
 					eps1[1] = 2.0 / 3.0;
 					eps1[2] = 1.0 / 6.0;
 				}
 
 				// four point
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps1[0] = 1.0 / 3.0;
 					eps1[1] = 3.0 / 5.0;
 					eps1[2] = 1.0 / 5.0;
@@ -565,7 +745,7 @@ public class GaussQuadrature {
 				}
 
 				// seven point
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps1[0] = 0.33333;
 					eps1[1] = 0.10128;
 					eps1[2] = 0.79742;
@@ -577,35 +757,35 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 		}
 
 		// three dimensional
-		else if (dimension_ == GaussQuadrature.threeDimensional_) {
+		else if (dimension == GaussQuadrature.threeDimensional_) {
 
 			// cube geometry
-			if (geometry_ == GaussQuadrature.cube_) {
+			if (geometry == GaussQuadrature.cube_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps1[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps1[0] = -1.0 / Math.sqrt(3.0);
 					eps1[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps1[0] = -Math.sqrt(3.0 / 5.0);
 					eps1[1] = 0.0;
 					eps1[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps1[0] = -0.86114;
 					eps1[1] = -0.33998;
 					eps1[2] = 0.33998;
@@ -613,7 +793,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps1[0] = -0.90617;
 					eps1[1] = -0.53846;
 					eps1[2] = 0.00000;
@@ -622,7 +802,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps1[0] = -0.93246;
 					eps1[1] = -0.66120;
 					eps1[2] = -0.23861;
@@ -632,7 +812,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps1[0] = -0.94910;
 					eps1[1] = -0.74153;
 					eps1[2] = -0.40584;
@@ -643,7 +823,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps1[0] = -0.96028;
 					eps1[1] = -0.79666;
 					eps1[2] = -0.52553;
@@ -656,31 +836,31 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 
 			// tetrahedral geometry
-			else if (geometry_ == GaussQuadrature.tetrahedral_) {
+			else if (geometry == GaussQuadrature.tetrahedral_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps1[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps1[0] = -1.0 / Math.sqrt(3.0);
 					eps1[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps1[0] = -Math.sqrt(3.0 / 5.0);
 					eps1[1] = 0.0;
 					eps1[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps1[0] = -0.86114;
 					eps1[1] = -0.33998;
 					eps1[2] = 0.33998;
@@ -688,7 +868,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps1[0] = -0.90617;
 					eps1[1] = -0.53846;
 					eps1[2] = 0.00000;
@@ -697,7 +877,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps1[0] = -0.93246;
 					eps1[1] = -0.66120;
 					eps1[2] = -0.23861;
@@ -707,7 +887,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps1[0] = -0.94910;
 					eps1[1] = -0.74153;
 					eps1[2] = -0.40584;
@@ -718,7 +898,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps1[0] = -0.96028;
 					eps1[1] = -0.79666;
 					eps1[2] = -0.52553;
@@ -731,56 +911,54 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 		}
-		return eps1[index];
+		return eps1;
 	}
 
 	/**
-	 * Returns the supporting point in the direction of natural coordinate-2.
+	 * Computes and returns the supporting points of the given rule in the
+	 * direction of natural coordinate-2.
 	 * 
-	 * @param index
-	 *            The index of supporting point.
-	 * @return The supporting point in the direction of natural coordinate-2.
+	 * @param n
+	 *            Number of Gauss points (in one direction).
+	 * @param dimension
+	 *            The dimension of quadrature.
+	 * @param geometry
+	 *            The geometry of quadrature.
+	 * @return The supporting points, or null if the rule is not available.
 	 */
-	public double getSupport2(int index) {
-
-		// check index
-		if (index >= nOGP_)
-			exceptionHandler("Illegal index for supporting point!");
-
-		// set error message
-		String message = "Not enough Gauss points for integration!";
+	private static double[] supports2(int n, int dimension, int geometry) {
 
 		// setup supporting point array
-		double[] eps2 = new double[nOGP_];
+		double[] eps2 = new double[n];
 
 		// two dimensional
-		if (dimension_ == GaussQuadrature.twoDimensional_) {
+		if (dimension == GaussQuadrature.twoDimensional_) {
 
 			// square geometry
-			if (geometry_ == GaussQuadrature.square_) {
+			if (geometry == GaussQuadrature.square_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps2[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps2[0] = -1.0 / Math.sqrt(3.0);
 					eps2[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps2[0] = -Math.sqrt(3.0 / 5.0);
 					eps2[1] = 0.0;
 					eps2[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps2[0] = -0.86114;
 					eps2[1] = -0.33998;
 					eps2[2] = 0.33998;
@@ -788,7 +966,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps2[0] = -0.90617;
 					eps2[1] = -0.53846;
 					eps2[2] = 0.00000;
@@ -797,7 +975,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps2[0] = -0.93246;
 					eps2[1] = -0.66120;
 					eps2[2] = -0.23861;
@@ -807,7 +985,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps2[0] = -0.94910;
 					eps2[1] = -0.74153;
 					eps2[2] = -0.40584;
@@ -818,7 +996,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps2[0] = -0.96028;
 					eps2[1] = -0.79666;
 					eps2[2] = -0.52553;
@@ -831,25 +1009,25 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 
 			// triangle geometry
-			else if (geometry_ == GaussQuadrature.triangle_) {
+			else if (geometry == GaussQuadrature.triangle_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps2[0] = 1.0 / 3.0;
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps2[0] = 1.0 / 6.0;
 					eps2[1] = 1.0 / 6.0;
 					eps2[2] = 2.0 / 3.0;
 				}
 
 				// four point
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps2[0] = 1.0 / 3.0;
 					eps2[1] = 1.0 / 5.0;
 					eps2[2] = 3.0 / 5.0;
@@ -857,7 +1035,7 @@ public class GaussQuadrature {
 				}
 
 				// seven point
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps2[0] = 0.33333;
 					eps2[1] = 0.10128;
 					eps2[2] = 0.10128;
@@ -869,35 +1047,35 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 		}
 
 		// three dimensional
-		else if (dimension_ == GaussQuadrature.threeDimensional_) {
+		else if (dimension == GaussQuadrature.threeDimensional_) {
 
 			// cube geometry
-			if (geometry_ == GaussQuadrature.cube_) {
+			if (geometry == GaussQuadrature.cube_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps2[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps2[0] = -1.0 / Math.sqrt(3.0);
 					eps2[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps2[0] = -Math.sqrt(3.0 / 5.0);
 					eps2[1] = 0.0;
 					eps2[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps2[0] = -0.86114;
 					eps2[1] = -0.33998;
 					eps2[2] = 0.33998;
@@ -905,7 +1083,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps2[0] = -0.90617;
 					eps2[1] = -0.53846;
 					eps2[2] = 0.00000;
@@ -914,7 +1092,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps2[0] = -0.93246;
 					eps2[1] = -0.66120;
 					eps2[2] = -0.23861;
@@ -924,7 +1102,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps2[0] = -0.94910;
 					eps2[1] = -0.74153;
 					eps2[2] = -0.40584;
@@ -935,7 +1113,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps2[0] = -0.96028;
 					eps2[1] = -0.79666;
 					eps2[2] = -0.52553;
@@ -948,31 +1126,31 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 
 			// tetrahedral geometry
-			else if (geometry_ == GaussQuadrature.tetrahedral_) {
+			else if (geometry == GaussQuadrature.tetrahedral_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps2[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps2[0] = -1.0 / Math.sqrt(3.0);
 					eps2[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps2[0] = -Math.sqrt(3.0 / 5.0);
 					eps2[1] = 0.0;
 					eps2[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps2[0] = -0.86114;
 					eps2[1] = -0.33998;
 					eps2[2] = 0.33998;
@@ -980,7 +1158,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps2[0] = -0.90617;
 					eps2[1] = -0.53846;
 					eps2[2] = 0.00000;
@@ -989,7 +1167,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps2[0] = -0.93246;
 					eps2[1] = -0.66120;
 					eps2[2] = -0.23861;
@@ -999,7 +1177,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps2[0] = -0.94910;
 					eps2[1] = -0.74153;
 					eps2[2] = -0.40584;
@@ -1010,7 +1188,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps2[0] = -0.96028;
 					eps2[1] = -0.79666;
 					eps2[2] = -0.52553;
@@ -1023,56 +1201,54 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 		}
-		return eps2[index];
+		return eps2;
 	}
 
 	/**
-	 * Returns the supporting point in the direction of natural coordinate-3.
+	 * Computes and returns the supporting points of the given rule in the
+	 * direction of natural coordinate-3.
 	 * 
-	 * @param index
-	 *            The index of supporting point.
-	 * @return The supporting point in the direction of natural coordinate-3.
+	 * @param n
+	 *            Number of Gauss points (in one direction).
+	 * @param dimension
+	 *            The dimension of quadrature.
+	 * @param geometry
+	 *            The geometry of quadrature.
+	 * @return The supporting points, or null if the rule is not available.
 	 */
-	public double getSupport3(int index) {
-
-		// check index
-		if (index >= nOGP_)
-			exceptionHandler("Illegal index for supporting point!");
-
-		// set error message
-		String message = "Not enough Gauss points for integration!";
+	private static double[] supports3(int n, int dimension, int geometry) {
 
 		// setup supporting point array
-		double[] eps3 = new double[nOGP_];
+		double[] eps3 = new double[n];
 
 		// three dimensional
-		if (dimension_ == GaussQuadrature.threeDimensional_) {
+		if (dimension == GaussQuadrature.threeDimensional_) {
 
 			// cube geometry
-			if (geometry_ == GaussQuadrature.cube_) {
+			if (geometry == GaussQuadrature.cube_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps3[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps3[0] = -1.0 / Math.sqrt(3.0);
 					eps3[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps3[0] = -Math.sqrt(3.0 / 5.0);
 					eps3[1] = 0.0;
 					eps3[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps3[0] = -0.86114;
 					eps3[1] = -0.33998;
 					eps3[2] = 0.33998;
@@ -1080,7 +1256,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps3[0] = -0.90617;
 					eps3[1] = -0.53846;
 					eps3[2] = 0.00000;
@@ -1089,7 +1265,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps3[0] = -0.93246;
 					eps3[1] = -0.66120;
 					eps3[2] = -0.23861;
@@ -1099,7 +1275,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps3[0] = -0.94910;
 					eps3[1] = -0.74153;
 					eps3[2] = -0.40584;
@@ -1110,7 +1286,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps3[0] = -0.96028;
 					eps3[1] = -0.79666;
 					eps3[2] = -0.52553;
@@ -1123,31 +1299,31 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 
 			// tetrahedral geometry
-			else if (geometry_ == GaussQuadrature.tetrahedral_) {
+			else if (geometry == GaussQuadrature.tetrahedral_) {
 
 				// one point
-				if (nOGP_ == 1)
+				if (n == 1)
 					eps3[0] = 0.0;
 
 				// two point
-				else if (nOGP_ == 2) {
+				else if (n == 2) {
 					eps3[0] = -1.0 / Math.sqrt(3.0);
 					eps3[1] = 1.0 / Math.sqrt(3.0);
 				}
 
 				// three point
-				else if (nOGP_ == 3) {
+				else if (n == 3) {
 					eps3[0] = -Math.sqrt(3.0 / 5.0);
 					eps3[1] = 0.0;
 					eps3[2] = Math.sqrt(3.0 / 5.0);
 				}
 
 				// four points
-				else if (nOGP_ == 4) {
+				else if (n == 4) {
 					eps3[0] = -0.86114;
 					eps3[1] = -0.33998;
 					eps3[2] = 0.33998;
@@ -1155,7 +1331,7 @@ public class GaussQuadrature {
 				}
 
 				// five points
-				else if (nOGP_ == 5) {
+				else if (n == 5) {
 					eps3[0] = -0.90617;
 					eps3[1] = -0.53846;
 					eps3[2] = 0.00000;
@@ -1164,7 +1340,7 @@ public class GaussQuadrature {
 				}
 
 				// six points
-				else if (nOGP_ == 6) {
+				else if (n == 6) {
 					eps3[0] = -0.93246;
 					eps3[1] = -0.66120;
 					eps3[2] = -0.23861;
@@ -1174,7 +1350,7 @@ public class GaussQuadrature {
 				}
 
 				// seven points
-				else if (nOGP_ == 7) {
+				else if (n == 7) {
 					eps3[0] = -0.94910;
 					eps3[1] = -0.74153;
 					eps3[2] = -0.40584;
@@ -1185,7 +1361,7 @@ public class GaussQuadrature {
 				}
 
 				// eight points
-				else if (nOGP_ == 8) {
+				else if (n == 8) {
 					eps3[0] = -0.96028;
 					eps3[1] = -0.79666;
 					eps3[2] = -0.52553;
@@ -1198,10 +1374,10 @@ public class GaussQuadrature {
 
 				// not enough Gauss points
 				else
-					exceptionHandler(message);
+					return null;
 			}
 		}
-		return eps3[index];
+		return eps3;
 	}
 
 	/**
@@ -29,6 +29,30 @@ public class Interpolation2D {
 	/** Static variable for the geometry of interpolation function. */
 	public final static int quadrangular_ = 0, triangular_ = 1;
 
+	/** Maximum number of Gauss points (in one direction) of tabulated rules. */
+	private static final int maxPoints_ = 8;
+
+	/** Tables of derivatives by geometry, degree and rule. */
+	private static final InterpolationTable[][][] tables_;
+	static {
+		tables_ = new InterpolationTable[2][4][maxPoints_ + 1];
+		for (int g = 0; g < 2; g++) {
+			int geometry = g == quadrangular_ ? GaussQuadrature.square_
+					: GaussQuadrature.triangle_;
+			for (int d = 1; d <= 3; d++) {
+				if (g == quadrangular_ || d != bicubic_) {
+					Interpolation2D intF = new Interpolation2D(d, g);
+					for (int n = 1; n <= maxPoints_; n++) {
+						double[][] points = GaussQuadrature.getPoints(n,
+								GaussQuadrature.twoDimensional_, geometry);
+						if (points != null)
+							tables_[g][d][n] = intF.tabulate(points);
+					}
+				}
+			}
+		}
+	}
+
 	/** The degree of interpolation function. */
 	private int degree_;
 
@@ -78,6 +102,53 @@ public class Interpolation2D {
 		return geometry_;
 	}
 
+	/**
+	 * Returns the number of interpolation functions.
+	 * 
+	 * @return The number of interpolation functions.
+	 */
+	public int getNumberOfFunctions() {
+		if (geometry_ == Interpolation2D.quadrangular_)
+			return 4 * degree_;
+		return degree_ == Interpolation2D.bilinear_ ? 3 : 6;
+	}
+
+	/**
+	 * Returns the table of derivatives of interpolation functions at the Gauss
+	 * points of the given rule for the geometry of interpolation (see
+	 * GaussQuadrature.getPoints). The tables are built once and shared by
+	 * all interpolations of the same kind.
+	 * 
+	 * @param nog
+	 *            Number of Gauss points (in one direction).
+	 * @return The table, or null if the rule is not tabulated.
+	 */
+	public InterpolationTable getTable(int nog) {
+		if (nog < 1 || nog > maxPoints_)
+			return null;
+		return tables_[geometry_][degree_][nog];
+	}
+
+	/**
+	 * Tabulates derivatives of interpolation functions at the given points.
+	 * 
+	 * @param points
+	 *            Natural coordinates of points.
+	 * @return The table.
+	 */
+	private InterpolationTable tabulate(double[][] points) {
+		int n = getNumberOfFunctions();
+		double[][][] derivatives = new double[points.length][2][n];
+		for (int p = 0; p < points.length; p++) {
+			double eps1 = points[p][0], eps2 = points[p][1];
+			for (int i = 0; i < n; i++) {
+				derivatives[p][0][i] = getDer1Function(eps1, eps2, i);
+				derivatives[p][1][i] = getDer2Function(eps1, eps2, i);
+			}
+		}
+		return new InterpolationTable(derivatives);
+	}
+
 	/**
 	 * Returns the value of interpolation function.
 	 * 
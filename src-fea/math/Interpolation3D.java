@@ -29,6 +29,28 @@ public class Interpolation3D {
 	/** Static variable for the geometry of interpolation function. */
 	public final static int hexahedral_ = 0, tetrahedral_ = 1;
 
+	/** Maximum number of Gauss points (in one direction) of tabulated rules. */
+	private static final int maxPoints_ = 4;
+
+	/** Tables of derivatives by geometry, degree and rule. */
+	private static final InterpolationTable[][][] tables_;
+	static {
+		tables_ = new InterpolationTable[2][3][maxPoints_ + 1];
+		for (int g = 0; g < 2; g++) {
+			int geometry = g == hexahedral_ ? GaussQuadrature.cube_
+					: GaussQuadrature.tetrahedral_;
+			for (int d = 1; d <= 2; d++) {
+				Interpolation3D intF = new Interpolation3D(d, g);
+				for (int n = 1; n <= maxPoints_; n++) {
+					double[][] points = GaussQuadrature.getPoints(n,
+							GaussQuadrature.threeDimensional_, geometry);
+					if (points != null)
+						tables_[g][d][n] = intF.tabulate(points);
+				}
+			}
+		}
+	}
+
 	/** The degree of interpolation function. */
 	private int degree_;
 
@@ -76,6 +98,55 @@ public class Interpolation3D {
 		return geometry_;
 	}
 
+	/**
+	 * Returns the number of interpolation functions.
+	 * 
+	 * @return The number of interpolation functions.
+	 */
+	public int getNumberOfFunctions() {
+		if (geometry_ == Interpolation3D.hexahedral_)
+			return degree_ == Interpolation3D.trilinear_ ? 8 : 20;
+		return degree_ == Interpolation3D.trilinear_ ? 4 : 10;
+	}
+
+	/**
+	 * Returns the table of derivatives of interpolation functions at the Gauss
+	 * points of the given rule for the geometry of interpolation (see
+	 * GaussQuadrature.getPoints). The tables are built once and shared by
+	 * all interpolations of the same kind.
+	 * 
+	 * @param nog
+	 *            Number of Gauss points (in one direction).
+	 * @return The table, or null if the rule is not tabulated.
+	 */
+	public InterpolationTable getTable(int nog) {
+		if (nog < 1 || nog > maxPoints_)
+			return null;
+		return tables_[geometry_][degree_][nog];
+	}
+
+	/**
+	 * Tabulates derivatives of interpolation functions at the given points.
+	 * 
+	 * @param points
+	 *            Natural coordinates of points.
+	 * @return The table.
+	 */
+	private InterpolationTable tabulate(double[][] points) {
+		int n = getNumberOfFunctions();
+		double[][][] derivatives = new double[points.length][3][n];
+		for (int p = 0; p < points.length; p++) {
+			double eps1 = points[p][0], eps2 = points[p][1];
+			double eps3 = points[p][2];
+			for (int i = 0; i < n; i++) {
+				derivatives[p][0][i] = getDer1Function(eps1, eps2, eps3, i);
+				derivatives[p][1][i] = getDer2Function(eps1, eps2, eps3, i);
+				derivatives[p][2][i] = getDer3Function(eps1, eps2, eps3, i);
+			}
+		}
+		return new InterpolationTable(derivatives);
+	}
+
 	/**
 	 * Returns the value of interpolation function.
 	 * 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math;
+
+/**
+ * Class for tables of derivatives of interpolation functions at the Gauss
+ * points of a quadrature rule. The points are numbered as in
+ * GaussQuadrature.getPoints, so that integration loops can index the table by
+ * the number of Gauss point. The tables are built completely on creation and
+ * never modified afterwards, hence they can be shared among threads. Tables
+ * exist for the quadrangular and triangular rules of two dimensional and the
+ * hexahedral rules of three dimensional interpolations. They are used by the
+ * stiffness integration of continuum elements (see ContinuumKernel), which
+ * needs the derivatives only, hence the functions themselves are not
+ * tabulated. Other integrations, tetrahedral rules and one dimensional
+ * interpolations evaluate the closed forms of the interpolation functions.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class InterpolationTable {
+
+	/** Tabulated derivatives of points. */
+	private final double[][][] derivatives_;
+
+	/**
+	 * Creates table of derivatives of interpolation functions.
+	 * 
+	 * @param derivatives
+	 *            Tabulated derivatives of points. For each point, the rows
+	 *            contain the derivatives with respect to the natural
+	 *            coordinates.
+	 */
+	public InterpolationTable(double[][][] derivatives) {
+		derivatives_ = derivatives;
+	}
+
+	/**
+	 * Returns the number of tabulated points.
+	 * 
+	 * @return The number of tabulated points.
+	 */
+	public int getNumberOfPoints() {
+		return derivatives_.length;
+	}
+
+	/**
+	 * Returns the number of tabulated interpolation functions.
+	 * 
+	 * @return The number of tabulated interpolation functions.
+	 */
+	public int getNumberOfFunctions() {
+		return derivatives_[0][0].length;
+	}
+
+	/**
+	 * Returns the tabulated derivatives of interpolation functions at the
+	 * given point. The values are shared, they must not be modified.
+	 * 
+	 * @param point
+	 *            The number of Gauss point.
+	 * @param der
+	 *            The natural coordinate of derivative (0, 1 or 2).
+	 * @return The tabulated derivatives.
+	 */
+	public double[] getDerivatives(int point, int der) {
+		return derivatives_[point][der];
+	}
+}
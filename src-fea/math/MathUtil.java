@@ -65,6 +65,39 @@ public class MathUtil {
 		return mat.inverse().getArray();
 	}
 
+	/**
+	 * Returns the exponential of the given square matrix. The exponential is
+	 * computed by scaling and squaring with truncated Taylor series.
+	 * 
+	 * @param arg0
+	 *            Two dimensional array representing the matrix.
+	 * @return The exponential of the given matrix.
+	 */
+	public static double[][] exponential(double[][] arg0) {
+
+		// scale matrix
+		Matrix mat = new Matrix(arg0);
+		int n = mat.getRowDimension();
+		double norm = mat.normInf();
+		int s = 0;
+		if (norm > 0.5)
+			s = (int) Math.ceil(Math.log(norm / 0.5) / Math.log(2.0));
+		mat = mat.times(Math.pow(2.0, -s));
+
+		// compute truncated Taylor series
+		Matrix term = Matrix.identity(n, n);
+		Matrix exp = Matrix.identity(n, n);
+		for (int k = 1; k <= 20; k++) {
+			term = term.times(mat).times(1.0 / k);
+			exp.plusEquals(term);
+		}
+
+		// square back
+		for (int i = 0; i < s; i++)
+			exp = exp.times(exp);
+		return exp.getArray();
+	}
+
 	/**
 	 * Returns the minimum value of the given integer array.
 	 * 
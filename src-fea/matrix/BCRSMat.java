@@ -0,0 +1,713 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package matrix;
+
+import java.util.Arrays;
+
+import no.uib.cipr.matrix.AbstractMatrix;
+import no.uib.cipr.matrix.DenseVector;
+import no.uib.cipr.matrix.Vector;
+
+/**
+ * Class for block-compressed-row-storage-square sparse matrix (BCRS). The
+ * equations are grouped into blocks of consecutive equations (the free dofs of
+ * nodes), and only the dense blocks within the given block sparsity pattern
+ * are stored. Each block is stored row-wise, so that one column index is
+ * stored per block instead of per entry. Element matrices are scattered
+ * block-wise, and matrix-vector products are performed block-wise. The matrix
+ * can be passed to MTJ solvers through the internal MTJ matrix.
+ * 
+ * @author Murat Artim
+ */
+public class BCRSMat extends SMat {
+
+	/** The MTJ view of this matrix. */
+	public AbstractMatrix mat_;
+
+	/** The number of equations. */
+	private int n_;
+
+	/** First equations of block rows (of length number of blocks + 1). */
+	private int[] blockPtr_;
+
+	/** Block row index of each equation. */
+	private int[] blockOf_;
+
+	/** Adresses of first blocks of block rows. */
+	private int[] rowPtr_;
+
+	/** Block column indices of blocks. */
+	private int[] colIdx_;
+
+	/** Adresses of first entries of blocks in the internal storage array. */
+	private int[] valPtr_;
+
+	/** The internal storage array. */
+	private double[] val_;
+
+	/** The size of all blocks if they are equal, 0 otherwise. */
+	private int size_;
+
+	/**
+	 * Creates sparse matrix from another sparse matrix. The sparsity pattern
+	 * is shared between the matrices.
+	 * 
+	 * @param arg0
+	 *            Sparse matrix.
+	 */
+	public BCRSMat(BCRSMat arg0) {
+		n_ = arg0.n_;
+		blockPtr_ = arg0.blockPtr_;
+		blockOf_ = arg0.blockOf_;
+		rowPtr_ = arg0.rowPtr_;
+		colIdx_ = arg0.colIdx_;
+		valPtr_ = arg0.valPtr_;
+		val_ = arg0.val_.clone();
+		size_ = arg0.size_;
+		mat_ = new Adapter();
+	}
+
+	/**
+	 * Creates a new sparse matrix with the given block sparsity pattern.
+	 * 
+	 * @param arg0
+	 *            First equations of blocks (of length number of blocks + 1).
+	 *            The last entry is the number of equations.
+	 * @param arg1
+	 *            Block column indices of non-zero blocks for each block row.
+	 */
+	public BCRSMat(int[] arg0, int[][] arg1) {
+
+		// check blocks
+		int nb = arg0.length - 1;
+		if (nb < 0 || arg1.length != nb)
+			exceptionHandler("Matrix has illegal dimensions!");
+		for (int i = 0; i < nb; i++)
+			if (arg0[i + 1] <= arg0[i] || arg0[0] != 0)
+				exceptionHandler("Matrix has illegal dimensions!");
+
+		// set blocks
+		n_ = arg0[nb];
+		blockPtr_ = arg0.clone();
+		blockOf_ = new int[n_];
+		for (int i = 0; i < nb; i++)
+			Arrays.fill(blockOf_, blockPtr_[i], blockPtr_[i + 1], i);
+
+		// set block sparsity pattern
+		rowPtr_ = new int[nb + 1];
+		for (int i = 0; i < nb; i++)
+			rowPtr_[i + 1] = rowPtr_[i] + arg1[i].length;
+		colIdx_ = new int[rowPtr_[nb]];
+		valPtr_ = new int[rowPtr_[nb] + 1];
+		for (int i = 0; i < nb; i++) {
+			int[] cols = arg1[i].clone();
+			Arrays.sort(cols);
+			System.arraycopy(cols, 0, colIdx_, rowPtr_[i], cols.length);
+			for (int k = rowPtr_[i]; k < rowPtr_[i + 1]; k++) {
+				int j = colIdx_[k];
+				if (j < 0 || j >= nb)
+					exceptionHandler("Illegal column index!");
+				valPtr_[k + 1] = valPtr_[k] + blockSize(i) * blockSize(j);
+			}
+		}
+
+		// check for equal block sizes
+		size_ = nb == 0 ? 0 : blockSize(0);
+		for (int i = 1; i < nb; i++)
+			if (blockSize(i) != size_)
+				size_ = 0;
+
+		// create storage
+		val_ = new double[valPtr_[rowPtr_[nb]]];
+		mat_ = new Adapter();
+	}
+
+	/**
+	 * Adds matrices (A = A + B). Entries of the given matrix outside the
+	 * sparsity pattern of this matrix will be ignored.
+	 * 
+	 * @param arg0
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat add(SMat arg0) {
+
+		// cast given matrix
+		BCRSMat arg = (BCRSMat) arg0;
+
+		// check for dimensions
+		if (rowCount() != arg.rowCount() || columnCount() != arg.columnCount())
+			exceptionHandler("Matrix dimensions don't agree!");
+
+		// same sparsity pattern
+		if (valPtr_ == arg.valPtr_
+				|| (Arrays.equals(blockPtr_, arg.blockPtr_)
+						&& Arrays.equals(rowPtr_, arg.rowPtr_) && Arrays
+						.equals(colIdx_, arg.colIdx_))) {
+			for (int i = 0; i < val_.length; i++)
+				val_[i] += arg.val_[i];
+		}
+
+		// same blocks, different block sparsity patterns
+		else if (Arrays.equals(blockPtr_, arg.blockPtr_)) {
+			for (int i = 0; i < arg.rowPtr_.length - 1; i++) {
+				for (int k = arg.rowPtr_[i]; k < arg.rowPtr_[i + 1]; k++) {
+					int index = getBlockIndex(i, arg.colIdx_[k]);
+					if (index >= 0)
+						for (int p = 0; p < arg.valPtr_[k + 1]
+								- arg.valPtr_[k]; p++)
+							val_[valPtr_[index] + p] += arg.val_[arg.valPtr_[k]
+									+ p];
+				}
+			}
+		}
+
+		// different blocks
+		else {
+			for (int i = 0; i < arg.n_; i++) {
+				int bi = arg.blockOf_[i];
+				for (int k = arg.rowPtr_[bi]; k < arg.rowPtr_[bi + 1]; k++) {
+					int bj = arg.colIdx_[k];
+					for (int j = arg.blockPtr_[bj]; j < arg.blockPtr_[bj + 1]; j++)
+						add(i, j, arg.val_[arg.getAdress(k, i, j)]);
+				}
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Adds element to the specified position. Entries outside the sparsity
+	 * pattern will be ignored.
+	 * 
+	 * @param arg0
+	 *            The row index.
+	 * @param arg1
+	 *            The column index.
+	 * @param arg2
+	 *            The value to be added.
+	 */
+	public void add(int arg0, int arg1, double arg2) {
+		int index = getIndex(arg0, arg1);
+		if (index >= 0)
+			val_[index] += arg2;
+	}
+
+	/**
+	 * Returns true, since the block sparsity pattern is fixed during
+	 * addition. Hence, distinct entries can be added from several threads at
+	 * the same time.
+	 * 
+	 * @return True.
+	 */
+	public boolean isParallelScatterSafe() {
+		return true;
+	}
+
+	/**
+	 * Adds the given matrix to the rows and columns of given equations
+	 * (scatter-add). The equations are expected in groups of 6 (nodal dofs),
+	 * and each pair of groups is added block-wise with a single block search.
+	 * Equations of -1 and entries outside the sparsity pattern will be
+	 * ignored.
+	 * 
+	 * @param arg0
+	 *            Equation numbers of rows and columns of the matrix.
+	 * @param arg1
+	 *            The matrix to be added.
+	 */
+	public void add(int[] arg0, DMat arg1) {
+
+		// not in nodal groups
+		if (arg0.length % 6 != 0) {
+			super.add(arg0, arg1);
+			return;
+		}
+
+		// get block rows of groups
+		int ng = arg0.length / 6;
+		int[] group = new int[ng];
+		for (int g = 0; g < ng; g++) {
+			group[g] = -1;
+			for (int p = 0; p < 6; p++) {
+				int i = arg0[6 * g + p];
+				if (i == -1)
+					continue;
+
+				// group is not contained in a single block
+				if (group[g] != -1 && group[g] != blockOf_[i]) {
+					super.add(arg0, arg1);
+					return;
+				}
+				group[g] = blockOf_[i];
+			}
+		}
+
+		// loop over pairs of groups
+		double[] data = arg1.mat_.getData();
+		int ld = arg1.rowCount();
+		for (int gi = 0; gi < ng; gi++) {
+			int bi = group[gi];
+			if (bi == -1)
+				continue;
+			for (int gj = 0; gj < ng; gj++) {
+				int bj = group[gj];
+				if (bj == -1)
+					continue;
+
+				// find block
+				int index = getBlockIndex(bi, bj);
+				if (index < 0)
+					continue;
+				int start = valPtr_[index], size = blockSize(bj);
+
+				// add entries of block
+				for (int p = 0; p < 6; p++) {
+					int i = arg0[6 * gi + p];
+					if (i == -1)
+						continue;
+					int row = start + (i - blockPtr_[bi]) * size
+							- blockPtr_[bj];
+					for (int q = 0; q < 6; q++) {
+						int j = arg0[6 * gj + q];
+						if (j != -1)
+							val_[row + j] += data[(6 * gj + q) * ld + 6 * gi
+									+ p];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the column count.
+	 * 
+	 * @return The column count.
+	 */
+	public int columnCount() {
+		return n_;
+	}
+
+	/**
+	 * Returns a deep copy of this matrix.
+	 * 
+	 * @return A deep copy of this matrix.
+	 */
+	public BCRSMat copy() {
+		return new BCRSMat(this);
+	}
+
+	/**
+	 * Returns the demanded element.
+	 * 
+	 * @param arg0
+	 *            The row index of demanded element.
+	 * @param arg1
+	 *            The column index of demanded element.
+	 * @return The demanded element.
+	 */
+	public double get(int arg0, int arg1) {
+		int index = getIndex(arg0, arg1);
+		return index >= 0 ? val_[index] : 0.0;
+	}
+
+	/**
+	 * Returns the diagonal of this matrix.
+	 * 
+	 * @return The diagonal.
+	 */
+	public double[] getDiagonal() {
+		double[] diag = new double[n_];
+		for (int i = 0; i < n_; i++)
+			diag[i] = get(i, i);
+		return diag;
+	}
+
+	/**
+	 * Returns the number of blocks (block rows).
+	 * 
+	 * @return The number of blocks.
+	 */
+	public int getNumberOfBlocks() {
+		return blockPtr_.length - 1;
+	}
+
+	/**
+	 * Returns the first equations of blocks (of length number of blocks + 1).
+	 * 
+	 * @return The first equations of blocks.
+	 */
+	public int[] getBlockPointers() {
+		return blockPtr_;
+	}
+
+	/**
+	 * Returns the number of stored entries up to the given block row.
+	 * 
+	 * @param arg0
+	 *            The block row index.
+	 * @return The number of stored entries of the preceding block rows.
+	 */
+	public int getNumberOfEntries(int arg0) {
+		return valPtr_[rowPtr_[arg0]];
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @return The product vector (c).
+	 */
+	public DVec multiply(DVec arg0) {
+		DVec vec = new DVec(arg0.rowCount());
+		multiplyInto(arg0, vec);
+		return vec;
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiplyInto(DVec arg0, DVec arg1) {
+		multiply(arg0.vec_.getData(), arg1.vec_.getData(), 0,
+				getNumberOfBlocks());
+	}
+
+	/**
+	 * Performs matrix-vector multiplication (c = A * b) for the given range of
+	 * block rows. Only the entries of c belonging to the block rows are set.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 * @param arg2
+	 *            The first block row.
+	 * @param arg3
+	 *            The block row after the last block row.
+	 */
+	public void multiply(double[] arg0, double[] arg1, int arg2, int arg3) {
+
+		// blocks of 6 (frame and shell nodes)
+		if (size_ == 6) {
+			multiply6(arg0, arg1, arg2, arg3);
+			return;
+		}
+
+		// blocks of 3 (solid and truss nodes)
+		if (size_ == 3) {
+			multiply3(arg0, arg1, arg2, arg3);
+			return;
+		}
+
+		// loop over block rows
+		for (int bi = arg2; bi < arg3; bi++) {
+
+			// clear rows
+			int lo = blockPtr_[bi], hi = blockPtr_[bi + 1];
+			for (int i = lo; i < hi; i++)
+				arg1[i] = 0.0;
+
+			// loop over blocks of row
+			for (int k = rowPtr_[bi]; k < rowPtr_[bi + 1]; k++) {
+				int bj = colIdx_[k];
+				int c0 = blockPtr_[bj], c1 = blockPtr_[bj + 1];
+				int p = valPtr_[k];
+				for (int i = lo; i < hi; i++) {
+					double sum = 0.0;
+					for (int j = c0; j < c1; j++)
+						sum += val_[p++] * arg0[j];
+					arg1[i] += sum;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Performs matrix-vector multiplication for the given range of block rows
+	 * when all blocks are of size 6.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 * @param arg2
+	 *            The first block row.
+	 * @param arg3
+	 *            The block row after the last block row.
+	 */
+	private void multiply6(double[] arg0, double[] arg1, int arg2, int arg3) {
+
+		// loop over block rows
+		double[] a = val_;
+		for (int bi = arg2; bi < arg3; bi++) {
+
+			// loop over blocks of row
+			double y0 = 0.0, y1 = 0.0, y2 = 0.0, y3 = 0.0, y4 = 0.0, y5 = 0.0;
+			for (int k = rowPtr_[bi]; k < rowPtr_[bi + 1]; k++) {
+				int c = 6 * colIdx_[k], p = 36 * k;
+				double x0 = arg0[c], x1 = arg0[c + 1], x2 = arg0[c + 2];
+				double x3 = arg0[c + 3], x4 = arg0[c + 4], x5 = arg0[c + 5];
+				y0 += a[p] * x0 + a[p + 1] * x1 + a[p + 2] * x2 + a[p + 3]
+						* x3 + a[p + 4] * x4 + a[p + 5] * x5;
+				y1 += a[p + 6] * x0 + a[p + 7] * x1 + a[p + 8] * x2
+						+ a[p + 9] * x3 + a[p + 10] * x4 + a[p + 11] * x5;
+				y2 += a[p + 12] * x0 + a[p + 13] * x1 + a[p + 14] * x2
+						+ a[p + 15] * x3 + a[p + 16] * x4 + a[p + 17] * x5;
+				y3 += a[p + 18] * x0 + a[p + 19] * x1 + a[p + 20] * x2
+						+ a[p + 21] * x3 + a[p + 22] * x4 + a[p + 23] * x5;
+				y4 += a[p + 24] * x0 + a[p + 25] * x1 + a[p + 26] * x2
+						+ a[p + 27] * x3 + a[p + 28] * x4 + a[p + 29] * x5;
+				y5 += a[p + 30] * x0 + a[p + 31] * x1 + a[p + 32] * x2
+						+ a[p + 33] * x3 + a[p + 34] * x4 + a[p + 35] * x5;
+			}
+
+			// store rows
+			int r = 6 * bi;
+			arg1[r] = y0;
+			arg1[r + 1] = y1;
+			arg1[r + 2] = y2;
+			arg1[r + 3] = y3;
+			arg1[r + 4] = y4;
+			arg1[r + 5] = y5;
+		}
+	}
+
+	/**
+	 * Performs matrix-vector multiplication for the given range of block rows
+	 * when all blocks are of size 3.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 * @param arg2
+	 *            The first block row.
+	 * @param arg3
+	 *            The block row after the last block row.
+	 */
+	private void multiply3(double[] arg0, double[] arg1, int arg2, int arg3) {
+
+		// loop over block rows
+		double[] a = val_;
+		for (int bi = arg2; bi < arg3; bi++) {
+
+			// loop over blocks of row
+			double y0 = 0.0, y1 = 0.0, y2 = 0.0;
+			for (int k = rowPtr_[bi]; k < rowPtr_[bi + 1]; k++) {
+				int c = 3 * colIdx_[k], p = 9 * k;
+				double x0 = arg0[c], x1 = arg0[c + 1], x2 = arg0[c + 2];
+				y0 += a[p] * x0 + a[p + 1] * x1 + a[p + 2] * x2;
+				y1 += a[p + 3] * x0 + a[p + 4] * x1 + a[p + 5] * x2;
+				y2 += a[p + 6] * x0 + a[p + 7] * x1 + a[p + 8] * x2;
+			}
+
+			// store rows
+			int r = 3 * bi;
+			arg1[r] = y0;
+			arg1[r + 1] = y1;
+			arg1[r + 2] = y2;
+		}
+	}
+
+	/**
+	 * Returns the row count.
+	 * 
+	 * @return The row count.
+	 */
+	public int rowCount() {
+		return n_;
+	}
+
+	/**
+	 * Returns scaled matrix (A = s * A).
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @return This matrix (A).
+	 */
+	public BCRSMat scale(double arg0) {
+		for (int i = 0; i < val_.length; i++)
+			val_[i] *= arg0;
+		return this;
+	}
+
+	/**
+	 * Sets the element to respective place. Entries outside the sparsity
+	 * pattern will be ignored.
+	 * 
+	 * @param arg0
+	 *            The row index to be set.
+	 * @param arg1
+	 *            The column index to be set.
+	 * @param arg2
+	 *            The element to be set.
+	 */
+	public void set(int arg0, int arg1, double arg2) {
+		int index = getIndex(arg0, arg1);
+		if (index >= 0)
+			val_[index] = arg2;
+	}
+
+	/**
+	 * Returns the size of the given block.
+	 * 
+	 * @param arg0
+	 *            The block index.
+	 * @return The size of block.
+	 */
+	private int blockSize(int arg0) {
+		return blockPtr_[arg0 + 1] - blockPtr_[arg0];
+	}
+
+	/**
+	 * Returns the index of the demanded block in the block column indices
+	 * array.
+	 * 
+	 * @param arg0
+	 *            The block row index.
+	 * @param arg1
+	 *            The block column index.
+	 * @return The index of the block, or a negative value if the block is
+	 *         outside the sparsity pattern.
+	 */
+	private int getBlockIndex(int arg0, int arg1) {
+		return Arrays.binarySearch(colIdx_, rowPtr_[arg0], rowPtr_[arg0 + 1],
+				arg1);
+	}
+
+	/**
+	 * Returns the adress of the demanded entry of the given block in the
+	 * internal storage array.
+	 * 
+	 * @param arg0
+	 *            The index of block.
+	 * @param arg1
+	 *            The row index.
+	 * @param arg2
+	 *            The column index.
+	 * @return The adress of the entry.
+	 */
+	private int getAdress(int arg0, int arg1, int arg2) {
+		int bi = blockOf_[arg1], bj = colIdx_[arg0];
+		return valPtr_[arg0] + (arg1 - blockPtr_[bi]) * blockSize(bj) + arg2
+				- blockPtr_[bj];
+	}
+
+	/**
+	 * Returns the adress of the demanded entry in the internal storage array.
+	 * 
+	 * @param arg0
+	 *            The row index.
+	 * @param arg1
+	 *            The column index.
+	 * @return The adress of the entry, or a negative value if the entry is
+	 *         outside the sparsity pattern.
+	 */
+	private int getIndex(int arg0, int arg1) {
+
+		// check indices
+		if (arg0 < 0 || arg0 >= rowCount())
+			exceptionHandler("Illegal row index!");
+		if (arg1 < 0 || arg1 >= columnCount())
+			exceptionHandler("Illegal column index!");
+
+		// search block
+		int index = getBlockIndex(blockOf_[arg0], blockOf_[arg1]);
+		if (index < 0)
+			return -1;
+		return getAdress(index, arg0, arg1);
+	}
+
+	/**
+	 * Inner class for the MTJ view of the matrix. Only the operations needed
+	 * by the iterative solvers are performed block-wise.
+	 * 
+	 * @author Murat Artim
+	 * 
+	 */
+	private class Adapter extends AbstractMatrix {
+
+		/**
+		 * Creates the MTJ view of the matrix.
+		 */
+		private Adapter() {
+			super(n_, n_);
+		}
+
+		@Override
+		public double get(int row, int column) {
+			return BCRSMat.this.get(row, column);
+		}
+
+		@Override
+		public void set(int row, int column, double value) {
+			BCRSMat.this.set(row, column, value);
+		}
+
+		@Override
+		public void add(int row, int column, double value) {
+			BCRSMat.this.add(row, column, value);
+		}
+
+		@Override
+		public Vector multAdd(double alpha, Vector x, Vector y) {
+			checkMultAdd(x, y);
+			double[] xd = ((DenseVector) x).getData();
+			double[] yd = ((DenseVector) y).getData();
+			for (int bi = 0; bi < getNumberOfBlocks(); bi++) {
+				for (int i = blockPtr_[bi]; i < blockPtr_[bi + 1]; i++) {
+					double s = 0.0;
+					int r = i - blockPtr_[bi];
+					for (int k = rowPtr_[bi]; k < rowPtr_[bi + 1]; k++) {
+						int bj = colIdx_[k];
+						int cols = blockSize(bj);
+						int p = valPtr_[k] + r * cols;
+						for (int j = blockPtr_[bj]; j < blockPtr_[bj + 1]; j++)
+							s += val_[p++] * xd[j];
+					}
+					yd[i] += alpha * s;
+				}
+			}
+			return y;
+		}
+
+		@Override
+		public Vector transMultAdd(double alpha, Vector x, Vector y) {
+			checkTransMultAdd(x, y);
+			double[] xd = ((DenseVector) x).getData();
+			double[] yd = ((DenseVector) y).getData();
+			for (int bi = 0; bi < getNumberOfBlocks(); bi++) {
+				for (int k = rowPtr_[bi]; k < rowPtr_[bi + 1]; k++) {
+					int bj = colIdx_[k];
+					int p = valPtr_[k];
+					for (int i = blockPtr_[bi]; i < blockPtr_[bi + 1]; i++) {
+						double s = alpha * xd[i];
+						for (int j = blockPtr_[bj]; j < blockPtr_[bj + 1]; j++)
+							yd[j] += val_[p++] * s;
+					}
+				}
+			}
+			return y;
+		}
+	}
+}
@@ -159,10 +159,23 @@ public class CDSMat extends SMat {
 	 */
 	public DVec multiply(DVec arg0) {
 		DVec vec = new DVec(arg0.rowCount());
-		mat_.mult(arg0.vec_, vec.vec_);
+		multiplyInto(arg0, vec);
 		return vec;
 	}
 
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiplyInto(DVec arg0, DVec arg1) {
+		mat_.mult(arg0.vec_, arg1.vec_);
+	}
+
 	/**
 	 * Returns the row count.
 	 * 
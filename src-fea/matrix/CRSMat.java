@@ -0,0 +1,286 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package matrix;
+
+import java.util.Arrays;
+
+import no.uib.cipr.matrix.sparse.CompRowMatrix;
+
+/**
+ * Class for compressed-row-storage-square sparse matrix (CRS). Only the
+ * entries within the given sparsity pattern are stored. Can be used for
+ * iterative and sparse direct solvers. This class uses an external library
+ * called "MTJ".
+ * 
+ * @author Murat Artim
+ */
+public class CRSMat extends SMat {
+
+	/** The CompRowMatrix object. */
+	public CompRowMatrix mat_;
+
+	/**
+	 * Creates sparse matrix from another sparse matrix.
+	 * 
+	 * @param arg0
+	 *            Sparse matrix.
+	 */
+	public CRSMat(CRSMat arg0) {
+		mat_ = arg0.mat_.copy();
+	}
+
+	/**
+	 * Creates a new arg0 x arg0 sparse matrix with the given sparsity pattern.
+	 * 
+	 * @param arg0
+	 *            Number of rows.
+	 * @param arg1
+	 *            Column indices of non-zero entries for each row.
+	 */
+	public CRSMat(int arg0, int[][] arg1) {
+		try {
+
+			// sort column indices of rows
+			for (int i = 0; i < arg1.length; i++)
+				Arrays.sort(arg1[i]);
+
+			// create CRS matrix
+			mat_ = new CompRowMatrix(arg0, arg0, arg1);
+		} catch (Exception excep) {
+			exceptionHandler("Matrix has illegal dimensions!");
+		}
+	}
+
+	/**
+	 * Adds matrices (A = A + B). Entries of the given matrix outside the
+	 * sparsity pattern of this matrix will be ignored.
+	 * 
+	 * @param arg0
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat add(SMat arg0) {
+
+		// cast given matrix
+		CRSMat arg = (CRSMat) arg0;
+
+		// check for dimensions
+		if (rowCount() != arg.rowCount() || columnCount() != arg.columnCount())
+			exceptionHandler("Matrix dimensions don't agree!");
+
+		// same sparsity pattern
+		double[] data = mat_.getData();
+		double[] data1 = arg.mat_.getData();
+		if (Arrays.equals(mat_.getRowPointers(), arg.mat_.getRowPointers())
+				&& Arrays.equals(mat_.getColumnIndices(), arg.mat_
+						.getColumnIndices())) {
+			for (int i = 0; i < data.length; i++)
+				data[i] += data1[i];
+		}
+
+		// different sparsity patterns
+		else {
+			int[] row1 = arg.mat_.getRowPointers();
+			int[] col1 = arg.mat_.getColumnIndices();
+			for (int i = 0; i < arg.rowCount(); i++)
+				for (int j = row1[i]; j < row1[i + 1]; j++)
+					add(i, col1[j], data1[j]);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds element to the specified position. Entries outside the sparsity
+	 * pattern will be ignored.
+	 * 
+	 * @param arg0
+	 *            The row index.
+	 * @param arg1
+	 *            The column index.
+	 * @param arg2
+	 *            The value to be added.
+	 */
+	public void add(int arg0, int arg1, double arg2) {
+		int index = getIndex(arg0, arg1);
+		if (index >= 0)
+			mat_.getData()[index] += arg2;
+	}
+
+	/**
+	 * Returns true, since the sparsity pattern is fixed during addition. Hence,
+	 * distinct entries can be added from several threads at the same time.
+	 * 
+	 * @return True.
+	 */
+	public boolean isParallelScatterSafe() {
+		return true;
+	}
+
+	/**
+	 * Returns the column count.
+	 * 
+	 * @return The column count.
+	 */
+	public int columnCount() {
+		return mat_.numColumns();
+	}
+
+	/**
+	 * Returns a deep copy of this matrix.
+	 * 
+	 * @return A deep copy of this matrix.
+	 */
+	public CRSMat copy() {
+		return new CRSMat(this);
+	}
+
+	/**
+	 * Returns the demanded element.
+	 * 
+	 * @param arg0
+	 *            The row index of demanded element.
+	 * @param arg1
+	 *            The column index of demanded element.
+	 * @return The demanded element.
+	 */
+	public double get(int arg0, int arg1) {
+
+		// check indices
+		if (arg0 < 0 || arg0 >= rowCount())
+			exceptionHandler("Illegal row index!");
+		if (arg1 < 0 || arg1 >= columnCount())
+			exceptionHandler("Illegal column index!");
+
+		// return element
+		return mat_.get(arg0, arg1);
+	}
+
+	/**
+	 * Returns the internal storage array of non-zero entries.
+	 * 
+	 * @return The internal storage array.
+	 */
+	public double[] getData() {
+		return mat_.getData();
+	}
+
+	/**
+	 * Returns the row pointers (adresses of first entries of rows in the
+	 * internal storage array).
+	 * 
+	 * @return The row pointers.
+	 */
+	public int[] getRowPointers() {
+		return mat_.getRowPointers();
+	}
+
+	/**
+	 * Returns the column indices of non-zero entries.
+	 * 
+	 * @return The column indices.
+	 */
+	public int[] getColumnIndices() {
+		return mat_.getColumnIndices();
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @return The product vector (c).
+	 */
+	public DVec multiply(DVec arg0) {
+		DVec vec = new DVec(arg0.rowCount());
+		multiplyInto(arg0, vec);
+		return vec;
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiplyInto(DVec arg0, DVec arg1) {
+		mat_.mult(arg0.vec_, arg1.vec_);
+	}
+
+	/**
+	 * Returns the row count.
+	 * 
+	 * @return The row count.
+	 */
+	public int rowCount() {
+		return mat_.numRows();
+	}
+
+	/**
+	 * Returns scaled matrix (A = s * A).
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @return This matrix (A).
+	 */
+	public CRSMat scale(double arg0) {
+		mat_.scale(arg0);
+		return this;
+	}
+
+	/**
+	 * Sets the element to respective place. Entries outside the sparsity
+	 * pattern will be ignored.
+	 * 
+	 * @param arg0
+	 *            The row index to be set.
+	 * @param arg1
+	 *            The column index to be set.
+	 * @param arg2
+	 *            The element to be set.
+	 */
+	public void set(int arg0, int arg1, double arg2) {
+		int index = getIndex(arg0, arg1);
+		if (index >= 0)
+			mat_.getData()[index] = arg2;
+	}
+
+	/**
+	 * Returns the adress of the demanded entry in the internal storage array.
+	 * 
+	 * @param arg0
+	 *            The row index.
+	 * @param arg1
+	 *            The column index.
+	 * @return The adress of the entry, or a negative value if the entry is
+	 *         outside the sparsity pattern.
+	 */
+	private int getIndex(int arg0, int arg1) {
+
+		// check indices
+		if (arg0 < 0 || arg0 >= rowCount())
+			exceptionHandler("Illegal row index!");
+		if (arg1 < 0 || arg1 >= columnCount())
+			exceptionHandler("Illegal column index!");
+
+		// search column index within the row
+		int[] row = mat_.getRowPointers();
+		return Arrays.binarySearch(mat_.getColumnIndices(), row[arg0],
+				row[arg0 + 1], arg1);
+	}
+}
@@ -151,6 +151,86 @@ public class DVec {
 		return C;
 	}
 
+	/**
+	 * Adds scaled vector to this vector in place (A = A + a * B).
+	 * 
+	 * @param arg0
+	 *            The scaling factor (a).
+	 * @param arg1
+	 *            The vector to be added (B).
+	 * @return This vector (A).
+	 */
+	public DVec axpy(double arg0, DVec arg1) {
+
+		// check for dimensions
+		if (rowCount() != arg1.rowCount())
+			exceptionHandler("Vector dimensions don't agree!");
+
+		// add
+		double[] a = vec_.getData(), b = arg1.vec_.getData();
+		for (int i = 0; i < dim_; i++)
+			a[i] += arg0 * b[i];
+		return this;
+	}
+
+	/**
+	 * Sets this vector to scaled sum in place (A = a * B + b * A).
+	 * 
+	 * @param arg0
+	 *            The scaling factor of the given vector (a).
+	 * @param arg1
+	 *            The given vector (B).
+	 * @param arg2
+	 *            The scaling factor of this vector (b).
+	 * @return This vector (A).
+	 */
+	public DVec axpby(double arg0, DVec arg1, double arg2) {
+
+		// check for dimensions
+		if (rowCount() != arg1.rowCount())
+			exceptionHandler("Vector dimensions don't agree!");
+
+		// compute
+		double[] a = vec_.getData(), b = arg1.vec_.getData();
+		for (int i = 0; i < dim_; i++)
+			a[i] = arg0 * b[i] + arg2 * a[i];
+		return this;
+	}
+
+	/**
+	 * Sets this vector to linear combination of three vectors in place (A = a
+	 * * B + b * C + c * D). This vector may be one of the given vectors.
+	 * 
+	 * @param arg0
+	 *            The scaling factor of the first vector (a).
+	 * @param arg1
+	 *            The first vector (B).
+	 * @param arg2
+	 *            The scaling factor of the second vector (b).
+	 * @param arg3
+	 *            The second vector (C).
+	 * @param arg4
+	 *            The scaling factor of the third vector (c).
+	 * @param arg5
+	 *            The third vector (D).
+	 * @return This vector (A).
+	 */
+	public DVec combine(double arg0, DVec arg1, double arg2, DVec arg3,
+			double arg4, DVec arg5) {
+
+		// check for dimensions
+		if (rowCount() != arg1.rowCount() || rowCount() != arg3.rowCount()
+				|| rowCount() != arg5.rowCount())
+			exceptionHandler("Vector dimensions don't agree!");
+
+		// compute
+		double[] a = vec_.getData(), b = arg1.vec_.getData();
+		double[] c = arg3.vec_.getData(), d = arg5.vec_.getData();
+		for (int i = 0; i < dim_; i++)
+			a[i] = arg0 * b[i] + arg2 * c[i] + arg4 * d[i];
+		return this;
+	}
+
 	/**
 	 * Performs cross (vector) product of two vectors. Can only be applied to
 	 * two vectors having three dimensions. The result is again a vector with
@@ -349,6 +429,36 @@ public class DVec {
 		return new DVec(vec_.copy().scale(arg0));
 	}
 
+	/**
+	 * Scales this vector in place (A = s * A).
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @return This vector (A).
+	 */
+	public DVec scaleInPlace(double arg0) {
+		vec_.scale(arg0);
+		return this;
+	}
+
+	/**
+	 * Copies the elements of the given vector into this vector (A = B).
+	 * 
+	 * @param arg0
+	 *            The vector to be copied (B).
+	 * @return This vector (A).
+	 */
+	public DVec set(DVec arg0) {
+
+		// check for dimensions
+		if (rowCount() != arg0.rowCount())
+			exceptionHandler("Vector dimensions don't agree!");
+
+		// copy
+		vec_.set(arg0.vec_);
+		return this;
+	}
+
 	/**
 	 * Sets the element to respective place.
 	 * 
@@ -40,6 +40,45 @@ public abstract class Mat {
 	 */
 	public abstract void add(int arg0, int arg1, double arg2);
 
+	/**
+	 * Adds the given matrix to the rows and columns of given equations
+	 * (scatter-add). Equations of -1 will be ignored.
+	 * 
+	 * @param arg0
+	 *            Equation numbers of rows and columns of the matrix.
+	 * @param arg1
+	 *            The matrix to be added.
+	 */
+	public void add(int[] arg0, DMat arg1) {
+
+		// loop over rows
+		for (int i = 0; i < arg0.length; i++) {
+
+			// check if equation is valid
+			if (arg0[i] != -1) {
+
+				// loop over columns
+				for (int j = 0; j < arg0.length; j++) {
+
+					// check if equation is valid
+					if (arg0[j] != -1)
+						add(arg0[i], arg0[j], arg1.get(i, j));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if entries at distinct positions can be added to this
+	 * matrix from several threads at the same time without locking (parallel
+	 * scatter). This implementation returns false.
+	 * 
+	 * @return True if distinct entries can be added concurrently.
+	 */
+	public boolean isParallelScatterSafe() {
+		return false;
+	}
+
 	/**
 	 * Returns the column count.
 	 * 
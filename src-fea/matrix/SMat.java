@@ -55,4 +55,16 @@ public abstract class SMat extends Mat {
 	 * @return The product vector (c).
 	 */
 	public abstract DVec multiply(DVec arg0);
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b), without allocating a new vector. The product vector
+	 * should be different from the multiplied vector.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public abstract void multiplyInto(DVec arg0, DVec arg1);
 }
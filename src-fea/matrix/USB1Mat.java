@@ -15,8 +15,12 @@
  */
 package matrix;
 
+import java.util.Arrays;
+
 /**
- * Class for upper-symmetric-banded matrix stored in 1D array (USB1).
+ * Class for upper-symmetric-banded matrix stored in 1D array (USB1). The
+ * columns of the upper triangle are stored from the diagonal upwards, either
+ * with a constant half-bandwidth or with variable column heights (skyline).
  * 
  * @author Murat Artim
  */
@@ -31,6 +35,9 @@ public class USB1Mat extends SMat {
 	/** Array storing the adresses of diagonal elements. */
 	private int[] maxa_;
 
+	/** Column heights for skyline storage (null for constant bandwidth). */
+	private int[] heights_;
+
 	/**
 	 * Creates arg0 by arg0 upper-symmetric-banded-square matrix.
 	 * 
@@ -63,6 +70,34 @@ public class USB1Mat extends SMat {
 		hbw_ = arg1;
 	}
 
+	/**
+	 * Creates arg0 by arg0 upper-symmetric-skyline-square matrix.
+	 * 
+	 * @param arg0
+	 *            Dimension.
+	 * @param arg1
+	 *            Column heights. The k-th entry is the distance between the
+	 *            diagonal and the first stored entry of the k-th column.
+	 */
+	public USB1Mat(int arg0, int[] arg1) {
+
+		// check column heights
+		if (arg1.length != arg0)
+			exceptionHandler("Matrix has illegal dimensions!");
+		for (int i = 0; i < arg0; i++)
+			if (arg1[i] < 0 || arg1[i] > i)
+				exceptionHandler("Matrix has illegal dimensions!");
+
+		// set dimension, column heights and half-bandwidth
+		n_ = arg0;
+		heights_ = arg1.clone();
+		for (int i = 0; i < arg0; i++)
+			hbw_ = Math.max(hbw_, arg1[i]);
+
+		// allocate storage
+		reAllocate();
+	}
+
 	/**
 	 * Creates sparse matrix from another sparse matrix.
 	 * 
@@ -84,8 +119,9 @@ public class USB1Mat extends SMat {
 		// copy dimension
 		n_ = arg0.rowCount();
 
-		// copy halfbandwidth
+		// copy halfbandwidth and column heights
 		hbw_ = arg0.getHalfBandwidth();
+		heights_ = arg0.heights_;
 	}
 
 	/**
@@ -108,6 +144,13 @@ public class USB1Mat extends SMat {
 		if (getHalfBandwidth() < arg.getHalfBandwidth())
 			exceptionHandler("Matrix bandwidths don't agree!");
 
+		// same storage layout
+		if (Arrays.equals(maxa_, arg.maxa_)) {
+			for (int i = 0; i < mat_.length; i++)
+				mat_[i] += arg.mat_[i];
+			return this;
+		}
+
 		// add
 		for (int i = 0; i < rowCount(); i++)
 			for (int j = 0; j < columnCount(); j++)
@@ -127,7 +170,7 @@ public class USB1Mat extends SMat {
 	 *            The value to be added.
 	 */
 	public void add(int arg0, int arg1, double arg2) {
-		if (Math.max(0, arg1 - hbw_) <= arg0 && arg0 <= arg1)
+		if (arg0 <= arg1 && arg1 - arg0 <= height(arg1))
 			mat_[maxa_[arg1] + arg1 - arg0] += arg2;
 	}
 
@@ -143,10 +186,20 @@ public class USB1Mat extends SMat {
 	 *            The element to be set.
 	 */
 	public void set(int arg0, int arg1, double arg2) {
-		if (Math.max(0, arg1 - hbw_) <= arg0 && arg0 <= arg1)
+		if (arg0 <= arg1 && arg1 - arg0 <= height(arg1))
 			mat_[maxa_[arg1] + arg1 - arg0] = arg2;
 	}
 
+	/**
+	 * Returns true, since the storage array is fixed during addition. Hence,
+	 * distinct entries can be added from several threads at the same time.
+	 * 
+	 * @return True.
+	 */
+	public boolean isParallelScatterSafe() {
+		return true;
+	}
+
 	/**
 	 * Returns the row count.
 	 * 
@@ -175,7 +228,9 @@ public class USB1Mat extends SMat {
 	}
 
 	/**
-	 * Performs linear algebraic matrix-vector multiplication (c = A * b).
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b). The
+	 * product is summed over the stored columns of the upper band and their
+	 * mirrors, so that the full symmetric matrix is multiplied.
 	 * 
 	 * @param arg0
 	 *            The vector to be multiplied (b).
@@ -183,12 +238,52 @@ public class USB1Mat extends SMat {
 	 */
 	public DVec multiply(DVec arg0) {
 		DVec vec = new DVec(arg0.rowCount());
-		for (int i = 0; i < rowCount(); i++)
-			for (int j = 0; j < columnCount(); j++)
-				vec.set(i, get(i, j) * arg0.get(i));
+		multiplyInto(arg0, vec);
 		return vec;
 	}
 
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiplyInto(DVec arg0, DVec arg1) {
+		multiply(arg0.vec_.getData(), arg1.vec_.getData());
+	}
+
+	/**
+	 * Performs matrix-vector multiplication (c = A * b) using the stored
+	 * columns of the upper triangle.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiply(double[] arg0, double[] arg1) {
+
+		// loop over columns
+		for (int j = 0; j < n_; j++) {
+
+			// diagonal element
+			int k = maxa_[j];
+			double xj = arg0[j];
+			double sum = mat_[k] * xj;
+
+			// off-diagonal elements of the column and its mirror row
+			for (int i = j - 1, kk = k + 1; kk < maxa_[j + 1]; i--, kk++) {
+				double a = mat_[kk];
+				sum += a * arg0[i];
+				arg1[i] += a * xj;
+			}
+			arg1[j] = sum;
+		}
+	}
+
 	/**
 	 * Returns the demanded element.
 	 * 
@@ -199,12 +294,9 @@ public class USB1Mat extends SMat {
 	 * @return The demanded element.
 	 */
 	public double get(int arg0, int arg1) {
-		if (arg0 < arg1 + hbw_ + 1 && arg1 < arg0 + hbw_ + 1) {
-			if (arg0 <= arg1)
-				return mat_[maxa_[arg1] + arg1 - arg0];
-			else
-				return mat_[maxa_[arg0] + arg0 - arg1];
-		}
+		int i = Math.min(arg0, arg1), j = Math.max(arg0, arg1);
+		if (j - i <= height(j))
+			return mat_[maxa_[j] + j - i];
 		return 0.0;
 	}
 
@@ -263,6 +355,15 @@ public class USB1Mat extends SMat {
 	 */
 	public void reAllocate() {
 
+		// skyline storage
+		if (heights_ != null) {
+			maxa_ = new int[n_ + 1];
+			for (int i = 0; i < n_; i++)
+				maxa_[i + 1] = maxa_[i] + heights_[i] + 1;
+			mat_ = new double[maxa_[n_]];
+			return;
+		}
+
 		// reallocate mat_
 		int dim = n_;
 		for (int i = 1; i < hbw_ + 1; i++)
@@ -291,6 +392,17 @@ public class USB1Mat extends SMat {
 		mat_[arg0] = arg1;
 	}
 
+	/**
+	 * Returns the height of the given column.
+	 * 
+	 * @param arg0
+	 *            The column index.
+	 * @return The height of column.
+	 */
+	private int height(int arg0) {
+		return heights_ == null ? Math.min(arg0, hbw_) : heights_[arg0];
+	}
+
 	/**
 	 * Returns scaled matrix (A = s * A).
 	 * 
@@ -120,6 +120,16 @@ public class USB2Mat extends SMat {
 			mat_[arg0][arg1 - arg0] = arg2;
 	}
 
+	/**
+	 * Returns true, since the storage array is fixed during addition. Hence,
+	 * distinct entries can be added from several threads at the same time.
+	 * 
+	 * @return True.
+	 */
+	public boolean isParallelScatterSafe() {
+		return true;
+	}
+
 	/**
 	 * Returns the row count.
 	 * 
@@ -148,7 +158,9 @@ public class USB2Mat extends SMat {
 	}
 
 	/**
-	 * Performs linear algebraic matrix-vector multiplication (c = A * b).
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b). The
+	 * product is summed over the stored rows of the upper band and their
+	 * mirrors, so that the full symmetric matrix is multiplied.
 	 * 
 	 * @param arg0
 	 *            The vector to be multiplied (b).
@@ -156,12 +168,43 @@ public class USB2Mat extends SMat {
 	 */
 	public DVec multiply(DVec arg0) {
 		DVec vec = new DVec(arg0.rowCount());
-		for (int i = 0; i < rowCount(); i++)
-			for (int j = 0; j < columnCount(); j++)
-				vec.set(i, get(i, j) * arg0.get(i));
+		multiplyInto(arg0, vec);
 		return vec;
 	}
 
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b) using the stored rows of the upper band.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiplyInto(DVec arg0, DVec arg1) {
+
+		// clear product vector
+		double[] b = arg0.vec_.getData(), c = arg1.vec_.getData();
+		for (int i = 0; i < n_; i++)
+			c[i] = 0.0;
+
+		// loop over rows
+		for (int i = 0; i < n_; i++) {
+
+			// diagonal element
+			double[] row = mat_[i];
+			double sum = row[0] * b[i];
+
+			// off-diagonal elements of the row and its mirror column
+			int m = Math.min(hbw_, n_ - 1 - i);
+			for (int j = 1; j <= m; j++) {
+				sum += row[j] * b[i + j];
+				c[i + j] += row[j] * b[i];
+			}
+			c[i] += sum;
+		}
+	}
+
 	/**
 	 * Returns the demanded element.
 	 * 
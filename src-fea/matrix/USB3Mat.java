@@ -0,0 +1,637 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package matrix;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Class for upper-symmetric-banded matrix stored in a file (USB3). The columns
+ * of the upper triangle are stored from the diagonal upwards with variable
+ * column heights (skyline) as in USB1 storage, but the storage array resides
+ * in a temporary file instead of the heap. Consecutive columns are grouped
+ * into blocks which are read into heap buffers on demand. At most a window of
+ * blocks is kept loaded; the least recently used block is dropped when another
+ * one is needed and written back to the file if it was modified. Hence, the
+ * size of matrix is limited by the disk space rather than the heap. The file
+ * is never memory mapped, so that it can be deleted as soon as the matrix is
+ * not needed anymore.
+ * 
+ * @author Murat Artim
+ */
+public class USB3Mat extends SMat {
+
+	/** Default size of column blocks in bytes. */
+	public static final int defaultBlockSize_ = 1 << 22;
+
+	/** Default number of loaded blocks. */
+	public static final int defaultWindow_ = 16;
+
+	/** The dimension and the half-bandwidth. */
+	private int n_, hbw_;
+
+	/** Column heights. */
+	private int[] heights_;
+
+	/** Array storing the adresses of diagonal elements. */
+	private long[] maxa_;
+
+	/** Block indices of columns. */
+	private int[] blocks_;
+
+	/** First columns of blocks (the dimension is appended). */
+	private int[] first_;
+
+	/** Loaded blocks (null if the block is not loaded). */
+	private DoubleBuffer[] loaded_;
+
+	/** Byte buffers backing the loaded blocks. */
+	private ByteBuffer[] bytes_;
+
+	/** Flags indicating the loaded blocks which are modified. */
+	private boolean[] modified_;
+
+	/** Last access times of blocks. */
+	private long[] stamps_;
+
+	/** Access counter. */
+	private long clock_ = 0;
+
+	/** Maximum and current number of loaded blocks. */
+	private int window_, count_ = 0;
+
+	/** Directory of storage file (null for default temporary directory). */
+	private File directory_;
+
+	/** Block size in bytes. */
+	private int blockSize_;
+
+	/** Storage file. */
+	private File file_;
+
+	/** Channel of storage file. */
+	private FileChannel channel_;
+
+	/**
+	 * Creates arg0 by arg0 upper-symmetric-skyline-square matrix stored in
+	 * the default temporary directory, with default block size and window.
+	 * 
+	 * @param arg0
+	 *            Dimension.
+	 * @param arg1
+	 *            Column heights. The k-th entry is the distance between the
+	 *            diagonal and the first stored entry of the k-th column.
+	 */
+	public USB3Mat(int arg0, int[] arg1) {
+		this(arg0, arg1, null, defaultBlockSize_, defaultWindow_);
+	}
+
+	/**
+	 * Creates arg0 by arg0 upper-symmetric-skyline-square matrix.
+	 * 
+	 * @param arg0
+	 *            Dimension.
+	 * @param arg1
+	 *            Column heights. The k-th entry is the distance between the
+	 *            diagonal and the first stored entry of the k-th column.
+	 * @param arg2
+	 *            Directory of storage file (null for default temporary
+	 *            directory).
+	 * @param arg3
+	 *            Size of column blocks in bytes. A column larger than the
+	 *            block size forms a block by itself.
+	 * @param arg4
+	 *            Maximum number of loaded blocks.
+	 */
+	public USB3Mat(int arg0, int[] arg1, File arg2, int arg3, int arg4) {
+
+		// check column heights
+		if (arg1.length != arg0)
+			exceptionHandler("Matrix has illegal dimensions!");
+		for (int i = 0; i < arg0; i++)
+			if (arg1[i] < 0 || arg1[i] > i)
+				exceptionHandler("Matrix has illegal dimensions!");
+
+		// check block size and window
+		if (arg3 < 8 || arg4 < 1)
+			exceptionHandler("Illegal block size or window for matrix!");
+
+		// set dimension, column heights and half-bandwidth
+		n_ = arg0;
+		heights_ = arg1.clone();
+		for (int i = 0; i < arg0; i++)
+			hbw_ = Math.max(hbw_, arg1[i]);
+
+		// set storage parameters
+		directory_ = arg2;
+		blockSize_ = arg3;
+		window_ = arg4;
+
+		// allocate storage
+		reAllocate();
+	}
+
+	/**
+	 * Adds matrices (A = A + B). Entries of B outside the skyline of A will be
+	 * ignored.
+	 * 
+	 * @param arg0
+	 *            The matrix to be added (B).
+	 * @return This matrix (A).
+	 */
+	public SMat add(SMat arg0) {
+
+		// check for dimensions
+		if (rowCount() != arg0.rowCount()
+				|| columnCount() != arg0.columnCount())
+			exceptionHandler("Matrix dimensions don't agree!");
+
+		// same storage layout
+		if (arg0 instanceof USB3Mat) {
+			USB3Mat arg = (USB3Mat) arg0;
+			if (Arrays.equals(maxa_, arg.maxa_)
+					&& Arrays.equals(first_, arg.first_)) {
+				for (int b = 0; b < first_.length - 1; b++) {
+					DoubleBuffer x = block(b, true);
+					DoubleBuffer y = arg.block(b, false);
+					for (int i = 0; i < x.capacity(); i++)
+						x.put(i, x.get(i) + y.get(i));
+				}
+				return this;
+			}
+		}
+
+		// add entries within skyline
+		for (int j = 0; j < n_; j++)
+			for (int i = j - heights_[j]; i <= j; i++)
+				add(i, j, arg0.get(i, j));
+		return this;
+	}
+
+	/**
+	 * Adds element to the specified position. Entries outside skyline will be
+	 * ignored.
+	 * 
+	 * @param arg0
+	 *            The row index.
+	 * @param arg1
+	 *            The column index.
+	 * @param arg2
+	 *            The value to be added.
+	 */
+	public void add(int arg0, int arg1, double arg2) {
+		if (arg0 <= arg1 && arg1 - arg0 <= heights_[arg1]) {
+			DoubleBuffer column = block(blocks_[arg1], true);
+			int k = offset(arg1) + arg1 - arg0;
+			column.put(k, column.get(k) + arg2);
+		}
+	}
+
+	/**
+	 * Sets the element to respective place. Entries outside skyline will be
+	 * ignored.
+	 * 
+	 * @param arg0
+	 *            The row index to be set.
+	 * @param arg1
+	 *            The column index to be set.
+	 * @param arg2
+	 *            The element to be set.
+	 */
+	public void set(int arg0, int arg1, double arg2) {
+		if (arg0 <= arg1 && arg1 - arg0 <= heights_[arg1])
+			block(blocks_[arg1], true).put(offset(arg1) + arg1 - arg0, arg2);
+	}
+
+	/**
+	 * Returns the row count.
+	 * 
+	 * @return The row count.
+	 */
+	public int rowCount() {
+		return n_;
+	}
+
+	/**
+	 * Returns the column count.
+	 * 
+	 * @return The column count.
+	 */
+	public int columnCount() {
+		return n_;
+	}
+
+	/**
+	 * Returns a deep copy of this matrix. The copy is stored in a new file.
+	 * 
+	 * @return A deep copy of this matrix.
+	 */
+	public USB3Mat copy() {
+		USB3Mat copy = new USB3Mat(n_, heights_, directory_, blockSize_,
+				window_);
+		for (int b = 0; b < first_.length - 1; b++)
+			copy.block(b, true).duplicate().put(block(b, false).duplicate());
+		return copy;
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @return The product vector (c).
+	 */
+	public DVec multiply(DVec arg0) {
+		DVec vec = new DVec(arg0.rowCount());
+		multiplyInto(arg0, vec);
+		return vec;
+	}
+
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiplyInto(DVec arg0, DVec arg1) {
+		multiply(arg0.vec_.getData(), arg1.vec_.getData());
+	}
+
+	/**
+	 * Performs matrix-vector multiplication (c = A * b) using the stored
+	 * columns of the upper triangle. The blocks are traversed once in order.
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiply(double[] arg0, double[] arg1) {
+
+		// loop over columns
+		for (int j = 0; j < n_; j++) {
+
+			// diagonal element
+			DoubleBuffer column = block(blocks_[j], false);
+			int k = offset(j);
+			double xj = arg0[j];
+			double sum = column.get(k) * xj;
+
+			// off-diagonal elements of the column and its mirror row
+			for (int i = j - 1, kk = k + 1; i >= j - heights_[j]; i--, kk++) {
+				double a = column.get(kk);
+				sum += a * arg0[i];
+				arg1[i] += a * xj;
+			}
+			arg1[j] = sum;
+		}
+	}
+
+	/**
+	 * Returns the demanded element.
+	 * 
+	 * @param arg0
+	 *            The row index of demanded element.
+	 * @param arg1
+	 *            The column index of demanded element.
+	 * @return The demanded element.
+	 */
+	public double get(int arg0, int arg1) {
+		int i = Math.min(arg0, arg1), j = Math.max(arg0, arg1);
+		if (j - i <= heights_[j])
+			return block(blocks_[j], false).get(offset(j) + j - i);
+		return 0.0;
+	}
+
+	/**
+	 * Returns the loaded block containing the given column for modification.
+	 * The column is stored from the diagonal upwards, starting at the index
+	 * returned by {@link #offset(int)}. The block stays valid until another
+	 * block is loaded while the window is full, the changes made after that
+	 * are lost.
+	 * 
+	 * @param arg0
+	 *            The column index.
+	 * @return The loaded block.
+	 */
+	public DoubleBuffer column(int arg0) {
+		return column(arg0, true);
+	}
+
+	/**
+	 * Returns the loaded block containing the given column (see
+	 * {@link #column(int)}).
+	 * 
+	 * @param arg0
+	 *            The column index.
+	 * @param arg1
+	 *            True if the block will be modified. Changes made to a block
+	 *            requested for reading are not written back to the file.
+	 * @return The loaded block.
+	 */
+	public DoubleBuffer column(int arg0, boolean arg1) {
+		return block(blocks_[arg0], arg1);
+	}
+
+	/**
+	 * Returns the index of the diagonal element of the given column within
+	 * its block.
+	 * 
+	 * @param arg0
+	 *            The column index.
+	 * @return The index of diagonal element within block.
+	 */
+	public int offset(int arg0) {
+		return (int) (maxa_[arg0] - maxa_[first_[blocks_[arg0]]]);
+	}
+
+	/**
+	 * Returns the column heights.
+	 * 
+	 * @return The column heights.
+	 */
+	public int[] getHeights() {
+		return heights_;
+	}
+
+	/**
+	 * Returns array containing the adresses of diagonal elements.
+	 * 
+	 * @return Array containing the adresses of diagonal elements.
+	 */
+	public long[] getAdresses() {
+		return maxa_;
+	}
+
+	/**
+	 * Returns the number of super diagonals.
+	 * 
+	 * @return The number of super diagonals.
+	 */
+	public int getHalfBandwidth() {
+		return hbw_;
+	}
+
+	/**
+	 * Returns the block indices of columns.
+	 * 
+	 * @return The block indices of columns.
+	 */
+	public int[] getBlocks() {
+		return blocks_;
+	}
+
+	/**
+	 * Returns the first columns of blocks. The dimension of matrix is appended
+	 * as the last entry.
+	 * 
+	 * @return The first columns of blocks.
+	 */
+	public int[] getFirstColumns() {
+		return first_;
+	}
+
+	/**
+	 * Returns the maximum number of blocks spanned by the stored entries of a
+	 * column.
+	 * 
+	 * @return The maximum number of blocks spanned by a column.
+	 */
+	public int getColumnSpan() {
+		int span = 1;
+		for (int j = 0; j < n_; j++)
+			span = Math.max(span, blocks_[j] - blocks_[j - heights_[j]] + 1);
+		return span;
+	}
+
+	/**
+	 * Returns the maximum number of loaded blocks.
+	 * 
+	 * @return The maximum number of loaded blocks.
+	 */
+	public int getWindow() {
+		return window_;
+	}
+
+	/**
+	 * Sets the maximum number of loaded blocks. The least recently used blocks
+	 * are dropped if more blocks are loaded.
+	 * 
+	 * @param arg0
+	 *            The maximum number of loaded blocks.
+	 */
+	public void setWindow(int arg0) {
+
+		// check window
+		if (arg0 < 1)
+			exceptionHandler("Illegal block size or window for matrix!");
+
+		// set window and drop blocks
+		window_ = arg0;
+		while (count_ > window_)
+			drop();
+	}
+
+	/**
+	 * Returns the size of storage file.
+	 * 
+	 * @return The size of storage file in bytes.
+	 */
+	public long getFileSize() {
+		return 8L * maxa_[n_];
+	}
+
+	/**
+	 * Deletes storage file and frees memory.
+	 * 
+	 */
+	public void delete() {
+
+		// drop blocks without writing them back
+		loaded_ = null;
+		bytes_ = null;
+		modified_ = null;
+		count_ = 0;
+
+		// close channel and delete file
+		if (channel_ != null) {
+			try {
+				channel_.close();
+			} catch (IOException io) {
+			}
+			channel_ = null;
+		}
+		if (file_ != null) {
+			boolean deleted = file_.delete() || !file_.exists();
+			file_ = null;
+			if (!deleted)
+				exceptionHandler("Exception occured during deleting matrix file!");
+		}
+	}
+
+	/**
+	 * Reallocates storage file. Any existing file is deleted.
+	 * 
+	 */
+	public void reAllocate() {
+
+		// delete existing file
+		delete();
+
+		// compute adress array
+		maxa_ = new long[n_ + 1];
+		for (int i = 0; i < n_; i++)
+			maxa_[i + 1] = maxa_[i] + heights_[i] + 1;
+
+		// group columns into blocks
+		blocks_ = new int[n_];
+		int[] first = new int[n_ + 1];
+		int nb = 0;
+		for (int j = 0; j < n_; j++) {
+			if (j == 0
+					|| 8L * (maxa_[j + 1] - maxa_[first[nb - 1]]) > blockSize_)
+				first[nb++] = j;
+			blocks_[j] = nb - 1;
+		}
+		first[nb] = n_;
+		first_ = Arrays.copyOf(first, nb + 1);
+		loaded_ = new DoubleBuffer[nb];
+		bytes_ = new ByteBuffer[nb];
+		modified_ = new boolean[nb];
+		stamps_ = new long[nb];
+
+		// create storage file (sparse, initially zero)
+		RandomAccessFile file = null;
+		try {
+			file_ = File.createTempFile("usb3", ".tmp", directory_);
+			file_.deleteOnExit();
+			file = new RandomAccessFile(file_, "rw");
+			file.setLength(getFileSize());
+			channel_ = file.getChannel();
+		}
+
+		// cannot create file
+		catch (IOException excep) {
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException io) {
+				}
+			}
+			delete();
+			exceptionHandler("Exception occured during creating matrix file!");
+		}
+	}
+
+	/**
+	 * Returns the given block, loading it if necessary.
+	 * 
+	 * @param arg0
+	 *            The block index.
+	 * @param arg1
+	 *            True if the block will be modified.
+	 * @return The loaded block.
+	 */
+	private DoubleBuffer block(int arg0, boolean arg1) {
+
+		// block is already loaded
+		stamps_[arg0] = ++clock_;
+		if (arg1)
+			modified_[arg0] = true;
+		if (loaded_[arg0] != null)
+			return loaded_[arg0];
+
+		// drop least recently used block if window is full
+		if (count_ >= window_)
+			drop();
+
+		// read block
+		long start = 8L * maxa_[first_[arg0]];
+		long size = 8L * maxa_[first_[arg0 + 1]] - start;
+		if (size > Integer.MAX_VALUE)
+			exceptionHandler("Column of matrix is too large for loading!");
+		ByteBuffer bytes = ByteBuffer.allocate((int) size);
+		try {
+			while (bytes.hasRemaining())
+				if (channel_.read(bytes, start + bytes.position()) < 0)
+					break;
+		} catch (IOException excep) {
+			exceptionHandler("Exception occured during reading matrix file!");
+		}
+		bytes.clear();
+		bytes_[arg0] = bytes.order(ByteOrder.nativeOrder());
+		loaded_[arg0] = bytes.asDoubleBuffer();
+		count_++;
+		return loaded_[arg0];
+	}
+
+	/**
+	 * Drops the least recently used loaded block. The block is written back to
+	 * the file if it was modified.
+	 * 
+	 */
+	private void drop() {
+
+		// find least recently used block
+		int lru = -1;
+		for (int b = 0; b < loaded_.length; b++)
+			if (loaded_[b] != null
+					&& (lru == -1 || stamps_[b] < stamps_[lru]))
+				lru = b;
+
+		// write modified block
+		if (modified_[lru]) {
+			long start = 8L * maxa_[first_[lru]];
+			ByteBuffer bytes = bytes_[lru];
+			bytes.clear();
+			try {
+				while (bytes.hasRemaining())
+					channel_.write(bytes, start + bytes.position());
+			} catch (IOException excep) {
+				exceptionHandler("Exception occured during writing matrix file!");
+			}
+		}
+		loaded_[lru] = null;
+		bytes_[lru] = null;
+		modified_[lru] = false;
+		count_--;
+	}
+
+	/**
+	 * Returns scaled matrix (A = s * A).
+	 * 
+	 * @param arg0
+	 *            The scaling factor (s).
+	 * @return This matrix (A).
+	 */
+	public USB3Mat scale(double arg0) {
+		for (int b = 0; b < first_.length - 1; b++) {
+			DoubleBuffer x = block(b, true);
+			for (int i = 0; i < x.capacity(); i++)
+				x.put(i, x.get(i) * arg0);
+		}
+		return this;
+	}
+}
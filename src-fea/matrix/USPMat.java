@@ -98,6 +98,17 @@ public class USPMat extends SMat {
 			mat_.add(arg0, arg1, arg2);
 	}
 
+	/**
+	 * Returns true, since the packed storage array is fixed during addition.
+	 * Hence, distinct entries can be added from several threads at the same
+	 * time.
+	 * 
+	 * @return True.
+	 */
+	public boolean isParallelScatterSafe() {
+		return true;
+	}
+
 	/**
 	 * Sets the element to respective place. Entries outside bandwiths will be
 	 * ignored.
@@ -149,10 +160,23 @@ public class USPMat extends SMat {
 	 */
 	public DVec multiply(DVec arg0) {
 		DVec vec = new DVec(arg0.rowCount());
-		mat_.mult(arg0.vec_, vec.vec_);
+		multiplyInto(arg0, vec);
 		return vec;
 	}
 
+	/**
+	 * Performs linear algebraic matrix-vector multiplication into the given
+	 * vector (c = A * b).
+	 * 
+	 * @param arg0
+	 *            The vector to be multiplied (b).
+	 * @param arg1
+	 *            The product vector (c).
+	 */
+	public void multiplyInto(DVec arg0, DVec arg1) {
+		mat_.mult(arg0.vec_, arg1.vec_);
+	}
+
 	/**
 	 * Returns the demanded element.
 	 * 
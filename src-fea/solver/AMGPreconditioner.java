@@ -0,0 +1,815 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import matrix.CRSMat;
+
+import no.uib.cipr.matrix.DenseVector;
+import no.uib.cipr.matrix.Matrix;
+import no.uib.cipr.matrix.Vector;
+import no.uib.cipr.matrix.sparse.CompRowMatrix;
+import no.uib.cipr.matrix.sparse.Preconditioner;
+
+/**
+ * Class for smoothed aggregation algebraic multigrid preconditioner (Vanek,
+ * Mandel and Brezina). A hierarchy of coarse systems is built from the
+ * assembled coefficient matrix. The unknowns are aggregated block-wise (all
+ * dofs of a node belong to the same aggregate) using the strength of coupling
+ * between the blocks, and the tentative prolongator is created by local QR
+ * decomposition of the near null space vectors (rigid body modes of the
+ * structure) over each aggregate. The tentative prolongator is smoothed by one
+ * damped Jacobi step and coarse systems are computed by Galerkin products. The
+ * preconditioner applies one symmetric V-cycle with Gauss-Seidel smoothing,
+ * and the coarsest system is solved by sparse Cholesky factorization. The
+ * coefficient matrix has to be in compressed row storage.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class AMGPreconditioner implements Preconditioner {
+
+	/** Systems smaller than this are solved directly. */
+	private static final int coarseSize_ = 500;
+
+	/** Maximum number of levels. */
+	private static final int maxLevels_ = 12;
+
+	/** Strength of coupling threshold for the first level. */
+	private static final double theta_ = 0.08;
+
+	/** Dof blocks of the finest level. */
+	private int[][] blocks_;
+
+	/** Near null space vectors of the finest level ([dof][vector]). */
+	private double[][] modes_;
+
+	/** Levels of the hierarchy. */
+	private Level[] levels_;
+
+	/** Factorization of the coarsest system. */
+	private Factorization coarse_;
+
+	/**
+	 * Creates algebraic multigrid preconditioner.
+	 * 
+	 * @param blocks
+	 *            Dof blocks (the equation numbers of each node). Null if each
+	 *            dof is a block by itself.
+	 * @param modes
+	 *            Near null space vectors ([dof][vector]), such as rigid body
+	 *            modes. Null for the constant vector.
+	 */
+	public AMGPreconditioner(int[][] blocks, double[][] modes) {
+		blocks_ = blocks;
+		modes_ = modes;
+	}
+
+	/**
+	 * Returns the number of levels of the hierarchy (including the coarsest
+	 * level).
+	 * 
+	 * @return The number of levels.
+	 */
+	public int getNumberOfLevels() {
+		return levels_.length + 1;
+	}
+
+	/**
+	 * Builds the multigrid hierarchy for the given matrix.
+	 * 
+	 * @param A
+	 *            Coefficient matrix. Has to be CompRowMatrix.
+	 */
+	public void setMatrix(Matrix A) {
+
+		// get fine level matrix
+		CompRowMatrix a = (CompRowMatrix) A;
+		int n = a.numRows();
+		int[] ptr = a.getRowPointers();
+		int[] col = a.getColumnIndices();
+		double[] val = a.getData();
+
+		// create blocks and near null space of the finest level
+		int[][] blocks = createBlocks(n, blocks_);
+		double[][] modes = modes_;
+		if (modes == null) {
+			modes = new double[n][1];
+			for (int i = 0; i < n; i++)
+				modes[i][0] = 1.0;
+		}
+
+		// loop over levels
+		ArrayList<Level> levels = new ArrayList<Level>();
+		for (int l = 0; l < maxLevels_ && n > coarseSize_; l++) {
+
+			// aggregate blocks
+			double theta = theta_ * Math.pow(0.5, l);
+			int[] agg = aggregate(n, ptr, col, val, blocks, theta);
+			int na = 0;
+			for (int i = 0; i < agg.length; i++)
+				na = Math.max(na, agg[i] + 1);
+
+			// create tentative prolongator and coarse near null space
+			Level level = new Level(n, ptr, col, val);
+			int[][] cblocks = new int[na][];
+			double[][][] cmodes = new double[na][][];
+			int nc = tentative(level, blocks, agg, na, modes, cblocks, cmodes);
+
+			// stop if coarsening stagnates
+			if (nc == 0 || nc > 0.9 * n)
+				break;
+
+			// smooth prolongator
+			smooth(level, nc);
+
+			// compute coarse matrix (Ac = P(T) A P)
+			galerkin(level, nc);
+			levels.add(level);
+
+			// set coarse level properties
+			n = nc;
+			ptr = level.cPtr_;
+			col = level.cCol_;
+			val = level.cVal_;
+			blocks = cblocks;
+			modes = new double[nc][];
+			for (int i = 0; i < na; i++)
+				for (int j = 0; j < cblocks[i].length; j++)
+					modes[cblocks[i][j]] = cmodes[i][j];
+			level.cPtr_ = null;
+			level.cCol_ = null;
+			level.cVal_ = null;
+		}
+		levels_ = levels.toArray(new Level[levels.size()]);
+
+		// factorize coarsest system
+		int[][] nz = new int[n][];
+		for (int i = 0; i < n; i++) {
+			nz[i] = new int[ptr[i + 1] - ptr[i]];
+			System.arraycopy(col, ptr[i], nz[i], 0, nz[i].length);
+		}
+		CRSMat coarse = new CRSMat(n, nz);
+		System.arraycopy(val, 0, coarse.getData(), 0, ptr[n]);
+		coarse_ = new SupernodalFactorization(coarse);
+	}
+
+	/**
+	 * Applies one symmetric V-cycle (x = M b).
+	 * 
+	 * @param b
+	 *            Right hand side vector. Has to be DenseVector.
+	 * @param x
+	 *            Result vector. Has to be DenseVector.
+	 * @return The result vector.
+	 */
+	public Vector apply(Vector b, Vector x) {
+		cycle(0, ((DenseVector) b).getData(), ((DenseVector) x).getData());
+		return x;
+	}
+
+	/**
+	 * Applies one symmetric V-cycle (the preconditioner is symmetric).
+	 * 
+	 * @param b
+	 *            Right hand side vector. Has to be DenseVector.
+	 * @param x
+	 *            Result vector. Has to be DenseVector.
+	 * @return The result vector.
+	 */
+	public Vector transApply(Vector b, Vector x) {
+		return apply(b, x);
+	}
+
+	/**
+	 * Performs V-cycle starting from the given level with zero initial guess.
+	 * 
+	 * @param l
+	 *            The level.
+	 * @param b
+	 *            Right hand side vector.
+	 * @param x
+	 *            Result vector.
+	 */
+	private void cycle(int l, double[] b, double[] x) {
+
+		// coarsest level
+		if (l == levels_.length) {
+			coarse_.solve(b, x);
+			return;
+		}
+
+		// pre-smoothing (forward Gauss-Seidel)
+		Level lev = levels_[l];
+		Arrays.fill(x, 0, lev.n_, 0.0);
+		lev.gaussSeidel(b, x, true);
+
+		// restrict residual (bc = P(T) (b - A x))
+		double[] r = lev.r_;
+		for (int i = 0; i < lev.n_; i++) {
+			double sum = b[i];
+			for (int j = lev.ptr_[i]; j < lev.ptr_[i + 1]; j++)
+				sum -= lev.val_[j] * x[lev.col_[j]];
+			r[i] = sum;
+		}
+		double[] bc = lev.bc_, xc = lev.xc_;
+		Arrays.fill(bc, 0.0);
+		for (int i = 0; i < lev.n_; i++) {
+			double ri = r[i];
+			if (ri != 0.0)
+				for (int j = lev.pPtr_[i]; j < lev.pPtr_[i + 1]; j++)
+					bc[lev.pCol_[j]] += lev.pVal_[j] * ri;
+		}
+
+		// coarse grid correction (x = x + P xc)
+		cycle(l + 1, bc, xc);
+		for (int i = 0; i < lev.n_; i++) {
+			double sum = 0.0;
+			for (int j = lev.pPtr_[i]; j < lev.pPtr_[i + 1]; j++)
+				sum += lev.pVal_[j] * xc[lev.pCol_[j]];
+			x[i] += sum;
+		}
+
+		// post-smoothing (backward Gauss-Seidel)
+		lev.gaussSeidel(b, x, false);
+	}
+
+	/**
+	 * Creates dof blocks covering all dofs. Dofs not contained in the given
+	 * blocks become blocks by themselves.
+	 * 
+	 * @param n
+	 *            Number of dofs.
+	 * @param blocks
+	 *            Given blocks (can be null).
+	 * @return Dof blocks.
+	 */
+	private int[][] createBlocks(int n, int[][] blocks) {
+
+		// mark dofs of given blocks
+		boolean[] covered = new boolean[n];
+		int nb = 0;
+		if (blocks != null) {
+			for (int i = 0; i < blocks.length; i++) {
+				if (blocks[i].length > 0)
+					nb++;
+				for (int j = 0; j < blocks[i].length; j++)
+					covered[blocks[i][j]] = true;
+			}
+		}
+		for (int i = 0; i < n; i++)
+			if (!covered[i])
+				nb++;
+
+		// create blocks
+		int[][] result = new int[nb][];
+		int k = 0;
+		if (blocks != null)
+			for (int i = 0; i < blocks.length; i++)
+				if (blocks[i].length > 0)
+					result[k++] = blocks[i];
+		for (int i = 0; i < n; i++)
+			if (!covered[i])
+				result[k++] = new int[] { i };
+		return result;
+	}
+
+	/**
+	 * Aggregates blocks by their strength of coupling. Two blocks I and J are
+	 * strongly coupled if |A_IJ| >= theta * sqrt(|A_II| |A_JJ|), where |.| is
+	 * the Frobenius norm.
+	 * 
+	 * @param n
+	 *            Number of dofs.
+	 * @param ptr
+	 *            Row pointers of matrix.
+	 * @param col
+	 *            Column indices of matrix.
+	 * @param val
+	 *            Values of matrix.
+	 * @param blocks
+	 *            Dof blocks.
+	 * @param theta
+	 *            Strength of coupling threshold.
+	 * @return The aggregate index of each block.
+	 */
+	private int[] aggregate(int n, int[] ptr, int[] col, double[] val,
+			int[][] blocks, double theta) {
+
+		// map dofs to blocks
+		int nb = blocks.length;
+		int[] blockOf = new int[n];
+		for (int i = 0; i < nb; i++)
+			for (int j = 0; j < blocks[i].length; j++)
+				blockOf[blocks[i][j]] = i;
+
+		// compute squared Frobenius norms of block couplings
+		int[] sPtr = new int[nb + 1];
+		int[] sAdj = new int[0];
+		double[] sVal = new double[0];
+		double[] diag = new double[nb];
+		double[] acc = new double[nb];
+		int[] mark = new int[nb];
+		int[] list = new int[nb];
+		Arrays.fill(mark, -1);
+		for (int bi = 0; bi < nb; bi++) {
+			int size = 0;
+			for (int q = 0; q < blocks[bi].length; q++) {
+				int i = blocks[bi][q];
+				for (int j = ptr[i]; j < ptr[i + 1]; j++) {
+					int bj = blockOf[col[j]];
+					if (mark[bj] != bi) {
+						mark[bj] = bi;
+						acc[bj] = 0.0;
+						list[size++] = bj;
+					}
+					acc[bj] += val[j] * val[j];
+				}
+			}
+			diag[bi] = acc[bi];
+			if (sPtr[bi] + size > sAdj.length) {
+				int len = Math.max(2 * sAdj.length, sPtr[bi] + size);
+				sAdj = Arrays.copyOf(sAdj, len);
+				sVal = Arrays.copyOf(sVal, len);
+			}
+			for (int k = 0; k < size; k++) {
+				sAdj[sPtr[bi] + k] = list[k];
+				sVal[sPtr[bi] + k] = acc[list[k]];
+			}
+			sPtr[bi + 1] = sPtr[bi] + size;
+		}
+
+		// determine strong couplings
+		boolean[] strong = new boolean[sPtr[nb]];
+		double theta2 = theta * theta;
+		for (int bi = 0; bi < nb; bi++)
+			for (int k = sPtr[bi]; k < sPtr[bi + 1]; k++) {
+				int bj = sAdj[k];
+				strong[k] = bj != bi
+						&& sVal[k] * sVal[k] >= theta2 * theta2 * diag[bi]
+								* diag[bj];
+			}
+
+		// phase 1: blocks whose strong neighbours are all free form roots
+		int[] agg = new int[nb];
+		Arrays.fill(agg, -1);
+		int na = 0;
+		for (int bi = 0; bi < nb; bi++) {
+			if (agg[bi] != -1)
+				continue;
+			boolean free = true;
+			for (int k = sPtr[bi]; k < sPtr[bi + 1] && free; k++)
+				if (strong[k] && agg[sAdj[k]] != -1)
+					free = false;
+			if (!free)
+				continue;
+			agg[bi] = na;
+			for (int k = sPtr[bi]; k < sPtr[bi + 1]; k++)
+				if (strong[k])
+					agg[sAdj[k]] = na;
+			na++;
+		}
+
+		// phase 2: join strongest neighbouring aggregate of phase 1
+		int[] agg1 = agg.clone();
+		for (int bi = 0; bi < nb; bi++) {
+			if (agg1[bi] != -1)
+				continue;
+			double max = -1.0;
+			for (int k = sPtr[bi]; k < sPtr[bi + 1]; k++) {
+				if (strong[k] && agg1[sAdj[k]] != -1 && sVal[k] > max) {
+					max = sVal[k];
+					agg[bi] = agg1[sAdj[k]];
+				}
+			}
+		}
+
+		// phase 3: remaining blocks form aggregates with their neighbours
+		for (int bi = 0; bi < nb; bi++) {
+			if (agg[bi] != -1)
+				continue;
+			agg[bi] = na;
+			for (int k = sPtr[bi]; k < sPtr[bi + 1]; k++)
+				if (strong[k] && agg[sAdj[k]] == -1)
+					agg[sAdj[k]] = na;
+			na++;
+		}
+		return agg;
+	}
+
+	/**
+	 * Creates the tentative prolongator by QR decomposition of the near null
+	 * space vectors over each aggregate (modified Gram-Schmidt, linearly
+	 * dependent vectors are dropped). The prolongator is stored to the given
+	 * level.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @param blocks
+	 *            Dof blocks.
+	 * @param agg
+	 *            Aggregate indices of blocks.
+	 * @param na
+	 *            Number of aggregates.
+	 * @param modes
+	 *            Near null space vectors ([dof][vector]).
+	 * @param cblocks
+	 *            Array to store the coarse dofs of aggregates.
+	 * @param cmodes
+	 *            Array to store the coarse near null space vectors of
+	 *            aggregates ([aggregate][coarse dof][vector]).
+	 * @return The number of coarse dofs.
+	 */
+	private int tentative(Level level, int[][] blocks, int[] agg, int na,
+			double[][] modes, int[][] cblocks, double[][][] cmodes) {
+
+		// collect dofs of aggregates
+		int n = level.n_;
+		int[] count = new int[na + 1];
+		for (int bi = 0; bi < blocks.length; bi++)
+			count[agg[bi] + 1] += blocks[bi].length;
+		for (int a = 0; a < na; a++)
+			count[a + 1] += count[a];
+		int[] dofs = new int[n];
+		int[] next = count.clone();
+		for (int bi = 0; bi < blocks.length; bi++)
+			for (int j = 0; j < blocks[bi].length; j++)
+				dofs[next[agg[bi]]++] = blocks[bi][j];
+
+		// create rows of prolongator
+		int k = n == 0 ? 0 : modes[0].length;
+		double[][] rowVal = new double[n][];
+		int[] rowCol = new int[n];
+		int nc = 0;
+
+		// loop over aggregates
+		for (int a = 0; a < na; a++) {
+
+			// get local near null space vectors
+			int m = count[a + 1] - count[a];
+			double[][] q = new double[k][m];
+			for (int j = 0; j < k; j++)
+				for (int i = 0; i < m; i++)
+					q[j][i] = modes[dofs[count[a] + i]][j];
+
+			// modified Gram-Schmidt with reorthogonalization
+			double[][] r = new double[k][k];
+			int[] kept = new int[k];
+			int rank = 0;
+			for (int j = 0; j < k; j++) {
+				double norm0 = Math.sqrt(dot(q[j], q[j]));
+				for (int pass = 0; pass < 2; pass++) {
+					for (int p = 0; p < rank; p++) {
+						double[] qp = q[kept[p]];
+						double rpj = dot(qp, q[j]);
+						r[p][j] += rpj;
+						for (int i = 0; i < m; i++)
+							q[j][i] -= rpj * qp[i];
+					}
+				}
+				double norm = Math.sqrt(dot(q[j], q[j]));
+				if (norm > 1.0e-10 * norm0) {
+					for (int i = 0; i < m; i++)
+						q[j][i] /= norm;
+					r[rank][j] = norm;
+					kept[rank++] = j;
+				}
+			}
+
+			// set coarse dofs and coarse near null space vectors
+			cblocks[a] = new int[rank];
+			cmodes[a] = new double[rank][];
+			for (int p = 0; p < rank; p++) {
+				cblocks[a][p] = nc + p;
+				cmodes[a][p] = r[p];
+			}
+
+			// set rows of prolongator
+			for (int i = 0; i < m; i++) {
+				int dof = dofs[count[a] + i];
+				rowVal[dof] = new double[rank];
+				for (int p = 0; p < rank; p++)
+					rowVal[dof][p] = q[kept[p]][i];
+				rowCol[dof] = nc;
+			}
+			nc += rank;
+		}
+
+		// store prolongator in compressed row form
+		level.pPtr_ = new int[n + 1];
+		for (int i = 0; i < n; i++)
+			level.pPtr_[i + 1] = level.pPtr_[i] + rowVal[i].length;
+		level.pCol_ = new int[level.pPtr_[n]];
+		level.pVal_ = new double[level.pPtr_[n]];
+		for (int i = 0; i < n; i++) {
+			for (int p = 0; p < rowVal[i].length; p++) {
+				level.pCol_[level.pPtr_[i] + p] = rowCol[i] + p;
+				level.pVal_[level.pPtr_[i] + p] = rowVal[i][p];
+			}
+		}
+		return nc;
+	}
+
+	/**
+	 * Smooths the prolongator of the given level by one damped Jacobi step (P
+	 * = (I - w D^-1 A) P), where w = 4 / (3 rho) and rho is the spectral
+	 * radius of D^-1 A estimated by power iteration.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @param nc
+	 *            Number of coarse dofs.
+	 */
+	private void smooth(Level level, int nc) {
+
+		// estimate spectral radius of D^-1 A
+		int n = level.n_;
+		double[] v = new double[n], w = new double[n];
+		for (int i = 0; i < n; i++)
+			v[i] = 1.0 + (i % 7) * 0.1;
+		double rho = 0.0;
+		for (int iter = 0; iter < 15; iter++) {
+			double norm = Math.sqrt(dot(v, v));
+			for (int i = 0; i < n; i++)
+				v[i] /= norm;
+			for (int i = 0; i < n; i++) {
+				double sum = 0.0;
+				for (int j = level.ptr_[i]; j < level.ptr_[i + 1]; j++)
+					sum += level.val_[j] * v[level.col_[j]];
+				w[i] = sum * level.invDiag_[i];
+			}
+			rho = Math.sqrt(dot(w, w));
+			double[] t = v;
+			v = w;
+			w = t;
+		}
+		double omega = 4.0 / (3.0 * rho);
+
+		// compute P - w D^-1 A P row by row
+		double[] acc = new double[nc];
+		int[] mark = new int[nc];
+		int[] list = new int[nc];
+		Arrays.fill(mark, -1);
+		int[] ptr = new int[n + 1];
+		int[] col = new int[level.pPtr_[n]];
+		double[] val = new double[col.length];
+		for (int i = 0; i < n; i++) {
+
+			// accumulate row
+			int size = 0;
+			for (int p = level.pPtr_[i]; p < level.pPtr_[i + 1]; p++) {
+				int c = level.pCol_[p];
+				mark[c] = i;
+				acc[c] = level.pVal_[p];
+				list[size++] = c;
+			}
+			double s = omega * level.invDiag_[i];
+			for (int j = level.ptr_[i]; j < level.ptr_[i + 1]; j++) {
+				int k = level.col_[j];
+				double aik = s * level.val_[j];
+				for (int p = level.pPtr_[k]; p < level.pPtr_[k + 1]; p++) {
+					int c = level.pCol_[p];
+					if (mark[c] != i) {
+						mark[c] = i;
+						acc[c] = 0.0;
+						list[size++] = c;
+					}
+					acc[c] -= aik * level.pVal_[p];
+				}
+			}
+
+			// store row
+			if (ptr[i] + size > col.length) {
+				int len = Math.max(2 * col.length, ptr[i] + size);
+				col = Arrays.copyOf(col, len);
+				val = Arrays.copyOf(val, len);
+			}
+			Arrays.sort(list, 0, size);
+			for (int q = 0; q < size; q++) {
+				col[ptr[i] + q] = list[q];
+				val[ptr[i] + q] = acc[list[q]];
+			}
+			ptr[i + 1] = ptr[i] + size;
+		}
+		level.pPtr_ = ptr;
+		level.pCol_ = col;
+		level.pVal_ = val;
+	}
+
+	/**
+	 * Computes the coarse matrix (Ac = P(T) A P) of the given level and
+	 * stores it to the level.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @param nc
+	 *            Number of coarse dofs.
+	 */
+	private void galerkin(Level level, int nc) {
+
+		// compute transpose of prolongator
+		int n = level.n_;
+		int[] tPtr = new int[nc + 1];
+		for (int p = 0; p < level.pPtr_[n]; p++)
+			tPtr[level.pCol_[p] + 1]++;
+		for (int c = 0; c < nc; c++)
+			tPtr[c + 1] += tPtr[c];
+		int[] tCol = new int[tPtr[nc]];
+		double[] tVal = new double[tPtr[nc]];
+		int[] next = tPtr.clone();
+		for (int i = 0; i < n; i++) {
+			for (int p = level.pPtr_[i]; p < level.pPtr_[i + 1]; p++) {
+				int q = next[level.pCol_[p]]++;
+				tCol[q] = i;
+				tVal[q] = level.pVal_[p];
+			}
+		}
+
+		// compute rows of coarse matrix (row c of P(T) A P)
+		double[] acc = new double[nc];
+		double[] accA = new double[n];
+		int[] mark = new int[nc];
+		int[] markA = new int[n];
+		int[] list = new int[nc];
+		int[] listA = new int[n];
+		Arrays.fill(mark, -1);
+		Arrays.fill(markA, -1);
+		int[] ptr = new int[nc + 1];
+		int[] col = new int[Math.max(16, 4 * nc)];
+		double[] val = new double[col.length];
+		for (int c = 0; c < nc; c++) {
+
+			// row c of P(T) A
+			int sizeA = 0;
+			for (int q = tPtr[c]; q < tPtr[c + 1]; q++) {
+				int i = tCol[q];
+				double pic = tVal[q];
+				for (int j = level.ptr_[i]; j < level.ptr_[i + 1]; j++) {
+					int k = level.col_[j];
+					if (markA[k] != c) {
+						markA[k] = c;
+						accA[k] = 0.0;
+						listA[sizeA++] = k;
+					}
+					accA[k] += pic * level.val_[j];
+				}
+			}
+
+			// row c of P(T) A P
+			int size = 0;
+			for (int q = 0; q < sizeA; q++) {
+				int k = listA[q];
+				double t = accA[k];
+				for (int p = level.pPtr_[k]; p < level.pPtr_[k + 1]; p++) {
+					int d = level.pCol_[p];
+					if (mark[d] != c) {
+						mark[d] = c;
+						acc[d] = 0.0;
+						list[size++] = d;
+					}
+					acc[d] += t * level.pVal_[p];
+				}
+			}
+
+			// store row
+			if (ptr[c] + size > col.length) {
+				int len = Math.max(2 * col.length, ptr[c] + size);
+				col = Arrays.copyOf(col, len);
+				val = Arrays.copyOf(val, len);
+			}
+			Arrays.sort(list, 0, size);
+			for (int q = 0; q < size; q++) {
+				col[ptr[c] + q] = list[q];
+				val[ptr[c] + q] = acc[list[q]];
+			}
+			ptr[c + 1] = ptr[c] + size;
+		}
+
+		// store coarse matrix and allocate coarse work vectors
+		level.cPtr_ = ptr;
+		level.cCol_ = Arrays.copyOf(col, ptr[nc]);
+		level.cVal_ = Arrays.copyOf(val, ptr[nc]);
+		level.bc_ = new double[nc];
+		level.xc_ = new double[nc];
+	}
+
+	/**
+	 * Returns the dot product of the given vectors.
+	 * 
+	 * @param a
+	 *            First vector.
+	 * @param b
+	 *            Second vector.
+	 * @return The dot product.
+	 */
+	private static double dot(double[] a, double[] b) {
+		double sum = 0.0;
+		for (int i = 0; i < a.length; i++)
+			sum += a[i] * b[i];
+		return sum;
+	}
+
+	/**
+	 * Inner class for a level of the multigrid hierarchy.
+	 * 
+	 * @author Murat Artim
+	 * 
+	 */
+	private static class Level {
+
+		/** Number of dofs. */
+		private int n_;
+
+		/** Matrix of level in compressed row form. */
+		private int[] ptr_, col_;
+
+		/** Values of matrix of level. */
+		private double[] val_;
+
+		/** Inverse diagonal of matrix. */
+		private double[] invDiag_;
+
+		/** Prolongator in compressed row form. */
+		private int[] pPtr_, pCol_;
+
+		/** Values of prolongator. */
+		private double[] pVal_;
+
+		/** Coarse matrix (until it is passed to the next level). */
+		private int[] cPtr_, cCol_;
+
+		/** Values of coarse matrix. */
+		private double[] cVal_;
+
+		/** Work vectors. */
+		private double[] r_, bc_, xc_;
+
+		/**
+		 * Creates level.
+		 * 
+		 * @param n
+		 *            Number of dofs.
+		 * @param ptr
+		 *            Row pointers of matrix.
+		 * @param col
+		 *            Column indices of matrix.
+		 * @param val
+		 *            Values of matrix.
+		 */
+		private Level(int n, int[] ptr, int[] col, double[] val) {
+			n_ = n;
+			ptr_ = ptr;
+			col_ = col;
+			val_ = val;
+			r_ = new double[n];
+			invDiag_ = new double[n];
+			for (int i = 0; i < n; i++) {
+				for (int j = ptr[i]; j < ptr[i + 1]; j++)
+					if (col[j] == i)
+						invDiag_[i] += val[j];
+				invDiag_[i] = invDiag_[i] == 0.0 ? 0.0 : 1.0 / invDiag_[i];
+			}
+		}
+
+		/**
+		 * Performs one Gauss-Seidel sweep on the system of level.
+		 * 
+		 * @param b
+		 *            Right hand side vector.
+		 * @param x
+		 *            Solution vector.
+		 * @param forward
+		 *            True for forward sweep, false for backward sweep.
+		 */
+		private void gaussSeidel(double[] b, double[] x, boolean forward) {
+			for (int k = 0; k < n_; k++) {
+				int i = forward ? k : n_ - 1 - k;
+				double sum = b[i], d = 0.0;
+				for (int j = ptr_[i]; j < ptr_[i + 1]; j++) {
+					int c = col_[j];
+					if (c == i)
+						d = val_[j];
+					else
+						sum -= val_[j] * x[c];
+				}
+				if (d != 0.0)
+					x[i] = sum / d;
+			}
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import matrix.USB2Mat;
+
+/**
+ * Class for symmetric Gauss elimination of banded matrices stored in USB2 form.
+ * The elimination is performed in place, the rows of the given matrix are
+ * replaced by the rows of the upper triangular factor.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class BandFactorization extends Factorization {
+
+	/** Number of equations and half-bandwidth. */
+	private int n_, hbw_;
+
+	/** Storage array of the factorized matrix. */
+	private double[][] band_;
+
+	/**
+	 * Creates factorization of the given matrix. The matrix is replaced by its
+	 * upper triangular factor.
+	 * 
+	 * @param a
+	 *            Matrix to be factorized.
+	 */
+	public BandFactorization(USB2Mat a) {
+
+		// set storage array
+		n_ = a.rowCount();
+		hbw_ = a.getHalfBandwidth();
+		band_ = a.getData();
+
+		// eliminate
+		decompose();
+	}
+
+	@Override
+	public int size() {
+		return n_;
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		long size = 0;
+		for (int i = 0; i < band_.length; i++)
+			size += 8L * band_[i].length;
+		return size;
+	}
+
+	@Override
+	public void solve(double[] b, double[] x) {
+
+		// copy right hand side vector to solution vector
+		if (b != x)
+			System.arraycopy(b, 0, x, 0, n_);
+
+		// reduce right hand side vector
+		for (int p = 0; p < n_ - 1; p++) {
+			double[] pivot = band_[p];
+			int last = Math.min(p + hbw_, n_ - 1);
+			double vp = x[p] / pivot[0];
+			for (int r = p + 1; r <= last; r++)
+				x[r] -= pivot[r - p] * vp;
+		}
+
+		// back-substitute
+		for (int p = n_ - 1; p >= 0; p--) {
+			double[] row = band_[p];
+			int last = Math.min(p + hbw_, n_ - 1);
+			double c = x[p];
+			for (int col = p + 1; col <= last; col++)
+				c -= row[col - p] * x[col];
+			x[p] = c / row[0];
+		}
+	}
+
+	@Override
+	public void solve(double[][] b, double[][] x) {
+
+		// interleave right hand side vectors
+		int m = b.length;
+		double[] v = pack(b, n_);
+		double[] c = new double[m];
+
+		// reduce right hand side vectors
+		for (int p = 0; p < n_ - 1; p++) {
+			double[] pivot = band_[p];
+			int last = Math.min(p + hbw_, n_ - 1);
+			int op = p * m;
+			for (int j = 0; j < m; j++)
+				c[j] = v[op + j] / pivot[0];
+			for (int r = p + 1; r <= last; r++) {
+				double f = pivot[r - p];
+				int or = r * m;
+				for (int j = 0; j < m; j++)
+					v[or + j] -= f * c[j];
+			}
+		}
+
+		// back-substitute
+		for (int p = n_ - 1; p >= 0; p--) {
+			double[] row = band_[p];
+			int last = Math.min(p + hbw_, n_ - 1);
+			int op = p * m;
+			for (int j = 0; j < m; j++)
+				c[j] = v[op + j];
+			for (int col = p + 1; col <= last; col++) {
+				double f = row[col - p];
+				int oc = col * m;
+				for (int j = 0; j < m; j++)
+					c[j] -= f * v[oc + j];
+			}
+			for (int j = 0; j < m; j++)
+				v[op + j] = c[j] / row[0];
+		}
+
+		// copy solution vectors
+		unpack(v, x);
+	}
+
+	/**
+	 * Performs symmetric Gauss elimination of the matrix in place.
+	 * 
+	 */
+	private void decompose() {
+
+		// loop over pivots
+		for (int p = 0; p < n_ - 1; p++) {
+
+			// get pivot row
+			double[] pivot = band_[p];
+
+			// check pivot
+			if (pivot[0] == 0.0)
+				exceptionHandler("Zero pivot encountered during elimination!");
+
+			// eliminate rows below pivot
+			int last = Math.min(p + hbw_, n_ - 1);
+			for (int r = p + 1; r <= last; r++) {
+				double factor = pivot[r - p] / pivot[0];
+				if (factor != 0.0) {
+					double[] row = band_[r];
+					for (int col = r; col <= last; col++)
+						row[col - r] -= factor * pivot[col - p];
+				}
+			}
+		}
+
+		// check last pivot
+		if (n_ > 0 && band_[n_ - 1][0] == 0.0)
+			exceptionHandler("Zero pivot encountered during elimination!");
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import matrix.DVec;
+
+/**
+ * Class for factorizations of coefficient matrices created by direct linear
+ * equation solvers. A factorization is created once when the solver is
+ * initialized and it can then be used for solving the system for any number of
+ * right hand side vectors. Solving with a factorization doesn't allocate any
+ * memory. A block of right hand side vectors can be solved together, in which
+ * case the factors are traversed only once for all vectors.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public abstract class Factorization {
+
+	/**
+	 * Returns the number of equations of the factorized system.
+	 * 
+	 * @return The number of equations.
+	 */
+	public abstract int size();
+
+	/**
+	 * Returns the memory used by the factors.
+	 * 
+	 * @return The memory used by the factors in bytes.
+	 */
+	public abstract long getMemoryUsage();
+
+	/**
+	 * Solves the factorized system for the given right hand side vector (A x =
+	 * b).
+	 * 
+	 * @param b
+	 *            Right hand side vector (b). It is not modified unless it is
+	 *            the same array as x.
+	 * @param x
+	 *            Solution vector (x). It can be the same array as b.
+	 */
+	public abstract void solve(double[] b, double[] x);
+
+	/**
+	 * Solves the factorized system for the given right hand side vector (A x =
+	 * b).
+	 * 
+	 * @param vecB
+	 *            Right hand side vector (b).
+	 * @param vecX
+	 *            Solution vector (x).
+	 */
+	public void solve(DVec vecB, DVec vecX) {
+		solve(vecB.vec_.getData(), vecX.vec_.getData());
+	}
+
+	/**
+	 * Solves the factorized system for a block of right hand side vectors (A X
+	 * = B). This implementation solves for each vector in turn; subclasses
+	 * override it to traverse the factors once for the whole block.
+	 * 
+	 * @param b
+	 *            Right hand side vectors (b[j] is the j-th vector). They are
+	 *            not modified unless they are the same arrays as x.
+	 * @param x
+	 *            Solution vectors (x[j] is the j-th vector).
+	 */
+	public void solve(double[][] b, double[][] x) {
+		for (int j = 0; j < b.length; j++)
+			solve(b[j], x[j]);
+	}
+
+	/**
+	 * Solves the factorized system for a block of right hand side vectors (A X
+	 * = B).
+	 * 
+	 * @param vecB
+	 *            Right hand side vectors (b).
+	 * @param vecX
+	 *            Solution vectors (x).
+	 */
+	public void solve(DVec[] vecB, DVec[] vecX) {
+		double[][] b = new double[vecB.length][], x = new double[vecX.length][];
+		for (int j = 0; j < b.length; j++) {
+			b[j] = vecB[j].vec_.getData();
+			x[j] = vecX[j].vec_.getData();
+		}
+		solve(b, x);
+	}
+
+	/**
+	 * Interleaves the given vectors into a single array, so that the entries
+	 * of all vectors for an equation are contiguous (v[i * m + j] = b[j][i]).
+	 * 
+	 * @param b
+	 *            Vectors to be interleaved.
+	 * @param n
+	 *            Number of equations.
+	 * @return The interleaved array.
+	 */
+	protected static double[] pack(double[][] b, int n) {
+		int m = b.length;
+		double[] v = new double[n * m];
+		for (int j = 0; j < m; j++) {
+			double[] bj = b[j];
+			for (int i = 0; i < n; i++)
+				v[i * m + j] = bj[i];
+		}
+		return v;
+	}
+
+	/**
+	 * Copies interleaved array into the given vectors (x[j][i] = v[i * m +
+	 * j]).
+	 * 
+	 * @param v
+	 *            The interleaved array.
+	 * @param x
+	 *            Vectors to be filled.
+	 */
+	protected static void unpack(double[] v, double[][] x) {
+		int m = x.length;
+		for (int j = 0; j < m; j++) {
+			double[] xj = x[j];
+			for (int i = 0; i < xj.length; i++)
+				xj[i] = v[i * m + j];
+		}
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param arg0
+	 *            The message to be displayed.
+	 */
+	protected void exceptionHandler(String arg0) {
+
+		// throw exception with the related message
+		throw new IllegalArgumentException(arg0);
+	}
+}
@@ -32,7 +32,8 @@ public abstract class LESolver extends Solver {
 	public static final int iterative_ = 0, direct_ = 1;
 
 	/** Static variable for the direct solver type. */
-	public static int COLSOL_ = 0, GaussSymm_ = 1;
+	public static int COLSOL_ = 0, GaussSymm_ = 1, Supernodal_ = 2,
+			OutOfCore_ = 3;
 
 	@Override
 	public int getProblemType() {
@@ -75,6 +76,19 @@ public abstract class LESolver extends Solver {
 	 */
 	public abstract void solve(Mat matA, DVec vecB, DVec vecX);
 
+	/**
+	 * Returns the factorization of the coefficient matrix created while
+	 * initializing the solver. Direct solvers reuse it for every right hand
+	 * side vector given, so that each solve costs only a forward reduction and
+	 * a back-substitution.
+	 * 
+	 * @return The factorization of the coefficient matrix, or null if the
+	 *         solver is iterative or not initialized.
+	 */
+	public Factorization getFactorization() {
+		return null;
+	}
+
 	/**
 	 * Clears attributes of solver (other than parameters).
 	 * 
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+/**
+ * Class for nested dissection ordering of sparse symmetric matrices. The graph
+ * of the matrix is recursively bisected by separators taken from the middle
+ * level of the rooted level structure of a pseudo-peripheral vertex.
+ * Separator vertices are ordered after the two parts they separate, so that
+ * fill-in during factorization is confined to the separator blocks. Parts
+ * smaller than a threshold are ordered in reverse breadth-first order.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class NestedDissection {
+
+	/** Parts smaller than this are not dissected further. */
+	private static final int leafSize_ = 64;
+
+	/**
+	 * Computes and returns nested dissection ordering of the given graph.
+	 * 
+	 * @param ptr
+	 *            Adresses of first neighbours of vertices in the adjacency
+	 *            array (of length n + 1).
+	 * @param adj
+	 *            Adjacency array. Self loops are ignored.
+	 * @return The ordering array. The k-th entry is the index of the k-th
+	 *         vertex to be eliminated.
+	 */
+	public static int[] order(int[] ptr, int[] adj) {
+
+		// create arrays
+		int n = ptr.length - 1;
+		int[] order = new int[n];
+		int[] part = new int[n];
+		int[] level = new int[n];
+		int[] queue = new int[n];
+		int[] levelPtr = new int[n + 1];
+
+		// create stack of parts to be ordered with their upper positions
+		int[][] stack = new int[n + 1][];
+		int[] upper = new int[n + 1];
+		int top = 0;
+		int[] all = new int[n];
+		for (int i = 0; i < n; i++)
+			all[i] = i;
+		if (n > 0) {
+			stack[top] = all;
+			upper[top++] = n;
+		}
+		int label = 0;
+
+		// loop over parts
+		while (top > 0) {
+
+			// pop part and label its vertices
+			top--;
+			int[] vertices = stack[top];
+			int hi = upper[top];
+			stack[top] = null;
+			label++;
+			for (int i = 0; i < vertices.length; i++)
+				part[vertices[i]] = label;
+
+			// disconnected part: order all components separately
+			int nComp = components(vertices, label, ptr, adj, part, level,
+					queue, levelPtr);
+			if (nComp > 1) {
+				int lo = hi - vertices.length;
+				for (int c = nComp - 1; c >= 0; c--) {
+					int[] comp = new int[levelPtr[c + 1] - levelPtr[c]];
+					System.arraycopy(queue, levelPtr[c], comp, 0, comp.length);
+					stack[top] = comp;
+					upper[top++] = lo + levelPtr[c + 1];
+				}
+				continue;
+			}
+
+			// find pseudo-peripheral vertex and its level structure
+			int levels = pseudoPeripheral(vertices, label, ptr, adj, part,
+					level, queue, levelPtr);
+			int reached = levelPtr[levels];
+
+			// small or inseparable part: reverse breadth-first order
+			if (vertices.length <= leafSize_ || levels < 3) {
+				for (int i = 0; i < reached; i++)
+					order[hi - 1 - i] = queue[i];
+				continue;
+			}
+
+			// find middle level
+			int m = 1;
+			while (m < levels - 2 && levelPtr[m + 1] < reached / 2)
+				m++;
+
+			// mark separator (vertices of middle level adjacent to next level)
+			int nSep = 0;
+			for (int i = levelPtr[m]; i < levelPtr[m + 1]; i++) {
+				int v = queue[i];
+				for (int j = ptr[v]; j < ptr[v + 1]; j++) {
+					int w = adj[j];
+					if (part[w] == label && level[w] == m + 1) {
+						level[v] = -1;
+						nSep++;
+						break;
+					}
+				}
+			}
+
+			// order separator last and create parts
+			int[] part1 = new int[levelPtr[m + 1] - nSep];
+			int[] part2 = new int[reached - levelPtr[m + 1]];
+			int k0 = hi - nSep, k1 = 0, k2 = 0;
+			for (int i = 0; i < reached; i++) {
+				int v = queue[i];
+				if (level[v] == -1)
+					order[k0++] = v;
+				else if (i < levelPtr[m + 1])
+					part1[k1++] = v;
+				else
+					part2[k2++] = v;
+			}
+
+			// push parts
+			stack[top] = part2;
+			upper[top++] = hi - nSep;
+			stack[top] = part1;
+			upper[top++] = hi - nSep - part2.length;
+		}
+
+		// return ordering
+		return order;
+	}
+
+	/**
+	 * Finds the connected components of the given part by breadth-first
+	 * searches in one pass over the part.
+	 * 
+	 * @param vertices
+	 *            Vertices of the part.
+	 * @param label
+	 *            Label of the part.
+	 * @param ptr
+	 *            Adresses of first neighbours of vertices.
+	 * @param adj
+	 *            Adjacency array.
+	 * @param part
+	 *            Part labels of vertices.
+	 * @param level
+	 *            Work array for marking reached vertices.
+	 * @param queue
+	 *            Array to store the vertices component by component.
+	 * @param compPtr
+	 *            Array to store the adresses of first vertices of components.
+	 * @return The number of components.
+	 */
+	private static int components(int[] vertices, int label, int[] ptr,
+			int[] adj, int[] part, int[] level, int[] queue, int[] compPtr) {
+
+		// reset levels
+		for (int i = 0; i < vertices.length; i++)
+			level[vertices[i]] = -2;
+
+		// loop over unreached vertices
+		int tail = 0, nComp = 0;
+		for (int i = 0; i < vertices.length; i++) {
+			if (level[vertices[i]] != -2)
+				continue;
+
+			// breadth-first search of component
+			compPtr[nComp++] = tail;
+			int head = tail;
+			queue[tail++] = vertices[i];
+			level[vertices[i]] = 0;
+			while (head < tail) {
+				int v = queue[head++];
+				for (int j = ptr[v]; j < ptr[v + 1]; j++) {
+					int w = adj[j];
+					if (part[w] == label && level[w] == -2) {
+						level[w] = 0;
+						queue[tail++] = w;
+					}
+				}
+			}
+		}
+		compPtr[nComp] = tail;
+		return nComp;
+	}
+
+	/**
+	 * Finds a pseudo-peripheral vertex of the given connected part (George and
+	 * Liu) and creates its rooted level structure.
+	 * 
+	 * @param vertices
+	 *            Vertices of the part.
+	 * @param label
+	 *            Label of the part.
+	 * @param ptr
+	 *            Adresses of first neighbours of vertices.
+	 * @param adj
+	 *            Adjacency array.
+	 * @param part
+	 *            Part labels of vertices.
+	 * @param level
+	 *            Array to store the levels of vertices (-2 for unreached).
+	 * @param queue
+	 *            Array to store the reached vertices level by level.
+	 * @param levelPtr
+	 *            Array to store the adresses of first vertices of levels.
+	 * @return The number of levels.
+	 */
+	private static int pseudoPeripheral(int[] vertices, int label, int[] ptr,
+			int[] adj, int[] part, int[] level, int[] queue, int[] levelPtr) {
+
+		// create level structure of first vertex
+		int levels = levelStructure(vertices[0], vertices, label, ptr, adj,
+				part, level, queue, levelPtr);
+
+		// loop until eccentricity doesn't increase
+		for (int iter = 0; iter < 8; iter++) {
+
+			// pick vertex of minimum degree from last level
+			int root = queue[levelPtr[levels - 1]];
+			for (int i = levelPtr[levels - 1] + 1; i < levelPtr[levels]; i++) {
+				int v = queue[i];
+				if (ptr[v + 1] - ptr[v] < ptr[root + 1] - ptr[root])
+					root = v;
+			}
+
+			// create level structure of vertex
+			int levels1 = levelStructure(root, vertices, label, ptr, adj,
+					part, level, queue, levelPtr);
+			if (levels1 <= levels)
+				return levels1;
+			levels = levels1;
+		}
+		return levels;
+	}
+
+	/**
+	 * Creates rooted level structure of the given vertex within the given
+	 * part.
+	 * 
+	 * @param root
+	 *            The root vertex.
+	 * @param vertices
+	 *            Vertices of the part.
+	 * @param label
+	 *            Label of the part.
+	 * @param ptr
+	 *            Adresses of first neighbours of vertices.
+	 * @param adj
+	 *            Adjacency array.
+	 * @param part
+	 *            Part labels of vertices.
+	 * @param level
+	 *            Array to store the levels of vertices (-2 for unreached).
+	 * @param queue
+	 *            Array to store the reached vertices level by level.
+	 * @param levelPtr
+	 *            Array to store the adresses of first vertices of levels.
+	 * @return The number of levels.
+	 */
+	private static int levelStructure(int root, int[] vertices, int label,
+			int[] ptr, int[] adj, int[] part, int[] level, int[] queue,
+			int[] levelPtr) {
+
+		// reset levels
+		for (int i = 0; i < vertices.length; i++)
+			level[vertices[i]] = -2;
+
+		// breadth-first search
+		int head = 0, tail = 0, levels = 0;
+		queue[tail++] = root;
+		level[root] = 0;
+		while (head < tail) {
+			levelPtr[levels] = head;
+			int end = tail;
+			while (head < end) {
+				int v = queue[head++];
+				for (int j = ptr[v]; j < ptr[v + 1]; j++) {
+					int w = adj[j];
+					if (part[w] == label && level[w] == -2) {
+						level[w] = levels + 1;
+						queue[tail++] = w;
+					}
+				}
+			}
+			levels++;
+		}
+		levelPtr[levels] = tail;
+		return levels;
+	}
+}
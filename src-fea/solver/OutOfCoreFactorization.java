@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import matrix.USB3Mat;
+
+/**
+ * Class for out-of-core active column (skyline) L*D*L(T) factorization of
+ * symmetric positive definite matrices stored in USB3 form (Bathe-p708). The
+ * factorization is performed in place column by column, the storage file of
+ * the given matrix is replaced by the factors. Each column is reduced in a
+ * work array using the previously factorized columns within its height, so
+ * that only the blocks spanned by the active column have to be loaded. The
+ * window of matrix is enlarged if it cannot hold these blocks. The factors
+ * stay in the file for any number of subsequent solutions, each of which
+ * traverses the blocks once forwards and once backwards. Only the diagonal
+ * factors and the loaded blocks of matrix are kept in the heap.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class OutOfCoreFactorization extends Factorization {
+
+	/** Number of equations. */
+	private int n_;
+
+	/** The factorized matrix. */
+	private USB3Mat a_;
+
+	/** Column heights of the factorized matrix. */
+	private int[] heights_;
+
+	/** Diagonal factors. */
+	private double[] d_;
+
+	/**
+	 * Creates factorization of the given matrix. The matrix is replaced by its
+	 * factors.
+	 * 
+	 * @param a
+	 *            Matrix to be factorized (assumed positive definite).
+	 */
+	public OutOfCoreFactorization(USB3Mat a) {
+
+		// set matrix
+		n_ = a.rowCount();
+		a_ = a;
+		heights_ = a.getHeights();
+		d_ = new double[n_];
+
+		// enlarge window to hold the blocks spanned by any column
+		a.setWindow(Math.max(a.getWindow(), a.getColumnSpan()));
+
+		// triangularize matrix
+		decompose();
+	}
+
+	/**
+	 * Deletes the storage file of factors. The factorization cannot be used
+	 * afterwards.
+	 * 
+	 */
+	public void delete() {
+		a_.delete();
+	}
+
+	@Override
+	public int size() {
+		return n_;
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		return 8L * d_.length + 8L * a_.getAdresses().length + 4L
+				* heights_.length + 4L * a_.getBlocks().length;
+	}
+
+	@Override
+	public void solve(double[] b, double[] x) {
+
+		// copy right hand side vector to solution vector
+		if (b != x)
+			System.arraycopy(b, 0, x, 0, n_);
+
+		// reduce right hand side vector (L v = b)
+		for (int n = 0; n < n_; n++) {
+			int hn = heights_[n];
+			if (hn > 0) {
+				DoubleBuffer cn = a_.column(n, false);
+				int on = a_.offset(n);
+				double c = 0.0;
+				for (int t = 1; t <= hn; t++)
+					c += cn.get(on + t) * x[n - t];
+				x[n] -= c;
+			}
+		}
+
+		// divide by diagonal elements
+		for (int n = 0; n < n_; n++)
+			x[n] /= d_[n];
+
+		// back-substitute in reverse order (L(T) x = v)
+		for (int n = n_ - 1; n > 0; n--) {
+			int hn = heights_[n];
+			if (hn > 0) {
+				DoubleBuffer cn = a_.column(n, false);
+				int on = a_.offset(n);
+				for (int t = 1; t <= hn; t++)
+					x[n - t] -= cn.get(on + t) * x[n];
+			}
+		}
+	}
+
+	@Override
+	public void solve(double[][] b, double[][] x) {
+
+		// interleave right hand side vectors
+		int m = b.length;
+		double[] v = pack(b, n_);
+		double[] c = new double[m];
+
+		// reduce right hand side vectors (L V = B)
+		for (int n = 0; n < n_; n++) {
+			int hn = heights_[n];
+			if (hn > 0) {
+				DoubleBuffer cn = a_.column(n, false);
+				int on = a_.offset(n);
+				Arrays.fill(c, 0.0);
+				for (int t = 1; t <= hn; t++) {
+					double akk = cn.get(on + t);
+					int ok = (n - t) * m;
+					for (int j = 0; j < m; j++)
+						c[j] += akk * v[ok + j];
+				}
+				int o = n * m;
+				for (int j = 0; j < m; j++)
+					v[o + j] -= c[j];
+			}
+		}
+
+		// divide by diagonal elements
+		for (int n = 0; n < n_; n++) {
+			double d = d_[n];
+			int o = n * m;
+			for (int j = 0; j < m; j++)
+				v[o + j] /= d;
+		}
+
+		// back-substitute in reverse order (L(T) X = V)
+		for (int n = n_ - 1; n > 0; n--) {
+			int hn = heights_[n];
+			if (hn > 0) {
+				DoubleBuffer cn = a_.column(n, false);
+				int on = a_.offset(n);
+				int o = n * m;
+				for (int t = 1; t <= hn; t++) {
+					double akk = cn.get(on + t);
+					int ok = (n - t) * m;
+					for (int j = 0; j < m; j++)
+						v[ok + j] -= akk * v[o + j];
+				}
+			}
+		}
+
+		// copy solution vectors
+		unpack(v, x);
+	}
+
+	/**
+	 * Performs L*D*L(T) factorization of the matrix in place. The entries of
+	 * column n are kept in the work array from the diagonal upwards (g[t] is
+	 * the entry at row n - t).
+	 * 
+	 */
+	private void decompose() {
+
+		// create work array
+		double[] g = new double[a_.getHalfBandwidth() + 1];
+
+		// loop over columns
+		for (int n = 0; n < n_; n++) {
+
+			// read column into work array
+			int hn = heights_[n];
+			DoubleBuffer cn = a_.column(n, false);
+			int on = a_.offset(n);
+			for (int t = 0; t <= hn; t++)
+				g[t] = cn.get(on + t);
+
+			// reduce off-diagonal elements of the column
+			int k = n - hn + 1;
+			for (int j = 0; j < hn - 1; j++) {
+				int nd = heights_[k];
+				if (nd > 0) {
+					DoubleBuffer ck = a_.column(k, false);
+					int ok = a_.offset(k);
+					int t = hn - 1 - j;
+					int kk = Math.min(j + 1, nd);
+					double c = 0.0;
+					for (int l = 1; l <= kk; l++)
+						c += ck.get(ok + l) * g[t + l];
+					g[t] -= c;
+				}
+				k++;
+			}
+
+			// reduce diagonal element
+			double b = 0.0;
+			for (int t = 1; t <= hn; t++) {
+				double c = g[t] / d_[n - t];
+				b += c * g[t];
+				g[t] = c;
+			}
+			g[0] -= b;
+
+			// check pivot
+			if (g[0] <= 0.0)
+				exceptionHandler("Stiffness matrix is not positive definite!");
+
+			// write factors of the column back
+			d_[n] = g[0];
+			cn = a_.column(n);
+			for (int t = 0; t <= hn; t++)
+				cn.put(on + t, g[t]);
+		}
+	}
+}
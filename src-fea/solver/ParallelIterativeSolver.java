@@ -0,0 +1,790 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import matrix.BCRSMat;
+
+import Jama.CholeskyDecomposition;
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+
+import no.uib.cipr.matrix.DenseVector;
+import no.uib.cipr.matrix.sparse.CompRowMatrix;
+import no.uib.cipr.matrix.sparse.DiagonalPreconditioner;
+import no.uib.cipr.matrix.sparse.Preconditioner;
+
+/**
+ * Class for multi-threaded preconditioned iterative solution of sparse linear
+ * systems stored in compressed row storage or block compressed row storage.
+ * The rows of the matrix are split into blocks of nearly equal number of
+ * non-zeros (at node block boundaries for block storage), and matrix-vector
+ * products,
+ * dot products and vector updates are performed block-wise on a fork-join
+ * pool. Partial sums of dot products are added in block order, so that the
+ * results don't depend on thread scheduling. Diagonal preconditioning is
+ * applied in parallel, whereas incomplete factorization preconditioners are
+ * applied sequentially. The convergence criteria are those of the default
+ * iteration monitor of MTJ (relative tolerance 1e-5 on the 2-norm of the
+ * residual, absolute tolerance 1e-50, divergence tolerance 1e5 and at most
+ * 100000 iterations), except that the residual is measured relative to the
+ * norm of the right hand side rather than the initial residual. For a zero
+ * initial guess the two are identical, whereas a good initial guess saves
+ * iterations. For sequences of systems with the same matrix, conjugate
+ * gradients can be deflated by a small subspace of Ritz vectors which is
+ * recycled from solve to solve (see setDeflation).
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class ParallelIterativeSolver {
+
+	/** Static variable for the kernel type. */
+	private static final int mult_ = 0, resid_ = 1, dot_ = 2, axpy_ = 3,
+			xpay_ = 4, diag_ = 5, copy_ = 6;
+
+	/** Systems smaller than this are solved without forking. */
+	private static final int minRows_ = 5000;
+
+	/** Convergence parameters. */
+	private static final double rtol_ = 1.0e-5, atol_ = 1.0e-50, dtol_ = 1.0e5;
+
+	/** Maximum number of iterations. */
+	private static final int maxIter_ = 100000;
+
+	/** The fork-join pool. */
+	private ForkJoinPool pool_;
+
+	/** Matrix arrays. */
+	private int[] rowPtr_, col_;
+
+	/** Non-zero entries of matrix. */
+	private double[] val_;
+
+	/** Block compressed row matrix (null if compressed row storage is used). */
+	private BCRSMat bmat_;
+
+	/** First block rows of row blocks for block storage. */
+	private int[] blockRows_;
+
+	/** The number of equations. */
+	private int n_;
+
+	/** First rows of blocks (of length number of blocks + 1). */
+	private int[] blocks_;
+
+	/** Partial sums of blocks. */
+	private double[] partial_;
+
+	/** Inverse diagonal for diagonal preconditioning (null if not used). */
+	private double[] invDiag_;
+
+	/** Preconditioner applied sequentially (null if not used). */
+	private Preconditioner precond_;
+
+	/** Number of iterations performed. */
+	private int iterations_;
+
+	/** Reference (right hand side) and final residuals. */
+	private double residual0_, residual_;
+
+	/** Number of recycled Ritz vectors for deflation (0 if not used). */
+	private int deflation_ = 0;
+
+	/** Deflation vectors and their products with matrix (null if none). */
+	private double[][] w_, aw_;
+
+	/** Search directions and their products with matrix of the last solve. */
+	private double[][] p_, q_;
+
+	/**
+	 * Creates parallel iterative solver.
+	 * 
+	 * @param a
+	 *            Coefficient matrix.
+	 * @param precond
+	 *            Preconditioner (already set up with the coefficient matrix).
+	 * @param threads
+	 *            Number of threads. Zero or negative values mean all available
+	 *            processors.
+	 */
+	public ParallelIterativeSolver(CompRowMatrix a, Preconditioner precond,
+			int threads) {
+
+		// set matrix arrays
+		rowPtr_ = a.getRowPointers();
+		col_ = a.getColumnIndices();
+		val_ = a.getData();
+		n_ = a.numRows();
+
+		// partition rows into blocks of nearly equal non-zeros
+		int nb = createPool(threads);
+		blocks_ = new int[nb + 1];
+		long nnz = rowPtr_[n_];
+		int row = 0;
+		for (int k = 1; k < nb; k++) {
+			long target = nnz * k / nb;
+			while (row < n_ && rowPtr_[row] < target)
+				row++;
+			blocks_[k] = row;
+		}
+		blocks_[nb] = n_;
+		partial_ = new double[nb];
+
+		// compute diagonal
+		double[] diag = null;
+		if (precond instanceof DiagonalPreconditioner) {
+			diag = new double[n_];
+			for (int i = 0; i < n_; i++)
+				for (int j = rowPtr_[i]; j < rowPtr_[i + 1]; j++)
+					if (col_[j] == i)
+						diag[i] += val_[j];
+		}
+
+		// set preconditioner
+		setPreconditioner(precond, diag);
+	}
+
+	/**
+	 * Creates parallel iterative solver for block compressed row storage.
+	 * 
+	 * @param a
+	 *            Coefficient matrix.
+	 * @param precond
+	 *            Preconditioner (already set up with the coefficient matrix).
+	 * @param threads
+	 *            Number of threads. Zero or negative values mean all available
+	 *            processors.
+	 */
+	public ParallelIterativeSolver(BCRSMat a, Preconditioner precond,
+			int threads) {
+
+		// set matrix
+		bmat_ = a;
+		n_ = a.rowCount();
+
+		// partition block rows into blocks of nearly equal non-zeros
+		int nb = createPool(threads);
+		int nrb = a.getNumberOfBlocks();
+		nb = Math.max(1, Math.min(nb, nrb));
+		blockRows_ = new int[nb + 1];
+		long nnz = a.getNumberOfEntries(nrb);
+		int row = 0;
+		for (int k = 1; k < nb; k++) {
+			long target = nnz * k / nb;
+			while (row < nrb && a.getNumberOfEntries(row) < target)
+				row++;
+			blockRows_[k] = row;
+		}
+		blockRows_[nb] = nrb;
+		blocks_ = new int[nb + 1];
+		for (int k = 0; k <= nb; k++)
+			blocks_[k] = a.getBlockPointers()[blockRows_[k]];
+		partial_ = new double[nb];
+
+		// set preconditioner
+		setPreconditioner(precond, precond instanceof DiagonalPreconditioner ? a
+				.getDiagonal() : null);
+	}
+
+	/**
+	 * Creates the fork-join pool and returns the number of row blocks.
+	 * 
+	 * @param threads
+	 *            Number of threads. Zero or negative values mean all available
+	 *            processors.
+	 * @return The number of row blocks.
+	 */
+	private int createPool(int threads) {
+
+		// create pool
+		if (threads <= 0)
+			threads = Runtime.getRuntime().availableProcessors();
+		if (n_ < minRows_)
+			threads = 1;
+		if (threads > 1)
+			pool_ = new ForkJoinPool(threads);
+
+		// return number of row blocks
+		if (threads == 1)
+			return 1;
+		return Math.max(1, Math.min(n_, 4 * threads));
+	}
+
+	/**
+	 * Sets the preconditioner. Diagonal preconditioning is applied in
+	 * parallel using the given diagonal.
+	 * 
+	 * @param precond
+	 *            Preconditioner.
+	 * @param diag
+	 *            Diagonal of matrix (null if not diagonal preconditioner).
+	 */
+	private void setPreconditioner(Preconditioner precond, double[] diag) {
+
+		// diagonal preconditioner
+		if (diag != null) {
+			invDiag_ = new double[n_];
+			for (int i = 0; i < n_; i++) {
+				if (diag[i] == 0.0)
+					exceptionHandler("Zero diagonal entry in matrix!");
+				invDiag_[i] = 1.0 / diag[i];
+			}
+		}
+
+		// other preconditioners
+		else
+			precond_ = precond;
+	}
+
+	/**
+	 * Returns number of iterations performed.
+	 * 
+	 * @return Number of iterations performed.
+	 */
+	public int getIterations() {
+		return iterations_;
+	}
+
+	/**
+	 * Returns final residual (2-norm).
+	 * 
+	 * @return Final residual.
+	 */
+	public double getResidual() {
+		return residual_;
+	}
+
+	/**
+	 * Sets the number of Ritz vectors recycled for deflated conjugate
+	 * gradients. The first search directions of each solve are kept, and the
+	 * Ritz vectors of the smallest Ritz values in the span of these and the
+	 * current deflation vectors become the deflation vectors of the next
+	 * solve. Deflation removes the slowly converging part of the spectrum, so
+	 * that subsequent solves with the same matrix need fewer iterations.
+	 * 
+	 * @param k
+	 *            Number of recycled Ritz vectors. Zero disables deflation.
+	 */
+	public void setDeflation(int k) {
+
+		// check value
+		if (k < 0)
+			exceptionHandler("Illegal number of Ritz vectors for deflation!");
+
+		// set value and release deflation space
+		deflation_ = k;
+		w_ = null;
+		aw_ = null;
+		p_ = k == 0 ? null : new double[2 * k][];
+		q_ = k == 0 ? null : new double[2 * k][];
+	}
+
+	/**
+	 * Returns the number of current deflation vectors.
+	 * 
+	 * @return Number of current deflation vectors.
+	 */
+	public int getNumberOfDeflationVectors() {
+		return w_ == null ? 0 : w_.length;
+	}
+
+	/**
+	 * Releases the threads of the pool.
+	 */
+	public void shutdown() {
+		if (pool_ != null)
+			pool_.shutdown();
+		pool_ = null;
+	}
+
+	/**
+	 * Solves the system by preconditioned conjugate gradients. The given
+	 * solution vector is used as the initial guess.
+	 * 
+	 * @param b
+	 *            Right hand side vector.
+	 * @param x
+	 *            Solution vector.
+	 */
+	public void solveCG(double[] b, double[] x) {
+
+		// create vectors
+		double[] r = new double[n_], z = new double[n_];
+		double[] p = new double[n_], q = new double[n_];
+
+		// initial residual
+		start(b, x);
+		run(resid_, b, x, r, 0.0);
+		double rho = 0.0, rho1 = 0.0;
+
+		// coarse correction in deflation space
+		if (w_ != null) {
+			for (int j = 0; j < w_.length; j++) {
+				double c = run(dot_, w_[j], r, null, 0.0);
+				run(axpy_, w_[j], null, x, c);
+				run(axpy_, aw_[j], null, r, -c);
+			}
+		}
+
+		// loop over iterations
+		int collected = 0;
+		while (!converged(norm(r))) {
+
+			// apply preconditioner
+			precondition(r, z);
+			rho = run(dot_, r, z, null, 0.0);
+
+			// update search direction
+			if (iterations_ == 0)
+				run(copy_, z, null, p, 0.0);
+			else
+				run(xpay_, z, null, p, rho / rho1);
+
+			// make search direction conjugate to deflation space
+			if (w_ != null)
+				for (int j = 0; j < w_.length; j++)
+					run(axpy_, w_[j], null, p, -run(dot_, aw_[j], p, null,
+							0.0));
+
+			// update solution and residual
+			run(mult_, p, null, q, 0.0);
+			double alpha = rho / run(dot_, p, q, null, 0.0);
+			run(axpy_, p, null, x, alpha);
+			run(axpy_, q, null, r, -alpha);
+			rho1 = rho;
+			iterations_++;
+
+			// keep search direction for Ritz vectors
+			if (p_ != null && collected < p_.length) {
+				p_[collected] = p.clone();
+				q_[collected] = q.clone();
+				collected++;
+			}
+		}
+
+		// recycle Ritz vectors for the next solve
+		if (collected > 0)
+			recycle(collected);
+	}
+
+	/**
+	 * Solves the system by preconditioned biconjugate gradients stabilized.
+	 * The given solution vector is used as the initial guess.
+	 * 
+	 * @param b
+	 *            Right hand side vector.
+	 * @param x
+	 *            Solution vector.
+	 */
+	public void solveBiCGstab(double[] b, double[] x) {
+
+		// create vectors
+		double[] r = new double[n_], rtilde = new double[n_];
+		double[] p = new double[n_], phat = new double[n_];
+		double[] s = new double[n_], shat = new double[n_];
+		double[] t = new double[n_], v = new double[n_];
+
+		// initial residual
+		start(b, x);
+		run(resid_, b, x, r, 0.0);
+		run(copy_, r, null, rtilde, 0.0);
+		double rho1 = 1.0, rho2 = 1.0, alpha = 1.0, omega = 1.0;
+
+		// loop over iterations
+		while (!converged(norm(r))) {
+
+			// check for breakdown
+			rho1 = run(dot_, rtilde, r, null, 0.0);
+			if (rho1 == 0.0 || omega == 0.0)
+				exceptionHandler("Iterative solver failed to converge");
+
+			// update search direction
+			if (iterations_ == 0)
+				run(copy_, r, null, p, 0.0);
+			else {
+				double beta = (rho1 / rho2) * (alpha / omega);
+				run(axpy_, v, null, p, -omega);
+				run(xpay_, r, null, p, beta);
+			}
+
+			// first half step
+			precondition(p, phat);
+			run(mult_, phat, null, v, 0.0);
+			alpha = rho1 / run(dot_, rtilde, v, null, 0.0);
+			run(copy_, r, null, s, 0.0);
+			run(axpy_, v, null, s, -alpha);
+			run(axpy_, phat, null, x, alpha);
+			if (converged(norm(s)))
+				return;
+
+			// second half step
+			precondition(s, shat);
+			run(mult_, shat, null, t, 0.0);
+			omega = run(dot_, t, s, null, 0.0) / run(dot_, t, t, null, 0.0);
+			run(axpy_, shat, null, x, omega);
+			run(copy_, s, null, r, 0.0);
+			run(axpy_, t, null, r, -omega);
+			rho2 = rho1;
+			iterations_++;
+		}
+	}
+
+	/**
+	 * Starts a solve by computing the reference residual. Zero right hand side
+	 * gives zero solution.
+	 * 
+	 * @param b
+	 *            Right hand side vector.
+	 * @param x
+	 *            Solution vector.
+	 */
+	private void start(double[] b, double[] x) {
+		iterations_ = 0;
+		residual0_ = norm(b);
+		if (residual0_ == 0.0)
+			Arrays.fill(x, 0.0);
+	}
+
+	/**
+	 * Replaces the deflation vectors by the Ritz vectors of the smallest Ritz
+	 * values in the span of the current deflation vectors and the kept search
+	 * directions. The Ritz vectors are scaled to unit energy norm, so that the
+	 * projected matrix of the deflation space is the identity. The deflation
+	 * space is kept if the search directions are linearly dependent.
+	 * 
+	 * @param collected
+	 *            Number of kept search directions.
+	 */
+	private void recycle(int collected) {
+
+		// collect basis and its products with matrix
+		int nw = w_ == null ? 0 : w_.length, s = nw + collected;
+		double[][] z = new double[s][], az = new double[s][];
+		for (int i = 0; i < nw; i++) {
+			z[i] = w_[i];
+			az[i] = aw_[i];
+		}
+		for (int i = 0; i < collected; i++) {
+			z[nw + i] = p_[i];
+			az[nw + i] = q_[i];
+			p_[i] = null;
+			q_[i] = null;
+		}
+
+		// compute projected matrices
+		Matrix g = new Matrix(s, s), f = new Matrix(s, s);
+		for (int i = 0; i < s; i++) {
+			for (int j = 0; j <= i; j++) {
+				double gij = 0.5 * (run(dot_, z[i], az[j], null, 0.0) + run(
+						dot_, z[j], az[i], null, 0.0));
+				double fij = run(dot_, z[i], z[j], null, 0.0);
+				g.set(i, j, gij);
+				g.set(j, i, gij);
+				f.set(i, j, fij);
+				f.set(j, i, fij);
+			}
+		}
+
+		// reduce generalized eigenproblem to standard form
+		CholeskyDecomposition chol = f.chol();
+		if (!chol.isSPD())
+			return;
+		Matrix l = chol.getL();
+		Matrix li = l.inverse();
+		Matrix c = li.times(g).times(li.transpose());
+		c = c.plus(c.transpose()).times(0.5);
+
+		// solve eigenproblem (eigenvalues are in ascending order)
+		EigenvalueDecomposition evd = c.eig();
+		double[] theta = evd.getRealEigenvalues();
+		Matrix y = li.transpose().times(evd.getV());
+
+		// create Ritz vectors of smallest positive Ritz values
+		int k = 0;
+		for (int j = 0; j < s && k < deflation_; j++)
+			if (theta[j] > 0.0)
+				k++;
+		double[][] w = new double[k][n_], aw = new double[k][n_];
+		k = 0;
+		for (int j = 0; j < s && k < w.length; j++) {
+			if (theta[j] <= 0.0)
+				continue;
+			double scale = 1.0 / Math.sqrt(theta[j]);
+			for (int i = 0; i < s; i++) {
+				double a = scale * y.get(i, j);
+				run(axpy_, z[i], null, w[k], a);
+				run(axpy_, az[i], null, aw[k], a);
+			}
+			k++;
+		}
+		w_ = k == 0 ? null : w;
+		aw_ = k == 0 ? null : aw;
+	}
+
+	/**
+	 * Checks convergence for the given residual norm.
+	 * 
+	 * @param r
+	 *            Residual norm.
+	 * @return True if converged.
+	 */
+	private boolean converged(double r) {
+
+		// set residual
+		residual_ = r;
+
+		// check convergence, divergence and number of iterations
+		if (r < Math.max(rtol_ * residual0_, atol_))
+			return true;
+		if (r > dtol_ * residual0_ || iterations_ >= maxIter_
+				|| Double.isNaN(r))
+			exceptionHandler("Iterative solver failed to converge");
+		return false;
+	}
+
+	/**
+	 * Returns the 2-norm of the given vector.
+	 * 
+	 * @param a
+	 *            The vector.
+	 * @return The 2-norm of the vector.
+	 */
+	private double norm(double[] a) {
+		return Math.sqrt(run(dot_, a, a, null, 0.0));
+	}
+
+	/**
+	 * Applies preconditioner (z = M r).
+	 * 
+	 * @param r
+	 *            The vector to be preconditioned.
+	 * @param z
+	 *            The preconditioned vector.
+	 */
+	private void precondition(double[] r, double[] z) {
+
+		// diagonal preconditioner
+		if (invDiag_ != null)
+			run(diag_, r, invDiag_, z, 0.0);
+
+		// sequential preconditioner
+		else if (precond_ != null)
+			precond_.apply(new DenseVector(r, false),
+					new DenseVector(z, false));
+
+		// no preconditioner
+		else
+			run(copy_, r, null, z, 0.0);
+	}
+
+	/**
+	 * Runs the given kernel on all blocks and returns the sum of partial
+	 * results (for dot products).
+	 * 
+	 * @param op
+	 *            Kernel type.
+	 * @param a
+	 *            First operand.
+	 * @param b
+	 *            Second operand.
+	 * @param c
+	 *            Result vector.
+	 * @param s
+	 *            Scalar operand.
+	 * @return The sum of partial results.
+	 */
+	private double run(int op, double[] a, double[] b, double[] c, double s) {
+
+		// run blocks
+		int nb = blocks_.length - 1;
+		if (pool_ == null)
+			for (int k = 0; k < nb; k++)
+				kernel(op, k, a, b, c, s);
+		else
+			pool_.invoke(new Task(op, 0, nb, a, b, c, s));
+
+		// sum partial results in block order
+		double sum = 0.0;
+		if (op == dot_)
+			for (int k = 0; k < nb; k++)
+				sum += partial_[k];
+		return sum;
+	}
+
+	/**
+	 * Runs the given kernel on a block of rows.
+	 * 
+	 * @param op
+	 *            Kernel type.
+	 * @param k
+	 *            Block index.
+	 * @param a
+	 *            First operand.
+	 * @param b
+	 *            Second operand.
+	 * @param c
+	 *            Result vector.
+	 * @param s
+	 *            Scalar operand.
+	 */
+	private void kernel(int op, int k, double[] a, double[] b, double[] c,
+			double s) {
+
+		// get block rows
+		int lo = blocks_[k], hi = blocks_[k + 1];
+
+		// matrix-vector product for block storage (c = A a)
+		if (op == mult_ && bmat_ != null)
+			bmat_.multiply(a, c, blockRows_[k], blockRows_[k + 1]);
+
+		// residual for block storage (c = a - A b)
+		else if (op == resid_ && bmat_ != null) {
+			bmat_.multiply(b, c, blockRows_[k], blockRows_[k + 1]);
+			for (int i = lo; i < hi; i++)
+				c[i] = a[i] - c[i];
+		}
+
+		// matrix-vector product (c = A a)
+		else if (op == mult_) {
+			for (int i = lo; i < hi; i++) {
+				double sum = 0.0;
+				for (int j = rowPtr_[i]; j < rowPtr_[i + 1]; j++)
+					sum += val_[j] * a[col_[j]];
+				c[i] = sum;
+			}
+		}
+
+		// residual (c = a - A b)
+		else if (op == resid_) {
+			for (int i = lo; i < hi; i++) {
+				double sum = a[i];
+				for (int j = rowPtr_[i]; j < rowPtr_[i + 1]; j++)
+					sum -= val_[j] * b[col_[j]];
+				c[i] = sum;
+			}
+		}
+
+		// dot product (a . b)
+		else if (op == dot_) {
+			double sum = 0.0;
+			for (int i = lo; i < hi; i++)
+				sum += a[i] * b[i];
+			partial_[k] = sum;
+		}
+
+		// c = c + s a
+		else if (op == axpy_) {
+			for (int i = lo; i < hi; i++)
+				c[i] += s * a[i];
+		}
+
+		// c = a + s c
+		else if (op == xpay_) {
+			for (int i = lo; i < hi; i++)
+				c[i] = a[i] + s * c[i];
+		}
+
+		// c = a * b (element-wise)
+		else if (op == diag_) {
+			for (int i = lo; i < hi; i++)
+				c[i] = a[i] * b[i];
+		}
+
+		// c = a
+		else if (op == copy_)
+			System.arraycopy(a, lo, c, lo, hi - lo);
+	}
+
+	/**
+	 * Throws exception with the related message.
+	 * 
+	 * @param arg0
+	 *            The message to be displayed.
+	 */
+	private void exceptionHandler(String arg0) {
+
+		// throw exception with the related message
+		throw new IllegalArgumentException(arg0);
+	}
+
+	/**
+	 * Inner class for running a kernel on a range of blocks.
+	 * 
+	 * @author Murat Artim
+	 * 
+	 */
+	private class Task extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Kernel type and range of blocks. */
+		private int op_, lo_, hi_;
+
+		/** Operand vectors. */
+		private double[] a_, b_, c_;
+
+		/** Scalar operand. */
+		private double s_;
+
+		/**
+		 * Creates task.
+		 * 
+		 * @param op
+		 *            Kernel type.
+		 * @param lo
+		 *            First block.
+		 * @param hi
+		 *            Last block (exclusive).
+		 * @param a
+		 *            First operand.
+		 * @param b
+		 *            Second operand.
+		 * @param c
+		 *            Result vector.
+		 * @param s
+		 *            Scalar operand.
+		 */
+		private Task(int op, int lo, int hi, double[] a, double[] b,
+				double[] c, double s) {
+			op_ = op;
+			lo_ = lo;
+			hi_ = hi;
+			a_ = a;
+			b_ = b;
+			c_ = c;
+			s_ = s;
+		}
+
+		@Override
+		protected void compute() {
+
+			// single block
+			if (hi_ - lo_ == 1)
+				kernel(op_, lo_, a_, b_, c_, s_);
+
+			// split range
+			else {
+				int mid = (lo_ + hi_) >>> 1;
+				invokeAll(new Task(op_, lo_, mid, a_, b_, c_, s_), new Task(
+						op_, mid, hi_, a_, b_, c_, s_));
+			}
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.util.Arrays;
+
+import matrix.USB1Mat;
+
+/**
+ * Class for active column (skyline) L*D*L(T) factorization of symmetric
+ * matrices stored in USB1 form (Bathe-p708). The factorization is performed in
+ * place, the storage array of the given matrix is replaced by the factors.
+ * Symmetric indefinite matrices can also be factorized (without pivoting), in
+ * which case the number of negative pivots gives the number of negative
+ * eigenvalues of the matrix (Sturm sequence property).
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class SkylineFactorization extends Factorization {
+
+	/** Number of equations. */
+	private int n_;
+
+	/** Storage array of the factorized matrix. */
+	private double[] a_;
+
+	/** Array containing the adresses of diagonal elements. */
+	private int[] maxa_;
+
+	/** True if the matrix is allowed to be indefinite. */
+	private boolean indefinite_;
+
+	/** Number of negative pivots. */
+	private int negative_;
+
+	/**
+	 * Creates factorization of the given matrix. The matrix is replaced by its
+	 * factors.
+	 * 
+	 * @param a
+	 *            Matrix to be factorized (assumed positive definite).
+	 */
+	public SkylineFactorization(USB1Mat a) {
+
+		// set storage arrays
+		n_ = a.rowCount();
+		a_ = a.getData();
+		maxa_ = a.getAdresses();
+
+		// triangularize matrix
+		decompose();
+	}
+
+	/**
+	 * Creates factorization of the given symmetric (possibly indefinite)
+	 * matrix. The matrix is replaced by its factors.
+	 * 
+	 * @param a
+	 *            Matrix to be factorized.
+	 * @param indefinite
+	 *            True if the matrix is allowed to be indefinite. Zero pivots
+	 *            are not allowed in either case.
+	 */
+	public SkylineFactorization(USB1Mat a, boolean indefinite) {
+
+		// set storage arrays
+		n_ = a.rowCount();
+		a_ = a.getData();
+		maxa_ = a.getAdresses();
+		indefinite_ = indefinite;
+
+		// triangularize matrix
+		decompose();
+	}
+
+	/**
+	 * Returns the number of negative pivots (the number of negative
+	 * eigenvalues of the factorized matrix).
+	 * 
+	 * @return The number of negative pivots.
+	 */
+	public int getNumberOfNegativePivots() {
+		return negative_;
+	}
+
+	@Override
+	public int size() {
+		return n_;
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		return 8L * a_.length + 4L * maxa_.length;
+	}
+
+	@Override
+	public void solve(double[] b, double[] x) {
+
+		// copy right hand side vector to solution vector
+		if (b != x)
+			System.arraycopy(b, 0, x, 0, n_);
+
+		// reduce and back-substitute
+		reduce(x);
+		backSubstitute(x);
+	}
+
+	@Override
+	public void solve(double[][] b, double[][] x) {
+
+		// get storage arrays
+		double[] a = a_;
+		int[] maxa = maxa_;
+
+		// interleave right hand side vectors
+		int m = b.length;
+		double[] v = pack(b, n_);
+		double[] c = new double[m];
+
+		// reduce right hand side vectors (L V = B)
+		for (int n = 0; n < n_; n++) {
+			int kl = maxa[n] + 1;
+			int ku = maxa[n + 1] - 1;
+			if (ku >= kl) {
+				int k = n;
+				Arrays.fill(c, 0.0);
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					double akk = a[kk];
+					int ok = k * m;
+					for (int j = 0; j < m; j++)
+						c[j] += akk * v[ok + j];
+				}
+				int on = n * m;
+				for (int j = 0; j < m; j++)
+					v[on + j] -= c[j];
+			}
+		}
+
+		// divide by diagonal elements
+		for (int n = 0; n < n_; n++) {
+			double d = a[maxa[n]];
+			int on = n * m;
+			for (int j = 0; j < m; j++)
+				v[on + j] /= d;
+		}
+
+		// back-substitute in reverse order (L(T) X = V)
+		for (int n = n_ - 1; n > 0; n--) {
+			int kl = maxa[n] + 1;
+			int ku = maxa[n + 1] - 1;
+			if (ku >= kl) {
+				int k = n;
+				int on = n * m;
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					double akk = a[kk];
+					int ok = k * m;
+					for (int j = 0; j < m; j++)
+						v[ok + j] -= akk * v[on + j];
+				}
+			}
+		}
+
+		// copy solution vectors
+		unpack(v, x);
+	}
+
+	/**
+	 * Performs L*D*L(T) factorization of the matrix in place.
+	 * 
+	 */
+	private void decompose() {
+
+		// get storage arrays
+		double[] a = a_;
+		int[] maxa = maxa_;
+
+		// loop over columns
+		for (int n = 0; n < n_; n++) {
+
+			// get adresses of the column
+			int kn = maxa[n];
+			int kl = kn + 1;
+			int ku = maxa[n + 1] - 1;
+			int kh = ku - kl;
+
+			// reduce off-diagonal elements of the column
+			if (kh > 0) {
+				int k = n - kh;
+				int ic = 0;
+				int klt = ku;
+				for (int j = 0; j < kh; j++) {
+					ic++;
+					klt--;
+					int ki = maxa[k];
+					int nd = maxa[k + 1] - ki - 1;
+					if (nd > 0) {
+						int kk = Math.min(ic, nd);
+						double c = 0.0;
+						for (int l = 1; l <= kk; l++)
+							c += a[ki + l] * a[klt + l];
+						a[klt] -= c;
+					}
+					k++;
+				}
+			}
+
+			// reduce diagonal element
+			if (kh >= 0) {
+				int k = n;
+				double b = 0.0;
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					int ki = maxa[k];
+					double c = a[kk] / a[ki];
+					b += c * a[kk];
+					a[kk] = c;
+				}
+				a[kn] -= b;
+			}
+
+			// check pivot
+			if (indefinite_) {
+				if (a[kn] == 0.0 || Double.isNaN(a[kn]))
+					exceptionHandler("Matrix is singular!");
+				else if (a[kn] < 0.0)
+					negative_++;
+			} else if (a[kn] <= 0.0)
+				exceptionHandler("Stiffness matrix is not positive definite!");
+		}
+	}
+
+	/**
+	 * Reduces right hand side vector (L v = b).
+	 * 
+	 * @param v
+	 *            Right hand side vector. Replaced by the reduced vector.
+	 */
+	private void reduce(double[] v) {
+
+		// get storage arrays
+		double[] a = a_;
+		int[] maxa = maxa_;
+
+		// loop over equations
+		for (int n = 0; n < n_; n++) {
+			int kl = maxa[n] + 1;
+			int ku = maxa[n + 1] - 1;
+			if (ku >= kl) {
+				int k = n;
+				double c = 0.0;
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					c += a[kk] * v[k];
+				}
+				v[n] -= c;
+			}
+		}
+	}
+
+	/**
+	 * Back-substitutes reduced vector (D L(T) x = v).
+	 * 
+	 * @param v
+	 *            Reduced vector. Replaced by the solution vector.
+	 */
+	private void backSubstitute(double[] v) {
+
+		// get storage arrays
+		double[] a = a_;
+		int[] maxa = maxa_;
+
+		// divide by diagonal elements
+		for (int n = 0; n < n_; n++)
+			v[n] /= a[maxa[n]];
+
+		// loop over equations in reverse order
+		for (int n = n_ - 1; n > 0; n--) {
+			int kl = maxa[n] + 1;
+			int ku = maxa[n + 1] - 1;
+			if (ku >= kl) {
+				int k = n;
+				for (int kk = kl; kk <= ku; kk++) {
+					k--;
+					v[k] -= a[kk] * v[n];
+				}
+			}
+		}
+	}
+}
@@ -29,14 +29,15 @@ public abstract class Solver implements Serializable {
 
 	/** Static variable for the solver type. */
 	public static final int solver0_ = 0, solver1_ = 1, solver2_ = 2,
-			solver3_ = 3, solver4_ = 4;
+			solver3_ = 3, solver4_ = 4, solver5_ = 5, solver6_ = 6,
+			solver7_ = 7;
 
 	/** Static variable for the problem type of solver. */
 	public static final int linearSystem_ = 0, eigenSystem_ = 1;
 
 	/** Static variable for the storage type of solver. */
 	public static final int CDS_ = 0, CRS_ = 1, USPS_ = 2, USB1S_ = 3,
-			USB2S_ = 4;
+			USB2S_ = 4, BCRS_ = 5, USB3S_ = 6;
 
 	/** The name of solver. */
 	private String name_;
@@ -15,11 +15,14 @@
  */
 package solver;
 
+import no.uib.cipr.matrix.Matrix;
+import no.uib.cipr.matrix.Vector;
 import no.uib.cipr.matrix.sparse.BiCG;
 import no.uib.cipr.matrix.sparse.BiCGstab;
 import no.uib.cipr.matrix.sparse.CG;
 import no.uib.cipr.matrix.sparse.CGS;
 import no.uib.cipr.matrix.sparse.CompRowMatrix;
+import no.uib.cipr.matrix.sparse.DefaultIterationMonitor;
 import no.uib.cipr.matrix.sparse.DiagonalPreconditioner;
 import no.uib.cipr.matrix.sparse.GMRES;
 import no.uib.cipr.matrix.sparse.ICC;
@@ -29,7 +32,9 @@ import no.uib.cipr.matrix.sparse.IterativeSolver;
 import no.uib.cipr.matrix.sparse.IterativeSolverNotConvergedException;
 import no.uib.cipr.matrix.sparse.Preconditioner;
 import no.uib.cipr.matrix.sparse.QMR;
+import matrix.BCRSMat;
 import matrix.CDSMat;
+import matrix.CRSMat;
 import matrix.DVec;
 import matrix.Mat;
 
@@ -56,7 +61,26 @@ import matrix.Mat;
  * preconditioner without fill-in using a compressed row matrix as internal
  * storage. ILU : ILU(0) preconditioner using a compressed row matrix as
  * internal storage. DP : Diagonal preconditioner. Uses the inverse of the
- * diagonal as preconditioner.
+ * diagonal as preconditioner. AMG : Smoothed aggregation algebraic multigrid
+ * preconditioner. The hierarchy is built from the coefficient matrix using the
+ * node dof blocks and rigid body modes of the structure as near null space (see
+ * setNearNullSpace), which gives nearly mesh independent iteration counts for
+ * CG. The incomplete factors and the multigrid hierarchy are built directly
+ * on the coefficient matrix in compressed row storage (CRSMat), the incomplete
+ * factors are created on the sparsity pattern of the coefficient matrix. With
+ * the diagonal preconditioner, the coefficient matrix is expected in block
+ * compressed row storage (BCRSMat) with the node blocks of the structure, so
+ * that matrix-vector products are performed block-wise. CG and BiCGstab are
+ * run by a multi-threaded engine (matrix-vector products, dot products and
+ * vector updates are performed in parallel) with the same convergence
+ * criteria as MTJ. The number of threads can be set; zero means all
+ * available processors. The given solution vector is used as the initial
+ * guess, and the residual is measured relative to the norm of the right hand
+ * side, so that a good initial guess (such as an extrapolation of the previous
+ * step of a time integration) saves iterations.
+ * For sequences of solves with the same coefficient matrix, CG can recycle a
+ * small number of Ritz vectors from solve to solve as deflation space (see
+ * setRecycledVectors).
  * 
  * @author Murat Artim
  * 
@@ -70,7 +94,7 @@ public class Solver0 extends LESolver {
 			QMR_ = 4, GMRES_ = 5, IR_ = 6;
 
 	/** Static variable for the preconditioner type. */
-	public static final int ICC_ = 0, ILU_ = 1, DP_ = 2;
+	public static final int ICC_ = 0, ILU_ = 1, DP_ = 2, AMG_ = 3;
 
 	/** Iterative solver type. */
 	private int solverType_;
@@ -78,9 +102,30 @@ public class Solver0 extends LESolver {
 	/** Preconditioner type. */
 	private int precondType_;
 
+	/** Number of threads for the parallel engine (0 for all processors). */
+	private int threads_ = 0;
+
+	/** Number of recycled Ritz vectors for deflated CG (0 if not used). */
+	private transient int recycle_ = 0;
+
+	/** Dof blocks for the multigrid preconditioner. */
+	private transient int[][] blocks_;
+
+	/** Near null space vectors for the multigrid preconditioner. */
+	private transient double[][] modes_;
+
 	/** Iterative solver. */
 	private IterativeSolver solver_;
 
+	/** Parallel iterative solver engine. */
+	private transient ParallelIterativeSolver engine_;
+
+	/** Number of iterations performed. */
+	private int iterations_;
+
+	/** Final residual. */
+	private double residual_;
+
 	/**
 	 * Creates linear system iterative solver.
 	 * 
@@ -104,6 +149,74 @@ public class Solver0 extends LESolver {
 		precondType_ = precondType;
 	}
 
+	/**
+	 * Sets number of threads used by the parallel engine.
+	 * 
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 */
+	public void setThreads(int threads) {
+
+		// check value
+		if (threads < 0)
+			exceptionHandler("Illegal number of threads for iterative solver!");
+
+		// set value
+		threads_ = threads;
+	}
+
+	/**
+	 * Returns number of threads used by the parallel engine.
+	 * 
+	 * @return Number of threads. Zero means all available processors.
+	 */
+	public int getThreads() {
+		return threads_;
+	}
+
+	/**
+	 * Sets the near null space of the coefficient matrix for the algebraic
+	 * multigrid preconditioner. This is ignored by other preconditioners.
+	 * 
+	 * @param blocks
+	 *            Dof blocks (the equation numbers of each node). Null if each
+	 *            dof is a block by itself.
+	 * @param modes
+	 *            Near null space vectors ([dof][vector]), such as rigid body
+	 *            modes. Null for the constant vector.
+	 */
+	public void setNearNullSpace(int[][] blocks, double[][] modes) {
+		blocks_ = blocks;
+		modes_ = modes;
+	}
+
+	/**
+	 * Sets the number of Ritz vectors recycled across solves with the same
+	 * coefficient matrix. This is only used by CG, and has to be set before
+	 * initialization. It is reset when the solver is cleared.
+	 * 
+	 * @param k
+	 *            Number of recycled Ritz vectors. Zero disables deflation.
+	 */
+	public void setRecycledVectors(int k) {
+
+		// check value
+		if (k < 0)
+			exceptionHandler("Illegal number of recycled vectors for iterative solver!");
+
+		// set value
+		recycle_ = k;
+	}
+
+	/**
+	 * Returns the number of Ritz vectors recycled across solves.
+	 * 
+	 * @return Number of recycled Ritz vectors.
+	 */
+	public int getRecycledVectors() {
+		return recycle_;
+	}
+
 	/**
 	 * Returns the preconditioner type of this solver.
 	 * 
@@ -119,7 +232,7 @@ public class Solver0 extends LESolver {
 	 * @return Number of iterations performed.
 	 */
 	public int getIterations() {
-		return solver_.getIterationMonitor().iterations();
+		return iterations_;
 	}
 
 	/**
@@ -128,7 +241,7 @@ public class Solver0 extends LESolver {
 	 * @return Final residual.
 	 */
 	public double getResidual() {
-		return solver_.getIterationMonitor().residual();
+		return residual_;
 	}
 
 	@Override
@@ -143,10 +256,12 @@ public class Solver0 extends LESolver {
 
 	@Override
 	public int getStorageType() {
-		if (precondType_ == Solver0.DP_)
-			return Solver.CDS_;
-		else
+
+		// incomplete factors and multigrid hierarchy are built on compressed
+		// row storage
+		if (precondType_ != Solver0.DP_)
 			return Solver.CRS_;
+		return Solver.BCRS_;
 	}
 
 	@Override
@@ -157,25 +272,67 @@ public class Solver0 extends LESolver {
 	@Override
 	public void initialize(Mat matA, DVec vecX) {
 
-		// cast matrix
-		CDSMat a = (CDSMat) matA;
-
 		// allocate storage for the selected solver type
 		createSolver(vecX);
 
 		// create and set up the selected preconditioner
-		createPreconditioner(a);
+		Preconditioner M = createPreconditioner(matA);
+
+		// shut down previous engine
+		if (engine_ != null)
+			engine_.shutdown();
+		engine_ = null;
+
+		// create parallel engine for CG and BiCGstab
+		Matrix a = getMatrix(matA);
+		boolean parallel = solverType_ == Solver0.CG_
+				|| solverType_ == Solver0.BiCGstab_;
+		if (parallel && a instanceof CompRowMatrix)
+			engine_ = new ParallelIterativeSolver((CompRowMatrix) a, M,
+					threads_);
+		else if (parallel && matA instanceof BCRSMat)
+			engine_ = new ParallelIterativeSolver((BCRSMat) matA, M, threads_);
+
+		// set deflation for CG
+		if (engine_ != null && solverType_ == Solver0.CG_)
+			engine_.setDeflation(recycle_);
 	}
 
 	@Override
 	public void solve(Mat matA, DVec vecB, DVec vecX) {
 
-		// cast matrix
-		CDSMat a = (CDSMat) matA;
+		// parallel engine
+		if (engine_ != null) {
+			double[] b = vecB.vec_.getData(), x = vecX.vec_.getData();
+			if (solverType_ == Solver0.CG_)
+				engine_.solveCG(b, x);
+			else
+				engine_.solveBiCGstab(b, x);
+			iterations_ = engine_.getIterations();
+			residual_ = engine_.getResidual();
+			return;
+		}
+
+		// measure residual relative to right hand side
+		Vector b = vecB.vec_, x = vecX.vec_;
+		DefaultIterationMonitor monitor = new DefaultIterationMonitor();
+		double norm = b.norm(Vector.Norm.Two);
+		if (norm == 0.0)
+			x.zero();
+		else if (x.norm(Vector.Norm.Two) != 0.0) {
+			Vector r = b.copy();
+			getMatrix(matA).multAdd(-1.0, x, r);
+			double r0 = r.norm(Vector.Norm.Two);
+			if (r0 != 0.0)
+				monitor.setRelativeTolerance(1.0e-5 * norm / r0);
+		}
+		solver_.setIterationMonitor(monitor);
 
 		// start the solver, and check for problems
 		try {
-			solver_.solve(a.mat_, vecB.vec_, vecX.vec_);
+			solver_.solve(getMatrix(matA), vecB.vec_, vecX.vec_);
+			iterations_ = solver_.getIterationMonitor().iterations();
+			residual_ = solver_.getIterationMonitor().residual();
 		}
 
 		// problem occured
@@ -187,6 +344,12 @@ public class Solver0 extends LESolver {
 	@Override
 	public void clear() {
 		solver_ = null;
+		recycle_ = 0;
+		blocks_ = null;
+		modes_ = null;
+		if (engine_ != null)
+			engine_.shutdown();
+		engine_ = null;
 	}
 
 	/**
@@ -238,36 +401,89 @@ public class Solver0 extends LESolver {
 	 * iterative solver.
 	 * 
 	 * @param matA
-	 *            Coefficient matrix (A). Has to be compressed-diagonal-storage
-	 *            sparse matrix (CDSMat).
+	 *            Coefficient matrix (A). Has to be block-compressed-row-storage
+	 *            sparse matrix (BCRSMat), compressed-row-storage sparse matrix
+	 *            (CRSMat) or compressed-diagonal-storage sparse matrix
+	 *            (CDSMat).
+	 * @return The preconditioner.
 	 */
-	private void createPreconditioner(CDSMat matA) {
+	private Preconditioner createPreconditioner(Mat matA) {
 
 		// initialize preconditioner
 		Preconditioner M = null;
+		Matrix a = getMatrix(matA);
 
 		// Cholesky preconditioner without fill-in (ICC)
 		if (precondType_ == Solver0.ICC_) {
-			CompRowMatrix a = new CompRowMatrix(matA.mat_);
-			M = new ICC(a);
-			M.setMatrix(matA.mat_);
+			CompRowMatrix factor = createFactorStorage(matA);
+			M = new ICC(factor);
+			M.setMatrix(factor);
 		}
 
 		// Incomplete LU preconditioner without fill-in (ILU)
 		else if (precondType_ == Solver0.ILU_) {
-			CompRowMatrix a = new CompRowMatrix(matA.mat_);
-			M = new ILU(a);
-			M.setMatrix(matA.mat_);
+			CompRowMatrix factor = createFactorStorage(matA);
+			M = new ILU(factor);
+			M.setMatrix(factor);
 		}
 
 		// Diagonal preconditioner (DP)
 		else if (precondType_ == Solver0.DP_) {
 			M = new DiagonalPreconditioner(matA.rowCount());
-			M.setMatrix(matA.mat_);
+			M.setMatrix(a);
+		}
+
+		// Smoothed aggregation algebraic multigrid preconditioner (AMG)
+		else if (precondType_ == Solver0.AMG_) {
+			M = new AMGPreconditioner(blocks_, modes_);
+			M.setMatrix(a instanceof CompRowMatrix ? a
+					: createFactorStorage(matA));
 		}
 
 		// attach preconditioner to solver
 		solver_.setPreconditioner(M);
+		return M;
+	}
+
+	/**
+	 * Returns the internal MTJ matrix of the given coefficient matrix.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be either BCRSMat, CRSMat or
+	 *            CDSMat.
+	 * @return The internal matrix.
+	 */
+	private Matrix getMatrix(Mat matA) {
+
+		// block compressed row storage
+		if (matA instanceof BCRSMat)
+			return ((BCRSMat) matA).mat_;
+
+		// compressed row storage
+		if (matA instanceof CRSMat)
+			return ((CRSMat) matA).mat_;
+
+		// compressed diagonal storage
+		return ((CDSMat) matA).mat_;
+	}
+
+	/**
+	 * Creates the storage for incomplete factors. The factors are stored on
+	 * the sparsity pattern of the coefficient matrix, and the storage is
+	 * initialized with the entries of the coefficient matrix.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A).
+	 * @return The storage for incomplete factors.
+	 */
+	private CompRowMatrix createFactorStorage(Mat matA) {
+
+		// compressed row storage
+		if (matA instanceof CRSMat)
+			return ((CRSMat) matA).mat_.copy();
+
+		// other storage
+		return new CompRowMatrix(getMatrix(matA));
 	}
 
 	/**
@@ -285,7 +501,7 @@ public class Solver0 extends LESolver {
 			exceptionHandler("Invalid solver type for iterative solver!");
 
 		// check preconditioner type
-		if (precondType < 0 || precondType > 2)
+		if (precondType < 0 || precondType > 3)
 			exceptionHandler("Invalid preconditioner type for iterative solver!");
 	}
 }
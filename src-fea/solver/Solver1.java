@@ -15,13 +15,6 @@
  */
 package solver;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-
 import matrix.Mat;
 import matrix.USB1Mat;
 import matrix.DVec;
@@ -29,8 +22,11 @@ import matrix.DVec;
 /**
  * Class for direct-active column-linear equation solver. It can be used for
  * solving linear system of equations (A x = b). It is an implementation of
- * Gauss elimination procedure. This class uses an external executable file
- * called "COLSOL.exe".
+ * Gauss elimination procedure in the form of active column (skyline) L*D*L(T)
+ * factorization (Bathe-p708). The factorization is performed in place on the
+ * internal storage array of the coefficient matrix and kept in memory, so that
+ * any number of right hand side vectors can be reduced and back-substituted
+ * without refactorizing.
  * 
  * @author Murat Artim
  * 
@@ -39,6 +35,9 @@ public class Solver1 extends LESolver {
 
 	private static final long serialVersionUID = 1L;
 
+	/** Factorization of the coefficient matrix. */
+	private transient SkylineFactorization factor_;
+
 	/**
 	 * Creates active column solver.
 	 * 
@@ -69,164 +68,29 @@ public class Solver1 extends LESolver {
 		return Solver.solver1_;
 	}
 
+	/**
+	 * Initializes solver by triangularizing the coefficient matrix. The
+	 * coefficient matrix is replaced by its L*D*L(T) factors.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be in USB1 form (assumed
+	 *            positive definite).
+	 * @param vecX
+	 *            Solution vector (x).
+	 */
 	@Override
 	public void initialize(Mat matA, DVec vecX) {
 
 		// cast matrix
 		USB1Mat a = (USB1Mat) matA;
 
-		// initialize buffered writer
-		BufferedWriter bwriter = null;
-
-		try {
-
-			// create input file
-			File input = new File("INPUT.txt");
-
-			// create file writer
-			FileWriter writer = new FileWriter(input);
-
-			// create buffered writer
-			bwriter = new BufferedWriter(writer);
-
-			// write header to input
-			bwriter.write("P A R A M E T E R S");
-			bwriter.newLine();
-
-			// number of equations
-			bwriter.write(Integer.toString(a.rowCount()));
-			bwriter.newLine();
-
-			// number of elements below skyline of matrix
-			bwriter.write(Integer.toString(a.getData().length));
-			bwriter.newLine();
-
-			// dimension of adresses array
-			bwriter.write(Integer.toString(a.getAdresses().length));
-			bwriter.newLine();
-
-			// triangularization of stiffness matrix
-			bwriter.write(Integer.toString(1));
-			bwriter.newLine();
-
-			// write matrices/vectors
-			write(a, vecX, bwriter);
-
-			// delete marices/vectors
-			a.delete();
-			vecX.delete();
-		}
-
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
-		}
-
-		// close writer
-		finally {
-
-			// check if the writer is null
-			if (bwriter != null) {
-				try {
-
-					// close writer
-					bwriter.close();
-				} catch (IOException io) {
-				}
-			}
-		}
-
-		// initialize buffered reader and file
-		BufferedReader breader = null;
-		File file = null;
-
-		try {
-
-			// create file
-			file = new File("solvers/COLSOL.exe");
-
-			// solver exists
-			if (file.exists()) {
-
-				// execute solver
-				Process p = Runtime.getRuntime().exec("solvers/COLSOL.exe");
-				p.waitFor();
-
-				// get output file
-				file = new File("OUTPUT.txt");
-
-				// output file exists
-				if (file.exists()) {
-
-					// create file reader
-					FileReader reader = new FileReader(file);
-
-					// create buffered reader
-					breader = new BufferedReader(reader);
-
-					// check if successfull exit
-					String exit = breader.readLine();
-					if (exit.equalsIgnoreCase("*** SUCCESSFULL EXIT ***")) {
-
-						// reallocate marices/vectors
-						a.reAllocate();
-						vecX.reAllocate();
-
-						// read # of equations
-						breader.readLine();
-						breader.readLine();
-
-						// read matrix - a
-						breader.readLine();
-						for (int i = 0; i < a.getData().length; i++)
-							a.set(i, Double.parseDouble(breader.readLine()
-									.trim()));
-					}
-
-					// solve failed
-					else
-						exceptionHandler("Solve failed!");
-				}
-
-				// output file doesn't exist
-				else
-					exceptionHandler("Solve failed!");
-			}
-
-			// solver file doesn't exist
-			else
-				exceptionHandler("Exception occurred during solver execution!");
-		}
-
-		// exception occurred during execution
-		catch (Exception e) {
-			exceptionHandler("Solve failed!");
-		}
-
-		// close reader
-		finally {
-
-			// check if the reader is null
-			if (breader != null) {
-				try {
-
-					// close writer
-					breader.close();
-				} catch (IOException io) {
-				}
-			}
-
-			// check if the file is null
-			if (file != null) {
-
-				// delete output file
-				file.delete();
-			}
-		}
+		// triangularize matrix
+		factor_ = new SkylineFactorization(a);
 	}
 
 	/**
-	 * Solves system of linear equations (A x = b).
+	 * Solves system of linear equations (A x = b). The coefficient matrix
+	 * should have already been triangularized by initializing the solver.
 	 * 
 	 * @param matA
 	 *            Coefficient matrix (A). Has to be in USB1 form (assumed
@@ -236,212 +100,18 @@ public class Solver1 extends LESolver {
 	 * @param vecX
 	 *            Solution vector (x). Has to be dense vector (DVec).
 	 */
+	@Override
 	public void solve(Mat matA, DVec vecB, DVec vecX) {
-
-		// cast matrix
-		USB1Mat a = (USB1Mat) matA;
-
-		// initialize buffered writer
-		BufferedWriter bwriter = null;
-
-		try {
-
-			// create input file
-			File input = new File("INPUT.txt");
-
-			// create file writer
-			FileWriter writer = new FileWriter(input);
-
-			// create buffered writer
-			bwriter = new BufferedWriter(writer);
-
-			// write header to input
-			bwriter.write("P A R A M E T E R S");
-			bwriter.newLine();
-
-			// number of equations
-			bwriter.write(Integer.toString(a.rowCount()));
-			bwriter.newLine();
-
-			// number of elements below skyline of matrix
-			bwriter.write(Integer.toString(a.getData().length));
-			bwriter.newLine();
-
-			// dimension of adresses array
-			bwriter.write(Integer.toString(a.getAdresses().length));
-			bwriter.newLine();
-
-			// reduction and back-substitution of load vector
-			bwriter.write(Integer.toString(2));
-			bwriter.newLine();
-
-			// write matrices/vectors
-			write(a, vecB, bwriter);
-
-			// delete matrix/vector
-			a.delete();
-			vecX.delete();
-		}
-
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
-		}
-
-		// close writer
-		finally {
-
-			// check if the writer is null
-			if (bwriter != null) {
-				try {
-
-					// close writer
-					bwriter.close();
-				} catch (IOException io) {
-				}
-			}
-		}
-
-		// initialize buffered reader and file
-		BufferedReader breader = null;
-		File file = null;
-
-		try {
-
-			// create file
-			file = new File("solvers/COLSOL.exe");
-
-			// solver exists
-			if (file.exists()) {
-
-				// execute solver
-				Process p = Runtime.getRuntime().exec("solvers/COLSOL.exe");
-				p.waitFor();
-
-				// get output file
-				file = new File("OUTPUT.txt");
-
-				// output file exists
-				if (file.exists()) {
-
-					// create file reader
-					FileReader reader = new FileReader(file);
-
-					// create buffered reader
-					breader = new BufferedReader(reader);
-
-					// check if successfull exit
-					String exit = breader.readLine();
-					if (exit.equalsIgnoreCase("*** SUCCESSFULL EXIT ***")) {
-
-						// reallocate marices/vectors
-						a.reAllocate();
-						vecX.reAllocate();
-
-						// read # of equations
-						breader.readLine();
-						int neq = Integer.parseInt(breader.readLine().trim());
-
-						// read matrix - a
-						breader.readLine();
-						for (int i = 0; i < a.getData().length; i++)
-							a.set(i, Double.parseDouble(breader.readLine()
-									.trim()));
-
-						// read displacements
-						breader.readLine();
-						for (int i = 0; i < neq; i++)
-							vecX.set(i, Double.parseDouble(breader.readLine()
-									.trim()));
-					}
-
-					// solve failed
-					else
-						exceptionHandler("Solve failed!");
-				}
-
-				// output file doesn't exist
-				else
-					exceptionHandler("Solve failed!");
-			}
-
-			// solver file doesn't exist
-			else
-				exceptionHandler("Exception occurred during solver execution!");
-		}
-
-		// exception occurred during execution
-		catch (Exception e) {
-			exceptionHandler("Solve failed!");
-		}
-
-		// close reader
-		finally {
-
-			// check if the reader is null
-			if (breader != null) {
-				try {
-
-					// close writer
-					breader.close();
-				} catch (IOException io) {
-				}
-			}
-
-			// check if the file is null
-			if (file != null) {
-
-				// delete output file
-				file.delete();
-			}
-		}
+		factor_.solve(vecB, vecX);
 	}
 
 	@Override
-	public void clear() {
+	public Factorization getFactorization() {
+		return factor_;
 	}
 
-	/**
-	 * Writes matrices and vectors for input file.
-	 * 
-	 * @param a
-	 *            Matrix A.
-	 * @param b
-	 *            Vector b.
-	 * @param bwriter
-	 *            Writer for input file.
-	 */
-	private void write(USB1Mat a, DVec b, BufferedWriter bwriter) {
-		try {
-
-			// matrix - a
-			bwriter.write("M A T R I X  -  A");
-			bwriter.newLine();
-			for (int i = 0; i < a.getData().length; i++) {
-				bwriter.write(Double.toString(a.getData()[i]));
-				bwriter.newLine();
-			}
-
-			// vector - b
-			bwriter.write("V E C T O R  -  B/X");
-			bwriter.newLine();
-			for (int i = 0; i < b.rowCount(); i++) {
-				bwriter.write(Double.toString(b.get(i)));
-				bwriter.newLine();
-			}
-
-			// vector containing adresses of diagonal elements of a
-			bwriter.write("M A X A   V E C T O R");
-			bwriter.newLine();
-			for (int i = 0; i < a.getAdresses().length; i++) {
-				bwriter.write(Integer.toString(a.getAdresses()[i] + 1));
-				bwriter.newLine();
-			}
-		}
-
-		// exception occured during writing input file
-		catch (Exception excep) {
-			exceptionHandler("Exception occured during writing input file!");
-		}
+	@Override
+	public void clear() {
+		factor_ = null;
 	}
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import matrix.Mat;
+import matrix.CRSMat;
+import matrix.DVec;
+
+/**
+ * Class for direct-sparse supernodal Cholesky linear equation solver. It can
+ * be used for solving linear system of equations (A x = b) with symmetric
+ * positive definite coefficient matrices. The coefficient matrix is reordered
+ * by nested dissection to reduce fill-in, and factorized as L*L(T) by a
+ * supernodal method using dense kernels on the supernode blocks. Unlike the
+ * banded and skyline solvers, the cost of the factorization doesn't depend on
+ * the bandwidth of the matrix, which makes this solver suitable for large 3D
+ * models. The factorization is kept in memory, so that any number of right
+ * hand side vectors can be solved without refactorizing.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class Solver5 extends LESolver {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Factorization of the coefficient matrix. */
+	private transient SupernodalFactorization factor_;
+
+	/**
+	 * Creates sparse supernodal Cholesky solver.
+	 * 
+	 * @param name
+	 *            The name of solver.
+	 */
+	public Solver5(String name) {
+		setName(name);
+	}
+
+	@Override
+	public int getSolutionType() {
+		return LESolver.direct_;
+	}
+
+	@Override
+	public int getSolverType() {
+		return LESolver.Supernodal_;
+	}
+
+	@Override
+	public int getStorageType() {
+		return Solver.CRS_;
+	}
+
+	@Override
+	public int getType() {
+		return Solver.solver5_;
+	}
+
+	/**
+	 * Initializes solver by factorizing the coefficient matrix. The
+	 * coefficient matrix is not modified.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be in CRS form with symmetric
+	 *            sparsity pattern (assumed positive definite).
+	 * @param vecX
+	 *            Solution vector (x).
+	 */
+	public void initialize(Mat matA, DVec vecX) {
+
+		// cast matrix
+		CRSMat a = (CRSMat) matA;
+
+		// factorize matrix
+		factor_ = new SupernodalFactorization(a);
+	}
+
+	/**
+	 * Solves system of linear equations (A x = b). The coefficient matrix
+	 * should have already been factorized by initializing the solver.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be in CRS form.
+	 * @param vecB
+	 *            Right hand side vector (b). Has to be dense vector (DVec).
+	 * @param vecX
+	 *            Solution vector (x). Has to be dense vector (DVec).
+	 */
+	public void solve(Mat matA, DVec vecB, DVec vecX) {
+		factor_.solve(vecB, vecX);
+	}
+
+	@Override
+	public Factorization getFactorization() {
+		return factor_;
+	}
+
+	@Override
+	public void clear() {
+		factor_ = null;
+	}
+}
@@ -0,0 +1,1072 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import matrix.DVec;
+import matrix.GPSMat;
+import matrix.Mat;
+import matrix.USB1Mat;
+
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+
+/**
+ * Class for shift-invert block Lanczos generalized eigenproblem solver. It
+ * solves for the smallest eigenvalues and corresponding eigenvectors of the
+ * generalized eigenproblem A * x = (lambda) * B * x, where A and B are
+ * symmetric and B is positive semi-definite. The shifted matrix (A - sigma B)
+ * is factorized by skyline L*D*L(T) factorization, which may be indefinite.
+ * Block Lanczos iterations are performed on the shift-inverted operator with
+ * full B-orthogonalization against the Lanczos basis and the already converged
+ * eigenvectors (locking). Converged eigenpairs are locked and the iterations
+ * are restarted with a new shift until the required number of eigenpairs is
+ * obtained. Finally, missed roots are checked by the Sturm sequence property
+ * (the number of negative pivots of the shifted matrix is the number of
+ * eigenvalues below the shift). The eigenvectors are normalized with respect
+ * to B. There is no limit on the number of eigenvalues.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class Solver6 extends GESolver {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Block size of Lanczos iterations. */
+	private static final int blockSize_ = 4;
+
+	/** Maximum number of Lanczos vectors per run. */
+	private static final int maxBasis_ = 240;
+
+	/** Maximum number of Lanczos runs. */
+	private static final int maxRuns_ = 100;
+
+	/** Number of required eigenvalues and eigenvectors. */
+	private int nRoot_;
+
+	/** Convergence tolerance on eigenvalues (1.e-06 or smaller). */
+	private double rTol_;
+
+	/** Number of threads for frequency window (0 for all processors). */
+	private int threads_ = 0;
+
+	/**
+	 * Creates shift-invert block Lanczos solver.
+	 * 
+	 * @param name
+	 *            The name of solver.
+	 * @param nRoot
+	 *            Number of required eigenvalues and eigenvectors.
+	 * @param rTol
+	 *            Convergence tolerance on eigenvalues (1.e-06 or smaller).
+	 */
+	public Solver6(String name, int nRoot, double rTol) {
+
+		// set name
+		setName(name);
+
+		// check parameters
+		checkParameters(nRoot, rTol);
+
+		// set parameters
+		nRoot_ = nRoot;
+		rTol_ = rTol;
+	}
+
+	@Override
+	public int getNumberOfRequiredEigenvalues() {
+		return nRoot_;
+	}
+
+	@Override
+	public double getConvergenceTolerance() {
+		return rTol_;
+	}
+
+	@Override
+	public int getStorageType() {
+		return Solver.USB1S_;
+	}
+
+	@Override
+	public int getType() {
+		return Solver.solver6_;
+	}
+
+	@Override
+	public int getSolverType() {
+		return GESolver.Lanczos_;
+	}
+
+	@Override
+	public void initialize(Mat matA, Mat matB) {
+
+		// nothing to prepare, the number of modes is limited by the order of
+		// equation system in solve
+	}
+
+	/**
+	 * Sets number of threads used for frequency window solution.
+	 * 
+	 * @param threads
+	 *            Number of threads. Zero means all available processors.
+	 */
+	public void setThreads(int threads) {
+
+		// check value
+		if (threads < 0)
+			exceptionHandler("Illegal number of threads for eigen solver!");
+
+		// set value
+		threads_ = threads;
+	}
+
+	/**
+	 * Returns number of threads used for frequency window solution.
+	 * 
+	 * @return Number of threads. Zero means all available processors.
+	 */
+	public int getThreads() {
+		return threads_;
+	}
+
+	@Override
+	public void solve(Mat matA, Mat matB, DVec eigval, GPSMat eigvec,
+			int nEigval) {
+
+		try {
+
+			// compute lowest eigenpairs
+			Lanczos lanczos = new Lanczos((USB1Mat) matA, (USB1Mat) matB);
+			int nroot = Math.min(nRoot_, lanczos.n_);
+			lanczos.solveLowest(nroot);
+
+			// sort locked eigenpairs
+			int[] order = lanczos.sortLocked();
+
+			// set eigenvalues and eigenvectors
+			for (int i = 0; i < nroot; i++) {
+				eigval.set(i, lanczos.lambda_[order[i]]);
+				double[] x = lanczos.x_[order[i]];
+				for (int j = 0; j < x.length; j++)
+					eigvec.set(j, i, x[j]);
+			}
+		}
+
+		// problem occured
+		catch (Exception e) {
+			exceptionHandler("Solve failed!");
+		}
+	}
+
+	/**
+	 * Solves for all eigenvalues within the given interval [lower, upper) and
+	 * the corresponding eigenvectors (frequency window). The interval is
+	 * divided into slices by spectrum slicing. The number of eigenvalues in
+	 * each slice is obtained from the Sturm sequence counts at the slice
+	 * boundaries, and the slices are solved independently in parallel. The
+	 * eigenpairs are returned in ascending order of eigenvalues.
+	 * 
+	 * @param matA
+	 *            The first coefficient matrix.
+	 * @param matB
+	 *            The second coefficient matrix.
+	 * @param lower
+	 *            Lower bound of eigenvalues.
+	 * @param upper
+	 *            Upper bound of eigenvalues.
+	 * @param eigval
+	 *            Vector to store the eigenvalues.
+	 * @param eigvec
+	 *            Vector to store the eigenvectors.
+	 */
+	public void solve(Mat matA, Mat matB, double lower, double upper,
+			Vector<Double> eigval, Vector<double[]> eigvec) {
+
+		// check interval
+		if (lower >= upper)
+			exceptionHandler("Illegal interval for eigen solver!");
+
+		// create pool
+		final USB1Mat a = (USB1Mat) matA;
+		final USB1Mat b = (USB1Mat) matB;
+		int threads = threads_;
+		if (threads <= 0)
+			threads = Runtime.getRuntime().availableProcessors();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		try {
+
+			// compute Sturm counts at interval bounds
+			double[] range = new double[] { lower, upper };
+			double[][] bounds = count(pool, a, b, range);
+			int total = (int) (bounds[1][1] - bounds[0][1]);
+			if (total <= 0)
+				return;
+
+			// compute Sturm counts at slice boundaries
+			int nSlice = Math.max(1, Math.min(2 * threads, total / 20));
+			double[] shifts = new double[nSlice + 1];
+			for (int i = 0; i <= nSlice; i++)
+				shifts[i] = lower + i * (upper - lower) / nSlice;
+			double[][] inner = count(pool, a, b,
+					Arrays.copyOfRange(shifts, 1, nSlice));
+			final double[][] slices = new double[nSlice + 1][];
+			slices[0] = bounds[0];
+			slices[nSlice] = bounds[1];
+			for (int i = 1; i < nSlice; i++)
+				slices[i] = inner[i - 1];
+
+			// solve slices
+			Vector<Callable<Lanczos>> tasks = new Vector<Callable<Lanczos>>();
+			for (int i = 0; i < nSlice; i++) {
+				final int slice = i;
+				tasks.add(new Callable<Lanczos>() {
+					public Lanczos call() {
+						Lanczos lanczos = new Lanczos(a, b);
+						double[] lo = slices[slice], hi = slices[slice + 1];
+						lanczos.solveRange(lo[0], hi[0], (int) (hi[1] - lo[1]));
+						return lanczos;
+					}
+				});
+			}
+			List<Future<Lanczos>> results = pool.invokeAll(tasks);
+
+			// merge slices
+			for (int i = 0; i < nSlice; i++) {
+				Lanczos lanczos = results.get(i).get();
+				int[] order = lanczos.sortLocked();
+				for (int j = 0; j < order.length; j++) {
+					double lambda = lanczos.lambda_[order[j]];
+					if (lambda >= slices[i][0] && lambda < slices[i + 1][0]) {
+						eigval.add(lambda);
+						eigvec.add(lanczos.x_[order[j]]);
+					}
+				}
+			}
+		}
+
+		// problem occured
+		catch (Exception e) {
+			exceptionHandler("Solve failed!");
+		}
+
+		// release threads
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Factorizes the shifted matrices at the given shifts in parallel and
+	 * returns the shifts used and the number of eigenvalues below them.
+	 * 
+	 * @param pool
+	 *            Thread pool.
+	 * @param a
+	 *            The first coefficient matrix.
+	 * @param b
+	 *            The second coefficient matrix.
+	 * @param shifts
+	 *            The shifts.
+	 * @return Array storing the shifts used and the Sturm counts.
+	 * @throws Exception
+	 *             If factorization fails.
+	 */
+	private double[][] count(ForkJoinPool pool, final USB1Mat a,
+			final USB1Mat b, double[] shifts) throws Exception {
+
+		// create tasks
+		Vector<Callable<double[]>> tasks = new Vector<Callable<double[]>>();
+		for (int i = 0; i < shifts.length; i++) {
+			final double shift = shifts[i];
+			tasks.add(new Callable<double[]>() {
+				public double[] call() {
+					Lanczos lanczos = new Lanczos(a, b);
+					SkylineFactorization f = lanczos.factorize(shift);
+					return new double[] { lanczos.shift_,
+							f.getNumberOfNegativePivots() };
+				}
+			});
+		}
+
+		// run tasks
+		List<Future<double[]>> results = pool.invokeAll(tasks);
+		double[][] counts = new double[shifts.length][];
+		for (int i = 0; i < shifts.length; i++)
+			counts[i] = results.get(i).get();
+		return counts;
+	}
+
+	/**
+	 * Inner class for shift-invert block Lanczos iterations. Each instance
+	 * holds its own factorizations and locked eigenpairs, so that instances
+	 * can run in parallel on the same coefficient matrices.
+	 * 
+	 * @author Murat Artim
+	 * 
+	 */
+	private class Lanczos {
+
+		/** Coefficient matrices. */
+		private USB1Mat a_, b_;
+
+		/** Number of equations. */
+		private int n_;
+
+		/** The shift of the last factorization. */
+		private double shift_;
+
+		/** Lowest unconverged eigenvalue estimate above the shift. */
+		private double next_;
+
+		/** Locked eigenvectors. */
+		private double[][] x_;
+
+		/** Locked eigenvalues. */
+		private double[] lambda_;
+
+		/** Number of locked eigenpairs. */
+		private int nLocked_;
+
+		/**
+		 * Creates Lanczos iterations for the given coefficient matrices.
+		 * 
+		 * @param a
+		 *            The first coefficient matrix.
+		 * @param b
+		 *            The second coefficient matrix.
+		 */
+		private Lanczos(USB1Mat a, USB1Mat b) {
+			a_ = a;
+			b_ = b;
+			n_ = a.rowCount();
+			x_ = new double[maxBasis_][];
+			lambda_ = new double[maxBasis_];
+		}
+
+		/**
+		 * Solves for the lowest eigenpairs.
+		 * 
+		 * @param nroot
+		 *            Number of required eigenpairs.
+		 */
+		private void solveLowest(int nroot) {
+
+			// factorize at initial shift
+			Random random = new Random(1);
+			SkylineFactorization f = factorize(getInitialShift());
+			int growth = 1;
+
+			// loop over Lanczos runs
+			for (int run = 0; run <= maxRuns_; run++) {
+
+				// all roots found (Sturm sequence check)
+				if (nLocked_ >= nroot && checkRoots(f, nroot))
+					break;
+
+				// no convergence
+				if (run == maxRuns_)
+					exceptionHandler("Solve failed!");
+
+				// set number of Lanczos vectors
+				int need = Math.max(1, nroot - nLocked_);
+				need = Math.max(need, f.getNumberOfNegativePivots()
+						- getNumberOfLockedBelow(shift_));
+
+				// perform Lanczos run
+				growth = run(f, need, growth, random);
+
+				// factorize at next shift
+				f = factorize(getNextShift(nroot));
+			}
+		}
+
+		/**
+		 * Solves for the eigenpairs within the given interval [lower, upper).
+		 * 
+		 * @param lower
+		 *            Lower bound of eigenvalues.
+		 * @param upper
+		 *            Upper bound of eigenvalues.
+		 * @param count
+		 *            Number of eigenvalues within the interval (Sturm count).
+		 */
+		private void solveRange(double lower, double upper, int count) {
+
+			// no eigenvalues within interval
+			if (count <= 0)
+				return;
+
+			// factorize at the middle of interval
+			Random random = new Random(1);
+			SkylineFactorization f = factorize(0.5 * (lower + upper));
+			int growth = 1;
+
+			// loop over Lanczos runs
+			for (int run = 0; run <= maxRuns_; run++) {
+
+				// all roots found
+				int found = getNumberOfLockedBelow(upper)
+						- getNumberOfLockedBelow(lower);
+				if (found >= count)
+					break;
+
+				// no convergence
+				if (run == maxRuns_)
+					exceptionHandler("Solve failed!");
+
+				// perform Lanczos run
+				growth = run(f, count - found, growth, random);
+
+				// factorize at next shift
+				f = factorize(getNextShift(lower, upper));
+			}
+		}
+
+		/**
+		 * Performs a Lanczos run with a basis size depending on the number of
+		 * eigenpairs needed.
+		 * 
+		 * @param f
+		 *            Factorization of the shifted matrix.
+		 * @param need
+		 *            Number of eigenpairs needed.
+		 * @param growth
+		 *            Growth factor of the basis size.
+		 * @param random
+		 *            Random number generator for starting vectors.
+		 * @return The growth factor for the next run.
+		 */
+		private int run(SkylineFactorization f, int need, int growth,
+				Random random) {
+
+			// set number of Lanczos vectors
+			int p = Math.min(blockSize_, n_ - nLocked_);
+			int m = Math.min(Math.max(2 * need + 2 * p, 40), maxBasis_);
+			m = Math.min(((m * growth + p - 1) / p) * p, n_ - nLocked_);
+
+			// perform Lanczos run
+			int locked = lanczos(f, p, m, random);
+
+			// enlarge basis if nothing converged
+			if (locked == 0) {
+				if (m == n_ - nLocked_)
+					exceptionHandler("Solve failed!");
+				return 2 * growth;
+			}
+			return 1;
+		}
+
+		/**
+		 * Performs a block Lanczos run with the shift-inverted operator and
+		 * locks the converged eigenpairs.
+		 * 
+		 * @param f
+		 *            Factorization of the shifted matrix.
+		 * @param p
+		 *            Block size.
+		 * @param m
+		 *            Maximum number of Lanczos vectors.
+		 * @param random
+		 *            Random number generator for starting vectors.
+		 * @return The number of eigenpairs locked.
+		 */
+		private int lanczos(SkylineFactorization f, int p, int m,
+				Random random) {
+
+			// initialize basis and projected matrix
+			double[][] q = new double[m][];
+			double[][] t = new double[m][m];
+			double[] bw = new double[n_];
+			int max = n_ - nLocked_;
+
+			// create starting block (shift-inverted random vectors)
+			int k = 0;
+			for (int c = 0; c < p; c++) {
+				double[] w = randomVector(f, random, bw);
+				if (orthonormalize(w, q, k, 1.0e-10, bw))
+					q[k++] = w;
+			}
+			if (k == 0)
+				exceptionHandler("Solve failed!");
+
+			// loop over Lanczos steps
+			int j0 = 0;
+			double[][] coef = null;
+			while (true) {
+
+				// apply operator to current block and orthogonalize to basis
+				int pb = k - j0;
+				double[][] w = new double[pb][n_];
+				double[] norm0 = new double[pb];
+				for (int c = 0; c < pb; c++) {
+					b_.multiply(q[j0 + c], bw);
+					f.solve(bw, w[c]);
+					norm0[c] = normB(w[c], bw);
+					double[] h = new double[k];
+					orthogonalize(w[c], q, k, h, bw);
+					for (int i = 0; i < k; i++)
+						t[i][j0 + c] = h[i];
+				}
+
+				// orthonormalize new block within itself
+				boolean room = k + pb <= m && k < max;
+				coef = new double[pb][pb];
+				double[][] next = new double[pb][];
+				for (int c = 0; c < pb; c++) {
+
+					// orthogonalize to previous vectors of new block
+					for (int pass = 0; pass < 2; pass++) {
+						b_.multiply(w[c], bw);
+						for (int d = 0; d < c; d++) {
+							if (next[d] == null)
+								continue;
+							double h = dot(next[d], bw);
+							axpy(-h, next[d], w[c]);
+							coef[d][c] += h;
+						}
+					}
+
+					// normalize
+					double norm = normB(w[c], bw);
+					if (norm > 1.0e-10 * norm0[c]) {
+						scale(1.0 / norm, w[c]);
+						next[c] = w[c];
+						coef[c][c] = norm;
+					}
+
+					// deflate by a new random vector
+					else if (room && k + c < max) {
+						double[] v = randomVector(f, random, bw);
+						orthogonalize(v, q, k, null, bw);
+						if (orthonormalize(v, next, c, 1.0e-10, bw))
+							next[c] = v;
+					}
+				}
+
+				// no room for new block
+				if (!room)
+					break;
+
+				// append new block to basis
+				int added = 0;
+				for (int c = 0; c < pb; c++) {
+					if (next[c] == null)
+						continue;
+					q[k + added] = next[c];
+					for (int d = 0; d < pb; d++)
+						t[k + added][j0 + d] = coef[c][d];
+					added++;
+				}
+				if (added == 0) {
+					coef = new double[pb][pb];
+					break;
+				}
+				j0 = k;
+				k += added;
+			}
+
+			// compute eigenpairs of symmetrized projected matrix
+			Matrix tk = new Matrix(k, k);
+			for (int i = 0; i < k; i++)
+				for (int j = 0; j < k; j++)
+					tk.set(i, j, 0.5 * (t[i][j] + t[j][i]));
+			EigenvalueDecomposition evd = tk.eig();
+			double[] nu = evd.getRealEigenvalues();
+			double[][] s = evd.getV().getArray();
+			double numax = 0.0;
+			for (int i = 0; i < k; i++)
+				numax = Math.max(numax, Math.abs(nu[i]));
+
+			// loop over Ritz pairs
+			int locked = 0;
+			next_ = Double.NaN;
+			int pb = k - j0;
+			for (int i = 0; i < k; i++) {
+
+				// skip infinite eigenvalues
+				if (Math.abs(nu[i]) <= 1.0e-12 * numax)
+					continue;
+
+				// compute residual estimate
+				double resid = 0.0;
+				for (int d = 0; d < coef.length; d++) {
+					double sum = 0.0;
+					for (int c = 0; c < Math.min(pb, coef.length); c++)
+						sum += coef[d][c] * s[j0 + c][i];
+					resid += sum * sum;
+				}
+				resid = Math.sqrt(resid);
+
+				// not converged
+				if (resid > rTol_ * Math.abs(nu[i])) {
+					double lambda = shift_ + 1.0 / nu[i];
+					if (nu[i] > 0.0 && (Double.isNaN(next_) || lambda < next_))
+						next_ = lambda;
+					continue;
+				}
+
+				// compute Ritz vector
+				double[] x = new double[n_];
+				for (int l = 0; l < k; l++)
+					axpy(s[l][i], q[l], x);
+
+				// lock eigenpair (skip copies of locked eigenvectors)
+				if (orthonormalize(x, x_, nLocked_, 0.5, bw)) {
+					if (nLocked_ == x_.length) {
+						x_ = Arrays.copyOf(x_, 2 * x_.length);
+						lambda_ = Arrays.copyOf(lambda_, 2 * lambda_.length);
+					}
+					x_[nLocked_] = x;
+					lambda_[nLocked_++] = shift_ + 1.0 / nu[i];
+					locked++;
+				}
+			}
+			return locked;
+		}
+
+		/**
+		 * Checks whether the smallest required eigenvalues are all locked, by
+		 * comparing the number of negative pivots of the given factorization
+		 * with the number of locked eigenvalues below the shift.
+		 * 
+		 * @param f
+		 *            Factorization of the shifted matrix.
+		 * @param nroot
+		 *            Number of required eigenvalues.
+		 * @return True if no roots are missed.
+		 */
+		private boolean checkRoots(SkylineFactorization f, int nroot) {
+			int below = getNumberOfLockedBelow(shift_);
+			return below >= nroot && f.getNumberOfNegativePivots() == below;
+		}
+
+		/**
+		 * Returns the number of locked eigenvalues below the given value.
+		 * 
+		 * @param value
+		 *            The value.
+		 * @return The number of locked eigenvalues below the given value.
+		 */
+		private int getNumberOfLockedBelow(double value) {
+			int below = 0;
+			for (int i = 0; i < nLocked_; i++)
+				if (lambda_[i] < value)
+					below++;
+			return below;
+		}
+
+		/**
+		 * Returns the initial shift. Zero is used if the first coefficient
+		 * matrix is positive definite, otherwise a small negative shift is
+		 * used.
+		 * 
+		 * @return The initial shift.
+		 */
+		private double getInitialShift() {
+
+			// check first coefficient matrix
+			try {
+				SkylineFactorization f = factorize(0.0);
+				if (f.getNumberOfNegativePivots() == 0)
+					return 0.0;
+			} catch (IllegalArgumentException e) {
+			}
+
+			// small negative shift relative to diagonal ratio
+			return -1.0e-6 * getScale();
+		}
+
+		/**
+		 * Returns the next shift. If enough eigenpairs are locked, the shift is
+		 * placed just above the highest required eigenvalue for the Sturm
+		 * sequence check. Otherwise, it is moved between the locked eigenvalues
+		 * and the lowest unconverged eigenvalue estimate.
+		 * 
+		 * @param nroot
+		 *            Number of required eigenvalues.
+		 * @return The next shift.
+		 */
+		private double getNextShift(int nroot) {
+
+			// no eigenpairs locked
+			if (nLocked_ == 0)
+				return shift_;
+
+			// sort locked eigenvalues
+			int[] order = sortLocked();
+			double lo = lambda_[order[0]];
+			double hi = lambda_[order[nLocked_ - 1]];
+			double scale = Math.max(Math.max(Math.abs(lo), Math.abs(hi)),
+					1.0e-6 * getScale());
+
+			// enough eigenpairs locked (shift between required and others)
+			if (nLocked_ >= nroot) {
+				double last = lambda_[order[nroot - 1]];
+				double margin = 1.0e-3 * Math.max(Math.abs(last),
+						scale * 1.0e-3);
+				if (nLocked_ > nroot)
+					margin = Math.min(margin,
+							0.5 * (lambda_[order[nroot]] - last));
+				return last + Math.max(margin, 1.0e-9 * scale);
+			}
+
+			// no unconverged estimate, move shift beyond the locked eigenvalues
+			if (Double.isNaN(next_))
+				return hi + 0.1 * (hi - lo) + 1.0e-3 * scale;
+
+			// move shift towards the lowest unconverged estimate
+			double below = shift_;
+			for (int i = 0; i < nLocked_; i++)
+				if (lambda_[i] < next_)
+					below = Math.max(below, lambda_[i]);
+			return 0.5 * (below + next_);
+		}
+
+		/**
+		 * Returns the next shift within the given interval. The shift is
+		 * moved towards the lowest unconverged eigenvalue estimate within the
+		 * interval, if any. Otherwise, it is placed at the middle of the
+		 * largest gap between the locked eigenvalues within the interval.
+		 * 
+		 * @param lower
+		 *            Lower bound of interval.
+		 * @param upper
+		 *            Upper bound of interval.
+		 * @return The next shift.
+		 */
+		private double getNextShift(double lower, double upper) {
+
+			// move shift towards the lowest unconverged estimate
+			if (next_ > lower && next_ < upper) {
+				double below = lower;
+				for (int i = 0; i < nLocked_; i++)
+					if (lambda_[i] < next_)
+						below = Math.max(below, lambda_[i]);
+				return 0.5 * (below + next_);
+			}
+
+			// find largest gap between locked eigenvalues
+			int[] order = sortLocked();
+			double left = lower, gap = 0.0, shift = 0.5 * (lower + upper);
+			for (int i = 0; i <= order.length; i++) {
+				double right = i < order.length ? lambda_[order[i]] : upper;
+				if (right <= lower)
+					continue;
+				right = Math.min(right, upper);
+				if (right - left > gap) {
+					gap = right - left;
+					shift = 0.5 * (left + right);
+				}
+				left = right;
+				if (left >= upper)
+					break;
+			}
+			return shift;
+		}
+
+		/**
+		 * Returns the ratio of diagonal sums of coefficient matrices.
+		 * 
+		 * @return The ratio of diagonal sums.
+		 */
+		private double getScale() {
+			double sa = 0.0, sb = 0.0;
+			int[] maxa = a_.getAdresses();
+			int[] maxb = b_.getAdresses();
+			for (int i = 0; i < n_; i++) {
+				sa += Math.abs(a_.getData()[maxa[i]]);
+				sb += Math.abs(b_.getData()[maxb[i]]);
+			}
+			return sb == 0.0 ? sa : sa / sb;
+		}
+
+		/**
+		 * Factorizes the shifted matrix (A - sigma B). If the shifted matrix is
+		 * (nearly) singular, the shift is slightly perturbed. The shift used is
+		 * stored.
+		 * 
+		 * @param sigma
+		 *            The shift.
+		 * @return The factorization.
+		 */
+		private SkylineFactorization factorize(double sigma) {
+
+			// loop over trials
+			for (int trial = 0;; trial++) {
+
+				// create shifted matrix
+				USB1Mat k = new USB1Mat(a_);
+				if (sigma != 0.0) {
+					double[] kd = k.getData();
+					int[] maxa = k.getAdresses();
+					double[] bd = b_.getData();
+					int[] maxb = b_.getAdresses();
+					if (Arrays.equals(maxb, maxa)) {
+						for (int i = 0; i < kd.length; i++)
+							kd[i] -= sigma * bd[i];
+					} else {
+						for (int j = 0; j < n_; j++)
+							for (int kk = maxb[j]; kk < maxb[j + 1]; kk++)
+								k.add(j - kk + maxb[j], j, -sigma * bd[kk]);
+					}
+				}
+
+				// factorize
+				try {
+					SkylineFactorization f = new SkylineFactorization(k, true);
+					shift_ = sigma;
+
+					// check distance to nearest eigenvalue
+					if (trial == 5 || !isNearlySingular(f))
+						return f;
+				}
+
+				// singular matrix
+				catch (IllegalArgumentException e) {
+					if (trial == 5)
+						throw e;
+				}
+
+				// perturb shift
+				sigma += 1.0e-4 * (Math.abs(sigma) + 1.0e-4 * getScale());
+			}
+		}
+
+		/**
+		 * Returns true if the shift of the given factorization is too close to
+		 * an eigenvalue. The distance to the nearest eigenvalue is estimated by
+		 * a few steps of inverse iteration.
+		 * 
+		 * @param f
+		 *            Factorization of the shifted matrix.
+		 * @return True if the shift is too close to an eigenvalue.
+		 */
+		private boolean isNearlySingular(SkylineFactorization f) {
+
+			// create starting vector
+			double[] bw = new double[n_];
+			double[] w = new double[n_];
+			Random random = new Random(n_);
+			for (int i = 0; i < n_; i++)
+				w[i] = random.nextDouble() - 0.5;
+
+			// inverse iterations
+			double nu = 0.0;
+			for (int it = 0; it < 3; it++) {
+				b_.multiply(w, bw);
+				f.solve(bw, w);
+				nu = normB(w, bw);
+				if (nu == 0.0)
+					return false;
+				scale(1.0 / nu, w);
+			}
+
+			// compare distance with shift
+			double scale = Math.abs(shift_) + 1.0e-4 * getScale();
+			return 1.0 / nu < 1.0e-6 * scale;
+		}
+
+		/**
+		 * Returns the indices of locked eigenpairs sorted by eigenvalues.
+		 * 
+		 * @return The sorted indices.
+		 */
+		private int[] sortLocked() {
+			int[] order = new int[nLocked_];
+			for (int i = 0; i < nLocked_; i++) {
+				int j = i;
+				while (j > 0 && lambda_[order[j - 1]] > lambda_[i]) {
+					order[j] = order[j - 1];
+					j--;
+				}
+				order[j] = i;
+			}
+			return order;
+		}
+
+		/**
+		 * Returns a shift-inverted random vector.
+		 * 
+		 * @param f
+		 *            Factorization of the shifted matrix.
+		 * @param random
+		 *            Random number generator.
+		 * @param bw
+		 *            Work vector.
+		 * @return The vector.
+		 */
+		private double[] randomVector(SkylineFactorization f, Random random,
+				double[] bw) {
+			double[] w = new double[n_];
+			for (int i = 0; i < n_; i++)
+				w[i] = random.nextDouble() - 0.5;
+			b_.multiply(w, bw);
+			f.solve(bw, w);
+			return w;
+		}
+
+		/**
+		 * B-orthogonalizes the given vector to the locked eigenvectors and the
+		 * given basis vectors (classical Gram-Schmidt with
+		 * reorthogonalization).
+		 * 
+		 * @param w
+		 *            The vector.
+		 * @param q
+		 *            Basis vectors.
+		 * @param count
+		 *            Number of basis vectors.
+		 * @param h
+		 *            Array to add the projections on basis vectors (can be
+		 *            null).
+		 * @param bw
+		 *            Work vector.
+		 */
+		private void orthogonalize(double[] w, double[][] q, int count,
+				double[] h, double[] bw) {
+			for (int pass = 0; pass < 2; pass++) {
+				b_.multiply(w, bw);
+				if (q != x_) {
+					for (int l = 0; l < nLocked_; l++)
+						axpy(-dot(x_[l], bw), x_[l], w);
+				}
+				for (int i = 0; i < count; i++) {
+					double c = dot(q[i], bw);
+					axpy(-c, q[i], w);
+					if (h != null)
+						h[i] += c;
+				}
+			}
+		}
+
+		/**
+		 * B-orthogonalizes the given vector to the locked eigenvectors and the
+		 * given basis vectors, and normalizes it.
+		 * 
+		 * @param w
+		 *            The vector.
+		 * @param q
+		 *            Basis vectors.
+		 * @param count
+		 *            Number of basis vectors.
+		 * @param tol
+		 *            Relative tolerance for linear dependence.
+		 * @param bw
+		 *            Work vector.
+		 * @return True if the vector is linearly independent.
+		 */
+		private boolean orthonormalize(double[] w, double[][] q, int count,
+				double tol, double[] bw) {
+			double norm0 = normB(w, bw);
+			orthogonalize(w, q, count, null, bw);
+			double norm = normB(w, bw);
+			if (norm == 0.0 || norm <= tol * norm0)
+				return false;
+			scale(1.0 / norm, w);
+			return true;
+		}
+
+		/**
+		 * Returns the B-norm of the given vector.
+		 * 
+		 * @param w
+		 *            The vector.
+		 * @param bw
+		 *            Work vector.
+		 * @return The B-norm.
+		 */
+		private double normB(double[] w, double[] bw) {
+			b_.multiply(w, bw);
+			return Math.sqrt(Math.max(0.0, dot(w, bw)));
+		}
+	}
+
+	/**
+	 * Returns the dot product of the given vectors.
+	 * 
+	 * @param a
+	 *            First vector.
+	 * @param b
+	 *            Second vector.
+	 * @return The dot product.
+	 */
+	private static double dot(double[] a, double[] b) {
+		double sum = 0.0;
+		for (int i = 0; i < a.length; i++)
+			sum += a[i] * b[i];
+		return sum;
+	}
+
+	/**
+	 * Computes y = y + s x.
+	 * 
+	 * @param s
+	 *            Scalar.
+	 * @param x
+	 *            First vector.
+	 * @param y
+	 *            Second vector.
+	 */
+	private static void axpy(double s, double[] x, double[] y) {
+		for (int i = 0; i < x.length; i++)
+			y[i] += s * x[i];
+	}
+
+	/**
+	 * Scales the given vector.
+	 * 
+	 * @param s
+	 *            Scalar.
+	 * @param x
+	 *            The vector.
+	 */
+	private static void scale(double s, double[] x) {
+		for (int i = 0; i < x.length; i++)
+			x[i] *= s;
+	}
+
+	/**
+	 * Checks given parameters.
+	 * 
+	 * @param nRoot
+	 *            Number of required eigenvalues and eigenvectors.
+	 * @param rTol
+	 *            Convergence tolerance on eigenvalues.
+	 */
+	private void checkParameters(int nRoot, double rTol) {
+
+		// initialize error message
+		String err = "Invalid parameter for solver!";
+
+		// check nRoot
+		if (nRoot <= 0)
+			exceptionHandler(err);
+
+		// check rTol
+		if (rTol <= 0.0)
+			exceptionHandler(err);
+	}
+}
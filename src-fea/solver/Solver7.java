@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import matrix.Mat;
+import matrix.USB3Mat;
+import matrix.DVec;
+
+/**
+ * Class for out-of-core active column linear equation solver. It can be used
+ * for solving linear system of equations (A x = b) whose coefficient matrix
+ * doesn't fit in memory. The coefficient matrix is stored in a temporary file
+ * in skyline form and factorized as L*D*L(T) column by column through a
+ * bounded window of loaded blocks. The factors are kept in the file, so
+ * that any number of right hand side vectors can be solved without
+ * refactorizing. The file is deleted when the solver is cleared.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class Solver7 extends LESolver {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Factorization of the coefficient matrix. */
+	private transient OutOfCoreFactorization factor_;
+
+	/**
+	 * Creates out-of-core active column solver.
+	 * 
+	 * @param name
+	 *            The name of solver.
+	 */
+	public Solver7(String name) {
+		setName(name);
+	}
+
+	@Override
+	public int getSolutionType() {
+		return LESolver.direct_;
+	}
+
+	@Override
+	public int getSolverType() {
+		return LESolver.OutOfCore_;
+	}
+
+	@Override
+	public int getStorageType() {
+		return Solver.USB3S_;
+	}
+
+	@Override
+	public int getType() {
+		return Solver.solver7_;
+	}
+
+	/**
+	 * Initializes solver by triangularizing the coefficient matrix. The
+	 * storage file of the coefficient matrix is replaced by its L*D*L(T)
+	 * factors.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be in USB3 form (assumed
+	 *            positive definite).
+	 * @param vecX
+	 *            Solution vector (x).
+	 */
+	public void initialize(Mat matA, DVec vecX) {
+
+		// cast matrix
+		USB3Mat a = (USB3Mat) matA;
+
+		// triangularize matrix
+		factor_ = new OutOfCoreFactorization(a);
+	}
+
+	/**
+	 * Solves system of linear equations (A x = b). The coefficient matrix
+	 * should have already been triangularized by initializing the solver.
+	 * 
+	 * @param matA
+	 *            Coefficient matrix (A). Has to be in USB3 form (assumed
+	 *            positive definite).
+	 * @param vecB
+	 *            Right hand side vector (b). Has to be dense vector (DVec).
+	 * @param vecX
+	 *            Solution vector (x). Has to be dense vector (DVec).
+	 */
+	public void solve(Mat matA, DVec vecB, DVec vecX) {
+		factor_.solve(vecB, vecX);
+	}
+
+	@Override
+	public Factorization getFactorization() {
+		return factor_;
+	}
+
+	@Override
+	public void clear() {
+		if (factor_ != null)
+			factor_.delete();
+		factor_ = null;
+	}
+}
@@ -0,0 +1,590 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package solver;
+
+import java.util.Arrays;
+
+import matrix.CRSMat;
+
+/**
+ * Class for supernodal sparse Cholesky factorization (A = L * L(T)) of
+ * symmetric positive definite matrices stored in compressed row storage. The
+ * factorization consists of a symbolic and a numeric stage. In the symbolic
+ * stage, the matrix is reordered by nested dissection and postordered by its
+ * elimination tree, the column counts of the factor are computed from the row
+ * subtrees and the columns having identical structures are grouped into
+ * fundamental supernodes. In the numeric stage, supernodes are factorized in a
+ * left-looking manner; each supernode is stored as a dense column-major block
+ * and the updates from descendant supernodes are computed by dense
+ * matrix-matrix products before being scattered into the target block.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class SupernodalFactorization extends Factorization {
+
+	/** The number of equations. */
+	private int n_;
+
+	/** Permutation array (k-th entry is the original index of k-th row). */
+	private int[] perm_;
+
+	/** First columns of supernodes (of length number of supernodes + 1). */
+	private int[] first_;
+
+	/** Row indices of supernodes (the diagonal block rows come first). */
+	private int[][] rows_;
+
+	/** Dense column-major blocks of supernodes. */
+	private double[][] blocks_;
+
+	/** Work array used for solving. */
+	private double[] work_;
+
+	/**
+	 * Creates the factorization of the given matrix. The given matrix is not
+	 * modified.
+	 * 
+	 * @param a
+	 *            Coefficient matrix. Has to be in CRS form with symmetric
+	 *            sparsity pattern (both upper and lower entries stored) and
+	 *            positive definite.
+	 */
+	public SupernodalFactorization(CRSMat a) {
+
+		// get sparsity pattern
+		n_ = a.rowCount();
+		int[] ptr = a.getRowPointers();
+		int[] adj = a.getColumnIndices();
+
+		// symbolic factorization
+		order(ptr, adj);
+		int[] inv = new int[n_];
+		for (int i = 0; i < n_; i++)
+			inv[perm_[i]] = i;
+		int[] parent = eliminationTree(ptr, adj, inv);
+		int[] count = columnCounts(ptr, adj, inv, parent);
+		supernodes(parent, count);
+		structures(ptr, adj, inv, parent);
+
+		// numeric factorization
+		factorize(a, inv);
+		work_ = new double[n_];
+	}
+
+	@Override
+	public int size() {
+		return n_;
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		long size = 8L * work_.length + 4L * (perm_.length + first_.length);
+		for (int s = 0; s < rows_.length; s++)
+			size += 4L * rows_[s].length + 8L * blocks_[s].length;
+		return size;
+	}
+
+	/**
+	 * Returns the number of non-zero entries of the Cholesky factor.
+	 * 
+	 * @return The number of non-zero entries of the Cholesky factor.
+	 */
+	public long getNumberOfNonZeros() {
+		long nnz = 0;
+		for (int s = 0; s < rows_.length; s++) {
+			long nr = rows_[s].length, nc = first_[s + 1] - first_[s];
+			nnz += nc * nr - nc * (nc - 1) / 2;
+		}
+		return nnz;
+	}
+
+	@Override
+	public void solve(double[] b, double[] x) {
+
+		// permute right hand side
+		double[] y = work_;
+		for (int i = 0; i < n_; i++)
+			y[i] = b[perm_[i]];
+
+		// forward reduction (L * z = y)
+		for (int s = 0; s < rows_.length; s++) {
+			int f = first_[s], nc = first_[s + 1] - f;
+			int[] rows = rows_[s];
+			double[] l = blocks_[s];
+			int nr = rows.length;
+			for (int j = 0; j < nc; j++) {
+				int c = j * nr;
+				double yj = y[f + j] / l[c + j];
+				y[f + j] = yj;
+				if (yj != 0.0)
+					for (int i = j + 1; i < nr; i++)
+						y[rows[i]] -= l[c + i] * yj;
+			}
+		}
+
+		// back-substitution (L(T) * x = z)
+		for (int s = rows_.length - 1; s >= 0; s--) {
+			int f = first_[s], nc = first_[s + 1] - f;
+			int[] rows = rows_[s];
+			double[] l = blocks_[s];
+			int nr = rows.length;
+			for (int j = nc - 1; j >= 0; j--) {
+				int c = j * nr;
+				double sum = y[f + j];
+				for (int i = j + 1; i < nr; i++)
+					sum -= l[c + i] * y[rows[i]];
+				y[f + j] = sum / l[c + j];
+			}
+		}
+
+		// permute solution back
+		for (int i = 0; i < n_; i++)
+			x[perm_[i]] = y[i];
+	}
+
+	@Override
+	public void solve(double[][] b, double[][] x) {
+
+		// permute and interleave right hand side vectors
+		int m = b.length;
+		double[] y = new double[n_ * m];
+		double[] sum = new double[m];
+		for (int i = 0; i < n_; i++) {
+			int oi = i * m, pi = perm_[i];
+			for (int j = 0; j < m; j++)
+				y[oi + j] = b[j][pi];
+		}
+
+		// forward reduction (L * Z = Y)
+		for (int s = 0; s < rows_.length; s++) {
+			int f = first_[s], nc = first_[s + 1] - f;
+			int[] rows = rows_[s];
+			double[] l = blocks_[s];
+			int nr = rows.length;
+			for (int k = 0; k < nc; k++) {
+				int c = k * nr, ok = (f + k) * m;
+				double d = l[c + k];
+				for (int j = 0; j < m; j++)
+					y[ok + j] /= d;
+				for (int i = k + 1; i < nr; i++) {
+					double li = l[c + i];
+					int oi = rows[i] * m;
+					for (int j = 0; j < m; j++)
+						y[oi + j] -= li * y[ok + j];
+				}
+			}
+		}
+
+		// back-substitution (L(T) * X = Z)
+		for (int s = rows_.length - 1; s >= 0; s--) {
+			int f = first_[s], nc = first_[s + 1] - f;
+			int[] rows = rows_[s];
+			double[] l = blocks_[s];
+			int nr = rows.length;
+			for (int k = nc - 1; k >= 0; k--) {
+				int c = k * nr, ok = (f + k) * m;
+				for (int j = 0; j < m; j++)
+					sum[j] = y[ok + j];
+				for (int i = k + 1; i < nr; i++) {
+					double li = l[c + i];
+					int oi = rows[i] * m;
+					for (int j = 0; j < m; j++)
+						sum[j] -= li * y[oi + j];
+				}
+				double d = l[c + k];
+				for (int j = 0; j < m; j++)
+					y[ok + j] = sum[j] / d;
+			}
+		}
+
+		// permute solution vectors back
+		for (int i = 0; i < n_; i++) {
+			int oi = i * m, pi = perm_[i];
+			for (int j = 0; j < m; j++)
+				x[j][pi] = y[oi + j];
+		}
+	}
+
+	/**
+	 * Computes the fill-reducing ordering of the matrix. The nested dissection
+	 * ordering is postordered by its elimination tree so that the columns of
+	 * each supernode are numbered consecutively.
+	 * 
+	 * @param ptr
+	 *            Row pointers of the matrix.
+	 * @param adj
+	 *            Column indices of the matrix.
+	 */
+	private void order(int[] ptr, int[] adj) {
+
+		// nested dissection
+		int[] perm = NestedDissection.order(ptr, adj);
+		int[] inv = new int[n_];
+		for (int i = 0; i < n_; i++)
+			inv[perm[i]] = i;
+
+		// compute elimination tree and its children lists
+		int[] parent = eliminationTree(ptr, adj, inv);
+		int[] head = new int[n_];
+		int[] next = new int[n_];
+		Arrays.fill(head, -1);
+		for (int j = n_ - 1; j >= 0; j--) {
+			if (parent[j] != -1) {
+				next[j] = head[parent[j]];
+				head[parent[j]] = j;
+			}
+		}
+
+		// depth-first postorder of the forest
+		perm_ = new int[n_];
+		int[] stack = new int[n_];
+		int k = 0;
+		for (int r = 0; r < n_; r++) {
+			if (parent[r] != -1)
+				continue;
+			int top = 0;
+			stack[top++] = r;
+			while (top > 0) {
+				int j = stack[top - 1];
+				int c = head[j];
+				if (c == -1) {
+					top--;
+					perm_[k++] = perm[j];
+				} else {
+					head[j] = next[c];
+					stack[top++] = c;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the elimination tree of the permuted matrix (Liu).
+	 * 
+	 * @param ptr
+	 *            Row pointers of the matrix.
+	 * @param adj
+	 *            Column indices of the matrix.
+	 * @param inv
+	 *            Inverse permutation (new index of each original row).
+	 * @return The parent array of the elimination tree (-1 for roots).
+	 */
+	private int[] eliminationTree(int[] ptr, int[] adj, int[] inv) {
+
+		// create arrays
+		int n = inv.length;
+		int[] perm = new int[n];
+		for (int i = 0; i < n; i++)
+			perm[inv[i]] = i;
+		int[] parent = new int[n];
+		int[] ancestor = new int[n];
+
+		// loop over columns
+		for (int k = 0; k < n; k++) {
+			parent[k] = -1;
+			ancestor[k] = -1;
+			int c = perm[k];
+			for (int p = ptr[c]; p < ptr[c + 1]; p++) {
+
+				// traverse from row up to the root with path compression
+				int i = inv[adj[p]];
+				while (i != -1 && i < k) {
+					int next = ancestor[i];
+					ancestor[i] = k;
+					if (next == -1)
+						parent[i] = k;
+					i = next;
+				}
+			}
+		}
+		return parent;
+	}
+
+	/**
+	 * Computes the column counts of the Cholesky factor (including diagonal)
+	 * by traversing the row subtrees of the elimination tree.
+	 * 
+	 * @param ptr
+	 *            Row pointers of the matrix.
+	 * @param adj
+	 *            Column indices of the matrix.
+	 * @param inv
+	 *            Inverse permutation.
+	 * @param parent
+	 *            The parent array of the elimination tree.
+	 * @return The column counts.
+	 */
+	private int[] columnCounts(int[] ptr, int[] adj, int[] inv, int[] parent) {
+
+		// create arrays
+		int[] count = new int[n_];
+		int[] mark = new int[n_];
+		Arrays.fill(mark, -1);
+
+		// loop over rows of the factor
+		for (int k = 0; k < n_; k++) {
+			mark[k] = k;
+			count[k]++;
+			int c = perm_[k];
+			for (int p = ptr[c]; p < ptr[c + 1]; p++) {
+				int i = inv[adj[p]];
+				while (i < k && mark[i] != k) {
+					mark[i] = k;
+					count[i]++;
+					i = parent[i];
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds fundamental supernodes of the factor. A column is merged into the
+	 * supernode of the previous column if it is the only child of the previous
+	 * column and their structures are identical.
+	 * 
+	 * @param parent
+	 *            The parent array of the elimination tree.
+	 * @param count
+	 *            The column counts of the factor.
+	 */
+	private void supernodes(int[] parent, int[] count) {
+
+		// count children
+		int[] children = new int[n_];
+		for (int j = 0; j < n_; j++)
+			if (parent[j] != -1)
+				children[parent[j]]++;
+
+		// find first columns of supernodes
+		int[] first = new int[n_ + 1];
+		int ns = 0;
+		for (int j = 0; j < n_; j++) {
+			if (j == 0 || parent[j - 1] != j || children[j] != 1
+					|| count[j - 1] != count[j] + 1)
+				first[ns++] = j;
+		}
+		first[ns] = n_;
+		first_ = new int[ns + 1];
+		System.arraycopy(first, 0, first_, 0, ns + 1);
+	}
+
+	/**
+	 * Computes row structures of supernodes. The structure of a supernode is
+	 * the union of the structure of its columns in the permuted matrix and the
+	 * structures of its child supernodes.
+	 * 
+	 * @param ptr
+	 *            Row pointers of the matrix.
+	 * @param adj
+	 *            Column indices of the matrix.
+	 * @param inv
+	 *            Inverse permutation.
+	 * @param parent
+	 *            The parent array of the elimination tree.
+	 */
+	private void structures(int[] ptr, int[] adj, int[] inv, int[] parent) {
+
+		// create child lists of supernodes
+		int ns = first_.length - 1;
+		int[] snode = new int[n_];
+		for (int s = 0; s < ns; s++)
+			for (int j = first_[s]; j < first_[s + 1]; j++)
+				snode[j] = s;
+		int[] head = new int[ns];
+		int[] next = new int[ns];
+		Arrays.fill(head, -1);
+		for (int s = 0; s < ns; s++) {
+			int p = parent[first_[s + 1] - 1];
+			if (p != -1) {
+				next[s] = head[snode[p]];
+				head[snode[p]] = s;
+			}
+		}
+
+		// loop over supernodes
+		rows_ = new int[ns][];
+		int[] mark = new int[n_];
+		int[] rows = new int[n_];
+		Arrays.fill(mark, -1);
+		for (int s = 0; s < ns; s++) {
+
+			// add diagonal block rows
+			int f = first_[s], l = first_[s + 1] - 1, size = 0;
+			for (int j = f; j <= l; j++)
+				rows[size++] = j;
+
+			// add rows of matrix columns
+			for (int j = f; j <= l; j++) {
+				int c = perm_[j];
+				for (int p = ptr[c]; p < ptr[c + 1]; p++) {
+					int i = inv[adj[p]];
+					if (i > l && mark[i] != s) {
+						mark[i] = s;
+						rows[size++] = i;
+					}
+				}
+			}
+
+			// add rows of child supernodes
+			for (int c = head[s]; c != -1; c = next[c]) {
+				int[] crows = rows_[c];
+				for (int p = first_[c + 1] - first_[c]; p < crows.length; p++) {
+					int i = crows[p];
+					if (i > l && mark[i] != s) {
+						mark[i] = s;
+						rows[size++] = i;
+					}
+				}
+			}
+
+			// store sorted rows
+			rows_[s] = new int[size];
+			System.arraycopy(rows, 0, rows_[s], 0, size);
+			Arrays.sort(rows_[s], l - f + 1, size);
+		}
+	}
+
+	/**
+	 * Performs the numeric factorization.
+	 * 
+	 * @param a
+	 *            Coefficient matrix.
+	 * @param inv
+	 *            Inverse permutation.
+	 */
+	private void factorize(CRSMat a, int[] inv) {
+
+		// get matrix arrays
+		int[] ptr = a.getRowPointers();
+		int[] adj = a.getColumnIndices();
+		double[] val = a.getData();
+
+		// create arrays
+		int ns = first_.length - 1;
+		blocks_ = new double[ns][];
+		int[] snode = new int[n_];
+		for (int s = 0; s < ns; s++)
+			for (int j = first_[s]; j < first_[s + 1]; j++)
+				snode[j] = s;
+		int[] map = new int[n_];
+		int[] head = new int[ns];
+		int[] link = new int[ns];
+		int[] pos = new int[ns];
+		Arrays.fill(head, -1);
+		double[] work = new double[0];
+
+		// loop over supernodes
+		for (int s = 0; s < ns; s++) {
+
+			// get properties of supernode
+			int f = first_[s], l = first_[s + 1] - 1, nc = l - f + 1;
+			int[] rows = rows_[s];
+			int nr = rows.length;
+			double[] ls = new double[nr * nc];
+			blocks_[s] = ls;
+
+			// create relative row map
+			for (int i = 0; i < nr; i++)
+				map[rows[i]] = i;
+
+			// scatter lower entries of matrix columns
+			for (int j = f; j <= l; j++) {
+				int c = perm_[j], col = (j - f) * nr;
+				for (int p = ptr[c]; p < ptr[c + 1]; p++) {
+					int i = inv[adj[p]];
+					if (i >= j)
+						ls[col + map[i]] += val[p];
+				}
+			}
+
+			// loop over descendant supernodes updating this supernode
+			int d = head[s];
+			while (d != -1) {
+				int nextd = link[d];
+
+				// find rows of descendant within this supernode
+				int[] drows = rows_[d];
+				int nd = drows.length, wd = first_[d + 1] - first_[d];
+				int p1 = pos[d], p2 = p1;
+				while (p2 < nd && drows[p2] <= l)
+					p2++;
+				int m = nd - p1, k = p2 - p1;
+
+				// compute dense update (C = L(p1:nd, :) * L(p1:p2, :)T)
+				if (work.length < m * k)
+					work = new double[m * k];
+				Arrays.fill(work, 0, m * k, 0.0);
+				double[] ld = blocks_[d];
+				for (int q = 0; q < wd; q++) {
+					int base = q * nd + p1;
+					for (int jj = 0; jj < k; jj++) {
+						double t = ld[base + jj];
+						if (t == 0.0)
+							continue;
+						int cj = jj * m;
+						for (int ii = jj; ii < m; ii++)
+							work[cj + ii] += ld[base + ii] * t;
+					}
+				}
+
+				// scatter update into supernode
+				for (int jj = 0; jj < k; jj++) {
+					int col = (drows[p1 + jj] - f) * nr, cj = jj * m;
+					for (int ii = jj; ii < m; ii++)
+						ls[col + map[drows[p1 + ii]]] -= work[cj + ii];
+				}
+
+				// link descendant to next supernode to be updated
+				if (p2 < nd) {
+					pos[d] = p2;
+					int t = snode[drows[p2]];
+					link[d] = head[t];
+					head[t] = d;
+				}
+				d = nextd;
+			}
+
+			// factorize dense diagonal block and solve for off-diagonal block
+			for (int j = 0; j < nc; j++) {
+				int cj = j * nr;
+				for (int q = 0; q < j; q++) {
+					int cq = q * nr;
+					double t = ls[cq + j];
+					if (t != 0.0)
+						for (int i = j; i < nr; i++)
+							ls[cj + i] -= ls[cq + i] * t;
+				}
+				double piv = ls[cj + j];
+				if (piv <= 0.0)
+					exceptionHandler("Stiffness matrix is not positive definite!");
+				piv = Math.sqrt(piv);
+				ls[cj + j] = piv;
+				for (int i = j + 1; i < nr; i++)
+					ls[cj + i] /= piv;
+			}
+
+			// link supernode to first supernode it updates
+			if (nr > nc) {
+				pos[s] = nc;
+				int t = snode[rows[nc]];
+				link[s] = head[t];
+				head[t] = s;
+			}
+		}
+	}
+}
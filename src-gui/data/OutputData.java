@@ -19,6 +19,8 @@ import java.io.Serializable;
 
 import analysis.Structure;
 
+import dialogs.file.OutputDataHandler2;
+
 import element.Element;
 import node.Node;
 import matrix.DVec;
@@ -43,6 +45,9 @@ public class OutputData implements Serializable {
 	/** Number of steps available. */
 	private Integer steps_ = 0;
 
+	/** Path of binary output data. */
+	private String path_;
+
 	/**
 	 * Creates output object.
 	 * 
@@ -56,6 +61,20 @@ public class OutputData implements Serializable {
 		steps_ = steps;
 	}
 
+	/**
+	 * Creates output object for binary output data. The unknowns are read
+	 * from the file when demanded.
+	 * 
+	 * @param path
+	 *            The path of output data.
+	 * @param steps
+	 *            Number of steps available.
+	 */
+	public OutputData(String path, Integer steps) {
+		path_ = path;
+		steps_ = steps;
+	}
+
 	/**
 	 * Sets nodal unknowns and reaction forces to nodes depending on the step
 	 * number given.
@@ -67,8 +86,8 @@ public class OutputData implements Serializable {
 	 */
 	public void setStep(Structure s, int n) {
 
-		// check unknowns matrix
-		if (unknowns_ != null) {
+		// check unknowns
+		if (unknowns_ != null || path_ != null) {
 
 			// check demanded step number
 			if (n < steps_) {
@@ -92,28 +111,15 @@ public class OutputData implements Serializable {
 	 */
 	public void setStepToNode(Node node, int n) {
 
-		// check unknowns matrix
-		if (unknowns_ != null) {
-
-			// get node's dof numbers array
-			int[] dof = node.getDofNumbers();
-
-			// build array for storing node's unknowns
-			double[] uNode = new double[6];
+		// check unknowns
+		if (unknowns_ != null || path_ != null) {
 
-			// loop over dofs
-			for (int j = 0; j < 6; j++) {
-
-				// check if dof is free
-				if (dof[j] != -1) {
-
-					// set unknowns to array
-					uNode[j] = unknowns_[dof[j]][n];
-				}
-			}
+			// get node's unknowns
+			double[] uNode = getUnknowns(node.getDofNumbers(), n);
 
 			// set unknowns to node
-			node.setUnknown(uNode);
+			if (uNode != null)
+				node.setUnknown(uNode);
 		}
 	}
 
@@ -127,33 +133,28 @@ public class OutputData implements Serializable {
 	 */
 	public void setStepToElement(Element e, int n) {
 
-		// check unknowns matrix
-		if (unknowns_ != null) {
+		// check unknowns
+		if (unknowns_ != null || path_ != null) {
 
 			// get nodes of element
 			Node[] nodes = e.getNodes();
 
-			// loop over element nodes
-			for (int i = 0; i < nodes.length; i++) {
+			// collect dof numbers of element nodes
+			int[] dof = new int[6 * nodes.length];
+			for (int i = 0; i < nodes.length; i++)
+				System.arraycopy(nodes[i].getDofNumbers(), 0, dof, 6 * i, 6);
 
-				// get node's dof numbers array
-				int[] dof = nodes[i].getDofNumbers();
-
-				// build array for storing node's unknowns
-				double[] uNode = new double[6];
+			// get element's unknowns at once
+			double[] u = getUnknowns(dof, n);
+			if (u == null)
+				return;
 
-				// loop over dofs
-				for (int j = 0; j < 6; j++) {
-
-					// check if dof is free
-					if (dof[j] != -1) {
-
-						// set unknowns to array
-						uNode[j] = unknowns_[dof[j]][n];
-					}
-				}
+			// loop over element nodes
+			for (int i = 0; i < nodes.length; i++) {
 
 				// set unknowns to node
+				double[] uNode = new double[6];
+				System.arraycopy(u, 6 * i, uNode, 0, 6);
 				nodes[i].setUnknown(uNode);
 			}
 		}
@@ -171,12 +172,55 @@ public class OutputData implements Serializable {
 	/**
 	 * Returns unknowns matrix of output object.
 	 * 
-	 * @return Unknowns matrix of output object.
+	 * @return Unknowns matrix of output object, or null for binary output
+	 *         data.
 	 */
 	public double[][] getUnknowns() {
 		return unknowns_;
 	}
 
+	/**
+	 * Returns the path of binary output data.
+	 * 
+	 * @return The path of binary output data, or null if unknowns are stored
+	 *         in this object.
+	 */
+	public String getPath() {
+		return path_;
+	}
+
+	/**
+	 * Returns unknowns of the given dofs at the given step.
+	 * 
+	 * @param dof
+	 *            Dof numbers (-1 for restrained dofs). If null, the complete
+	 *            unknown vector of step is returned.
+	 * @param n
+	 *            The step number.
+	 * @return Array storing the unknowns, or null if they cannot be read.
+	 */
+	private double[] getUnknowns(int[] dof, int n) {
+
+		// binary output data
+		if (path_ != null)
+			return OutputDataHandler2.read(path_, n, dof);
+
+		// complete unknown vector
+		if (dof == null) {
+			double[] u = new double[unknowns_.length];
+			for (int i = 0; i < u.length; i++)
+				u[i] = unknowns_[i][n];
+			return u;
+		}
+
+		// unknowns of given dofs
+		double[] u = new double[dof.length];
+		for (int j = 0; j < dof.length; j++)
+			if (dof[j] != -1)
+				u[j] = unknowns_[dof[j]][n];
+		return u;
+	}
+
 	/**
 	 * Sets unknowns to nodes.
 	 * 
@@ -187,6 +231,11 @@ public class OutputData implements Serializable {
 	 */
 	private void setUnknowns(Structure s, int n) {
 
+		// get unknowns of step
+		double[] u = getUnknowns(null, n);
+		if (u == null)
+			return;
+
 		// loop over nodes
 		for (int i = 0; i < s.getNumberOfNodes(); i++) {
 
@@ -206,7 +255,7 @@ public class OutputData implements Serializable {
 				if (dof[j] != -1) {
 
 					// set unknowns to array
-					uNode[j] = unknowns_[dof[j]][n];
+					uNode[j] = u[dof[j]];
 				}
 			}
 
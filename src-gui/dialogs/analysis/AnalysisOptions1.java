@@ -27,6 +27,8 @@ import javax.swing.JPanel;
 
 import main.Commons;
 
+import analysis.Structure;
+
 import main.SolidMAT;
 
 /**
@@ -40,7 +42,7 @@ public class AnalysisOptions1 extends JDialog implements ActionListener {
 	private static final long serialVersionUID = 1L;
 
 	private JCheckBox checkbox1_, checkbox2_, checkbox3_, checkbox4_,
-			checkbox5_, checkbox6_;
+			checkbox5_, checkbox6_, checkbox7_;
 
 	private JButton button1_, button2_, button3_, button4_;
 
@@ -71,6 +73,8 @@ public class AnalysisOptions1 extends JDialog implements ActionListener {
 		// build sub-panels
 		JPanel panel3 = Commons.getPanel("Available DOFs", Commons.gridbag_);
 		JPanel panel4 = Commons.getPanel("Fast DOFs", Commons.gridbag_);
+		JPanel panel5 = Commons.getPanel("Equation Numbering",
+				Commons.gridbag_);
 
 		// build checkboxes and set font
 		checkbox1_ = new JCheckBox("Translation X", true);
@@ -79,6 +83,7 @@ public class AnalysisOptions1 extends JDialog implements ActionListener {
 		checkbox4_ = new JCheckBox("Rotation about X", true);
 		checkbox5_ = new JCheckBox("Rotation about Y", true);
 		checkbox6_ = new JCheckBox("Rotation about Z", true);
+		checkbox7_ = new JCheckBox("Reduce bandwidth (RCM)", false);
 
 		// build buttons, set tooltiptext and set font
 		button1_ = new JButton("    3D     ");
@@ -99,10 +104,12 @@ public class AnalysisOptions1 extends JDialog implements ActionListener {
 		Commons.addComponent(panel4, button2_, 0, 1, 1, 1);
 		Commons.addComponent(panel4, button3_, 1, 0, 1, 1);
 		Commons.addComponent(panel4, button4_, 1, 1, 1, 1);
+		Commons.addComponent(panel5, checkbox7_, 0, 0, 1, 1);
 
 		// add sub-panels to main panels
 		Commons.addComponent(panel1, panel3, 0, 0, 1, 1);
 		Commons.addComponent(panel1, panel4, 1, 0, 1, 1);
+		Commons.addComponent(panel1, panel5, 2, 0, 1, 1);
 		panel2.add(button5);
 		panel2.add(button6);
 
@@ -148,6 +155,10 @@ public class AnalysisOptions1 extends JDialog implements ActionListener {
 			checkbox5_.setSelected(false);
 		if (dofs[5] == -1)
 			checkbox6_.setSelected(false);
+
+		// set dof renumbering
+		if (owner_.structure_.getDofRenumbering() == Structure.reverseCuthillMcKee_)
+			checkbox7_.setSelected(true);
 	}
 
 	/**
@@ -243,6 +254,12 @@ public class AnalysisOptions1 extends JDialog implements ActionListener {
 		// set available dofs to structure
 		owner_.structure_.setAvailableDofs(dofs);
 
+		// set dof renumbering to structure
+		if (checkbox7_.isSelected())
+			owner_.structure_.setDofRenumbering(Structure.reverseCuthillMcKee_);
+		else
+			owner_.structure_.setDofRenumbering(Structure.none_);
+
 		// set dialog unvisible
 		setVisible(false);
 	}
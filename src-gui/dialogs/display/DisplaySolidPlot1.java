@@ -22,6 +22,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.util.Vector;
 
 import javax.swing.ButtonGroup;
 // import javax.swing.ImageIcon;
@@ -735,11 +736,15 @@ public class DisplaySolidPlot1 extends JDialog implements ActionListener,
 		// linear dynamic analysis
 		if (type == Analysis.linearTransient_) {
 
-			// get time step size
-			double dt = (Double) owner_.structure_.getAnalysisInfo().get(6);
+			// get time step size and retained step number
+			Vector<Object> info = owner_.structure_.getAnalysisInfo();
+			double dt = (Double) info.get(6);
+			int step = j;
+			if (info.size() > 12)
+				step = ((int[]) info.get(12))[j];
 
 			// set value
-			xVal.set(i, j * dt + dt);
+			xVal.set(i, step * dt + dt);
 		}
 
 		// modal analysis
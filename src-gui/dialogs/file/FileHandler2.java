@@ -337,8 +337,7 @@ public class FileHandler2 extends JDialog {
 
 					// write output data
 					label1_.setText("Writing output data...");
-					OutputDataHandler1.write(path_, outputData.getUnknowns(),
-							outputData.getNumberOfSteps());
+					OutputDataHandler1.write(path_, outputData);
 
 					// set path
 					owner_.path_ = path_;
@@ -44,6 +44,11 @@ public class OutputDataHandler1 {
 	 */
 	public static OutputData read(String path) {
 
+		// binary output data
+		int[] header = OutputDataHandler2.readHeader(path);
+		if (header != null)
+			return new OutputData(path, header[2]);
+
 		// initialize input stream
 		ObjectInputStream in = null;
 
@@ -97,6 +102,27 @@ public class OutputDataHandler1 {
 		}
 	}
 
+	/**
+	 * Writes given output data to given path. Binary output data is copied
+	 * from its own path.
+	 * 
+	 * @param path
+	 *            The path to write the output data.
+	 * @param outputData
+	 *            Output data to be written.
+	 * @return True if no problem occured during writing, False vice versa.
+	 */
+	public static boolean write(String path, OutputData outputData) {
+
+		// binary output data
+		if (outputData.getPath() != null)
+			return OutputDataHandler2.copy(outputData.getPath(), path);
+
+		// output data object
+		return write(path, outputData.getUnknowns(), outputData
+				.getNumberOfSteps());
+	}
+
 	/**
 	 * Writes output data object to given path.
 	 * 
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dialogs.file;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import matrix.DVec;
+
+/**
+ * Class for streaming output data in binary form. The unknown vectors are
+ * appended to the output file step by step, so that only one step is kept in
+ * memory during analysis. Only the unknowns of the given dofs may be retained.
+ * The file consists of a header (identifier, number of equations, number of
+ * retained dofs and, if not all dofs are retained, the retained dof numbers)
+ * followed by the retained unknowns of steps.
+ * 
+ * @author Murat Artim
+ * 
+ */
+public class OutputDataHandler2 {
+
+	/** Identifier of binary output data files. */
+	public static final int id_ = 0x534D4154;
+
+	/** Size of fixed part of file header in bytes. */
+	private static final long header_ = 12;
+
+	/** Output stream. */
+	private DataOutputStream out_;
+
+	/** Buffer for one step. */
+	private byte[] buffer_;
+
+	/** Retained dof numbers (null if all dofs are retained). */
+	private int[] dofs_;
+
+	/** Number of retained dofs and steps written. */
+	private int size_, steps_ = 0;
+
+	/**
+	 * Creates output data stream.
+	 * 
+	 * @param out
+	 *            Output stream.
+	 * @param eqn
+	 *            Number of equations.
+	 * @param dofs
+	 *            Retained dof numbers (null if all dofs are retained).
+	 */
+	private OutputDataHandler2(DataOutputStream out, int eqn, int[] dofs) {
+		out_ = out;
+		dofs_ = dofs;
+		size_ = dofs == null ? eqn : dofs.length;
+		buffer_ = new byte[8 * size_];
+	}
+
+	/**
+	 * Opens and returns output data stream for the given path. Any existing
+	 * output data is overwritten.
+	 * 
+	 * @param path
+	 *            The path to write the output data.
+	 * @param eqn
+	 *            Number of equations.
+	 * @param dofs
+	 *            Retained dof numbers in ascending order (null if all dofs are
+	 *            retained).
+	 * @return Output data stream, or null if the file cannot be opened.
+	 */
+	public static OutputDataHandler2 open(String path, int eqn, int[] dofs) {
+
+		// initialize output stream
+		DataOutputStream out = null;
+
+		// open file
+		try {
+
+			// create output stream and write header
+			out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(getPath(path))));
+			if (dofs != null && dofs.length == eqn)
+				dofs = null;
+			out.writeInt(id_);
+			out.writeInt(eqn);
+			out.writeInt(dofs == null ? eqn : dofs.length);
+			if (dofs != null)
+				for (int i = 0; i < dofs.length; i++)
+					out.writeInt(dofs[i]);
+			return new OutputDataHandler2(out, eqn, dofs);
+		}
+
+		// cannot open file
+		catch (IOException e) {
+
+			// close output stream
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException io) {
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Appends unknown vector of the next step.
+	 * 
+	 * @param u
+	 *            Unknown vector.
+	 * @throws IOException
+	 *             If the vector cannot be written.
+	 */
+	public void write(DVec u) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(buffer_);
+		for (int i = 0; i < size_; i++)
+			buffer.putDouble(u.get(dofs_ == null ? i : dofs_[i]));
+		out_.write(buffer_);
+		steps_++;
+	}
+
+	/**
+	 * Appends unknown vector of the next step.
+	 * 
+	 * @param u
+	 *            Unknown array.
+	 * @throws IOException
+	 *             If the array cannot be written.
+	 */
+	public void write(double[] u) throws IOException {
+		if (dofs_ == null)
+			ByteBuffer.wrap(buffer_).asDoubleBuffer().put(u, 0, size_);
+		else {
+			ByteBuffer buffer = ByteBuffer.wrap(buffer_);
+			for (int i = 0; i < size_; i++)
+				buffer.putDouble(u[dofs_[i]]);
+		}
+		out_.write(buffer_);
+		steps_++;
+	}
+
+	/**
+	 * Returns retained dof numbers.
+	 * 
+	 * @return Retained dof numbers, or null if all dofs are retained.
+	 */
+	public int[] getDofs() {
+		return dofs_;
+	}
+
+	/**
+	 * Returns number of steps written.
+	 * 
+	 * @return Number of steps written.
+	 */
+	public int getNumberOfSteps() {
+		return steps_;
+	}
+
+	/**
+	 * Closes output data stream.
+	 * 
+	 * @return True if no problem occured during closing, False vice versa.
+	 */
+	public boolean close() {
+		try {
+			out_.close();
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Reads and returns header of the binary output data at the given path.
+	 * 
+	 * @param path
+	 *            The path of output data.
+	 * @return Array storing number of equations, retained dofs and steps, or
+	 *         null if the output data is not binary.
+	 */
+	public static int[] readHeader(String path) {
+
+		// initialize file
+		RandomAccessFile file = null;
+
+		// read file
+		try {
+
+			// check identifier
+			file = new RandomAccessFile(getPath(path), "r");
+			if (file.length() < header_ || file.readInt() != id_)
+				return null;
+
+			// compute number of steps
+			int eqn = file.readInt();
+			int size = file.readInt();
+			long start = header_ + (size < eqn ? 4L * size : 0L);
+			int steps = 0;
+			if (size > 0)
+				steps = (int) ((file.length() - start) / (8L * size));
+			return new int[] { eqn, size, steps };
+		}
+
+		// cannot read file
+		catch (IOException e) {
+			return null;
+		}
+
+		// close file
+		finally {
+			close(file);
+		}
+	}
+
+	/**
+	 * Reads and returns unknowns of the given dofs at the given step. The
+	 * unknowns of dofs which are not retained are returned as zero.
+	 * 
+	 * @param path
+	 *            The path of output data.
+	 * @param n
+	 *            The step number.
+	 * @param dof
+	 *            Dof numbers to be read (-1 for restrained dofs). If null,
+	 *            the complete unknown vector of step is read.
+	 * @return Array storing the unknowns, or null if they cannot be read.
+	 */
+	public static double[] read(String path, int n, int[] dof) {
+
+		// initialize file
+		RandomAccessFile file = null;
+
+		// read file
+		try {
+
+			// read header
+			file = new RandomAccessFile(getPath(path), "r");
+			file.seek(header_ - 8);
+			int eqn = file.readInt();
+			int size = file.readInt();
+			int[] dofs = null;
+			if (size < eqn) {
+				byte[] bytes = new byte[4 * size];
+				file.readFully(bytes);
+				dofs = new int[size];
+				ByteBuffer.wrap(bytes).asIntBuffer().get(dofs);
+			}
+			long offset = file.getFilePointer() + 8L * size * n;
+
+			// read complete step
+			if (dof == null) {
+				byte[] bytes = new byte[8 * size];
+				file.seek(offset);
+				file.readFully(bytes);
+				double[] values = new double[size];
+				ByteBuffer.wrap(bytes).asDoubleBuffer().get(values);
+				if (dofs == null)
+					return values;
+				double[] u = new double[eqn];
+				for (int i = 0; i < size; i++)
+					u[dofs[i]] = values[i];
+				return u;
+			}
+
+			// find indices of given dofs within step
+			int[] index = new int[dof.length];
+			int min = size, max = -1;
+			for (int i = 0; i < dof.length; i++) {
+				index[i] = -1;
+				if (dof[i] != -1) {
+					index[i] = dof[i];
+					if (dofs != null)
+						index[i] = Arrays.binarySearch(dofs, dof[i]);
+					if (index[i] >= 0) {
+						min = Math.min(min, index[i]);
+						max = Math.max(max, index[i]);
+					}
+				}
+			}
+
+			// read span of step containing given dofs
+			double[] u = new double[dof.length];
+			if (max < 0)
+				return u;
+			byte[] bytes = new byte[8 * (max - min + 1)];
+			file.seek(offset + 8L * min);
+			file.readFully(bytes);
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			for (int i = 0; i < dof.length; i++)
+				if (index[i] >= 0)
+					u[i] = buffer.getDouble(8 * (index[i] - min));
+			return u;
+		}
+
+		// cannot read file
+		catch (IOException e) {
+			return null;
+		}
+
+		// close file
+		finally {
+			close(file);
+		}
+	}
+
+	/**
+	 * Copies output data from the first path to the second path.
+	 * 
+	 * @param source
+	 *            The path of output data to be copied.
+	 * @param target
+	 *            The path to write the output data.
+	 * @return True if no problem occured during copying, False vice versa.
+	 */
+	public static boolean copy(String source, String target) {
+		try {
+			Files.copy(Paths.get(getPath(source)), Paths.get(getPath(target)),
+					StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the output data file path for the given path.
+	 * 
+	 * @param path
+	 *            The path of model file.
+	 * @return The output data file path.
+	 */
+	private static String getPath(String path) {
+		return path.substring(0, path.length() - 4) + ".out";
+	}
+
+	/**
+	 * Closes the given file, if it is not null.
+	 * 
+	 * @param file
+	 *            File to be closed.
+	 */
+	private static void close(RandomAccessFile file) {
+		if (file != null) {
+			try {
+				file.close();
+			} catch (IOException io) {
+			}
+		}
+	}
+}
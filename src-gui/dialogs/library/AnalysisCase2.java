@@ -30,6 +30,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTextField;
 
 import boundary.BoundaryCase;
+import data.Group;
 import math.Function;
 
 import analysis.*;
@@ -273,6 +274,11 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 					check = false;
 				}
 
+				// linear static analysis
+				else if (type == Analysis.linearStatic_
+						&& panel1_.checkLoadCases() == false)
+					check = false;
+
 				// linear transient analysis
 				else if (type == Analysis.linearTransient_) {
 
@@ -337,6 +343,11 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 					}
 				}
 
+				// modal analysis
+				else if (type == Analysis.modal_
+						&& panel2_.checkFrequencyRange() == false)
+					check = false;
+
 				// linear buckling analysis
 				else if (type == Analysis.linearBuckling_
 						&& panel4_.listModel1_.isEmpty()) {
@@ -377,6 +388,11 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 					check = false;
 				}
 
+				// linear static analysis
+				else if (type == Analysis.linearStatic_
+						&& panel1_.checkLoadCases() == false)
+					check = false;
+
 				// linear transient analysis
 				else if (type == Analysis.linearTransient_) {
 
@@ -441,6 +457,11 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 					}
 				}
 
+				// modal analysis
+				else if (type == Analysis.modal_
+						&& panel2_.checkFrequencyRange() == false)
+					check = false;
+
 				// linear buckling analysis
 				else if (type == Analysis.linearBuckling_
 						&& panel4_.listModel1_.isEmpty()) {
@@ -475,6 +496,11 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 						check = false;
 					}
 
+					// linear static analysis
+					else if (type == Analysis.linearStatic_
+							&& panel1_.checkLoadCases() == false)
+						check = false;
+
 					// linear transient analysis
 					else if (type == Analysis.linearTransient_) {
 
@@ -541,6 +567,11 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 						}
 					}
 
+					// modal analysis
+					else if (type == Analysis.modal_
+							&& panel2_.checkFrequencyRange() == false)
+						check = false;
+
 					// linear buckling analysis
 					else if (type == Analysis.linearBuckling_
 							&& panel4_.listModel1_.isEmpty()) {
@@ -628,6 +659,7 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 			LinearStatic ls = new LinearStatic(name);
 			ls.setSolver(solver);
 			ls.setBoundaries(bound, scales);
+			ls.setLoadCases(panel1_.getLoadCases());
 			object = ls;
 		}
 
@@ -682,6 +714,7 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 			modal.setSolver(solver);
 			double[] scales = new double[bound.size()];
 			modal.setBoundaries(bound, scales);
+			modal.setFrequencyRange(panel2_.getFrequencyRange());
 			object = modal;
 		}
 
@@ -778,8 +811,27 @@ public class AnalysisCase2 extends JDialog implements ActionListener {
 				ld.setNewmarkParameters(par[0], par[1]);
 			else if (method == LinearTransient.wilson_)
 				ld.setWilsonParameter(par[0]);
+			else if (method == LinearTransient.modal_)
+				ld.setNumberOfModes((int) par[0]);
 			ld.setBoundaries(bound, scales);
 			ld.setLoadTimeFunction(func);
+
+			// get vector of all groups
+			Vector<Group> allGroups = owner_.owner_.inputData_.getGroup();
+
+			// create and set output plan
+			OutputPlan plan = new OutputPlan(panel3_.outputStride_);
+			plan.setSteps(panel3_.outputSteps_);
+			for (int i = 0; i < panel3_.outputGroups_.size(); i++) {
+				for (int j = 0; j < allGroups.size(); j++) {
+					if (panel3_.outputGroups_.get(i).equals(
+							allGroups.get(j).getName())) {
+						plan.addGroup(allGroups.get(j));
+						break;
+					}
+				}
+			}
+			ld.setOutputPlan(plan);
 			object = ld;
 		}
 
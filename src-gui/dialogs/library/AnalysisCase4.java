@@ -46,7 +46,8 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 
 	private JTextField textfield1_, textfield2_;
 
-	private JRadioButton radiobutton1_, radiobutton2_;
+	private JRadioButton radiobutton1_, radiobutton2_, radiobutton3_,
+			radiobutton4_;
 
 	private JLabel label2_, label3_;
 
@@ -90,11 +91,15 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 		// build radio buttons and set font
 		radiobutton1_ = new JRadioButton("Newmark", true);
 		radiobutton2_ = new JRadioButton("Wilson", false);
+		radiobutton3_ = new JRadioButton("Modal", false);
+		radiobutton4_ = new JRadioButton("Central", false);
 
 		// build button groups
 		ButtonGroup buttongroup1 = new ButtonGroup();
 		buttongroup1.add(radiobutton1_);
 		buttongroup1.add(radiobutton2_);
+		buttongroup1.add(radiobutton3_);
+		buttongroup1.add(radiobutton4_);
 
 		// build buttons and set font
 		JButton button1 = new JButton("  OK  ");
@@ -106,8 +111,10 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 		Commons.addComponent(panel3, label3_, 2, 0, 1, 1);
 		Commons.addComponent(panel3, radiobutton1_, 0, 1, 1, 1);
 		Commons.addComponent(panel3, radiobutton2_, 0, 2, 1, 1);
-		Commons.addComponent(panel3, textfield1_, 1, 1, 2, 1);
-		Commons.addComponent(panel3, textfield2_, 2, 1, 2, 1);
+		Commons.addComponent(panel3, radiobutton3_, 0, 3, 1, 1);
+		Commons.addComponent(panel3, radiobutton4_, 0, 4, 1, 1);
+		Commons.addComponent(panel3, textfield1_, 1, 1, 4, 1);
+		Commons.addComponent(panel3, textfield2_, 2, 1, 4, 1);
 
 		// add sub-panels to main panels
 		Commons.addComponent(panel1, panel3, 0, 0, 1, 1);
@@ -124,6 +131,8 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 		button2.addActionListener(this);
 		radiobutton1_.addActionListener(this);
 		radiobutton2_.addActionListener(this);
+		radiobutton3_.addActionListener(this);
+		radiobutton4_.addActionListener(this);
 
 		// initialize
 		initialize();
@@ -143,7 +152,9 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 
 			// set radiobutton and text options
 			radiobutton1_.setSelected(true);
+			textfield1_.setEnabled(true);
 			textfield2_.setEnabled(true);
+			label2_.setVisible(true);
 			label2_.setText("Alpha :");
 			label3_.setVisible(true);
 
@@ -159,7 +170,9 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 
 			// set radiobutton and text options
 			radiobutton2_.setSelected(true);
+			textfield1_.setEnabled(true);
 			textfield2_.setEnabled(false);
+			label2_.setVisible(true);
 			label2_.setText("Theta :");
 			label3_.setVisible(false);
 
@@ -167,6 +180,33 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 			textfield1_.setText(owner_.owner_.owner_.owner_.formatter_
 					.format(owner_.integrationPar_[0]));
 		}
+
+		// mode superposition selected
+		else if (owner_.method_ == LinearTransient.modal_) {
+
+			// set radiobutton and text options
+			radiobutton3_.setSelected(true);
+			textfield1_.setEnabled(true);
+			textfield2_.setEnabled(false);
+			label2_.setVisible(true);
+			label2_.setText("Modes :");
+			label3_.setVisible(false);
+
+			// set texts
+			textfield1_.setText(Integer
+					.toString((int) owner_.integrationPar_[0]));
+		}
+
+		// central difference selected
+		else if (owner_.method_ == LinearTransient.centralDifference_) {
+
+			// set radiobutton and text options
+			radiobutton4_.setSelected(true);
+			textfield1_.setEnabled(false);
+			textfield2_.setEnabled(false);
+			label2_.setVisible(false);
+			label3_.setVisible(false);
+		}
 	}
 
 	/**
@@ -192,7 +232,9 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 		else if (e.getSource().equals(radiobutton1_)) {
 
 			// set textfield enabled
+			textfield1_.setEnabled(true);
 			textfield2_.setEnabled(true);
+			label2_.setVisible(true);
 			label2_.setText("Alpha :");
 			label3_.setVisible(true);
 
@@ -205,7 +247,9 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 		else if (e.getSource().equals(radiobutton2_)) {
 
 			// set textfield enabled
+			textfield1_.setEnabled(true);
 			textfield2_.setEnabled(false);
+			label2_.setVisible(true);
 			label2_.setText("Theta :");
 			label3_.setVisible(false);
 
@@ -213,6 +257,35 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 			textfield1_.setText("1.400");
 			textfield2_.setText("");
 		}
+
+		// mode superposition
+		else if (e.getSource().equals(radiobutton3_)) {
+
+			// set textfield enabled
+			textfield1_.setEnabled(true);
+			textfield2_.setEnabled(false);
+			label2_.setVisible(true);
+			label2_.setText("Modes :");
+			label3_.setVisible(false);
+
+			// set default values
+			textfield1_.setText("10");
+			textfield2_.setText("");
+		}
+
+		// central difference
+		else if (e.getSource().equals(radiobutton4_)) {
+
+			// set textfields disabled
+			textfield1_.setEnabled(false);
+			textfield2_.setEnabled(false);
+			label2_.setVisible(false);
+			label3_.setVisible(false);
+
+			// clear values
+			textfield1_.setText("");
+			textfield2_.setText("");
+		}
 	}
 
 	/**
@@ -236,6 +309,14 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 				owner_.textfield5_.setText("Wilson");
 				owner_.integrationPar_[0] = Double.parseDouble(textfield1_
 						.getText());
+			} else if (radiobutton3_.isSelected()) {
+				owner_.method_ = LinearTransient.modal_;
+				owner_.textfield5_.setText("Modal");
+				owner_.integrationPar_[0] = Integer.parseInt(textfield1_
+						.getText());
+			} else if (radiobutton4_.isSelected()) {
+				owner_.method_ = LinearTransient.centralDifference_;
+				owner_.textfield5_.setText("Central");
 			}
 
 			// set dialog unvisible
@@ -325,6 +406,32 @@ public class AnalysisCase4 extends JDialog implements ActionListener {
 			}
 		}
 
+		// mode superposition
+		else if (radiobutton3_.isSelected()) {
+
+			// textfield1
+			try {
+
+				// convert text to integer value
+				int value = Integer.parseInt(textfield1_.getText());
+
+				// check for <= 0
+				if (value <= 0) {
+
+					// display message
+					JOptionPane.showMessageDialog(this, "Illegal value!",
+							"False data entry", 2);
+					return false;
+				}
+			} catch (Exception excep) {
+
+				// display message
+				JOptionPane.showMessageDialog(this, "Illegal value!",
+						"False data entry", 2);
+				return false;
+			}
+		}
+
 		// data is correct
 		return true;
 	}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dialogs.library;
+
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Vector;
+
+// import javax.swing.ImageIcon;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.ScrollPaneConstants;
+
+import main.Commons;
+// import main.ImageHandler;
+
+/**
+ * Class for Modify Output plan in Analysis Cases menu.
+ * 
+ * @author Murat
+ * 
+ */
+public class AnalysisCase5 extends JDialog implements ActionListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private JTextField textfield1_, textfield2_;
+
+	private JButton button3_, button4_;
+
+	private JComboBox combobox1_;
+
+	private DefaultListModel listModel1_;
+
+	private JList list1_;
+
+	/** Mother panel of this dialog. */
+	private AnalysisCasePanel3 owner_;
+
+	/**
+	 * Builds dialog, builds components, calls addComponent, sets layout and
+	 * sets up listeners.
+	 * 
+	 * @param owner
+	 *            Panel to be the owner of this dialog.
+	 */
+	public AnalysisCase5(AnalysisCasePanel3 owner) {
+
+		// build dialog, determine owner dialog, give caption, make it modal
+		super(owner.owner_, "Output Plan", true);
+		owner_ = owner;
+
+		// set icon
+		// ImageIcon image = ImageHandler.createImageIcon("SolidMAT2.jpg");
+		// super.setIconImage(image.getImage());
+
+		// build main panels
+		JPanel panel1 = Commons.getPanel(null, Commons.gridbag_);
+		JPanel panel2 = Commons.getPanel(null, Commons.flow_);
+
+		// build sub-panels
+		JPanel panel3 = Commons.getPanel("Output Steps", Commons.gridbag_);
+		JPanel panel4 = Commons.getPanel("Output Groups", Commons.gridbag_);
+
+		// build labels
+		JLabel label1 = new JLabel("Step stride :");
+		JLabel label2 = new JLabel("Additional steps :");
+		JLabel label3 = new JLabel("Groups :");
+
+		// build text fields and set font
+		textfield1_ = new JTextField();
+		textfield2_ = new JTextField();
+		textfield1_.setPreferredSize(new Dimension(150, 20));
+
+		// build combo box and set maximum visible row number
+		combobox1_ = new JComboBox(setGroups());
+		combobox1_.setMaximumRowCount(3);
+
+		// build list model and list, set single selection mode,
+		// visible row number, fixed width, fixed height
+		listModel1_ = new DefaultListModel();
+		list1_ = new JList(listModel1_);
+		list1_.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		list1_.setVisibleRowCount(4);
+		list1_.setFixedCellWidth(150);
+		list1_.setFixedCellHeight(15);
+
+		// build scroll pane and add list to it
+		JScrollPane scrollpane1 = new JScrollPane(list1_);
+		scrollpane1
+				.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS);
+		scrollpane1
+				.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+
+		// build buttons and set font
+		JButton button1 = new JButton("  OK  ");
+		JButton button2 = new JButton("Cancel");
+		button3_ = new JButton("Add");
+		button4_ = new JButton("Delete");
+
+		// add components to sub-panels
+		Commons.addComponent(panel3, label1, 0, 0, 1, 1);
+		Commons.addComponent(panel3, label2, 1, 0, 1, 1);
+		Commons.addComponent(panel3, textfield1_, 0, 1, 1, 1);
+		Commons.addComponent(panel3, textfield2_, 1, 1, 1, 1);
+		Commons.addComponent(panel4, label3, 0, 0, 1, 1);
+		Commons.addComponent(panel4, combobox1_, 1, 0, 1, 1);
+		Commons.addComponent(panel4, button3_, 2, 0, 1, 1);
+		Commons.addComponent(panel4, button4_, 3, 0, 1, 1);
+		Commons.addComponent(panel4, scrollpane1, 0, 1, 1, 4);
+
+		// add sub-panels to main panels
+		Commons.addComponent(panel1, panel3, 0, 0, 1, 1);
+		Commons.addComponent(panel1, panel4, 1, 0, 1, 1);
+		panel2.add(button1);
+		panel2.add(button2);
+
+		// set layout for dialog and add panels
+		getContentPane().setLayout(new BorderLayout());
+		getContentPane().add("Center", panel1);
+		getContentPane().add("South", panel2);
+
+		// set up listeners for components
+		button1.addActionListener(this);
+		button2.addActionListener(this);
+		button3_.addActionListener(this);
+		button4_.addActionListener(this);
+
+		// initialize
+		initialize();
+
+		// call visualize
+		Commons.visualize(this);
+	}
+
+	/**
+	 * Initializes the components from the output plan of mother panel.
+	 */
+	private void initialize() {
+
+		// set stride
+		textfield1_.setText(Integer.toString(owner_.outputStride_));
+
+		// set additional steps
+		String steps = "";
+		for (int i = 0; i < owner_.outputSteps_.length; i++) {
+			if (i > 0)
+				steps += ", ";
+			steps += Integer.toString(owner_.outputSteps_[i]);
+		}
+		textfield2_.setText(steps);
+
+		// set groups
+		for (int i = 0; i < owner_.outputGroups_.size(); i++)
+			listModel1_.addElement(owner_.outputGroups_.get(i));
+	}
+
+	/**
+	 * Calls actionOk or sets dialog unvisible depending on button clicked.
+	 */
+	public void actionPerformed(ActionEvent e) {
+
+		// ok button clicked
+		if (e.getActionCommand() == "  OK  ") {
+
+			// call actionOk
+			actionOk();
+		}
+
+		// cancel button clicked
+		else if (e.getActionCommand() == "Cancel") {
+
+			// set dialog unvisible
+			setVisible(false);
+		}
+
+		// add button clicked
+		else if (e.getSource().equals(button3_)) {
+
+			// add selected group to list
+			Object group = combobox1_.getSelectedItem();
+			if (group != null && listModel1_.contains(group) == false)
+				listModel1_.addElement(group);
+		}
+
+		// delete button clicked
+		else if (e.getSource().equals(button4_)) {
+
+			// delete selected group from list
+			if (list1_.isSelectionEmpty() == false)
+				listModel1_.removeElementAt(list1_.getSelectedIndex());
+		}
+	}
+
+	/**
+	 * Sets output plan of mother panel and sets dialog unvisible.
+	 */
+	private void actionOk() {
+
+		// check stride
+		int stride = 0;
+		try {
+			stride = Integer.parseInt(textfield1_.getText().trim());
+			if (stride < 0)
+				throw new NumberFormatException();
+		} catch (Exception excep) {
+
+			// display message
+			JOptionPane.showMessageDialog(this, "Illegal step stride!",
+					"False data entry", 2);
+			return;
+		}
+
+		// check additional steps
+		String[] texts = textfield2_.getText().split(",");
+		Vector<Integer> steps = new Vector<Integer>();
+		try {
+			for (int i = 0; i < texts.length; i++) {
+				String text = texts[i].trim();
+				if (text.equals(""))
+					continue;
+				int step = Integer.parseInt(text);
+				if (step < 0)
+					throw new NumberFormatException();
+				steps.add(step);
+			}
+		} catch (Exception excep) {
+
+			// display message
+			JOptionPane.showMessageDialog(this, "Illegal step number!",
+					"False data entry", 2);
+			return;
+		}
+
+		// no steps retained
+		if (stride == 0 && steps.isEmpty()) {
+
+			// display message
+			JOptionPane.showMessageDialog(this, "No output steps given!",
+					"False data entry", 2);
+			return;
+		}
+
+		// set output plan of mother panel
+		owner_.outputStride_ = stride;
+		owner_.outputSteps_ = new int[steps.size()];
+		for (int i = 0; i < steps.size(); i++)
+			owner_.outputSteps_[i] = steps.get(i);
+		owner_.outputGroups_ = new Vector<String>();
+		for (int i = 0; i < listModel1_.size(); i++)
+			owner_.outputGroups_.add(listModel1_.get(i).toString());
+		owner_.setOutputText();
+
+		// set dialog unvisible
+		setVisible(false);
+	}
+
+	/**
+	 * Returns the group names for groups combo list.
+	 * 
+	 * @return Group names array.
+	 */
+	private String[] setGroups() {
+
+		// get length of groups input vector
+		int length = owner_.owner_.owner_.owner_.inputData_.getGroup().size();
+
+		// store them in an array
+		String[] groups = new String[length];
+		for (int i = 0; i < length; i++)
+			groups[i] = owner_.owner_.owner_.owner_.inputData_.getGroup()
+					.get(i).getName();
+
+		// return the array
+		return groups;
+	}
+}
@@ -27,9 +27,11 @@ import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.DefaultListModel;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JList;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
@@ -55,15 +57,17 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 
 	private static final long serialVersionUID = 1L;
 
-	protected JTextField textfield1_, textfield2_;
+	protected JTextField textfield1_, textfield2_, textfield3_;
 
-	private JButton button1_, button2_, button3_;
+	private JCheckBox checkbox1_;
+
+	private JButton button1_, button2_, button3_, button4_, button5_;
 
 	protected JComboBox combobox1_, combobox2_;
 
-	private JList list1_, list2_;
+	private JList list1_, list2_, list3_;
 
-	protected DefaultListModel listModel1_, listModel2_;
+	protected DefaultListModel listModel1_, listModel2_, listModel3_;
 
 	/** Mother dialog of this panel. */
 	protected AnalysisCase2 owner_;
@@ -85,6 +89,7 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 		JPanel panel1 = Commons.getPanel("Library", Commons.gridbag_);
 		JPanel panel2 = Commons.getPanel("Solver", Commons.gridbag_);
 		JPanel panel3 = Commons.getPanel("Boundary Cases", Commons.gridbag_);
+		JPanel panel5 = Commons.getPanel("Load Cases", Commons.gridbag_);
 		JPanel panel4 = new JPanel();
 		panel4.setLayout(new BoxLayout(panel4, BoxLayout.Y_AXIS));
 		setLayout(new GridBagLayout());
@@ -95,16 +100,24 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 		JLabel label3 = new JLabel("Boundaries :");
 		JLabel label4 = new JLabel("                      Case");
 		JLabel label5 = new JLabel("      Scale");
+		JLabel label6 = new JLabel("Scales :");
 
 		// build text fields and set font
 		textfield1_ = new JTextField();
 		textfield2_ = new JTextField();
+		textfield3_ = new JTextField();
 		textfield1_.setPreferredSize(new Dimension(295, 20));
+		textfield3_.setPreferredSize(new Dimension(155, 20));
+
+		// build check box
+		checkbox1_ = new JCheckBox("Multiple");
 
 		// build buttons and set font
 		button1_ = new JButton("Add");
 		button2_ = new JButton("Modify");
 		button3_ = new JButton("Delete");
+		button4_ = new JButton("Add");
+		button5_ = new JButton("Delete");
 
 		// build list for combo boxes, build combo boxes and set maximum visible
 		// row number. Then set font for items
@@ -118,20 +131,27 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 		// visible row number, fixed width, fixed height
 		listModel1_ = new DefaultListModel();
 		listModel2_ = new DefaultListModel();
+		listModel3_ = new DefaultListModel();
 		list1_ = new JList(listModel1_);
 		list2_ = new JList(listModel2_);
+		list3_ = new JList(listModel3_);
 		list1_.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 		list2_.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		list3_.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 		list1_.setVisibleRowCount(5);
 		list2_.setVisibleRowCount(5);
+		list3_.setVisibleRowCount(4);
 		list1_.setFixedCellWidth(155);
 		list2_.setFixedCellWidth(50);
+		list3_.setFixedCellWidth(155);
 		list1_.setFixedCellHeight(15);
 		list2_.setFixedCellHeight(15);
+		list3_.setFixedCellHeight(15);
 
 		// build scroll panes and add lists to them
 		JScrollPane scrollpane1 = new JScrollPane(list1_);
 		JScrollPane scrollpane2 = new JScrollPane(list2_);
+		JScrollPane scrollpane3 = new JScrollPane(list3_);
 
 		// set scrollpane constants
 		int verticalConstant = ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS;
@@ -140,6 +160,8 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 		scrollpane1.setHorizontalScrollBarPolicy(horizontalConstant);
 		scrollpane2.setVerticalScrollBarPolicy(verticalConstant);
 		scrollpane2.setHorizontalScrollBarPolicy(horizontalConstant);
+		scrollpane3.setVerticalScrollBarPolicy(verticalConstant);
+		scrollpane3.setHorizontalScrollBarPolicy(horizontalConstant);
 
 		// add components to sub-panels
 		Commons.addComponent(panel1, label1, 0, 0, 1, 1);
@@ -156,22 +178,35 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 		Commons.addComponent(panel3, button3_, 4, 0, 1, 1);
 		Commons.addComponent(panel3, scrollpane1, 2, 1, 1, 3);
 		Commons.addComponent(panel3, scrollpane2, 2, 2, 1, 3);
-		panel4.add(Box.createRigidArea(new Dimension(0, 228)));
+		Commons.addComponent(panel5, checkbox1_, 0, 0, 1, 1);
+		Commons.addComponent(panel5, label6, 1, 0, 1, 1);
+		Commons.addComponent(panel5, textfield3_, 1, 1, 1, 1);
+		Commons.addComponent(panel5, button4_, 2, 0, 1, 1);
+		Commons.addComponent(panel5, button5_, 3, 0, 1, 1);
+		Commons.addComponent(panel5, scrollpane3, 2, 1, 1, 2);
+		panel4.add(Box.createRigidArea(new Dimension(0, 96)));
 
 		// add sub-panels to main panels
 		Commons.addComponent(this, panel1, 0, 0, 1, 1);
 		Commons.addComponent(this, panel2, 1, 0, 1, 1);
 		Commons.addComponent(this, panel3, 2, 0, 1, 1);
-		Commons.addComponent(this, panel4, 3, 0, 1, 1);
+		Commons.addComponent(this, panel5, 3, 0, 1, 1);
+		Commons.addComponent(this, panel4, 4, 0, 1, 1);
 
 		// set up listeners for components
 		button1_.addActionListener(this);
 		button2_.addActionListener(this);
 		button3_.addActionListener(this);
+		button4_.addActionListener(this);
+		button5_.addActionListener(this);
+		checkbox1_.addActionListener(this);
 		textfield1_.addFocusListener(this);
 		textfield2_.addFocusListener(this);
 		list1_.addListSelectionListener(this);
 		list2_.addListSelectionListener(this);
+
+		// disable load cases
+		setLoadCasesEnabled(false);
 	}
 
 	/**
@@ -206,10 +241,108 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 			listModel2_.addElement(owner_.owner_.owner_.formatter_
 					.format(scales[i]));
 
+		// set load cases
+		double[][] loadCases = ls.getLoadCases();
+		if (loadCases != null) {
+			checkbox1_.setSelected(true);
+			setLoadCasesEnabled(true);
+			for (int i = 0; i < loadCases.length; i++) {
+				String item = "";
+				for (int j = 0; j < loadCases[i].length; j++) {
+					if (j > 0)
+						item += " ";
+					item += owner_.owner_.owner_.formatter_
+							.format(loadCases[i][j]);
+				}
+				listModel3_.addElement(item);
+			}
+		}
+
 		// set default values for others
 		setDefaultText(textfield2_);
 	}
 
+	/**
+	 * Returns scaling factors of boundary cases for each load case, or null if
+	 * multiple load cases are not selected.
+	 * 
+	 * @return Scaling factors of boundary cases for each load case.
+	 */
+	protected double[][] getLoadCases() {
+
+		// multiple load cases not selected
+		if (checkbox1_.isSelected() == false)
+			return null;
+
+		// parse load cases
+		double[][] loadCases = new double[listModel3_.size()][];
+		for (int i = 0; i < loadCases.length; i++)
+			loadCases[i] = parseScales(listModel3_.get(i).toString());
+		return loadCases;
+	}
+
+	/**
+	 * Checks the load cases and displays message if they are illegal. Each
+	 * load case must have one scaling factor for each boundary case.
+	 * 
+	 * @return True if the load cases are legal.
+	 */
+	protected boolean checkLoadCases() {
+
+		// multiple load cases not selected
+		double[][] loadCases = getLoadCases();
+		if (loadCases == null)
+			return true;
+
+		// no load case given
+		if (loadCases.length == 0) {
+			JOptionPane.showMessageDialog(this, "No load cases assigned!",
+					"False data entry", 2);
+			return false;
+		}
+
+		// check number of scaling factors
+		for (int i = 0; i < loadCases.length; i++) {
+			if (loadCases[i].length != listModel1_.size()) {
+				JOptionPane.showMessageDialog(this,
+						"Load cases do not match boundaries!",
+						"False data entry", 2);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns scaling factors given in the text, separated by spaces.
+	 * 
+	 * @param text
+	 *            The text to be parsed.
+	 * @return The scaling factors.
+	 * @throws NumberFormatException
+	 *             If the text contains illegal values.
+	 */
+	private double[] parseScales(String text) {
+		String[] items = text.trim().split("\\s+");
+		double[] scales = new double[items.length];
+		for (int i = 0; i < items.length; i++)
+			scales[i] = Double.parseDouble(items[i]);
+		return scales;
+	}
+
+	/**
+	 * Enables or disables load case components.
+	 * 
+	 * @param enabled
+	 *            True to enable.
+	 */
+	private void setLoadCasesEnabled(boolean enabled) {
+		textfield3_.setEnabled(enabled);
+		button4_.setEnabled(enabled);
+		button5_.setEnabled(enabled);
+		list3_.setEnabled(enabled);
+	}
+
 	/**
 	 * Calls actionOk or sets dialog unvisible depending on button clicked.
 	 */
@@ -235,6 +368,58 @@ public class AnalysisCasePanel1 extends JPanel implements ActionListener,
 			// call actionDelete
 			actionDelete();
 		}
+
+		// button4_ clicked
+		else if (e.getSource().equals(button4_)) {
+
+			// call actionAddLoadCase
+			actionAddLoadCase();
+		}
+
+		// button5_ clicked
+		else if (e.getSource().equals(button5_)) {
+
+			// delete selected load case
+			if (list3_.isSelectionEmpty() == false)
+				listModel3_.removeElementAt(list3_.getSelectedIndex());
+		}
+
+		// checkbox1_ clicked
+		else if (e.getSource().equals(checkbox1_)) {
+
+			// enable/disable load cases
+			setLoadCasesEnabled(checkbox1_.isSelected());
+		}
+	}
+
+	/**
+	 * Adds scaling factors of textfield3 as a new load case to list3.
+	 */
+	private void actionAddLoadCase() {
+
+		// parse scaling factors
+		double[] scales = null;
+		try {
+			scales = parseScales(textfield3_.getText());
+		} catch (NumberFormatException excep) {
+		}
+
+		// check number of scaling factors
+		if (scales == null || scales.length != listModel1_.size()) {
+			JOptionPane.showMessageDialog(this,
+					"Give one scale for each boundary, separated by spaces!",
+					"False data entry", 2);
+			return;
+		}
+
+		// add load case
+		String item = "";
+		for (int i = 0; i < scales.length; i++) {
+			if (i > 0)
+				item += " ";
+			item += owner_.owner_.owner_.formatter_.format(scales[i]);
+		}
+		listModel3_.addElement(item);
 	}
 
 	/**
@@ -27,9 +27,11 @@ import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.DefaultListModel;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JList;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
@@ -54,7 +56,9 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 
 	private static final long serialVersionUID = 1L;
 
-	protected JTextField textfield1_;
+	protected JTextField textfield1_, textfield2_, textfield3_;
+
+	private JCheckBox checkbox1_;
 
 	private JButton button1_, button2_, button3_;
 
@@ -84,6 +88,8 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 		JPanel panel1 = Commons.getPanel("Library", Commons.gridbag_);
 		JPanel panel2 = Commons.getPanel("Solver", Commons.gridbag_);
 		JPanel panel3 = Commons.getPanel("Boundary Cases", Commons.gridbag_);
+		JPanel panel5 = Commons.getPanel("Frequency Range (Hz)",
+				Commons.gridbag_);
 		JPanel panel4 = new JPanel();
 		panel4.setLayout(new BoxLayout(panel4, BoxLayout.Y_AXIS));
 		setLayout(new GridBagLayout());
@@ -92,10 +98,19 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 		JLabel label1 = new JLabel("Name :");
 		JLabel label2 = new JLabel("Solver :");
 		JLabel label3 = new JLabel("Boundaries :");
+		JLabel label4 = new JLabel("Lower :");
+		JLabel label5 = new JLabel("Upper :");
 
 		// build text fields and set font
 		textfield1_ = new JTextField();
+		textfield2_ = new JTextField();
+		textfield3_ = new JTextField();
 		textfield1_.setPreferredSize(new Dimension(295, 20));
+		textfield2_.setPreferredSize(new Dimension(100, 20));
+		textfield3_.setPreferredSize(new Dimension(100, 20));
+
+		// build check box
+		checkbox1_ = new JCheckBox("Window");
 
 		// build buttons and set font
 		button1_ = new JButton("Add");
@@ -138,19 +153,34 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 		Commons.addComponent(panel3, button2_, 2, 0, 1, 1);
 		Commons.addComponent(panel3, button3_, 3, 0, 1, 1);
 		Commons.addComponent(panel3, scrollpane1, 1, 1, 1, 3);
-		panel4.add(Box.createRigidArea(new Dimension(0, 252)));
+		Commons.addComponent(panel5, checkbox1_, 0, 0, 1, 2);
+		Commons.addComponent(panel5, label4, 1, 0, 1, 1);
+		Commons.addComponent(panel5, label5, 1, 1, 1, 1);
+		Commons.addComponent(panel5, textfield2_, 2, 0, 1, 1);
+		Commons.addComponent(panel5, textfield3_, 2, 1, 1, 1);
+		panel4.add(Box.createRigidArea(new Dimension(0, 162)));
 
 		// add sub-panels to main panels
 		Commons.addComponent(this, panel1, 0, 0, 1, 1);
 		Commons.addComponent(this, panel2, 1, 0, 1, 1);
 		Commons.addComponent(this, panel3, 2, 0, 1, 1);
-		Commons.addComponent(this, panel4, 3, 0, 1, 1);
+		Commons.addComponent(this, panel5, 3, 0, 1, 1);
+		Commons.addComponent(this, panel4, 4, 0, 1, 1);
 
 		// set up listeners for components
 		button1_.addActionListener(this);
 		button2_.addActionListener(this);
 		button3_.addActionListener(this);
+		checkbox1_.addActionListener(this);
 		textfield1_.addFocusListener(this);
+		textfield2_.addFocusListener(this);
+		textfield3_.addFocusListener(this);
+
+		// set default frequency range
+		setDefaultText(textfield2_);
+		setDefaultText(textfield3_);
+		textfield2_.setEnabled(false);
+		textfield3_.setEnabled(false);
 	}
 
 	/**
@@ -180,6 +210,55 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 		// set boundaries
 		for (int i = 0; i < boundaries.size(); i++)
 			listModel1_.addElement(boundaries.get(i).getName());
+
+		// set frequency range
+		double[] range = m.getFrequencyRange();
+		if (range != null) {
+			checkbox1_.setSelected(true);
+			textfield2_.setEnabled(true);
+			textfield3_.setEnabled(true);
+			textfield2_.setText(owner_.owner_.owner_.formatter_
+					.format(range[0]));
+			textfield3_.setText(owner_.owner_.owner_.formatter_
+					.format(range[1]));
+		}
+	}
+
+	/**
+	 * Returns the frequency range, or null if frequency window is not
+	 * selected.
+	 * 
+	 * @return The frequency range.
+	 */
+	protected double[] getFrequencyRange() {
+
+		// window not selected
+		if (checkbox1_.isSelected() == false)
+			return null;
+
+		// return range
+		double lower = Double.parseDouble(textfield2_.getText());
+		double upper = Double.parseDouble(textfield3_.getText());
+		return new double[] { lower, upper };
+	}
+
+	/**
+	 * Checks the frequency range and displays message if it is illegal.
+	 * 
+	 * @return True if the frequency range is legal.
+	 */
+	protected boolean checkFrequencyRange() {
+
+		// check range
+		double[] range = getFrequencyRange();
+		if (range != null && range[0] >= range[1]) {
+
+			// display message
+			JOptionPane.showMessageDialog(this, "Illegal frequency range!",
+					"False data entry", 2);
+			return false;
+		}
+		return true;
 	}
 
 	/**
@@ -207,6 +286,14 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 			// call actionDelete
 			actionDelete();
 		}
+
+		// checkbox1_ clicked
+		else if (e.getSource().equals(checkbox1_)) {
+
+			// enable/disable frequency range
+			textfield2_.setEnabled(checkbox1_.isSelected());
+			textfield3_.setEnabled(checkbox1_.isSelected());
+		}
 	}
 
 	/**
@@ -275,6 +362,10 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 				// get source and dependently set message type
 				JTextField textfield = (JTextField) e.getSource();
 				int messageType = 0;
+				if (textfield.equals(textfield2_))
+					messageType = 5;
+				else if (textfield.equals(textfield3_))
+					messageType = 4;
 
 				// check textfield
 				if (owner_.checkText(textfield, messageType) == false)
@@ -295,14 +386,26 @@ public class AnalysisCasePanel2 extends JPanel implements ActionListener,
 
 		// The default values for textfields
 		String defaultName = "ACase1";
+		String defaultValue1 = "0";
+		String defaultValue2 = "100";
 
 		// set to textfield1
 		if (textfield.equals(textfield1_))
 			textfield1_.setText(defaultName);
 
+		// set to textfield2
+		else if (textfield.equals(textfield2_))
+			textfield2_.setText(defaultValue1);
+
+		// set to textfield3
+		else if (textfield.equals(textfield3_))
+			textfield3_.setText(defaultValue2);
+
 		// set to all
 		else {
 			textfield1_.setText(defaultName);
+			textfield2_.setText(defaultValue1);
+			textfield3_.setText(defaultValue2);
 		}
 	}
 
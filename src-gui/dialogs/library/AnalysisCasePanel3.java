@@ -42,6 +42,7 @@ import solver.Solver;
 
 import analysis.Analysis;
 import analysis.LinearTransient;
+import analysis.OutputPlan;
 import boundary.BoundaryCase;
 
 /**
@@ -56,9 +57,10 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 	private static final long serialVersionUID = 1L;
 
 	protected JTextField textfield1_, textfield2_, textfield3_, textfield4_,
-			textfield5_, textfield6_;
+			textfield5_, textfield6_, textfield7_;
 
-	private JButton button1_, button2_, button3_, button4_, button5_;
+	private JButton button1_, button2_, button3_, button4_, button5_,
+			button6_;
 
 	protected JComboBox combobox1_, combobox2_, combobox4_;
 
@@ -75,6 +77,15 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 	/** Integration method of analysis. */
 	protected int method_ = LinearTransient.newmark_;
 
+	/** Output step stride of analysis. */
+	protected int outputStride_ = 1;
+
+	/** Additional output steps of analysis. */
+	protected int[] outputSteps_ = new int[0];
+
+	/** Names of output groups of analysis. */
+	protected Vector<String> outputGroups_ = new Vector<String>();
+
 	/** Mother dialog of this panel. */
 	protected AnalysisCase2 owner_;
 
@@ -111,6 +122,7 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		JLabel label7 = new JLabel("                      Case");
 		JLabel label8 = new JLabel("      Scale");
 		JLabel label10 = new JLabel("Solver :");
+		JLabel label11 = new JLabel("Output :");
 
 		// build text fields and set font
 		textfield1_ = new JTextField();
@@ -119,8 +131,10 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		textfield4_ = new JTextField();
 		textfield5_ = new JTextField();
 		textfield6_ = new JTextField();
+		textfield7_ = new JTextField();
 		textfield4_.setEditable(false);
 		textfield5_.setEditable(false);
+		textfield7_.setEditable(false);
 		textfield1_.setPreferredSize(new Dimension(295, 20));
 		textfield2_.setPreferredSize(new Dimension(220, 20));
 		textfield4_.setPreferredSize(new Dimension(150, 20));
@@ -131,6 +145,7 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		button3_ = new JButton("Add");
 		button4_ = new JButton("Modify");
 		button5_ = new JButton("Delete");
+		button6_ = new JButton("Modify");
 
 		// build list for combo boxes, build combo boxes and set maximum visible
 		// row number. Then set font for items
@@ -185,6 +200,9 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		Commons.addComponent(panel3, textfield5_, 2, 1, 1, 1);
 		Commons.addComponent(panel3, button1_, 1, 2, 1, 1);
 		Commons.addComponent(panel3, button2_, 2, 2, 1, 1);
+		Commons.addComponent(panel3, label11, 3, 0, 1, 1);
+		Commons.addComponent(panel3, textfield7_, 3, 1, 1, 1);
+		Commons.addComponent(panel3, button6_, 3, 2, 1, 1);
 		Commons.addComponent(panel4, label6, 1, 0, 1, 1);
 		Commons.addComponent(panel4, label7, 0, 1, 1, 1);
 		Commons.addComponent(panel4, label8, 0, 2, 1, 1);
@@ -211,6 +229,7 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		button3_.addActionListener(this);
 		button4_.addActionListener(this);
 		button5_.addActionListener(this);
+		button6_.addActionListener(this);
 		textfield1_.addFocusListener(this);
 		textfield2_.addFocusListener(this);
 		textfield3_.addFocusListener(this);
@@ -247,10 +266,20 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 			integrationPar_ = ld.getNewmarkParameters();
 		else if (method_ == LinearTransient.wilson_)
 			integrationPar_[0] = ld.getWilsonParameter();
+		else if (method_ == LinearTransient.modal_)
+			integrationPar_[0] = ld.getNumberOfModes();
 
 		// get solver
 		String solver = ld.getSolver().getName();
 
+		// get output plan
+		OutputPlan plan = ld.getOutputPlan();
+		outputStride_ = plan.getStride();
+		outputSteps_ = plan.getSteps().clone();
+		outputGroups_ = new Vector<String>();
+		for (int i = 0; i < plan.getGroups().size(); i++)
+			outputGroups_.add(plan.getGroups().get(i).getName());
+
 		// get boundaries, scales
 		Vector<BoundaryCase> boundaries = ld.getBoundaries();
 		double[] scales = ld.getBoundaryScales();
@@ -271,6 +300,13 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 			textfield5_.setText("Newmark");
 		else if (method_ == LinearTransient.wilson_)
 			textfield5_.setText("Wilson");
+		else if (method_ == LinearTransient.modal_)
+			textfield5_.setText("Modal");
+		else if (method_ == LinearTransient.centralDifference_)
+			textfield5_.setText("Central");
+
+		// set output plan
+		setOutputText();
 
 		// set solver
 		combobox2_.setSelectedItem(solver);
@@ -309,6 +345,14 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 			dialog.setVisible(true);
 		}
 
+		// button6_ clicked
+		else if (e.getSource().equals(button6_)) {
+
+			// build child dialog and set visible
+			AnalysisCase5 dialog = new AnalysisCase5(this);
+			dialog.setVisible(true);
+		}
+
 		// button3_ clicked
 		else if (e.getSource().equals(button3_)) {
 
@@ -451,6 +495,20 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		}
 	}
 
+	/**
+	 * Sets the summary of output plan to output textfield.
+	 */
+	protected void setOutputText() {
+
+		// all steps and unknowns are retained
+		if (outputStride_ == 1 && outputGroups_.isEmpty())
+			textfield7_.setText("All");
+
+		// subset of steps or unknowns retained
+		else
+			textfield7_.setText("Selected");
+	}
+
 	/**
 	 * Sets default values for textfields.
 	 * 
@@ -467,6 +525,7 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		String defaultValue3 = owner_.owner_.owner_.formatter_.format(1.0);
 		String defaultValue4 = "Proportional";
 		String defaultValue5 = "Newmark";
+		String defaultValue6 = "All";
 
 		// set to textfield1
 		if (textfield.equals(textfield1_))
@@ -492,6 +551,10 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 		else if (textfield.equals(textfield6_))
 			textfield6_.setText(defaultValue3);
 
+		// set to textfield7
+		else if (textfield.equals(textfield7_))
+			textfield7_.setText(defaultValue6);
+
 		// set to all
 		else {
 			textfield1_.setText(defaultName);
@@ -500,6 +563,7 @@ public class AnalysisCasePanel3 extends JPanel implements ActionListener,
 			textfield4_.setText(defaultValue4);
 			textfield5_.setText(defaultValue5);
 			textfield6_.setText(defaultValue3);
+			textfield7_.setText(defaultValue6);
 		}
 	}
 
@@ -57,7 +57,7 @@ public class SolverLib2 extends JDialog implements ActionListener,
 	private static final long serialVersionUID = 1L;
 
 	private JTextField textfield1_, textfield2_, textfield3_, textfield4_,
-			textfield5_, textfield6_, textfield7_;
+			textfield5_, textfield6_, textfield7_, textfield8_;
 
 	private JComboBox combobox1_, combobox2_, combobox3_;
 
@@ -118,6 +118,7 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		JLabel label9 = new JLabel("Number of eigenvalues :");
 		JLabel label10 = new JLabel("Convergence tolerance :");
 		JLabel label11 = new JLabel("Maximum iterations :");
+		JLabel label12 = new JLabel("Threads (0 = all) :");
 
 		// build text fields and set font
 		textfield1_ = new JTextField();
@@ -127,6 +128,7 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		textfield5_ = new JTextField();
 		textfield6_ = new JTextField();
 		textfield7_ = new JTextField();
+		textfield8_ = new JTextField();
 		textfield2_.setEditable(false);
 		textfield4_.setEditable(false);
 		textfield1_.setPreferredSize(new Dimension(219, 20));
@@ -144,14 +146,15 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				"BiConjugate gradients stabilized", "Quasi-minimal residual",
 				"Generalized minimal residual", "Iterative refinement" };
 		String types2[] = { "Incomplete Cholesky", "Incomplete LU",
-				"Diagonal preconditioning" };
-		String types3[] = { "Subspace iteration", "Direct" };
+				"Diagonal preconditioning", "Algebraic multigrid (SA)" };
+		String types3[] = { "Subspace iteration", "Direct",
+				"Block Lanczos (shift-invert)" };
 		combobox1_ = new JComboBox(types1);
 		combobox2_ = new JComboBox(types2);
 		combobox3_ = new JComboBox(types3);
 		combobox1_.setMaximumRowCount(5);
-		combobox2_.setMaximumRowCount(3);
-		combobox3_.setMaximumRowCount(2);
+		combobox2_.setMaximumRowCount(4);
+		combobox3_.setMaximumRowCount(3);
 		combobox1_.setPreferredSize(new Dimension(177, 23));
 		combobox3_.setPreferredSize(new Dimension(208, 23));
 
@@ -171,11 +174,13 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		Commons.addComponent(panel5, label3, 1, 0, 1, 1);
 		Commons.addComponent(panel5, label4, 2, 0, 1, 1);
 		Commons.addComponent(panel5, label5, 3, 0, 1, 1);
+		Commons.addComponent(panel5, label12, 4, 0, 1, 1);
 		Commons.addComponent(panel5, radiobutton1_, 0, 1, 1, 1);
 		Commons.addComponent(panel5, radiobutton2_, 0, 2, 1, 1);
 		Commons.addComponent(panel5, combobox1_, 1, 1, 2, 1);
 		Commons.addComponent(panel5, combobox2_, 2, 1, 2, 1);
 		Commons.addComponent(panel5, textfield2_, 3, 1, 2, 1);
+		Commons.addComponent(panel5, textfield8_, 4, 1, 2, 1);
 		Commons.addComponent(panel6, label6, 0, 0, 1, 1);
 		Commons.addComponent(panel6, textfield3_, 0, 1, 1, 1);
 		Commons.addComponent(panel7, label7, 0, 0, 1, 1);
@@ -188,7 +193,7 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		Commons.addComponent(panel8, textfield5_, 0, 1, 1, 1);
 		Commons.addComponent(panel8, textfield6_, 1, 1, 1, 1);
 		Commons.addComponent(panel8, textfield7_, 2, 1, 1, 1);
-		panel9.add(Box.createRigidArea(new Dimension(0, 56)));
+		panel9.add(Box.createRigidArea(new Dimension(0, 30)));
 
 		// add sub-panels to main panels
 		Commons.addComponent(panel1, panel4, 0, 0, 1, 1);
@@ -225,6 +230,7 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		textfield5_.addFocusListener(this);
 		textfield6_.addFocusListener(this);
 		textfield7_.addFocusListener(this);
+		textfield8_.addFocusListener(this);
 
 		// If add is clicked set default, if not initialize
 		if (add_)
@@ -251,6 +257,9 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		// get type
 		int type = selected.getType();
 
+		// set default number of threads
+		setDefaultText(textfield8_);
+
 		// Solver0
 		if (type == Solver.solver0_) {
 
@@ -273,6 +282,9 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			// set preconditioner
 			combobox2_.setSelectedIndex(solver.getPreconditionerType());
 
+			// set number of threads
+			textfield8_.setText(Integer.toString(solver.getThreads()));
+
 			// set storage
 			setStorage(selected);
 
@@ -344,6 +356,66 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			setDefaultText(textfield7_);
 		}
 
+		// Solver5
+		else if (type == Solver.solver5_) {
+
+			// get solver
+			Solver5 solver = (Solver5) selected;
+
+			// set tab
+			tabbedpane1_.setSelectedIndex(solver.getProblemType());
+
+			// set name
+			textfield1_.setText(solver.getName());
+
+			// set solver type
+			radiobutton2_.setSelected(true);
+			setCombos();
+
+			// set solver
+			combobox1_.setSelectedIndex(solver.getSolverType());
+
+			// set storage
+			setStorage(selected);
+
+			// set default for other textfields
+			setDefaultText(textfield3_);
+			setDefaultText(textfield4_);
+			setDefaultText(textfield5_);
+			setDefaultText(textfield6_);
+			setDefaultText(textfield7_);
+		}
+
+		// Solver7
+		else if (type == Solver.solver7_) {
+
+			// get solver
+			Solver7 solver = (Solver7) selected;
+
+			// set tab
+			tabbedpane1_.setSelectedIndex(solver.getProblemType());
+
+			// set name
+			textfield1_.setText(solver.getName());
+
+			// set solver type
+			radiobutton2_.setSelected(true);
+			setCombos();
+
+			// set solver
+			combobox1_.setSelectedIndex(solver.getSolverType());
+
+			// set storage
+			setStorage(selected);
+
+			// set default for other textfields
+			setDefaultText(textfield3_);
+			setDefaultText(textfield4_);
+			setDefaultText(textfield5_);
+			setDefaultText(textfield6_);
+			setDefaultText(textfield7_);
+		}
+
 		// Solver4
 		else if (type == Solver.solver3_) {
 
@@ -413,6 +485,41 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			setDefaultText(textfield2_);
 			setDefaultText(textfield7_);
 		}
+
+		// Solver6
+		else if (type == Solver.solver6_) {
+
+			// get solver
+			Solver6 solver = (Solver6) selected;
+
+			// set tab
+			tabbedpane1_.setSelectedIndex(solver.getProblemType());
+
+			// set name
+			textfield3_.setText(solver.getName());
+
+			// set # of eigenvalues
+			textfield5_.setText(Integer.toString(solver
+					.getNumberOfRequiredEigenvalues()));
+
+			// set convergence tolerance
+			textfield6_.setText(owner_.owner_.formatter_.format(solver
+					.getConvergenceTolerance()));
+
+			// disable maximum iterations
+			textfield7_.setEnabled(false);
+
+			// set solver
+			combobox3_.setSelectedIndex(solver.getSolverType());
+
+			// set storage
+			setStorage(selected);
+
+			// set default for other textfields
+			setDefaultText(textfield1_);
+			setDefaultText(textfield2_);
+			setDefaultText(textfield7_);
+		}
 	}
 
 	/**
@@ -429,6 +536,7 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		String defaultValue3 = Integer.toString(16);
 		String defaultValue4 = "Compressed row storage";
 		String defaultValue5 = "Upper symmetrical banded 1D storage";
+		String defaultValue6 = Integer.toString(0);
 
 		// set to textfield1
 		if (textfield.equals(textfield1_))
@@ -458,6 +566,10 @@ public class SolverLib2 extends JDialog implements ActionListener,
 		else if (textfield.equals(textfield7_))
 			textfield7_.setText(defaultValue3);
 
+		// set to textfield8
+		else if (textfield.equals(textfield8_))
+			textfield8_.setText(defaultValue6);
+
 		// set to all
 		else {
 			textfield1_.setText(defaultName);
@@ -467,6 +579,7 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			textfield5_.setText(defaultValue1);
 			textfield6_.setText(defaultValue2);
 			textfield7_.setText(defaultValue3);
+			textfield8_.setText(defaultValue6);
 		}
 	}
 
@@ -776,6 +889,20 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			// direct
 			else if (index == GESolver.Direct_)
 				textfield7_.setEnabled(false);
+
+			// Lanczos
+			else if (index == GESolver.Lanczos_)
+				textfield7_.setEnabled(false);
+
+			// check # of eigenvalues for limited solvers
+			if (index != GESolver.Lanczos_) {
+				try {
+					if (Integer.parseInt(textfield5_.getText()) > 20)
+						setDefaultText(textfield5_);
+				} catch (Exception excep) {
+					setDefaultText(textfield5_);
+				}
+			}
 		}
 	}
 
@@ -809,6 +936,10 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			text.setText("Upper symm. banded 1D storage");
 		else if (storage == Solver.USB2S_)
 			text.setText("Upper symm. banded 2D storage");
+		else if (storage == Solver.BCRS_)
+			text.setText("Block compressed row storage");
+		else if (storage == Solver.USB3S_)
+			text.setText("Upper symm. banded file storage");
 	}
 
 	/**
@@ -836,8 +967,12 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				// get preconditioner
 				int precond = combobox2_.getSelectedIndex();
 
+				// create object and set number of threads
+				Solver0 solver0 = new Solver0(name, solver, precond);
+				solver0.setThreads(Integer.parseInt(textfield8_.getText()));
+
 				// return object
-				return new Solver0(name, solver, precond);
+				return solver0;
 			}
 
 			// direct solver
@@ -853,6 +988,14 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				// GaussSymm
 				else if (solver == LESolver.GaussSymm_)
 					return new Solver2(name);
+
+				// Supernodal
+				else if (solver == LESolver.Supernodal_)
+					return new Solver5(name);
+
+				// out-of-core
+				else if (solver == LESolver.OutOfCore_)
+					return new Solver7(name);
 			}
 		}
 
@@ -887,6 +1030,13 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				// return object
 				return new Solver4(name, nRoot, rTol);
 			}
+
+			// Lanczos
+			else if (solver == GESolver.Lanczos_) {
+
+				// return object
+				return new Solver6(name, nRoot, rTol);
+			}
 		}
 		return null;
 	}
@@ -912,16 +1062,19 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			for (int i = 0; i < types.length; i++)
 				combobox1_.addItem(types[i]);
 			combobox2_.setEnabled(true);
+			textfield8_.setEnabled(true);
 		}
 
 		// direct
 		else if (radiobutton2_.isSelected()) {
 			combobox1_.removeAllItems();
 			String types[] = { "Active column solver",
-					"Gauss elimination, symmetric" };
+					"Gauss elimination, symmetric",
+					"Sparse Cholesky, supernodal", "Skyline, out-of-core" };
 			for (int i = 0; i < types.length; i++)
 				combobox1_.addItem(types[i]);
 			combobox2_.setEnabled(false);
+			textfield8_.setEnabled(false);
 		}
 
 		// add listeners
@@ -943,11 +1096,14 @@ public class SolverLib2 extends JDialog implements ActionListener,
 				JTextField tfield = (JTextField) e.getSource();
 				int messageType = 0;
 				if (tfield.equals(textfield5_))
-					messageType = 2;
+					messageType = combobox3_.getSelectedIndex() == GESolver.Lanczos_ ? 4
+							: 2;
 				else if (tfield.equals(textfield6_))
 					messageType = 3;
 				else if (tfield.equals(textfield7_))
 					messageType = 4;
+				else if (tfield.equals(textfield8_))
+					messageType = 5;
 
 				// check textfield
 				if (checkText(tfield, messageType) == false) {
@@ -967,7 +1123,8 @@ public class SolverLib2 extends JDialog implements ActionListener,
 	 *            The type of message to be displayed (No name given -> 0, Name
 	 *            exists -> 1, Illegal value (non-integer, <=0 || >20) -> 2,
 	 *            Illegal value (non-double, <=0) -> 3, Illegal value
-	 *            (non-integer, <=0) -> 4).
+	 *            (non-integer, <=0) -> 4, Illegal value (non-integer, <0) ->
+	 *            5).
 	 * @return True if the data entered is correct, False if not.
 	 */
 	private boolean checkText(JTextField textfield, int messageType) {
@@ -1082,6 +1239,32 @@ public class SolverLib2 extends JDialog implements ActionListener,
 			}
 		}
 
+		// Illegal value (non-integer, <0)
+		else if (messageType == 5) {
+
+			// check for non-numeric values
+			try {
+
+				// convert text to integer value
+				int value = Integer.parseInt(text);
+
+				// check constraints
+				if (value < 0) {
+
+					// display message
+					JOptionPane.showMessageDialog(this, "Illegal value!",
+							"False data entry", 2);
+					isCorrect = false;
+				}
+			} catch (Exception excep) {
+
+				// display message
+				JOptionPane.showMessageDialog(this, "Illegal value!",
+						"False data entry", 2);
+				isCorrect = false;
+			}
+		}
+
 		// the data is correct
 		return isCorrect;
 	}
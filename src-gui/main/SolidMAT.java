@@ -33,6 +33,8 @@ import dialogs.file.FileHandler1;
 
 import analysis.Structure;
 
+import element.ElementMatrixCache;
+
 import visualize.ContourScalor;
 import visualize.PostVisualizer;
 import visualize.PreVisualizer;
@@ -79,13 +81,15 @@ public class SolidMAT implements WindowListener, MouseListener {
 	public String path_ = null;
 
 	/**
-	 * Sets structure to the main frame.
+	 * Sets structure to the main frame. Cached element matrices of the former
+	 * structure are removed.
 	 * 
 	 * @param s
 	 *            The structure to be set.
 	 */
 	public void setStructure(Structure s) {
 		structure_ = s;
+		ElementMatrixCache.clear();
 	}
 
 	/**
@@ -60,16 +60,25 @@ public class AnalysisInfo extends Writer {
 			if (type == Analysis.linearStatic_) {
 				writeTable1(info);
 				writeTable2(info);
+				writeTable10(info, 5);
+				writeTable12(info, 7);
 			} else if (type == Analysis.modal_) {
 				writeTable3(info);
 				writeTable4(info);
+				writeTable10(info, 8);
+				writeTable12(info, 9);
 			} else if (type == Analysis.linearTransient_) {
 				writeTable5(info);
 				writeTable6(info);
 				writeTable7(info);
+				writeTable10(info, 11);
+				writeTable11(info, 13);
+				writeTable12(info, 14);
 			} else if (type == Analysis.linearBuckling_) {
 				writeTable8(info);
 				writeTable9(info);
+				writeTable10(info, 6);
+				writeTable12(info, 7);
 			}
 
 			// close writer
@@ -566,4 +575,183 @@ public class AnalysisInfo extends Writer {
 			exceptionHandler("Exception occured during writing output file!");
 		}
 	}
+
+	/**
+	 * Writes table for equation numbering (half-bandwidths and profiles before
+	 * and after dof renumbering).
+	 * 
+	 * @param info
+	 *            Analysis info.
+	 * @param index
+	 *            Index of band info in analysis info.
+	 */
+	private void writeTable10(Vector<Object> info, int index) {
+
+		try {
+
+			// no band info available (older analysis results)
+			if (info.size() <= index)
+				return;
+
+			// pass to new line
+			bwriter_.newLine();
+
+			// write header
+			bwriter_.write(header("Equation Numbering"));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// write headers
+			String[] table = { "Numbering", "Half-BW", "Profile" };
+			bwriter_.write(table(table));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// get info
+			long[] band = (long[]) info.get(index);
+
+			// before renumbering
+			table[0] = "Initial";
+			table[1] = Long.toString(band[0]);
+			table[2] = Long.toString(band[2]);
+			bwriter_.write(table(table));
+			bwriter_.newLine();
+
+			// after renumbering
+			table[0] = "Final";
+			table[1] = Long.toString(band[1]);
+			table[2] = Long.toString(band[3]);
+			bwriter_.write(table(table));
+			bwriter_.newLine();
+		}
+
+		// exception occured
+		catch (Exception excep) {
+			exceptionHandler("Exception occured during writing output file!");
+		}
+	}
+
+	/**
+	 * Writes table for number of iterations of time steps (iterative solvers
+	 * of transient analysis).
+	 * 
+	 * @param info
+	 *            Analysis info.
+	 * @param index
+	 *            Index of iteration numbers in analysis info.
+	 */
+	private void writeTable11(Vector<Object> info, int index) {
+
+		try {
+
+			// no iteration numbers available (direct solver or older results)
+			if (info.size() <= index || info.get(index) == null)
+				return;
+
+			// pass to new line
+			bwriter_.newLine();
+
+			// write header
+			bwriter_.write(header("Solver Iterations"));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// write headers
+			String[] table = { "Step", "Iterations" };
+			bwriter_.write(table(table));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// get info
+			int[] iterations = (int[]) info.get(index);
+
+			// loop over steps
+			for (int i = 0; i < iterations.length; i++) {
+
+				// get properties
+				table[0] = Integer.toString(i);
+				table[1] = Integer.toString(iterations[i]);
+
+				// write
+				bwriter_.write(table(table));
+				bwriter_.newLine();
+			}
+		}
+
+		// exception occured
+		catch (Exception excep) {
+			exceptionHandler("Exception occured during writing output file!");
+		}
+	}
+
+	/**
+	 * Writes table for assembly throughputs (elements per second) of the
+	 * assembly phases. Phases which are not performed by the analysis are
+	 * skipped.
+	 * 
+	 * @param info
+	 *            Analysis info.
+	 * @param index
+	 *            Index of assembly throughputs in analysis info.
+	 */
+	private void writeTable12(Vector<Object> info, int index) {
+
+		try {
+
+			// no assembly info available (older analysis results)
+			if (info.size() <= index || info.get(index) == null)
+				return;
+
+			// pass to new line
+			bwriter_.newLine();
+
+			// write header
+			bwriter_.write(header("Assembly"));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// write headers
+			String[] table = { "Phase", "Elements/s" };
+			bwriter_.write(table(table));
+
+			// pass two lines
+			bwriter_.newLine();
+			bwriter_.newLine();
+
+			// get info
+			double[] throughput = (double[]) info.get(index);
+			String[] phases = { "Stiffness", "Mass", "Stability" };
+
+			// loop over phases
+			for (int i = 0; i < throughput.length; i++) {
+
+				// phase not performed
+				if (throughput[i] <= 0.0)
+					continue;
+
+				// get properties
+				table[0] = phases[i];
+				table[1] = formatter(throughput[i]);
+
+				// write
+				bwriter_.write(table(table));
+				bwriter_.newLine();
+			}
+		}
+
+		// exception occured
+		catch (Exception excep) {
+			exceptionHandler("Exception occured during writing output file!");
+		}
+	}
 }